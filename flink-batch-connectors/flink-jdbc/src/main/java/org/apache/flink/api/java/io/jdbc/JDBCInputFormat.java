@@ -19,14 +19,16 @@
 package org.apache.flink.api.java.io.jdbc;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.Arrays;
 
-import org.apache.flink.api.common.io.NonParallelInput;
+import org.apache.flink.api.java.io.jdbc.split.ParameterValuesProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,12 +45,33 @@ import org.apache.flink.types.NullValue;
 /**
  * InputFormat to read data from a database and generate tuples.
  * The InputFormat has to be configured using the supplied InputFormatBuilder.
- * 
+ *
+ * <p>
+ * By default the query is read in a single input split. To read in parallel, the query can be
+ * parameterized with '?' placeholders, and a {@link ParameterValuesProvider} supplies one set of
+ * parameter values per input split. For example, the
+ * {@link org.apache.flink.api.java.io.jdbc.split.NumericBetweenParametersProvider} splits the
+ * range of a numeric column:
+ *
+ * <pre>{@code
+ *     JDBCInputFormat.buildJDBCInputFormat()
+ *         .setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+ *         .setDBUrl("jdbc:derby:memory:ebookshop")
+ *         .setQuery("SELECT * FROM books WHERE id BETWEEN ? AND ?")
+ *         .setParametersProvider(new NumericBetweenParametersProvider(1000, minId, maxId))
+ *         .setFetchSize(1000)
+ *         .finish();
+ * }</pre>
+ *
+ * Every parallel instance opens one connection and prepares the query once, then executes it for
+ * every input split it reads. The rows are read with a forward-only cursor, so drivers that support
+ * it can stream the result set in chunks of the configured fetch size instead of materializing it.
+ *
  * @param <OUT>
  * @see Tuple
  * @see DriverManager
  */
-public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, InputSplit> implements NonParallelInput {
+public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, InputSplit> {
 	private static final long serialVersionUID = 1L;
 
 	private static final Logger LOG = LoggerFactory.getLogger(JDBCInputFormat.class);
@@ -60,11 +83,22 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	private String query;
 	private int resultSetType;
 	private int resultSetConcurrency;
+	private int fetchSize;
+	private Serializable[][] parameterValues;
 
 	private transient Connection dbConn;
-	private transient Statement statement;
+	private transient PreparedStatement statement;
 	private transient ResultSet resultSet;
 
+	/** Whether the result set has a row that has not been returned yet. */
+	private transient boolean hasNext;
+
+	/**
+	 * Whether the connection was opened by {@link #open(InputSplit)}, because
+	 * {@link #openInputFormat()} was not called. Then it is closed by {@link #close()}.
+	 */
+	private transient boolean connectedPerSplit;
+
 	private int[] columnTypes = null;
 
 	public JDBCInputFormat() {
@@ -75,25 +109,85 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	}
 
 	/**
-	 * Connects to the source database and executes the query.
+	 * Connects to the source database and prepares the query. This is done once per parallel
+	 * instance, the prepared query is executed for every input split in {@link #open(InputSplit)}.
+	 */
+	@Override
+	public void openInputFormat() {
+		try {
+			prepareStatement();
+		} catch (SQLException se) {
+			closeInputFormat();
+			throw new IllegalArgumentException("openInputFormat() failed." + se.getMessage(), se);
+		} catch (ClassNotFoundException cnfe) {
+			throw new IllegalArgumentException("JDBC-Class not found. - " + cnfe.getMessage(), cnfe);
+		}
+	}
+
+	/**
+	 * Closes the statement and the connection to the database.
+	 */
+	@Override
+	public void closeInputFormat() {
+		try {
+			statement.close();
+		} catch (SQLException se) {
+			LOG.info("Inputformat Statement couldn't be closed - " + se.getMessage());
+		} catch (NullPointerException npe) {
+		}
+		statement = null;
+		try {
+			dbConn.close();
+		} catch (SQLException se) {
+			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
+		} catch (NullPointerException npe) {
+		}
+		dbConn = null;
+	}
+
+	/**
+	 * Executes the query for the given input split. If the query is parameterized, the
+	 * parameter values of the split are set first.
 	 *
-	 * @param ignored
+	 * @param inputSplit The split to read, or {@code null} if the query is not parameterized.
 	 * @throws IOException
 	 */
 	@Override
-	public void open(InputSplit ignored) throws IOException {
+	public void open(InputSplit inputSplit) throws IOException {
 		try {
-			establishConnection();
-			statement = dbConn.createStatement(resultSetType, resultSetConcurrency);
-			resultSet = statement.executeQuery(query);
+			if (statement == null) {
+				// the format is used without openInputFormat(), e.g. when it is opened directly
+				prepareStatement();
+				connectedPerSplit = true;
+			}
+			if (inputSplit != null && parameterValues != null) {
+				Serializable[] splitParameters = parameterValues[inputSplit.getSplitNumber()];
+				for (int i = 0; i < splitParameters.length; i++) {
+					statement.setObject(i + 1, splitParameters[i]);
+				}
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Executing '{}' with parameters {}", query, Arrays.deepToString(splitParameters));
+				}
+			}
+			resultSet = statement.executeQuery();
+			hasNext = resultSet.next();
 		} catch (SQLException se) {
 			close();
+			closeInputFormat();
 			throw new IllegalArgumentException("open() failed." + se.getMessage(), se);
 		} catch (ClassNotFoundException cnfe) {
 			throw new IllegalArgumentException("JDBC-Class not found. - " + cnfe.getMessage(), cnfe);
 		}
 	}
 
+	private void prepareStatement() throws SQLException, ClassNotFoundException {
+		establishConnection();
+		statement = dbConn.prepareStatement(query, resultSetType, resultSetConcurrency);
+		if (fetchSize == Integer.MIN_VALUE || fetchSize > 0) {
+			statement.setFetchSize(fetchSize);
+		}
+	}
+
 	private void establishConnection() throws SQLException, ClassNotFoundException {
 		Class.forName(drivername);
 		if (username == null) {
@@ -104,7 +198,10 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	}
 
 	/**
-	 * Closes all resources used.
+	 * Closes the result set of the current input split. The connection is kept open for
+	 * the next input split and closed in {@link #closeInputFormat()}, unless it was opened
+	 * by {@link #open(InputSplit)} without {@link #openInputFormat()}. In that case, it is
+	 * closed here as well.
 	 *
 	 * @throws IOException Indicates that a resource could not be closed.
 	 */
@@ -113,20 +210,15 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 		try {
 			resultSet.close();
 		} catch (SQLException se) {
-			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
+			LOG.info("Inputformat ResultSet couldn't be closed - " + se.getMessage());
 		} catch (NullPointerException npe) {
 		}
-		try {
-			statement.close();
-		} catch (SQLException se) {
-			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
-		} catch (NullPointerException npe) {
-		}
-		try {
-			dbConn.close();
-		} catch (SQLException se) {
-			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
-		} catch (NullPointerException npe) {
+		resultSet = null;
+		hasNext = false;
+
+		if (connectedPerSplit) {
+			connectedPerSplit = false;
+			closeInputFormat();
 		}
 	}
 
@@ -138,15 +230,7 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	 */
 	@Override
 	public boolean reachedEnd() throws IOException {
-		try {
-			if (resultSet.isLast()) {
-				close();
-				return true;
-			}
-			return false;
-		} catch (SQLException se) {
-			throw new IOException("Couldn't evaluate reachedEnd() - " + se.getMessage(), se);
-		}
+		return !hasNext;
 	}
 
 	/**
@@ -159,11 +243,15 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	@Override
 	public OUT nextRecord(OUT tuple) throws IOException {
 		try {
-			resultSet.next();
+			if (!hasNext) {
+				return null;
+			}
 			if (columnTypes == null) {
 				extractTypes(tuple);
 			}
 			addValue(tuple);
+			// read ahead, the forward-only cursor cannot tell whether this was the last row
+			hasNext = resultSet.next();
 			return tuple;
 		} catch (SQLException se) {
 			close();
@@ -289,10 +377,14 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 
 	@Override
 	public InputSplit[] createInputSplits(int minNumSplits) throws IOException {
-		GenericInputSplit[] split = {
-			new GenericInputSplit(0, 1)
-		};
-		return split;
+		if (parameterValues == null) {
+			return new GenericInputSplit[] { new GenericInputSplit(0, 1) };
+		}
+		GenericInputSplit[] splits = new GenericInputSplit[parameterValues.length];
+		for (int i = 0; i < splits.length; i++) {
+			splits[i] = new GenericInputSplit(i, splits.length);
+		}
+		return splits;
 	}
 
 	@Override
@@ -353,6 +445,32 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 			return this;
 		}
 
+		/**
+		 * Sets the number of rows that the driver fetches from the database at once. Drivers
+		 * that use a different convention, e.g. MySQL's {@code Integer.MIN_VALUE} for streaming
+		 * results row by row, are supported as well.
+		 */
+		public JDBCInputFormatBuilder setFetchSize(int fetchSize) {
+			if (fetchSize != Integer.MIN_VALUE && fetchSize < 0) {
+				throw new IllegalArgumentException("Illegal value " + fetchSize + " for fetchSize, has to be positive or Integer.MIN_VALUE.");
+			}
+			format.fetchSize = fetchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the provider of the query parameters. The format creates one input split for
+		 * every set of parameters, so that the splits can be read in parallel.
+		 */
+		public JDBCInputFormatBuilder setParametersProvider(ParameterValuesProvider parameterValuesProvider) {
+			Serializable[][] parameterValues = parameterValuesProvider.getParameterValues();
+			if (parameterValues == null || parameterValues.length == 0) {
+				throw new IllegalArgumentException("The parameters provider returned no parameters.");
+			}
+			format.parameterValues = parameterValues;
+			return this;
+		}
+
 		public JDBCInputFormat finish() {
 			if (format.username == null) {
 				LOG.info("Username was not supplied separately.");
@@ -33,6 +33,13 @@ import org.apache.flink.configuration.Configuration;
 /**
  * OutputFormat to write tuples into a database.
  * The OutputFormat has to be configured using the supplied OutputFormatBuilder.
+ *
+ * <p>
+ * The records are added to a JDBC batch, which is executed when it contains {@code batchInterval}
+ * records or, if a flush interval is set, when the flush interval has passed since the batch was last
+ * executed. The query may be an insert or an upsert statement of the target database. Many drivers can
+ * rewrite a batch of inserts into multi-row statements, e.g. MySQL with {@code rewriteBatchedStatements=true}
+ * or PostgreSQL with {@code reWriteBatchedInserts=true} in the database URL.
  * 
  * @param <OUT>
  * @see Tuple
@@ -50,6 +57,7 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 	private String dbURL;
 	private String query;
 	private int batchInterval = 5000;
+	private long flushIntervalMillis = 0;
 
 	private Connection dbConn;
 	private PreparedStatement upload;
@@ -58,6 +66,8 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 
 	private int batchCount = 0;
 
+	private long lastFlushTime;
+
 	public JDBCOutputFormat() {
 	}
 
@@ -77,6 +87,7 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 		try {
 			establishConnection();
 			upload = dbConn.prepareStatement(query);
+			lastFlushTime = System.currentTimeMillis();
 		} catch (SQLException sqe) {
 			close();
 			throw new IllegalArgumentException("open() failed:\t!", sqe);
@@ -123,9 +134,9 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 			addValues(tuple);
 			upload.addBatch();
 			batchCount++;
-			if (batchCount >= batchInterval) {
-				upload.executeBatch();
-				batchCount = 0;
+			if (batchCount >= batchInterval ||
+					(flushIntervalMillis > 0 && System.currentTimeMillis() - lastFlushTime >= flushIntervalMillis)) {
+				flush();
 			}
 		} catch (SQLException sqe) {
 			close();
@@ -136,6 +147,12 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 		}
 	}
 
+	private void flush() throws SQLException {
+		upload.executeBatch();
+		batchCount = 0;
+		lastFlushTime = System.currentTimeMillis();
+	}
+
 	private void extractTypes(OUT tuple) {
 		types = new SupportedTypes[tuple.getArity()];
 		for (int x = 0; x < tuple.getArity(); x++) {
@@ -243,6 +260,21 @@ public class JDBCOutputFormat<OUT extends Tuple> extends RichOutputFormat<OUT> {
 			return this;
 		}
 
+		/**
+		 * Sets the time after which the current batch is executed, even if it has fewer than
+		 * {@code batchInterval} records. The time is checked whenever a record is written.
+		 * A value of {@code 0}, the default, disables time-based flushing.
+		 *
+		 * @param flushIntervalMillis The flush interval, in milliseconds.
+		 */
+		public JDBCOutputFormatBuilder setFlushIntervalMillis(long flushIntervalMillis) {
+			if (flushIntervalMillis < 0) {
+				throw new IllegalArgumentException("The flush interval must not be negative.");
+			}
+			format.flushIntervalMillis = flushIntervalMillis;
+			return this;
+		}
+
 		/**
 		Finalizes the configuration and checks validity.
 		@return Configured JDBCOutputFormat
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.java.io.jdbc.split;
+
+import java.io.Serializable;
+
+import org.apache.flink.api.java.io.jdbc.JDBCInputFormat;
+
+/**
+ * A {@link ParameterValuesProvider} that returns parameter values which were computed
+ * by the user, for example a list of date ranges or of key values.
+ */
+public class GenericParameterValuesProvider implements ParameterValuesProvider {
+	private static final long serialVersionUID = 1L;
+
+	private final Serializable[][] parameters;
+
+	/**
+	 * Creates a provider with the given parameters.
+	 *
+	 * @param parameters A matrix with one row of query parameters for every input split
+	 *                   of the {@link JDBCInputFormat}.
+	 */
+	public GenericParameterValuesProvider(Serializable[][] parameters) {
+		if (parameters == null || parameters.length == 0) {
+			throw new IllegalArgumentException("At least one set of parameters is required.");
+		}
+		this.parameters = parameters;
+	}
+
+	@Override
+	public Serializable[][] getParameterValues() {
+		return parameters;
+	}
+}
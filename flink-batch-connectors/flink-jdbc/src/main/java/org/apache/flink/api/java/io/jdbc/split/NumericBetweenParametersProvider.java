@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.java.io.jdbc.split;
+
+import java.io.Serializable;
+
+/**
+ * A {@link ParameterValuesProvider} that splits the range of a numeric column into
+ * consecutive, non-overlapping intervals. It is meant to be used with a query of the form
+ *
+ * <pre>{@code
+ *     SELECT * FROM books WHERE id BETWEEN ? AND ?
+ * }</pre>
+ *
+ * Every input split gets the inclusive start and end of one interval. All intervals have
+ * {@code batchSize} values, except for the last one which may be smaller.
+ */
+public class NumericBetweenParametersProvider implements ParameterValuesProvider {
+	private static final long serialVersionUID = 1L;
+
+	private final long batchSize;
+	private final long minVal;
+	private final long maxVal;
+
+	/**
+	 * Creates a provider for the range {@code [minVal, maxVal]}.
+	 *
+	 * @param batchSize The number of values of the column in each input split.
+	 * @param minVal The smallest value of the column, inclusive.
+	 * @param maxVal The largest value of the column, inclusive.
+	 */
+	public NumericBetweenParametersProvider(long batchSize, long minVal, long maxVal) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+		if (minVal > maxVal) {
+			throw new IllegalArgumentException("The minimum value must not be larger than the maximum value.");
+		}
+		if (maxVal - minVal < 0) {
+			throw new IllegalArgumentException("The range of values is too large.");
+		}
+		if ((maxVal - minVal) / batchSize >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The batch size is too small for the range of values.");
+		}
+		this.batchSize = batchSize;
+		this.minVal = minVal;
+		this.maxVal = maxVal;
+	}
+
+	@Override
+	public Serializable[][] getParameterValues() {
+		int numBatches = (int) ((maxVal - minVal) / batchSize + 1);
+
+		Serializable[][] parameters = new Serializable[numBatches][2];
+		long start = minVal;
+		for (int i = 0; i < numBatches; i++) {
+			long end = (i == numBatches - 1) ? maxVal : start + batchSize - 1;
+			parameters[i] = new Long[] { start, end };
+			start = end + 1;
+		}
+		return parameters;
+	}
+}
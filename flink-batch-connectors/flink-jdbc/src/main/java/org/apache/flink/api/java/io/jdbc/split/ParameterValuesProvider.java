@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.java.io.jdbc.split;
+
+import java.io.Serializable;
+
+import org.apache.flink.api.java.io.jdbc.JDBCInputFormat;
+
+/**
+ * Provides the parameter values of a parameterized query for a {@link JDBCInputFormat}.
+ * Every row of the returned matrix is the set of parameters of one input split. It is
+ * used to fill the '?' placeholders of the query, in order.
+ */
+public interface ParameterValuesProvider extends Serializable {
+
+	/**
+	 * Returns the parameter values, one row per input split.
+	 *
+	 * @return A matrix with one row of query parameters for every input split.
+	 */
+	Serializable[][] getParameterValues();
+}
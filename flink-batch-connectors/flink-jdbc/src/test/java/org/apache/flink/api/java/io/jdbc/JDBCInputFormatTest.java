@@ -19,6 +19,7 @@
 package org.apache.flink.api.java.io.jdbc;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -28,8 +29,11 @@ import java.sql.ResultSet;
 
 import org.junit.Assert;
 
+import org.apache.flink.api.java.io.jdbc.split.GenericParameterValuesProvider;
+import org.apache.flink.api.java.io.jdbc.split.NumericBetweenParametersProvider;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.tuple.Tuple5;
+import org.apache.flink.core.io.InputSplit;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -115,7 +119,11 @@ public class JDBCInputFormatTest {
 	}
 
 	@After
-	public void tearDown() {
+	public void tearDown() throws IOException {
+		if (jdbcInputFormat != null) {
+			jdbcInputFormat.close();
+			jdbcInputFormat.closeInputFormat();
+		}
 		jdbcInputFormat = null;
 	}
 
@@ -195,4 +203,98 @@ public class JDBCInputFormatTest {
 		Assert.assertEquals(5, recordCount);
 	}
 
+	@Test
+	public void testJDBCInputFormatWithNumericColumnSplitting() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books where id between ? and ?")
+				.setParametersProvider(new NumericBetweenParametersProvider(2, 1001, 1005))
+				.setFetchSize(2)
+				.finish();
+		jdbcInputFormat.openInputFormat();
+
+		InputSplit[] splits = jdbcInputFormat.createInputSplits(1);
+		Assert.assertEquals(3, splits.length);
+
+		Tuple5 tuple = new Tuple5();
+		int recordCount = 0;
+		for (InputSplit split : splits) {
+			jdbcInputFormat.open(split);
+			while (!jdbcInputFormat.reachedEnd()) {
+				jdbcInputFormat.nextRecord(tuple);
+				for (int x = 0; x < 5; x++) {
+					Assert.assertEquals(dbData[recordCount][x], tuple.getField(x));
+				}
+				recordCount++;
+			}
+			jdbcInputFormat.close();
+		}
+		Assert.assertEquals(5, recordCount);
+	}
+
+	@Test
+	public void testJDBCInputFormatWithGenericParameters() throws IOException {
+		Serializable[][] queryParameters = {
+			new String[] { "Kumar" },
+			new String[] { "Tan Ah Teck" },
+			new String[] { "Nobody" }};
+
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books where author = ?")
+				.setParametersProvider(new GenericParameterValuesProvider(queryParameters))
+				.finish();
+		jdbcInputFormat.openInputFormat();
+
+		InputSplit[] splits = jdbcInputFormat.createInputSplits(1);
+		Assert.assertEquals(3, splits.length);
+
+		int[] expectedCounts = { 1, 2, 0 };
+		Tuple5 tuple = new Tuple5();
+		for (int i = 0; i < splits.length; i++) {
+			jdbcInputFormat.open(splits[i]);
+			int recordCount = 0;
+			while (!jdbcInputFormat.reachedEnd()) {
+				jdbcInputFormat.nextRecord(tuple);
+				Assert.assertEquals(queryParameters[i][0], tuple.getField(2));
+				recordCount++;
+			}
+			jdbcInputFormat.close();
+			Assert.assertEquals(expectedCounts[i], recordCount);
+		}
+	}
+
+	@Test
+	public void testReopenWithoutOpenInputFormat() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books")
+				.finish();
+		Tuple5 tuple = new Tuple5();
+		for (int i = 0; i < 2; i++) {
+			// close() releases the connection that open() created, so the format can be opened again
+			jdbcInputFormat.open(null);
+			int recordCount = 0;
+			while (!jdbcInputFormat.reachedEnd()) {
+				jdbcInputFormat.nextRecord(tuple);
+				recordCount++;
+			}
+			jdbcInputFormat.close();
+			Assert.assertEquals(5, recordCount);
+		}
+	}
+
+	@Test
+	public void testEmptyResults() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books where id < 0")
+				.finish();
+		jdbcInputFormat.open(null);
+		Assert.assertTrue(jdbcInputFormat.reachedEnd());
+	}
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.java.io.jdbc.split;
+
+import java.io.Serializable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumericBetweenParametersProviderTest {
+
+	@Test
+	public void testBatchesCoverRange() {
+		Serializable[][] parameters = new NumericBetweenParametersProvider(3, 1001, 1010).getParameterValues();
+
+		Serializable[][] expected = {
+			new Long[] { 1001L, 1003L },
+			new Long[] { 1004L, 1006L },
+			new Long[] { 1007L, 1009L },
+			new Long[] { 1010L, 1010L }};
+		Assert.assertArrayEquals(expected, parameters);
+	}
+
+	@Test
+	public void testBatchSizeDividesRange() {
+		Serializable[][] parameters = new NumericBetweenParametersProvider(5, 1001, 1010).getParameterValues();
+
+		Serializable[][] expected = {
+			new Long[] { 1001L, 1005L },
+			new Long[] { 1006L, 1010L }};
+		Assert.assertArrayEquals(expected, parameters);
+	}
+
+	@Test
+	public void testBatchSizeLargerThanRange() {
+		Serializable[][] parameters = new NumericBetweenParametersProvider(100, -5, 5).getParameterValues();
+
+		Serializable[][] expected = { new Long[] { -5L, 5L } };
+		Assert.assertArrayEquals(expected, parameters);
+	}
+
+	@Test
+	public void testMaximumRange() {
+		Serializable[][] parameters =
+			new NumericBetweenParametersProvider(Long.MAX_VALUE / 2 + 1, 0, Long.MAX_VALUE).getParameterValues();
+
+		Serializable[][] expected = {
+			new Long[] { 0L, Long.MAX_VALUE / 2 },
+			new Long[] { Long.MAX_VALUE / 2 + 1, Long.MAX_VALUE }};
+		Assert.assertArrayEquals(expected, parameters);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRange() {
+		new NumericBetweenParametersProvider(10, 5, 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverflowingRange() {
+		new NumericBetweenParametersProvider(10, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.io;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.core.io.InputSplit;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * An {@link InputFormat} whose position within a split can be checkpointed. After a failure, the split
+ * is reopened at the checkpointed position, instead of being read again from its beginning.
+ *
+ * @param <S> The type of the input splits.
+ * @param <T> The type of the checkpointed position.
+ */
+@PublicEvolving
+public interface CheckpointableInputFormat<S extends InputSplit, T extends Serializable> {
+
+	/**
+	 * Gets the position of the format within the currently open split. Reopening the split at this
+	 * position continues with the next record that has not been returned yet.
+	 *
+	 * @return The position within the current split.
+	 * @throws IOException Thrown, if the position cannot be determined.
+	 */
+	T getCurrentState() throws IOException;
+
+	/**
+	 * Opens the given split and positions the format at the given position, which was previously
+	 * returned by {@link #getCurrentState()} for the same split.
+	 *
+	 * @param split The split to reopen.
+	 * @param state The position to continue reading from.
+	 * @throws IOException Thrown, if the split cannot be opened or positioned.
+	 */
+	void reopen(S split, T state) throws IOException;
+}
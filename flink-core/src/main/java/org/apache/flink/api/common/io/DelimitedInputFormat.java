@@ -19,6 +19,7 @@
 package org.apache.flink.api.common.io;
 
 import org.apache.flink.annotation.Public;
+import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.configuration.ConfigConstants;
 import org.apache.flink.configuration.Configuration;
@@ -27,6 +28,7 @@ import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.util.Preconditions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +45,7 @@ import java.util.ArrayList;
  * <p>The default delimiter is the newline character {@code '\n'}.</p>
  */
 @Public
-public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
+public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> implements CheckpointableInputFormat<FileInputSplit, Long> {
 	
 	private static final long serialVersionUID = 1L;
 
@@ -143,6 +145,10 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 	private transient boolean overLimit;
 
 	private transient boolean end;
+
+	private transient long bufferStartPos;		// position of the read buffer in the stream
+
+	private transient long offset;				// position of the next record in the stream
 	
 	
 	// --------------------------------------------------------------------------------------------
@@ -314,6 +320,14 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			if(unsplittable) {
 				return stats;
 			}
+
+			// the samples of block compressed files would measure the inflated record width, but the total
+			// input size is the compressed size.
+			for (FileStatus file : allFiles) {
+				if (getInflaterInputStreamFactory(file.getPath()) != null) {
+					return stats;
+				}
+			}
 			
 			// compute how many samples to take, depending on the defined upper and lower bound
 			final int numSamples;
@@ -412,20 +426,10 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 	@Override
 	public void open(FileInputSplit split) throws IOException {
 		super.open(split);
-		
-		this.bufferSize = this.bufferSize <= 0 ? DEFAULT_READ_BUFFER_SIZE : this.bufferSize;
-		
-		if (this.readBuffer == null || this.readBuffer.length != this.bufferSize) {
-			this.readBuffer = new byte[this.bufferSize];
-		}
-		if (this.wrapBuffer == null || this.wrapBuffer.length < 256) {
-			this.wrapBuffer = new byte[256];
-		}
+		initBuffers();
 
-		this.readPos = 0;
-		this.limit = 0;
-		this.overLimit = false;
-		this.end = false;
+		this.offset = this.splitStart;
+		this.bufferStartPos = this.splitStart;
 
 		if (this.splitStart != 0) {
 			this.stream.seek(this.splitStart);
@@ -441,6 +445,75 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 		}
 	}
 
+	/**
+	 * Reopens the given split at a position returned by {@link #getCurrentState()}. The split is opened
+	 * with {@link #open(FileInputSplit)}, so that subclasses are initialized as usual, and then moved
+	 * forward to the given position.
+	 *
+	 * @param split The split to reopen.
+	 * @param state The position of the next record to read.
+	 */
+	@PublicEvolving
+	@Override
+	public void reopen(FileInputSplit split, Long state) throws IOException {
+		Preconditions.checkNotNull(split, "The split to reopen must not be null.");
+		Preconditions.checkNotNull(state, "The position to reopen the split at must not be null.");
+		Preconditions.checkArgument(state >= split.getStart(),
+				"The position " + state + " lies before the start of the split " + split.getStart() + '.');
+
+		open(split);
+		if (this.end) {
+			return;
+		}
+
+		// the position of the stream after the current buffer
+		final long streamPos = this.bufferStartPos + this.limit;
+
+		if (state <= streamPos) {
+			this.readPos = (int) (state - this.bufferStartPos);
+		} else if (this.stream == null ||
+				(this.splitLength != READ_WHOLE_SPLIT_FLAG && state > streamPos + this.splitLength)) {
+			// the record at this position belongs to the next split
+			this.end = true;
+		} else {
+			this.stream.seek(state);
+			if (this.splitLength != READ_WHOLE_SPLIT_FLAG) {
+				this.splitLength -= state - streamPos;
+			}
+			this.bufferStartPos = state;
+			this.readPos = 0;
+			this.limit = 0;
+		}
+		this.offset = state;
+	}
+
+	/**
+	 * Gets the position of the next record in the current split.
+	 *
+	 * @return The position of the next record.
+	 */
+	@PublicEvolving
+	@Override
+	public Long getCurrentState() throws IOException {
+		return this.offset;
+	}
+
+	private void initBuffers() {
+		this.bufferSize = this.bufferSize <= 0 ? DEFAULT_READ_BUFFER_SIZE : this.bufferSize;
+
+		if (this.readBuffer == null || this.readBuffer.length != this.bufferSize) {
+			this.readBuffer = new byte[this.bufferSize];
+		}
+		if (this.wrapBuffer == null || this.wrapBuffer.length < 256) {
+			this.wrapBuffer = new byte[256];
+		}
+
+		this.readPos = 0;
+		this.limit = 0;
+		this.overLimit = false;
+		this.end = false;
+	}
+
 	/**
 	 * Checks whether the current split is at its end.
 	 * 
@@ -500,13 +573,28 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			int startPos = this.readPos;
 			int count;
 
-			while (this.readPos < this.limit && i < this.delimiter.length) {
-				if ((this.readBuffer[this.readPos++]) == this.delimiter[i]) {
-					i++;
-				} else {
-					i = 0;
+			if (this.delimiter.length == 1) {
+				// fast path for the common single byte delimiter (such as '\n')
+				final byte delim = this.delimiter[0];
+				final byte[] buffer = this.readBuffer;
+				final int bufferLimit = this.limit;
+				int pos = this.readPos;
+
+				while (pos < bufferLimit) {
+					if (buffer[pos++] == delim) {
+						i = 1;
+						break;
+					}
+				}
+				this.readPos = pos;
+			} else {
+				while (this.readPos < this.limit && i < this.delimiter.length) {
+					if ((this.readBuffer[this.readPos++]) == this.delimiter[i]) {
+						i++;
+					} else {
+						i = 0;
+					}
 				}
-
 			}
 
 			// check why we dropped out
@@ -558,6 +646,7 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 		this.currBuffer = buffer;
 		this.currOffset = offset;
 		this.currLen = len;
+		this.offset = this.bufferStartPos + this.readPos;
 	}
 
 	private boolean fillBuffer() throws IOException {
@@ -569,6 +658,7 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 				this.stream = null;
 				return false;
 			} else {
+				this.bufferStartPos += this.limit;
 				this.readPos = 0;
 				this.limit = read;
 				return true;
@@ -599,6 +689,7 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			return false;
 		} else {
 			this.splitLength -= read;
+			this.bufferStartPos += this.limit;
 			this.readPos = 0;
 			this.limit = read;
 			return true;
@@ -19,9 +19,13 @@
 package org.apache.flink.api.common.io;
 
 import org.apache.flink.annotation.Public;
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory;
 import org.apache.flink.api.common.io.compression.DeflateInflaterInputStreamFactory;
 import org.apache.flink.api.common.io.compression.GzipInflaterInputStreamFactory;
 import org.apache.flink.api.common.io.compression.InflaterInputStreamFactory;
+import org.apache.flink.api.common.io.compression.SplitInflaterInputStream;
+import org.apache.flink.api.common.io.compression.SplittableInflaterInputStreamFactory;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.configuration.ConfigConstants;
 import org.apache.flink.configuration.Configuration;
@@ -78,7 +82,7 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 
 	/**
 	 * A mapping of file extensions to decompression algorithms based on DEFLATE. Such compressions lead to
-	 * unsplittable files.
+	 * unsplittable files, unless they are block compressed (see {@link SplittableInflaterInputStreamFactory}).
 	 */
 	protected static final Map<String, InflaterInputStreamFactory<?>> INFLATER_INPUT_STREAM_FACTORIES =
 			new HashMap<String, InflaterInputStreamFactory<?>>();
@@ -111,7 +115,8 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	private static void initDefaultInflaterInputStreamFactories() {
 		InflaterInputStreamFactory<?>[] defaultFactories = {
 				DeflateInflaterInputStreamFactory.getInstance(),
-				GzipInflaterInputStreamFactory.getInstance()
+				GzipInflaterInputStreamFactory.getInstance(),
+				BlockGzipInflaterInputStreamFactory.getInstance()
 		};
 		for (InflaterInputStreamFactory<?> inputStreamFactory : defaultFactories) {
 			for (String fileExtension : inputStreamFactory.getCommonFileExtensions()) {
@@ -301,6 +306,27 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		this.openTimeout = openTimeout;
 	}
 
+	/**
+	 * Checks whether the nested directories of the input path are read recursively.
+	 *
+	 * @return True, if the files of nested directories are enumerated.
+	 */
+	public boolean getNestedFileEnumeration() {
+		return enumerateNestedFiles;
+	}
+
+	/**
+	 * Checks whether a file or directory passes the filter of {@link #acceptFile(FileStatus)}, so
+	 * that the files of the input path can be listed the same way outside of this format.
+	 *
+	 * @param fileStatus The file status to check.
+	 * @return True, if the given file or directory is accepted.
+	 */
+	@PublicEvolving
+	public final boolean isAcceptedFile(FileStatus fileStatus) {
+		return acceptFile(fileStatus);
+	}
+
 	// --------------------------------------------------------------------------------------------
 	// Getting information about the split that is currently open
 	// --------------------------------------------------------------------------------------------
@@ -592,14 +618,16 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	}
 
 	protected boolean testForUnsplittable(FileStatus pathFile) {
-		if(getInflaterInputStreamFactory(pathFile.getPath()) != null) {
+		InflaterInputStreamFactory<?> inflaterInputStreamFactory = getInflaterInputStreamFactory(pathFile.getPath());
+		if (inflaterInputStreamFactory != null &&
+				!(inflaterInputStreamFactory instanceof SplittableInflaterInputStreamFactory)) {
 			unsplittable = true;
 			return true;
 		}
 		return false;
 	}
 
-	private InflaterInputStreamFactory<?> getInflaterInputStreamFactory(Path path) {
+	protected InflaterInputStreamFactory<?> getInflaterInputStreamFactory(Path path) {
 		String fileExtension = extractFileExtension(path.getName());
 		if (fileExtension != null) {
 			return getInflaterInputStreamFactory(fileExtension);
@@ -678,6 +706,10 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		try {
 			this.stream = isot.waitForCompletion();
 			this.stream = decorateInputStream(this.stream, fileSplit);
+			if (this.stream instanceof SplitInflaterInputStream) {
+				// the split is read in terms of the inflated bytes of its compression blocks
+				this.splitLength = ((SplitInflaterInputStream) this.stream).getInflatedSplitLength();
+			}
 		}
 		catch (Throwable t) {
 			throw new IOException("Error opening the Input Split " + fileSplit.getPath() + 
@@ -704,7 +736,11 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	protected FSDataInputStream decorateInputStream(FSDataInputStream inputStream, FileInputSplit fileSplit) throws Throwable {
 		// Wrap stream in a extracting (decompressing) stream if file ends with a known compression file extension.
 		InflaterInputStreamFactory<?> inflaterInputStreamFactory = getInflaterInputStreamFactory(fileSplit.getPath());
-		if (inflaterInputStreamFactory != null) {
+		if (inflaterInputStreamFactory instanceof SplittableInflaterInputStreamFactory &&
+				fileSplit.getLength() != READ_WHOLE_SPLIT_FLAG) {
+			return ((SplittableInflaterInputStreamFactory<?>) inflaterInputStreamFactory).createForSplit(
+					inputStream, fileSplit.getStart(), fileSplit.getLength());
+		} else if (inflaterInputStreamFactory != null) {
 			return new InputStreamFSInputWrapper(inflaterInputStreamFactory.create(stream));
 		}
 
@@ -466,8 +466,16 @@ public abstract class GenericCsvInputFormat<OT> extends DelimitedInputFormat<OT>
 			}
 		} else {
 			// field is not quoted
-			while(i < delimLimit && !FieldParser.delimiterNext(bytes, i, delim)) {
-				i++;
+			if (delim.length == 1) {
+				// fast path for the common single byte field delimiter
+				final byte delimByte = delim[0];
+				while (i < limit && bytes[i] != delimByte) {
+					i++;
+				}
+			} else {
+				while (i < delimLimit && !FieldParser.delimiterNext(bytes, i, delim)) {
+					i++;
+				}
 			}
 
 			if (i >= delimLimit) {
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Factory for input streams that decompress the block gzip (BGZF) compression format. A BGZF file is
+ * a series of gzip members of at most 64 KiB, each of which records its compressed size in the gzip
+ * header. BGZF files are therefore valid gzip files, but can also be split at block boundaries.
+ */
+@Internal
+public class BlockGzipInflaterInputStreamFactory implements SplittableInflaterInputStreamFactory<GZIPInputStream> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static BlockGzipInflaterInputStreamFactory INSTANCE = null;
+
+	public static BlockGzipInflaterInputStreamFactory getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new BlockGzipInflaterInputStreamFactory();
+		}
+		return INSTANCE;
+	}
+
+	@Override
+	public GZIPInputStream create(InputStream in) throws IOException {
+		return new GZIPInputStream(in, BUFFER_SIZE);
+	}
+
+	@Override
+	public SplitInflaterInputStream createForSplit(FSDataInputStream in, long splitStart, long splitLength) throws IOException {
+		return new BlockGzipSplitInputStream(in, splitStart, splitLength);
+	}
+
+	@Override
+	public Collection<String> getCommonFileExtensions() {
+		return Arrays.asList("bgz", "bgzf");
+	}
+}
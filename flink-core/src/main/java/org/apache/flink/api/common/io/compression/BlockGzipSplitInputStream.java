@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a split of a block gzip (BGZF) file.
+ *
+ * <p>
+ * The first block of a split is found by scanning for a BGZF block header and verifying that the block
+ * it describes is followed by another block header or by the end of the file. The inflated length of
+ * the split is computed from the headers and trailers of its blocks, without inflating them. The blocks
+ * themselves are inflated one at a time into a reused buffer.
+ */
+class BlockGzipSplitInputStream extends SplitInflaterInputStream {
+
+	/** The length of a BGZF block header: the gzip header with the 6 byte "BC" extra field. */
+	static final int HEADER_LENGTH = 18;
+
+	/** The length of the gzip trailer: the CRC32 and the inflated size of the block. */
+	static final int TRAILER_LENGTH = 8;
+
+	/** The maximum size of a block, both compressed and inflated. */
+	static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+	private final FSDataInputStream in;
+
+	private final long inflatedSplitLength;
+
+	private final byte[] header = new byte[HEADER_LENGTH];
+
+	private final byte[] compressedBlock = new byte[MAX_BLOCK_SIZE];
+
+	private final byte[] inflatedBlock = new byte[MAX_BLOCK_SIZE];
+
+	private final Inflater inflater = new Inflater(true);
+
+	private final CRC32 crc = new CRC32();
+
+	private int inflatedPos;
+
+	private int inflatedLimit;
+
+	private long pos;
+
+	private boolean endReached;
+
+	BlockGzipSplitInputStream(FSDataInputStream in, long splitStart, long splitLength) throws IOException {
+		this.in = in;
+		this.pos = splitStart;
+
+		final long splitEnd = splitStart + splitLength;
+		final long firstBlock = splitStart == 0 ? 0 : findFirstBlock(splitStart, splitEnd);
+
+		// sum up the inflated sizes of all blocks that start within the split
+		long length = 0;
+		long blockStart = firstBlock;
+		while (blockStart >= 0 && blockStart < splitEnd) {
+			in.seek(blockStart);
+			final int blockSize = readHeader(blockStart);
+			if (blockSize < 0) {
+				break;
+			}
+			in.seek(blockStart + blockSize - 4);
+			readFully(header, 0, 4);
+			length += getInt(header, 0) & 0xffffffffL;
+			blockStart += blockSize;
+		}
+		this.inflatedSplitLength = length;
+
+		if (firstBlock >= 0) {
+			in.seek(firstBlock);
+		} else {
+			this.endReached = true;
+		}
+	}
+
+	@Override
+	public long getInflatedSplitLength() {
+		return inflatedSplitLength;
+	}
+
+	@Override
+	public void seek(long desired) throws IOException {
+		if (desired < this.pos) {
+			throw new IllegalArgumentException("Block gzip split: cannot seek backwards.");
+		}
+
+		while (this.pos < desired) {
+			if (!ensureInflatedData()) {
+				throw new EOFException("Unexpected EOF during forward seek.");
+			}
+			final int skipped = (int) Math.min(desired - this.pos, this.inflatedLimit - this.inflatedPos);
+			this.inflatedPos += skipped;
+			this.pos += skipped;
+		}
+	}
+
+	@Override
+	public long getPos() throws IOException {
+		return this.pos;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureInflatedData()) {
+			return -1;
+		}
+		this.pos++;
+		return this.inflatedBlock[this.inflatedPos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensureInflatedData()) {
+			return -1;
+		}
+		final int n = Math.min(len, this.inflatedLimit - this.inflatedPos);
+		System.arraycopy(this.inflatedBlock, this.inflatedPos, b, off, n);
+		this.inflatedPos += n;
+		this.pos += n;
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.inflater.end();
+		this.in.close();
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private boolean ensureInflatedData() throws IOException {
+		while (this.inflatedPos == this.inflatedLimit) {
+			if (this.endReached || !inflateNextBlock()) {
+				this.endReached = true;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean inflateNextBlock() throws IOException {
+		final long blockStart = this.in.getPos();
+		final int blockSize = readHeader(blockStart);
+		if (blockSize < 0) {
+			return false;
+		}
+
+		final int remaining = blockSize - HEADER_LENGTH;
+		readFully(this.compressedBlock, 0, remaining);
+
+		final int compressedLength = remaining - TRAILER_LENGTH;
+		final int expectedCrc = getInt(this.compressedBlock, compressedLength);
+		final int inflatedLength = getInt(this.compressedBlock, compressedLength + 4);
+		if (inflatedLength < 0 || inflatedLength > MAX_BLOCK_SIZE) {
+			throw new IOException("Invalid inflated block size " + inflatedLength + " at position " + blockStart);
+		}
+
+		this.inflater.reset();
+		this.inflater.setInput(this.compressedBlock, 0, compressedLength);
+		int inflated = 0;
+		try {
+			while (inflated < inflatedLength) {
+				final int n = this.inflater.inflate(this.inflatedBlock, inflated, inflatedLength - inflated);
+				if (n == 0 && (this.inflater.finished() || this.inflater.needsInput() || this.inflater.needsDictionary())) {
+					break;
+				}
+				inflated += n;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt block at position " + blockStart + ": " + e.getMessage(), e);
+		}
+		if (inflated != inflatedLength) {
+			throw new IOException("Corrupt block at position " + blockStart + ": expected " + inflatedLength +
+					" inflated bytes, but got " + inflated);
+		}
+
+		this.crc.reset();
+		this.crc.update(this.inflatedBlock, 0, inflated);
+		if ((int) this.crc.getValue() != expectedCrc) {
+			throw new IOException("Corrupt block at position " + blockStart + ": CRC mismatch");
+		}
+
+		this.inflatedPos = 0;
+		this.inflatedLimit = inflated;
+		return true;
+	}
+
+	/**
+	 * Finds the first block that starts within the given range of the file.
+	 *
+	 * @return the start of the block, or -1, if no block starts within the range
+	 */
+	private long findFirstBlock(long rangeStart, long rangeEnd) throws IOException {
+		// a block starts within every MAX_BLOCK_SIZE bytes of the file
+		final int numCandidates = (int) Math.min(rangeEnd - rangeStart, MAX_BLOCK_SIZE);
+		final byte[] window = new byte[numCandidates + HEADER_LENGTH - 1];
+
+		this.in.seek(rangeStart);
+		int windowLength = 0;
+		int read;
+		while (windowLength < window.length &&
+				(read = this.in.read(window, windowLength, window.length - windowLength)) != -1) {
+			windowLength += read;
+		}
+
+		for (int i = 0; i < numCandidates && i + HEADER_LENGTH <= windowLength; i++) {
+			if (isHeader(window, i)) {
+				// verify the candidate, the next block must start right after it
+				final long candidate = rangeStart + i;
+				this.in.seek(candidate + getBlockSize(window, i));
+				final int nextBlockSize = readHeader(-1);
+				if (nextBlockSize != 0) {
+					return candidate;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads a block header from the current position of the stream.
+	 *
+	 * @param blockStart is the position of the block, or -1 to report an invalid header as size 0
+	 * @return the size of the block, or -1 at the end of the file
+	 */
+	private int readHeader(long blockStart) throws IOException {
+		int headerLength = 0;
+		int read;
+		while (headerLength < HEADER_LENGTH &&
+				(read = this.in.read(this.header, headerLength, HEADER_LENGTH - headerLength)) != -1) {
+			headerLength += read;
+		}
+
+		if (headerLength == 0) {
+			return -1;
+		} else if (headerLength == HEADER_LENGTH && isHeader(this.header, 0)) {
+			return getBlockSize(this.header, 0);
+		} else if (blockStart < 0) {
+			return 0;
+		} else {
+			throw new IOException("No valid block gzip (BGZF) header at position " + blockStart);
+		}
+	}
+
+	private void readFully(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			final int read = this.in.read(b, off, len);
+			if (read == -1) {
+				throw new EOFException("Unexpected end of block gzip file.");
+			}
+			off += read;
+			len -= read;
+		}
+	}
+
+	private static boolean isHeader(byte[] b, int off) {
+		return b[off] == 0x1f && b[off + 1] == (byte) 0x8b && b[off + 2] == 8 && (b[off + 3] & 4) != 0 &&
+				b[off + 10] == 6 && b[off + 11] == 0 &&
+				b[off + 12] == 'B' && b[off + 13] == 'C' &&
+				b[off + 14] == 2 && b[off + 15] == 0 &&
+				getBlockSize(b, off) >= HEADER_LENGTH + TRAILER_LENGTH;
+	}
+
+	private static int getBlockSize(byte[] b, int off) {
+		return ((b[off + 16] & 0xff) | (b[off + 17] & 0xff) << 8) + 1;
+	}
+
+	private static int getInt(byte[] b, int off) {
+		return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+	}
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
@@ -31,6 +32,9 @@ import java.util.zip.InflaterInputStream;
 @Internal
 public class DeflateInflaterInputStreamFactory implements InflaterInputStreamFactory<InflaterInputStream> {
 
+	/** The size of the buffer for compressed data, the JDK default of 512 bytes causes many small reads. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	private static DeflateInflaterInputStreamFactory INSTANCE = null;
 
 	public static DeflateInflaterInputStreamFactory getInstance() {
@@ -42,7 +46,14 @@ public class DeflateInflaterInputStreamFactory implements InflaterInputStreamFac
 
 	@Override
 	public InflaterInputStream create(InputStream in) throws IOException {
-		return new InflaterInputStream(in);
+		return new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+			@Override
+			public void close() throws IOException {
+				// the inflater is not the default one of the stream and must be released explicitly
+				super.close();
+				inf.end();
+			}
+		};
 	}
 
 	@Override
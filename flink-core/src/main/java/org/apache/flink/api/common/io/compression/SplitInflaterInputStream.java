@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.fs.FSDataInputStream;
+
+/**
+ * The inflated contents of a split of a block compressed file.
+ *
+ * <p>
+ * The stream starts with the first compression block that begins within the split and continues until
+ * the end of the file, so that a record that crosses the end of the split can be read completely. The
+ * positions of the stream count inflated bytes, starting at the start of the split. That way, the
+ * split can be read like an uncompressed split of length {@link #getInflatedSplitLength()}.
+ */
+@Internal
+public abstract class SplitInflaterInputStream extends FSDataInputStream {
+
+	/**
+	 * Gets the number of inflated bytes of all compression blocks that begin within the split.
+	 *
+	 * @return the inflated length of the split
+	 */
+	public abstract long getInflatedSplitLength();
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An {@link InflaterInputStreamFactory} for block compression formats whose files can be split. Each split
+ * is decompressed independently, starting at the first compression block that begins within the split.
+ */
+@Internal
+public interface SplittableInflaterInputStreamFactory<T extends InflaterInputStream> extends InflaterInputStreamFactory<T> {
+
+	/**
+	 * Creates a {@link SplitInflaterInputStream} that decompresses the given split of a file.
+	 *
+	 * @param in is the compressed input stream of the file
+	 * @param splitStart is the start of the split in the compressed file
+	 * @param splitLength is the length of the split in the compressed file
+	 * @return the inflated input stream, positioned at the first compression block of the split
+	 */
+	SplitInflaterInputStream createForSplit(FSDataInputStream in, long splitStart, long splitLength) throws IOException;
+}
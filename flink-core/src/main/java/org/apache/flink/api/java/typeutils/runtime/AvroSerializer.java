@@ -20,6 +20,7 @@ package org.apache.flink.api.java.typeutils.runtime;
 
 import java.io.IOException;
 
+import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.reflect.ReflectDatumReader;
 import org.apache.avro.reflect.ReflectDatumWriter;
@@ -39,6 +40,9 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 /**
  * General purpose serialization. Currently using Apache Avro's Reflect-serializers for serialization and
  * Kryo for deep object copies. We want to change this to Kryo-only.
+ * <p>
+ * Serialized records are copied in their binary form, guided by the Avro schema of the type, without
+ * materializing them as objects.
  *
  * @param <T> The type serialized.
  */
@@ -46,6 +50,9 @@ public final class AvroSerializer<T> extends TypeSerializer<T> {
 
 	private static final long serialVersionUID = 1L;
 	
+	/** The schema of map keys, which are always strings */
+	private static final Schema MAP_KEY_SCHEMA = Schema.create(Schema.Type.STRING);
+	
 	private final Class<T> type;
 	
 	private final Class<? extends T> typeToInstantiate;
@@ -56,9 +63,9 @@ public final class AvroSerializer<T> extends TypeSerializer<T> {
 	private transient DataOutputEncoder encoder;
 	private transient DataInputDecoder decoder;
 	
-	private transient Kryo kryo;
+	private transient Schema schema;
 	
-	private transient T deepCopyInstance;
+	private transient Kryo kryo;
 	
 	// --------------------------------------------------------------------------------------------
 	
@@ -133,18 +140,79 @@ public final class AvroSerializer<T> extends TypeSerializer<T> {
 	@Override
 	public void copy(DataInputView source, DataOutputView target) throws IOException {
 		checkAvroInitialized();
-		
-		if (this.deepCopyInstance == null) {
-			this.deepCopyInstance = InstantiationUtil.instantiate(type, Object.class);
+		copy(this.schema, source, target);
+	}
+	
+	/**
+	 * Copies a value of the given schema in the encoding of the {@link DataOutputEncoder}. Primitive values,
+	 * strings and bytes are copied as raw bytes; only the union indexes, the string lengths and the block
+	 * counts of arrays and maps are read to find the end of the value.
+	 */
+	private static void copy(Schema schema, DataInputView source, DataOutputView target) throws IOException {
+		switch (schema.getType()) {
+			case RECORD:
+				for (Schema.Field field : schema.getFields()) {
+					copy(field.schema(), source, target);
+				}
+				break;
+			case UNION:
+				int index = source.readInt();
+				target.writeInt(index);
+				copy(schema.getTypes().get(index), source, target);
+				break;
+			case ARRAY:
+				copyBlocks(null, schema.getElementType(), source, target);
+				break;
+			case MAP:
+				copyBlocks(MAP_KEY_SCHEMA, schema.getValueType(), source, target);
+				break;
+			case STRING:
+			case BYTES:
+				int length = source.readInt();
+				target.writeInt(length);
+				target.write(source, length);
+				break;
+			case FIXED:
+				target.write(source, schema.getFixedSize());
+				break;
+			case INT:
+			case ENUM:
+			case FLOAT:
+				target.write(source, 4);
+				break;
+			case LONG:
+			case DOUBLE:
+				target.write(source, 8);
+				break;
+			case BOOLEAN:
+				target.write(source, 1);
+				break;
+			case NULL:
+				break;
+			default:
+				throw new IOException("Unsupported Avro schema type: " + schema.getType());
 		}
-		
-		this.decoder.setIn(source);
-		this.encoder.setOut(target);
-		
-		T tmp = this.reader.read(this.deepCopyInstance, this.decoder);
-		this.writer.write(tmp, this.encoder);
 	}
 	
+	/**
+	 * Copies the blocks of an array (without key schema) or a map, up to and including the terminating
+	 * empty block.
+	 */
+	private static void copyBlocks(Schema keySchema, Schema valueSchema, DataInputView source, DataOutputView target)
+			throws IOException {
+		long count;
+		while ((count = DataInputDecoder.readVarLongCount(source)) > 0) {
+			DataOutputEncoder.writeVarLongCount(target, count);
+			for (long i = 0; i < count; i++) {
+				if (keySchema != null) {
+					copy(keySchema, source, target);
+				}
+				copy(valueSchema, source, target);
+			}
+		}
+		// write a single byte 0, shortcut for a var-length long of 0
+		target.write(0);
+	}
 	
 	private void checkAvroInitialized() {
 		if (this.reader == null) {
@@ -152,6 +220,7 @@ public final class AvroSerializer<T> extends TypeSerializer<T> {
 			this.writer = new ReflectDatumWriter<T>(type);
 			this.encoder = new DataOutputEncoder();
 			this.decoder = new DataInputDecoder();
+			this.schema = this.reader.getSchema();
 		}
 	}
 	
@@ -50,9 +50,8 @@ public class DoubleParser extends FieldParser<Double> {
 			return -1;
 		}
 
-		String str = new String(bytes, startPos, i - startPos);
 		try {
-			this.result = Double.parseDouble(str);
+			this.result = FloatingPointParsing.parseDouble(bytes, startPos, i - startPos);
 			return (i == limit) ? limit : i + delimiter.length;
 		} catch (NumberFormatException e) {
 			setErrorState(ParseErrorState.NUMERIC_VALUE_FORMAT_ERROR);
@@ -115,7 +114,6 @@ public class DoubleParser extends FieldParser<Double> {
 			throw new NumberFormatException("There is leading or trailing whitespace in the numeric field.");
 		}
 
-		String str = new String(bytes, startPos, i);
-		return Double.parseDouble(str);
+		return FloatingPointParsing.parseDouble(bytes, startPos, i);
 	}
 }
@@ -50,9 +50,8 @@ public class DoubleValueParser extends FieldParser<DoubleValue> {
 			return -1;
 		}
 
-		String str = new String(bytes, startPos, i - startPos);
 		try {
-			double value = Double.parseDouble(str);
+			double value = FloatingPointParsing.parseDouble(bytes, startPos, i - startPos);
 			reusable.setValue(value);
 			this.result = reusable;
 			return (i == limit) ? limit : i + delimiter.length;
@@ -50,9 +50,8 @@ public class FloatParser extends FieldParser<Float> {
 			return -1;
 		}
 
-		String str = new String(bytes, startPos, i - startPos);
 		try {
-			this.result = Float.parseFloat(str);
+			this.result = FloatingPointParsing.parseFloat(bytes, startPos, i - startPos);
 			return (i == limit) ? limit : i + delimiter.length;
 		} catch (NumberFormatException e) {
 			setErrorState(ParseErrorState.NUMERIC_VALUE_FORMAT_ERROR);
@@ -115,7 +114,6 @@ public class FloatParser extends FieldParser<Float> {
 			throw new NumberFormatException("There is leading or trailing whitespace in the numeric field.");
 		}
 
-		String str = new String(bytes, startPos, i);
-		return Float.parseFloat(str);
+		return FloatingPointParsing.parseFloat(bytes, startPos, i);
 	}
 }
@@ -50,9 +50,8 @@ public class FloatValueParser extends FieldParser<FloatValue> {
 			return -1;
 		}
 
-		String str = new String(bytes, startPos, i - startPos);
 		try {
-			float value = Float.parseFloat(str);
+			float value = FloatingPointParsing.parseFloat(bytes, startPos, i - startPos);
 			reusable.setValue(value);
 			this.result = reusable;
 			return (i == limit) ? limit : i + delimiter.length;
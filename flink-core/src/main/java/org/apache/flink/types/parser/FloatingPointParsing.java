@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.types.parser;
+
+/**
+ * Parses floating point numbers directly from the bytes of a text field.
+ *
+ * <p>
+ * Plain decimal numbers with few significant digits, such as {@code "-123.45"}, are the common case
+ * in text files. Their digits are accumulated in a {@code long} which is then divided by a power of ten.
+ * If both the digits and the power of ten are exactly representable, the division is correctly rounded
+ * and gives the same result as {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)},
+ * without creating an intermediate {@code String}. All other numbers (exponents, many digits, special
+ * values, invalid input) fall back to the JDK methods.
+ */
+final class FloatingPointParsing {
+
+	/** The powers of ten that are exactly representable as a double. */
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** The powers of ten that are exactly representable as a float. */
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	/** The largest integer up to which all integers are exactly representable as a double. */
+	private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+	/** The largest integer up to which all integers are exactly representable as a float. */
+	private static final long MAX_EXACT_FLOAT_INTEGER = 1L << 24;
+
+	/** The number of digits that can be accumulated in a long without overflow. */
+	private static final int MAX_DIGITS = 18;
+
+	private FloatingPointParsing() {}
+
+	/**
+	 * Parses a double from the given bytes.
+	 *
+	 * @throws NumberFormatException Thrown if the bytes do not represent a number.
+	 */
+	static double parseDouble(byte[] bytes, int startPos, int length) {
+		final int limit = startPos + length;
+		int i = startPos;
+
+		boolean negative = false;
+		if (i < limit && (bytes[i] == '-' || bytes[i] == '+')) {
+			negative = bytes[i] == '-';
+			i++;
+		}
+
+		long digits = 0;
+		int numDigits = 0;
+		int numFractionDigits = 0;
+		boolean fraction = false;
+
+		for (; i < limit; i++) {
+			final byte b = bytes[i];
+			if (b >= '0' && b <= '9') {
+				if (++numDigits > MAX_DIGITS) {
+					return Double.parseDouble(new String(bytes, startPos, length));
+				}
+				digits = digits * 10 + (b - '0');
+				if (fraction) {
+					numFractionDigits++;
+				}
+			} else if (b == '.' && !fraction) {
+				fraction = true;
+			} else {
+				// exponent, special value, or invalid character
+				return Double.parseDouble(new String(bytes, startPos, length));
+			}
+		}
+
+		if (numDigits == 0 || digits > MAX_EXACT_DOUBLE_INTEGER || numFractionDigits >= DOUBLE_POWERS_OF_TEN.length) {
+			return Double.parseDouble(new String(bytes, startPos, length));
+		}
+
+		final double value = digits / DOUBLE_POWERS_OF_TEN[numFractionDigits];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a float from the given bytes.
+	 *
+	 * @throws NumberFormatException Thrown if the bytes do not represent a number.
+	 */
+	static float parseFloat(byte[] bytes, int startPos, int length) {
+		final int limit = startPos + length;
+		int i = startPos;
+
+		boolean negative = false;
+		if (i < limit && (bytes[i] == '-' || bytes[i] == '+')) {
+			negative = bytes[i] == '-';
+			i++;
+		}
+
+		long digits = 0;
+		int numDigits = 0;
+		int numFractionDigits = 0;
+		boolean fraction = false;
+
+		for (; i < limit; i++) {
+			final byte b = bytes[i];
+			if (b >= '0' && b <= '9') {
+				if (++numDigits > MAX_DIGITS) {
+					return Float.parseFloat(new String(bytes, startPos, length));
+				}
+				digits = digits * 10 + (b - '0');
+				if (fraction) {
+					numFractionDigits++;
+				}
+			} else if (b == '.' && !fraction) {
+				fraction = true;
+			} else {
+				// exponent, special value, or invalid character
+				return Float.parseFloat(new String(bytes, startPos, length));
+			}
+		}
+
+		if (numDigits == 0 || digits > MAX_EXACT_FLOAT_INTEGER || numFractionDigits >= FLOAT_POWERS_OF_TEN.length) {
+			return Float.parseFloat(new String(bytes, startPos, length));
+		}
+
+		// float division of two exactly representable floats is correctly rounded
+		final float value = (float) digits / FLOAT_POWERS_OF_TEN[numFractionDigits];
+		return negative ? -value : value;
+	}
+}
@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.flink.api.common.io.compression.BlockGzipSplitInputStreamTest;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.Path;
@@ -363,6 +364,121 @@ public class DelimitedInputFormatTest {
 		}
 	}
 	
+	/**
+	 * Tests that reopening a split at any checkpointed position continues with the next record.
+	 */
+	@Test
+	public void testReopenAtCheckpointedPosition() {
+		try {
+			final StringBuilder contents = new StringBuilder();
+			for (int i = 0; i < 100; i++) {
+				contents.append("value").append(i * 37).append('\n');
+			}
+			final FileInputSplit file = createTempFile(contents.toString());
+			final long length = file.getLength();
+
+			for (int bufferSize : new int[] {7, 32, 1024}) {
+				for (long splitSize : new long[] {13, 100, length}) {
+					for (long start = 0; start < length; start += splitSize) {
+						FileInputSplit split = new FileInputSplit(0, file.getPath(), start,
+								Math.min(splitSize, length - start), file.getHostnames());
+
+						List<String> expected = readSplit(split, bufferSize, null);
+						for (int numRead = 0; numRead <= expected.size(); numRead++) {
+							MyTextInputFormat format = new MyTextInputFormat();
+							format.setFilePath(split.getPath());
+							format.setBufferSize(bufferSize);
+							format.configure(new Configuration());
+							format.open(split);
+
+							List<String> result = new ArrayList<String>();
+							for (int i = 0; i < numRead; i++) {
+								result.add(format.nextRecord(null));
+							}
+							Long state = format.getCurrentState();
+							format.close();
+
+							result.addAll(readSplit(split, bufferSize, state));
+							assertEquals(expected, result);
+						}
+					}
+				}
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the splits of a block gzip file together return every record exactly once.
+	 */
+	@Test
+	public void testReadBlockGzipSplits() {
+		try {
+			final StringBuilder contents = new StringBuilder();
+			final List<String> expected = new ArrayList<String>();
+			for (int i = 0; i < 5000; i++) {
+				String record = "record-" + i + "-" + Integer.toHexString(i * 31);
+				expected.add(record);
+				contents.append(record).append('\n');
+			}
+
+			final File tempFile = File.createTempFile("test_contents", ".bgz");
+			tempFile.deleteOnExit();
+			BlockGzipSplitInputStreamTest.writeBlockGzipFile(tempFile, contents.toString().getBytes(), 1000);
+
+			format.setFilePath(new Path(tempFile.toURI().toString()));
+			format.setBufferSize(128);
+			format.configure(new Configuration());
+
+			for (int numSplits : new int[] {1, 2, 7, 50, 300}) {
+				FileInputSplit[] splits = format.createInputSplits(numSplits);
+
+				List<String> result = new ArrayList<String>();
+				for (FileInputSplit split : splits) {
+					format.open(split);
+					while (!format.reachedEnd()) {
+						String record = format.nextRecord(null);
+						if (record != null) {
+							result.add(record);
+						}
+					}
+					format.close();
+				}
+
+				assertEquals(expected, result);
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	private static List<String> readSplit(FileInputSplit split, int bufferSize, Long state) throws IOException {
+		MyTextInputFormat format = new MyTextInputFormat();
+		format.setFilePath(split.getPath());
+		format.setBufferSize(bufferSize);
+		format.configure(new Configuration());
+		if (state == null) {
+			format.open(split);
+		} else {
+			format.reopen(split, state);
+		}
+
+		List<String> result = new ArrayList<String>();
+		while (!format.reachedEnd()) {
+			String record = format.nextRecord(null);
+			if (record != null) {
+				result.add(record);
+			}
+		}
+		format.close();
+		return result;
+	}
+
 	private static FileInputSplit createTempFile(String contents) throws IOException {
 		File tempFile = File.createTempFile("test_contents", "tmp");
 		tempFile.deleteOnExit();
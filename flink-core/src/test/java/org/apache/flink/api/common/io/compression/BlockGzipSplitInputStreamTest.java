@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockGzipSplitInputStreamTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testInflateWholeFile() throws IOException {
+		byte[] data = createData(100000);
+		File file = tempFolder.newFile("data.bgz");
+		writeBlockGzipFile(file, data, 1000);
+
+		try (BlockGzipSplitInputStream in = open(file, 0, file.length())) {
+			assertEquals(data.length, in.getInflatedSplitLength());
+			assertArrayEquals(data, readAll(in));
+			assertEquals(data.length, in.getPos());
+		}
+
+		// block gzip files are valid gzip files
+		try (GZIPInputStream in = BlockGzipInflaterInputStreamFactory.getInstance().create(new FileInputStream(file))) {
+			assertArrayEquals(data, readAll(in));
+		}
+	}
+
+	@Test
+	public void testSplitsCoverFileExactlyOnce() throws IOException {
+		byte[] data = createData(50000);
+		File file = tempFolder.newFile("data.bgz");
+		writeBlockGzipFile(file, data, 777);
+
+		for (long splitSize : new long[] {1, 17, 100, 500, 1234, 5000, file.length()}) {
+			ByteArrayOutputStream owned = new ByteArrayOutputStream();
+
+			for (long start = 0; start < file.length(); start += splitSize) {
+				long length = Math.min(splitSize, file.length() - start);
+				try (BlockGzipSplitInputStream in = open(file, start, length)) {
+					assertEquals(start, in.getPos());
+
+					byte[] splitData = readAll(in);
+					assertTrue(splitData.length >= in.getInflatedSplitLength());
+					owned.write(splitData, 0, (int) in.getInflatedSplitLength());
+				}
+			}
+
+			assertArrayEquals("Split size " + splitSize, data, owned.toByteArray());
+		}
+	}
+
+	@Test
+	public void testForwardSeek() throws IOException {
+		byte[] data = createData(10000);
+		File file = tempFolder.newFile("data.bgz");
+		writeBlockGzipFile(file, data, 1000);
+
+		try (BlockGzipSplitInputStream in = open(file, 0, file.length())) {
+			in.seek(2500);
+			assertEquals(2500, in.getPos());
+			assertEquals(data[2500] & 0xff, in.read());
+			in.seek(9999);
+			assertEquals(data[9999] & 0xff, in.read());
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testCorruptBlock() throws IOException {
+		byte[] data = createData(10000);
+		File file = tempFolder.newFile("data.bgz");
+		writeBlockGzipFile(file, data, 1000);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(BlockGzipSplitInputStream.HEADER_LENGTH + 10);
+			raf.write(raf.read() ^ 0xff);
+		}
+
+		try (BlockGzipSplitInputStream in = open(file, 0, file.length())) {
+			readAll(in);
+			fail("Corrupt block was not detected.");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static BlockGzipSplitInputStream open(File file, long start, long length) throws IOException {
+		Path path = new Path(file.toURI());
+		FSDataInputStream in = path.getFileSystem().open(path);
+		return new BlockGzipSplitInputStream(in, start, length);
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] createData(int length) {
+		Random rnd = new Random(length);
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + rnd.nextInt(4));
+		}
+		return data;
+	}
+
+	/**
+	 * Writes the given data as a block gzip (BGZF) file, with at most the given number of bytes per block,
+	 * followed by the empty end-of-file block.
+	 */
+	public static void writeBlockGzipFile(File file, byte[] data, int maxBlockDataSize) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			for (int off = 0; off < data.length; off += maxBlockDataSize) {
+				writeBlock(out, data, off, Math.min(maxBlockDataSize, data.length - off));
+			}
+			writeBlock(out, data, 0, 0);
+		}
+	}
+
+	private static void writeBlock(OutputStream out, byte[] data, int off, int len) throws IOException {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(data, off, len);
+		deflater.finish();
+		byte[] compressed = new byte[len + 1024];
+		int compressedLength = 0;
+		while (!deflater.finished()) {
+			compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+		}
+		deflater.end();
+
+		CRC32 crc = new CRC32();
+		crc.update(data, off, len);
+
+		int blockSize = BlockGzipSplitInputStream.HEADER_LENGTH + compressedLength + BlockGzipSplitInputStream.TRAILER_LENGTH;
+		out.write(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0});
+		writeShort(out, blockSize - 1);
+		out.write(compressed, 0, compressedLength);
+		writeInt(out, (int) crc.getValue());
+		writeInt(out, len);
+	}
+
+	private static void writeShort(OutputStream out, int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+	}
+
+	private static void writeInt(OutputStream out, int value) throws IOException {
+		writeShort(out, value & 0xffff);
+		writeShort(out, value >>> 16);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.avro.reflect.Nullable;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the {@link AvroSerializer} copies serialized records byte by byte, without decoding them.
+ */
+public class AvroSerializerBinaryCopyTest {
+
+	@Test
+	public void testCopySerializedRecords() throws Exception {
+		AvroSerializer<Record> serializer = new AvroSerializer<Record>(Record.class);
+
+		Record full = new Record();
+		full.id = 42L;
+		full.name = "full";
+		full.payload = new byte[] {1, 2, 3};
+		full.kind = Record.Kind.SECOND;
+		full.ratio = 0.5;
+		full.flag = true;
+		for (int i = 0; i < 5; i++) {
+			full.tags.add("tag-" + i);
+			full.counts.put("count-" + i, i);
+		}
+		Record child = new Record();
+		child.id = 7L;
+		full.child = child;
+
+		Record empty = new Record();
+
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		DataOutputViewStreamWrapper out = new DataOutputViewStreamWrapper(serialized);
+		serializer.serialize(full, out);
+		serializer.serialize(empty, out);
+		serializer.serialize(full, out);
+		out.flush();
+
+		ByteArrayOutputStream copied = new ByteArrayOutputStream();
+		DataOutputViewStreamWrapper copyOut = new DataOutputViewStreamWrapper(copied);
+		DataInputViewStreamWrapper in = new DataInputViewStreamWrapper(new ByteArrayInputStream(serialized.toByteArray()));
+		for (int i = 0; i < 3; i++) {
+			serializer.copy(in, copyOut);
+		}
+		copyOut.flush();
+
+		assertEquals(-1, in.read());
+		assertArrayEquals(serialized.toByteArray(), copied.toByteArray());
+
+		DataInputViewStreamWrapper copyIn = new DataInputViewStreamWrapper(new ByteArrayInputStream(copied.toByteArray()));
+		Record copy = serializer.deserialize(copyIn);
+		assertEquals(full.name, copy.name);
+		assertArrayEquals(full.payload, copy.payload);
+		assertEquals(full.tags, copy.tags);
+		assertEquals(full.counts, copy.counts);
+		assertEquals(child.id, copy.child.id);
+	}
+
+	public static class Record {
+
+		public enum Kind { FIRST, SECOND }
+
+		long id;
+		@Nullable
+		String name;
+		byte[] payload = new byte[0];
+		Kind kind = Kind.FIRST;
+		double ratio;
+		boolean flag;
+		List<String> tags = new ArrayList<String>();
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		@Nullable
+		Record child;
+
+		public Record() {}
+	}
+}
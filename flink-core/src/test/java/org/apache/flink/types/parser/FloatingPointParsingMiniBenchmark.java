@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.types.parser;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Compares parsing doubles from a delimited text buffer with the {@link DoubleParser} against
+ * parsing them through an intermediate {@code String}.
+ *
+ * <p>
+ * The benchmark is not executed as part of the regular tests.
+ */
+public class FloatingPointParsingMiniBenchmark {
+
+	private static final int NUM_VALUES = 1000000;
+
+	private static final int NUM_ROUNDS = 10;
+
+	@Test
+	public void benchmarkDoubleParsing() {
+		final byte[] bytes = createData();
+		final byte[] delimiter = {'|'};
+		final DoubleParser parser = new DoubleParser();
+
+		for (int round = 0; round < NUM_ROUNDS; round++) {
+			double sum = 0.0;
+			long start = System.nanoTime();
+			int pos = 0;
+			while (pos < bytes.length) {
+				pos = parser.parseField(bytes, pos, bytes.length, delimiter, null);
+				sum += parser.getLastResult();
+			}
+			long parserTime = System.nanoTime() - start;
+
+			double stringSum = 0.0;
+			start = System.nanoTime();
+			pos = 0;
+			while (pos < bytes.length) {
+				int end = pos;
+				while (end < bytes.length && bytes[end] != '|') {
+					end++;
+				}
+				stringSum += Double.parseDouble(new String(bytes, pos, end - pos));
+				pos = end + 1;
+			}
+			long stringTime = System.nanoTime() - start;
+
+			System.out.println(String.format("DoubleParser: %d ms, String + Double.parseDouble: %d ms (checksums %f / %f)",
+					parserTime / 1000000, stringTime / 1000000, sum, stringSum));
+		}
+	}
+
+	private static byte[] createData() {
+		final Random rnd = new Random(1098236437L);
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < NUM_VALUES; i++) {
+			sb.append(rnd.nextInt(100000) - 50000).append('.').append(rnd.nextInt(10000)).append('|');
+		}
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.types.parser;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the allocation free parsing of floating point numbers gives exactly the same results
+ * as {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}.
+ */
+public class FloatingPointParsingTest {
+
+	private static final String[] VALID_VALUES = {
+		"0", "-0", "+0", "0.0", "-0.0", "1.", ".5", "-.5", "+1.5", "123.4", "0.124", "-12.34",
+		"0.1", "0.2", "0.3", "3.14159", "2.718281828459045", "9007199254740992", "9007199254740993",
+		"16777216", "16777217", "0.000000000000000000001", "0.0000000000000000000001",
+		"123456789012345678", "1234567890123456789", "12345678901234567890.5", "1e10", "1.234E-2",
+		"-1.5e-300", "NaN", "-Infinity", "Infinity", "1.0d", "2.5f", " 1.5", "1.5 ",
+		String.valueOf(Double.MAX_VALUE), String.valueOf(Double.MIN_VALUE),
+		String.valueOf(Float.MAX_VALUE), String.valueOf(Float.MIN_VALUE)
+	};
+
+	private static final String[] INVALID_VALUES = {
+		"", "-", "+", ".", "-.", "a", "1.2.3", "123abc4", "-57-6", "7-877678", "--1", "1-", "1e"
+	};
+
+	@Test
+	public void testValidValues() {
+		for (String value : VALID_VALUES) {
+			checkDouble(value);
+			checkFloat(value);
+		}
+	}
+
+	@Test
+	public void testInvalidValues() {
+		for (String value : INVALID_VALUES) {
+			byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+			try {
+				FloatingPointParsing.parseDouble(bytes, 0, bytes.length);
+				fail("Parsing '" + value + "' as a double should have failed.");
+			} catch (NumberFormatException e) {
+				// expected
+			}
+			try {
+				FloatingPointParsing.parseFloat(bytes, 0, bytes.length);
+				fail("Parsing '" + value + "' as a float should have failed.");
+			} catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testRandomDecimalValues() {
+		final Random rnd = new Random(4523489762L);
+
+		for (int i = 0; i < 100000; i++) {
+			StringBuilder sb = new StringBuilder();
+			if (rnd.nextInt(4) == 0) {
+				sb.append(rnd.nextBoolean() ? '-' : '+');
+			}
+
+			int numDigits = 1 + rnd.nextInt(20);
+			int pointPos = rnd.nextInt(numDigits + 2) - 1;
+			for (int d = 0; d < numDigits; d++) {
+				if (d == pointPos) {
+					sb.append('.');
+				}
+				sb.append((char) ('0' + rnd.nextInt(10)));
+			}
+
+			String value = sb.toString();
+			checkDouble(value);
+			checkFloat(value);
+		}
+	}
+
+	@Test
+	public void testRandomPrintedValues() {
+		final Random rnd = new Random(983456120983L);
+
+		for (int i = 0; i < 10000; i++) {
+			checkDouble(String.valueOf(rnd.nextDouble() * rnd.nextInt(100000)));
+			checkFloat(String.valueOf(rnd.nextFloat() * rnd.nextInt(1000)));
+		}
+	}
+
+	@Test
+	public void testParsingWithinLargerBuffer() {
+		byte[] bytes = "12|-3.25|.5e1|".getBytes(StandardCharsets.US_ASCII);
+
+		assertEquals(12.0, FloatingPointParsing.parseDouble(bytes, 0, 2), 0.0);
+		assertEquals(-3.25, FloatingPointParsing.parseDouble(bytes, 3, 5), 0.0);
+		assertEquals(5.0, FloatingPointParsing.parseDouble(bytes, 9, 4), 0.0);
+
+		assertEquals(12.0f, FloatingPointParsing.parseFloat(bytes, 0, 2), 0.0f);
+		assertEquals(-3.25f, FloatingPointParsing.parseFloat(bytes, 3, 5), 0.0f);
+		assertEquals(5.0f, FloatingPointParsing.parseFloat(bytes, 9, 4), 0.0f);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static void checkDouble(String value) {
+		byte[] bytes = ("|" + value + "|").getBytes(StandardCharsets.US_ASCII);
+		double expected = Double.parseDouble(value);
+		double actual = FloatingPointParsing.parseDouble(bytes, 1, bytes.length - 2);
+		assertEquals("Wrong result for '" + value + "'",
+				Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+	}
+
+	private static void checkFloat(String value) {
+		byte[] bytes = ("|" + value + "|").getBytes(StandardCharsets.US_ASCII);
+		float expected = Float.parseFloat(value);
+		float actual = FloatingPointParsing.parseFloat(bytes, 1, bytes.length - 2);
+		assertEquals("Wrong result for '" + value + "'",
+				Float.floatToRawIntBits(expected), Float.floatToRawIntBits(actual));
+	}
+}
@@ -23,6 +23,7 @@ import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.GroupReduceFunction;
 import org.apache.flink.api.common.functions.RichGroupCombineFunction;
 import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.util.Collector;
 
@@ -44,6 +45,17 @@ public class RichCombineToGroupCombineWrapper<IN, OUT, F extends RichGroupReduce
 		wrappedFunction.open(config);
 	}
 
+	@Override
+	public void close() throws Exception {
+		wrappedFunction.close();
+	}
+
+	@Override
+	public void setRuntimeContext(RuntimeContext t) {
+		super.setRuntimeContext(t);
+		wrappedFunction.setRuntimeContext(t);
+	}
+
 	@Override
 	public void combine(Iterable<IN> values, Collector<IN> out) throws Exception {
 		IN outValue = wrappedFunction.combine(values);
@@ -18,9 +18,13 @@
 
 package org.apache.flink.cep;
 
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.cep.nfa.State;
 import org.apache.flink.cep.nfa.compiler.NFACompiler;
@@ -60,12 +64,67 @@ public class CEP {
 	public static <T, K> PatternStream<T> pattern(DataStream<T> input, Pattern<T, ?> pattern) {
 		final TypeSerializer<T> inputSerializer = input.getType().createSerializer(input.getExecutionConfig());
 
-		// check whether we use processing time
-		final boolean isProcessingTime = input.getExecutionEnvironment().getStreamTimeCharacteristic() == TimeCharacteristic.ProcessingTime;
-
 		// compile our pattern into a NFAFactory to instantiate NFAs later on
 		final NFACompiler.NFAFactory<T> nfaFactory = NFACompiler.compileFactory(pattern, inputSerializer);
 
+		final DataStream<Map<String, T>> patternStream = CEP.<T, K>createPatternStream(input, inputSerializer, nfaFactory);
+
+		return new PatternStream<>(patternStream, input.getType());
+	}
+
+	/**
+	 * Detects multiple patterns on a {@link DataStream<T>}. Patterns with the same window length
+	 * are evaluated by a single operator whose NFA shares the common prefixes of the patterns.
+	 * Conditions which are used by multiple patterns are evaluated only once per event. Every
+	 * detected pattern sequence is emitted as a {@link Tuple2} containing the name of the detected
+	 * pattern and the {@link Map<String, T>} of its events identified by their state names.
+	 *
+	 * @param input DataStream containing the input events
+	 * @param patterns Pattern specifications which shall be detected identified by their names
+	 * @param <T> Type of the input events
+	 * @param <K> Type of the key in case of a KeyedStream (necessary to bind keySelector and
+	 *            keySerializer to the same type)
+	 * @return Stream of the detected pattern sequences tagged with the name of their pattern
+	 */
+	public static <T, K> DataStream<Tuple2<String, Map<String, T>>> patterns(
+			DataStream<T> input,
+			Map<String, Pattern<T, ?>> patterns) {
+		if (patterns.isEmpty()) {
+			throw new IllegalArgumentException("At least one pattern has to be specified.");
+		}
+
+		final TypeSerializer<T> inputSerializer = input.getType().createSerializer(input.getExecutionConfig());
+
+		final TypeInformation<Tuple2<String, Map<String, T>>> matchType = new TupleTypeInfo<>(
+			BasicTypeInfo.STRING_TYPE_INFO,
+			(TypeInformation<Map<String, T>>) (TypeInformation<?>) TypeExtractor.getForClass(Map.class));
+
+		DataStream<Tuple2<String, Map<String, T>>> result = null;
+
+		for (NFACompiler.MultiPatternNFAFactory<T> nfaFactory: NFACompiler.compileMultiPatternFactories(patterns, inputSerializer)) {
+			DataStream<Tuple2<String, Map<String, T>>> matches = CEP.<T, K>createPatternStream(input, inputSerializer, nfaFactory)
+				.map(new PatternMatchResolver<>(nfaFactory))
+				.returns(matchType);
+
+			result = result == null ? matches : result.union(matches);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Instantiates the CEP pattern operator for the given {@link NFACompiler.NFAFactory}. Depending
+	 * on the input {@link DataStream<T>} type, keyed vs. non-keyed, a different
+	 * {@link org.apache.flink.cep.operator.AbstractCEPPatternOperator<T>} is instantiated.
+	 */
+	private static <T, K> DataStream<Map<String, T>> createPatternStream(
+			DataStream<T> input,
+			TypeSerializer<T> inputSerializer,
+			NFACompiler.NFAFactory<T> nfaFactory) {
+
+		// check whether we use processing time
+		final boolean isProcessingTime = input.getExecutionEnvironment().getStreamTimeCharacteristic() == TimeCharacteristic.ProcessingTime;
+
 		final DataStream<Map<String, T>> patternStream;
 
 		if (input instanceof KeyedStream) {
@@ -95,6 +154,28 @@ public class CEP {
 				)).setParallelism(1);
 		}
 
-		return new PatternStream<>(patternStream, input.getType());
+		return patternStream;
+	}
+
+	/**
+	 * Resolves the matches of a multi pattern NFA into the name of the detected pattern and its
+	 * events.
+	 *
+	 * @param <T> Type of the events
+	 */
+	private static class PatternMatchResolver<T> implements MapFunction<Map<String, T>, Tuple2<String, Map<String, T>>> {
+
+		private static final long serialVersionUID = -4394876537416349235L;
+
+		private final NFACompiler.MultiPatternNFAFactory<T> nfaFactory;
+
+		public PatternMatchResolver(NFACompiler.MultiPatternNFAFactory<T> nfaFactory) {
+			this.nfaFactory = nfaFactory;
+		}
+
+		@Override
+		public Tuple2<String, Map<String, T>> map(Map<String, T> value) throws Exception {
+			return nfaFactory.resolveMatch(value);
+		}
 	}
 }
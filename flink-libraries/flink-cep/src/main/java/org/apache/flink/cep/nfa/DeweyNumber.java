@@ -18,6 +18,10 @@
 
 package org.apache.flink.cep.nfa;
 
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 
@@ -138,6 +142,37 @@ public class DeweyNumber implements Serializable {
 		return builder.toString();
 	}
 
+	/**
+	 * Writes the digits of this dewey number to the given output view.
+	 *
+	 * @param target Output view to write to
+	 * @throws IOException if the dewey number could not be written
+	 */
+	void write(DataOutputView target) throws IOException {
+		target.writeInt(deweyNumber.length);
+
+		for (int digit: deweyNumber) {
+			target.writeInt(digit);
+		}
+	}
+
+	/**
+	 * Reads a dewey number which has been written by {@link #write(DataOutputView)}.
+	 *
+	 * @param source Input view to read from
+	 * @return Dewey number read from the given input view
+	 * @throws IOException if the dewey number could not be read
+	 */
+	static DeweyNumber read(DataInputView source) throws IOException {
+		int[] deweyNumber = new int[source.readInt()];
+
+		for (int i = 0; i < deweyNumber.length; i++) {
+			deweyNumber[i] = source.readInt();
+		}
+
+		return new DeweyNumber(deweyNumber);
+	}
+
 	/**
 	 * Creates a dewey number from a string representation. The input string must be a dot separated
 	 * string of integers.
@@ -19,10 +19,16 @@
 package org.apache.flink.cep.nfa;
 
 import com.google.common.collect.LinkedHashMultimap;
+import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.cep.NonDuplicatingTypeSerializer;
+import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.util.DataInputDeserializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -77,11 +83,16 @@ public class NFA<T> implements Serializable {
 	// Current set of computation states within the state machine
 	private transient Queue<ComputationState<T>> computationStates;
 
+	// Results of the conditions evaluated for the current event. A condition which is shared by
+	// multiple transitions or computation states is thus evaluated only once per event
+	private transient Map<FilterFunction<T>, Boolean> conditionResults;
+
 	public NFA(final TypeSerializer<T> eventSerializer, final long windowTime) {
 		this.nonDuplicatingTypeSerializer = new NonDuplicatingTypeSerializer<>(eventSerializer);
 		this.windowTime = windowTime;
 		sharedBuffer = new SharedBuffer<>(nonDuplicatingTypeSerializer);
 		computationStates = new LinkedList<>();
+		conditionResults = new HashMap<>();
 
 		states = new HashSet<>();
 		startEventCounter = 1;
@@ -118,6 +129,8 @@ public class NFA<T> implements Serializable {
 		final int numberComputationStates = computationStates.size();
 		final List<Map<String, T>> result = new ArrayList<>();
 
+		conditionResults.clear();
+
 		// iterate over all current computations
 		for (int i = 0; i < numberComputationStates; i++) {
 			ComputationState<T> computationState = computationStates.poll();
@@ -217,7 +230,7 @@ public class NFA<T> implements Serializable {
 			// check all state transitions for each state
 			for (StateTransition<T> stateTransition: stateTransitions) {
 				try {
-					if (stateTransition.getCondition() == null || stateTransition.getCondition().filter(event)) {
+					if (stateTransition.getCondition() == null || checkCondition(stateTransition.getCondition(), event)) {
 						// filter condition is true
 						switch (stateTransition.getAction()) {
 							case PROCEED:
@@ -308,6 +321,26 @@ public class NFA<T> implements Serializable {
 		return resultingComputationStates;
 	}
 
+	/**
+	 * Checks whether the given event fulfills the given condition. The result is cached until the
+	 * next event is processed.
+	 *
+	 * @param condition Condition to check
+	 * @param event Current event which is processed
+	 * @return True if the event fulfills the condition; otherwise false
+	 * @throws Exception If the condition could not be evaluated
+	 */
+	private boolean checkCondition(final FilterFunction<T> condition, final T event) throws Exception {
+		Boolean result = conditionResults.get(condition);
+
+		if (result == null) {
+			result = condition.filter(event);
+			conditionResults.put(condition, result);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Extracts all the sequences of events from the start to the given computation state. An event
 	 * sequence is returned as a map which contains the events and the names of the states to which
@@ -368,6 +401,7 @@ public class NFA<T> implements Serializable {
 		int numberComputationStates = ois.readInt();
 
 		computationStates = new LinkedList<>();
+		conditionResults = new HashMap<>();
 
 		for (int i = 0; i < numberComputationStates; i++) {
 			ComputationState<T> computationState = readComputationState(ois);
@@ -434,4 +468,255 @@ public class NFA<T> implements Serializable {
 			return name + "_" + index;
 		}
 	}
+
+	/**
+	 * Type serializer for {@link NFA}. Only the dynamic part of the NFA, i.e. the computation
+	 * states, the shared buffer and the start event counter, is serialized. The states of the NFA
+	 * and their transitions are not written. Instead, a fresh NFA is created by the given
+	 * {@link NFACompiler.NFAFactory} upon deserialization and the NFA states are referenced by
+	 * their names. Events are serialized with the event serializer of the NFA.
+	 *
+	 * @param <T> Type of the events processed by the NFA
+	 */
+	public static class NFASerializer<T> extends TypeSerializer<NFA<T>> {
+
+		private static final long serialVersionUID = 2098282423980597010L;
+
+		private final NFACompiler.NFAFactory<T> nfaFactory;
+
+		public NFASerializer(final NFACompiler.NFAFactory<T> nfaFactory) {
+			this.nfaFactory = nfaFactory;
+		}
+
+		@Override
+		public boolean isImmutableType() {
+			return false;
+		}
+
+		@Override
+		public TypeSerializer<NFA<T>> duplicate() {
+			return new NFASerializer<>(nfaFactory);
+		}
+
+		@Override
+		public NFA<T> createInstance() {
+			return nfaFactory.createNFA();
+		}
+
+		@Override
+		public NFA<T> copy(NFA<T> from) {
+			try {
+				DataOutputSerializer output = new DataOutputSerializer(128);
+				serialize(from, output);
+
+				DataInputDeserializer input = new DataInputDeserializer(output.getByteArray(), 0, output.length());
+				return deserialize(input);
+			} catch (IOException e) {
+				throw new RuntimeException("Could not copy the NFA.", e);
+			}
+		}
+
+		@Override
+		public NFA<T> copy(NFA<T> from, NFA<T> reuse) {
+			return copy(from);
+		}
+
+		@Override
+		public int getLength() {
+			return -1;
+		}
+
+		@Override
+		public void serialize(NFA<T> record, DataOutputView target) throws IOException {
+			TypeSerializer<T> eventSerializer = record.nonDuplicatingTypeSerializer.getTypeSerializer();
+
+			target.writeInt(record.startEventCounter);
+
+			target.writeInt(record.computationStates.size());
+
+			for (ComputationState<T> computationState: record.computationStates) {
+				target.writeUTF(computationState.getState().getName());
+				target.writeLong(computationState.getTimestamp());
+				target.writeLong(computationState.getStartTimestamp());
+
+				if (computationState.getVersion() == null) {
+					target.writeBoolean(false);
+				} else {
+					target.writeBoolean(true);
+					computationState.getVersion().write(target);
+				}
+
+				if (computationState.getEvent() == null) {
+					target.writeBoolean(false);
+				} else {
+					target.writeBoolean(true);
+					eventSerializer.serialize(computationState.getEvent(), target);
+				}
+			}
+
+			new SharedBuffer.SharedBufferSerializer<>(new StateSerializer<>(record.states), eventSerializer)
+				.serialize(record.sharedBuffer, target);
+		}
+
+		@Override
+		public NFA<T> deserialize(DataInputView source) throws IOException {
+			NFA<T> nfa = nfaFactory.createNFA();
+			TypeSerializer<T> eventSerializer = nfa.nonDuplicatingTypeSerializer.getTypeSerializer();
+			StateSerializer<T> stateSerializer = new StateSerializer<>(nfa.states);
+
+			nfa.startEventCounter = source.readInt();
+
+			int numberComputationStates = source.readInt();
+
+			nfa.computationStates = new LinkedList<>();
+
+			for (int i = 0; i < numberComputationStates; i++) {
+				State<T> state = stateSerializer.deserialize(source);
+				long timestamp = source.readLong();
+				long startTimestamp = source.readLong();
+				DeweyNumber version = source.readBoolean() ? DeweyNumber.read(source) : null;
+				T event = source.readBoolean() ? eventSerializer.deserialize(source) : null;
+
+				nfa.computationStates.offer(new ComputationState<>(state, event, timestamp, version, startTimestamp));
+			}
+
+			new SharedBuffer.SharedBufferSerializer<>(stateSerializer, eventSerializer)
+				.deserialize(nfa.sharedBuffer, source);
+
+			return nfa;
+		}
+
+		@Override
+		public NFA<T> deserialize(NFA<T> reuse, DataInputView source) throws IOException {
+			return deserialize(source);
+		}
+
+		@Override
+		public void copy(DataInputView source, DataOutputView target) throws IOException {
+			serialize(deserialize(source), target);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof NFASerializer) {
+				@SuppressWarnings("unchecked")
+				NFASerializer<T> other = (NFASerializer<T>) obj;
+
+				return other.canEqual(this) && nfaFactory.equals(other.nfaFactory);
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public boolean canEqual(Object obj) {
+			return obj instanceof NFASerializer;
+		}
+
+		@Override
+		public int hashCode() {
+			return nfaFactory.hashCode();
+		}
+	}
+
+	/**
+	 * Type serializer which serializes a {@link State} by its name. Upon deserialization, the
+	 * state is looked up in the set of states of the NFA which is being restored.
+	 *
+	 * @param <T> Type of the events processed by the NFA
+	 */
+	private static class StateSerializer<T> extends TypeSerializer<State<T>> {
+
+		private static final long serialVersionUID = -1418325473286101264L;
+
+		private final Map<String, State<T>> statesByName;
+
+		StateSerializer(final Collection<State<T>> states) {
+			statesByName = new HashMap<>();
+
+			for (State<T> state: states) {
+				statesByName.put(state.getName(), state);
+			}
+		}
+
+		@Override
+		public boolean isImmutableType() {
+			return true;
+		}
+
+		@Override
+		public TypeSerializer<State<T>> duplicate() {
+			return this;
+		}
+
+		@Override
+		public State<T> createInstance() {
+			return null;
+		}
+
+		@Override
+		public State<T> copy(State<T> from) {
+			return from;
+		}
+
+		@Override
+		public State<T> copy(State<T> from, State<T> reuse) {
+			return from;
+		}
+
+		@Override
+		public int getLength() {
+			return -1;
+		}
+
+		@Override
+		public void serialize(State<T> record, DataOutputView target) throws IOException {
+			target.writeUTF(record.getName());
+		}
+
+		@Override
+		public State<T> deserialize(DataInputView source) throws IOException {
+			String name = source.readUTF();
+			State<T> state = statesByName.get(name);
+
+			if (state == null) {
+				throw new IOException("Could not find the NFA state " + name + ". This indicates " +
+					"that the state was written by an NFA for a different pattern.");
+			}
+
+			return state;
+		}
+
+		@Override
+		public State<T> deserialize(State<T> reuse, DataInputView source) throws IOException {
+			return deserialize(source);
+		}
+
+		@Override
+		public void copy(DataInputView source, DataOutputView target) throws IOException {
+			target.writeUTF(source.readUTF());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof StateSerializer) {
+				@SuppressWarnings("unchecked")
+				StateSerializer<T> other = (StateSerializer<T>) obj;
+
+				return other.canEqual(this) && statesByName.equals(other.statesByName);
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public boolean canEqual(Object obj) {
+			return obj instanceof StateSerializer;
+		}
+
+		@Override
+		public int hashCode() {
+			return statesByName.hashCode();
+		}
+	}
 }
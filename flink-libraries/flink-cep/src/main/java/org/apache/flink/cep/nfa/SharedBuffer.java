@@ -21,8 +21,12 @@ package org.apache.flink.cep.nfa;
 import com.google.common.collect.LinkedHashMultimap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.util.DataInputDeserializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -31,11 +35,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.Stack;
 
 /**
@@ -88,13 +92,11 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 			final V previousValue,
 			final long previousTimestamp,
 			final DeweyNumber version) {
-		SharedBufferPage<K, V> page;
+		SharedBufferPage<K, V> page = pages.get(key);
 
-		if (!pages.containsKey(key)) {
+		if (page == null) {
 			page = new SharedBufferPage<K, V>(key);
 			pages.put(key, page);
-		} else {
-			page = pages.get(key);
 		}
 
 		final SharedBufferEntry<K, V> previousSharedBufferEntry = get(previousKey, previousValue, previousTimestamp);
@@ -127,13 +129,11 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		final V value,
 		final long timestamp,
 		final DeweyNumber version) {
-		SharedBufferPage<K, V> page;
+		SharedBufferPage<K, V> page = pages.get(key);
 
-		if (!pages.containsKey(key)) {
+		if (page == null) {
 			page = new SharedBufferPage<K, V>(key);
 			pages.put(key, page);
-		} else {
-			page = pages.get(key);
 		}
 
 		page.add(
@@ -155,7 +155,9 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		final V value,
 		final long timestamp) {
 
-		return pages.containsKey(key) && pages.get(key).contains(new ValueTimeWrapper<>(value, timestamp));
+		SharedBufferPage<K, V> page = pages.get(key);
+
+		return page != null && page.contains(new ValueTimeWrapper<>(value, timestamp));
 	}
 
 	public boolean isEmpty() {
@@ -422,7 +424,7 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 
 				sharedBufferEntry.referenceCounter = ois.readInt();
 
-				page.entries.put(valueTimeWrapper, sharedBufferEntry);
+				page.addEntry(sharedBufferEntry);
 
 				entryList.add(sharedBufferEntry);
 			}
@@ -466,10 +468,10 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		final K key,
 		final V value,
 		final long timestamp) {
-		if (pages.containsKey(key)) {
-			return pages
-				.get(key)
-				.get(new ValueTimeWrapper<V>(value, timestamp));
+		SharedBufferPage<K, V> page = pages.get(key);
+
+		if (page != null) {
+			return page.get(new ValueTimeWrapper<V>(value, timestamp));
 		} else {
 			return null;
 		}
@@ -535,12 +537,20 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		// key of the page
 		private final K key;
 
-		// Map of entries which are stored in this page
-		private final HashMap<ValueTimeWrapper<V>, SharedBufferEntry<K, V>> entries;
+		// Map of entries which are stored in this page, kept in insertion order
+		private final LinkedHashMap<ValueTimeWrapper<V>, SharedBufferEntry<K, V>> entries;
+
+		// whether the entries have been inserted in ascending timestamp order
+		private boolean timestampOrdered;
+
+		// timestamp of the latest entry if the entries are in timestamp order
+		private long lastTimestamp;
 
 		public SharedBufferPage(final K key) {
 			this.key = key;
-			entries = new HashMap<>();
+			entries = new LinkedHashMap<>();
+
+			resetTimestampOrder();
 		}
 
 		public K getKey() {
@@ -561,7 +571,7 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 			if (sharedBufferEntry == null) {
 				sharedBufferEntry = new SharedBufferEntry<K, V>(valueTime, this);
 
-				entries.put(valueTime, sharedBufferEntry);
+				addEntry(sharedBufferEntry);
 			}
 
 			SharedBufferEdge<K, V> newEdge;
@@ -576,6 +586,24 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 			sharedBufferEntry.addEdge(newEdge);
 		}
 
+		/**
+		 * Adds the given entry to the page and keeps track of whether the entries are still in
+		 * timestamp order.
+		 *
+		 * @param entry Shared buffer entry to be stored
+		 */
+		public void addEntry(final SharedBufferEntry<K, V> entry) {
+			long timestamp = entry.getValueTime().getTimestamp();
+
+			if (timestamp < lastTimestamp) {
+				timestampOrdered = false;
+			} else {
+				lastTimestamp = timestamp;
+			}
+
+			entries.put(entry.getValueTime(), entry);
+		}
+
 		public boolean contains(final ValueTimeWrapper<V> valueTime) {
 			return entries.containsKey(valueTime);
 		}
@@ -586,22 +614,28 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 
 		/**
 		 * Removes all entries from the map whose timestamp is smaller than the pruning timestamp.
+		 * If the entries have been inserted in timestamp order, only the expired entries at the
+		 * head of the page are visited. Otherwise, all entries are checked.
 		 *
 		 * @param pruningTimestamp Timestamp for the pruning
 		 */
 		public void prune(long pruningTimestamp) {
-			Iterator<Map.Entry<ValueTimeWrapper<V>, SharedBufferEntry<K, V>>> iterator = entries.entrySet().iterator();
-			boolean continuePruning = true;
+			Iterator<SharedBufferEntry<K, V>> iterator = entries.values().iterator();
 
-			while (iterator.hasNext() && continuePruning) {
-				SharedBufferEntry<K, V> entry = iterator.next().getValue();
+			while (iterator.hasNext()) {
+				SharedBufferEntry<K, V> entry = iterator.next();
 
 				if (entry.getValueTime().getTimestamp() <= pruningTimestamp) {
 					iterator.remove();
-				} else {
-					continuePruning = false;
+				} else if (timestampOrdered) {
+					// all succeeding entries have a greater or equal timestamp
+					break;
 				}
 			}
+
+			if (entries.isEmpty()) {
+				resetTimestampOrder();
+			}
 		}
 
 		public boolean isEmpty() {
@@ -609,7 +643,18 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		}
 
 		public SharedBufferEntry<K, V> remove(final ValueTimeWrapper<V> valueTime) {
-			return entries.remove(valueTime);
+			SharedBufferEntry<K, V> entry = entries.remove(valueTime);
+
+			if (entries.isEmpty()) {
+				resetTimestampOrder();
+			}
+
+			return entry;
+		}
+
+		private void resetTimestampOrder() {
+			timestampOrdered = true;
+			lastTimestamp = Long.MIN_VALUE;
 		}
 
 		@Override
@@ -655,7 +700,7 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 	 */
 	private static class SharedBufferEntry<K, V> {
 		private final ValueTimeWrapper<V> valueTime;
-		private final Set<SharedBufferEdge<K, V>> edges;
+		private final List<SharedBufferEdge<K, V>> edges;
 		private final SharedBufferPage<K, V> page;
 		private int referenceCounter;
 
@@ -670,7 +715,7 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 			final SharedBufferEdge<K, V> edge,
 			final SharedBufferPage<K, V> page) {
 			this.valueTime = valueTime;
-			edges = new HashSet<>();
+			edges = new ArrayList<>(1);
 
 			if (edge != null) {
 				edges.add(edge);
@@ -694,7 +739,10 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 		}
 
 		public void addEdge(SharedBufferEdge<K, V> edge) {
-			edges.add(edge);
+			// entries have only few edges, thus a list is cheaper than a set
+			if (!edges.contains(edge)) {
+				edges.add(edge);
+			}
 		}
 
 		public boolean remove() {
@@ -892,4 +940,205 @@ public class SharedBuffer<K extends Serializable, V> implements Serializable {
 			return "ExtractionState(" + entry + ", " + version + ", [" +  StringUtils.join(path, ", ") + "])";
 		}
 	}
+
+	/**
+	 * Type serializer for {@link SharedBuffer}. In contrast to the Java serialization of the
+	 * shared buffer, the keys of the pages are serialized with the given key serializer instead of
+	 * writing them as objects. The serialized form consists of the pages with their entries
+	 * followed by the edges between the entries, which are encoded as pairs of entry ids.
+	 *
+	 * @param <K> Type of the keys
+	 * @param <V> Type of the values
+	 */
+	public static class SharedBufferSerializer<K extends Serializable, V> extends TypeSerializer<SharedBuffer<K, V>> {
+
+		private static final long serialVersionUID = -3254176794680331560L;
+
+		private final TypeSerializer<K> keySerializer;
+		private final TypeSerializer<V> valueSerializer;
+
+		public SharedBufferSerializer(final TypeSerializer<K> keySerializer, final TypeSerializer<V> valueSerializer) {
+			this.keySerializer = keySerializer;
+			this.valueSerializer = valueSerializer;
+		}
+
+		@Override
+		public boolean isImmutableType() {
+			return false;
+		}
+
+		@Override
+		public TypeSerializer<SharedBuffer<K, V>> duplicate() {
+			return new SharedBufferSerializer<>(keySerializer.duplicate(), valueSerializer.duplicate());
+		}
+
+		@Override
+		public SharedBuffer<K, V> createInstance() {
+			return new SharedBuffer<>(valueSerializer);
+		}
+
+		@Override
+		public SharedBuffer<K, V> copy(SharedBuffer<K, V> from) {
+			return copy(from, createInstance());
+		}
+
+		@Override
+		public SharedBuffer<K, V> copy(SharedBuffer<K, V> from, SharedBuffer<K, V> reuse) {
+			try {
+				DataOutputSerializer output = new DataOutputSerializer(128);
+				serialize(from, output);
+
+				DataInputDeserializer input = new DataInputDeserializer(output.getByteArray(), 0, output.length());
+				return deserialize(reuse, input);
+			} catch (IOException e) {
+				throw new RuntimeException("Could not copy the shared buffer.", e);
+			}
+		}
+
+		@Override
+		public int getLength() {
+			return -1;
+		}
+
+		@Override
+		public void serialize(SharedBuffer<K, V> record, DataOutputView target) throws IOException {
+			Map<SharedBufferEntry<K, V>, Integer> entryIDs = new HashMap<>();
+			int totalEdges = 0;
+			int entryCounter = 0;
+
+			// number of pages
+			target.writeInt(record.pages.size());
+
+			for (SharedBufferPage<K, V> page: record.pages.values()) {
+				// key of the current page
+				keySerializer.serialize(page.getKey(), target);
+				// number of page entries
+				target.writeInt(page.entries.size());
+
+				for (SharedBufferEntry<K, V> sharedBufferEntry: page.entries.values()) {
+					// assign id to the entry for the serialization of the edges
+					entryIDs.put(sharedBufferEntry, entryCounter++);
+
+					valueSerializer.serialize(sharedBufferEntry.getValueTime().getValue(), target);
+					target.writeLong(sharedBufferEntry.getValueTime().getTimestamp());
+					target.writeInt(sharedBufferEntry.referenceCounter);
+
+					totalEdges += sharedBufferEntry.edges.size();
+				}
+			}
+
+			// write the edges between the shared buffer entries
+			target.writeInt(totalEdges);
+
+			for (SharedBufferPage<K, V> page: record.pages.values()) {
+				for (SharedBufferEntry<K, V> sharedBufferEntry: page.entries.values()) {
+					int id = entryIDs.get(sharedBufferEntry);
+
+					for (SharedBufferEdge<K, V> edge: sharedBufferEntry.edges) {
+						final int targetId;
+
+						if (edge.getTarget() == null) {
+							targetId = -1;
+						} else {
+							Integer entryId = entryIDs.get(edge.getTarget());
+
+							if (entryId == null) {
+								throw new RuntimeException("Could not find id for entry: " + edge.getTarget());
+							}
+
+							targetId = entryId;
+						}
+
+						target.writeInt(id);
+						target.writeInt(targetId);
+						edge.getVersion().write(target);
+					}
+				}
+			}
+		}
+
+		@Override
+		public SharedBuffer<K, V> deserialize(DataInputView source) throws IOException {
+			return deserialize(createInstance(), source);
+		}
+
+		@Override
+		public SharedBuffer<K, V> deserialize(SharedBuffer<K, V> reuse, DataInputView source) throws IOException {
+			ArrayList<SharedBufferEntry<K, V>> entryList = new ArrayList<>();
+
+			reuse.pages = new HashMap<>();
+
+			int numberPages = source.readInt();
+
+			for (int i = 0; i < numberPages; i++) {
+				K key = keySerializer.deserialize(source);
+				SharedBufferPage<K, V> page = new SharedBufferPage<>(key);
+
+				reuse.pages.put(key, page);
+
+				int numberEntries = source.readInt();
+
+				for (int j = 0; j < numberEntries; j++) {
+					V value = valueSerializer.deserialize(source);
+					long timestamp = source.readLong();
+
+					ValueTimeWrapper<V> valueTimeWrapper = new ValueTimeWrapper<>(value, timestamp);
+					SharedBufferEntry<K, V> sharedBufferEntry = new SharedBufferEntry<K, V>(valueTimeWrapper, page);
+
+					sharedBufferEntry.referenceCounter = source.readInt();
+
+					page.addEntry(sharedBufferEntry);
+					entryList.add(sharedBufferEntry);
+				}
+			}
+
+			int numberEdges = source.readInt();
+
+			for (int i = 0; i < numberEdges; i++) {
+				int sourceIndex = source.readInt();
+				int targetIndex = source.readInt();
+				DeweyNumber version = DeweyNumber.read(source);
+
+				if (sourceIndex < 0 || sourceIndex >= entryList.size() || targetIndex >= entryList.size()) {
+					throw new RuntimeException("Could not find entries for the edge from " + sourceIndex +
+						" to " + targetIndex + ". This indicates a corrupted state.");
+				}
+
+				SharedBufferEntry<K, V> target = targetIndex >= 0 ? entryList.get(targetIndex) : null;
+
+				entryList.get(sourceIndex).edges.add(new SharedBufferEdge<K, V>(target, version));
+			}
+
+			return reuse;
+		}
+
+		@Override
+		public void copy(DataInputView source, DataOutputView target) throws IOException {
+			serialize(deserialize(source), target);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof SharedBufferSerializer) {
+				@SuppressWarnings("unchecked")
+				SharedBufferSerializer<K, V> other = (SharedBufferSerializer<K, V>) obj;
+
+				return other.canEqual(this) &&
+					keySerializer.equals(other.keySerializer) &&
+					valueSerializer.equals(other.valueSerializer);
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public boolean canEqual(Object obj) {
+			return obj instanceof SharedBufferSerializer;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(keySerializer, valueSerializer);
+		}
+	}
 }
@@ -39,6 +39,9 @@ public class State<T> implements Serializable {
 	private final StateType stateType;
 	private final Collection<StateTransition<T>> stateTransitions;
 
+	// the hash code is used for every shared buffer access, thus it is cached; 0 means not computed
+	private transient int hashCode;
+
 	public State(final String name, final StateType stateType) {
 		this.name = name;
 		this.stateType = stateType;
@@ -62,6 +65,8 @@ public class State<T> implements Serializable {
 
 	public void addStateTransition(final StateTransition<T> stateTransition) {
 		stateTransitions.add(stateTransition);
+
+		hashCode = 0;
 	}
 
 	@Override
@@ -95,7 +100,11 @@ public class State<T> implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(name, stateType, stateTransitions);
+		if (hashCode == 0) {
+			hashCode = Objects.hash(name, stateType, stateTransitions);
+		}
+
+		return hashCode;
 	}
 
 	/**
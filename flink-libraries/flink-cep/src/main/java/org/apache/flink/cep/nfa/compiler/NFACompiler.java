@@ -20,6 +20,7 @@ package org.apache.flink.cep.nfa.compiler;
 
 import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.State;
 import org.apache.flink.cep.nfa.StateTransition;
@@ -29,11 +30,16 @@ import org.apache.flink.cep.pattern.Pattern;
 import org.apache.flink.streaming.api.windowing.time.Time;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Compiler class containing methods to compile a {@link Pattern} into a {@link NFA} or a
@@ -144,6 +150,180 @@ public class NFACompiler {
 		}
 	}
 
+	/**
+	 * Compiles the given named patterns into a set of {@link MultiPatternNFAFactory}. Patterns with
+	 * the same window length are merged into a single NFA. Within such an NFA, patterns which start
+	 * with the same sequence of pattern states (same names, filter functions and contiguity) share
+	 * the NFA states of this common prefix. Thus, the common prefix is evaluated only once per event.
+	 * The final state of every pattern is never shared so that every match can be attributed to the
+	 * pattern it originates from.
+	 * <p>
+	 * The names of the states of each pattern have to be unique.
+	 *
+	 * @param patterns Definitions of the sequence patterns identified by their names
+	 * @param inputTypeSerializer Serializer for the input type
+	 * @param <T> Type of the input events
+	 * @return Factories for NFAs which detect all given patterns, one per distinct window length
+	 */
+	public static <T> Collection<MultiPatternNFAFactory<T>> compileMultiPatternFactories(
+			Map<String, Pattern<T, ?>> patterns,
+			TypeSerializer<T> inputTypeSerializer) {
+		// patterns with different window lengths cannot be evaluated by the same NFA
+		Map<Long, Map<String, Pattern<T, ?>>> patternsByWindowTime = new LinkedHashMap<>();
+
+		for (Map.Entry<String, Pattern<T, ?>> entry: patterns.entrySet()) {
+			long windowTime = getWindowTime(entry.getValue());
+			Map<String, Pattern<T, ?>> windowPatterns = patternsByWindowTime.get(windowTime);
+
+			if (windowPatterns == null) {
+				windowPatterns = new LinkedHashMap<>();
+				patternsByWindowTime.put(windowTime, windowPatterns);
+			}
+
+			windowPatterns.put(entry.getKey(), entry.getValue());
+		}
+
+		List<MultiPatternNFAFactory<T>> factories = new ArrayList<>(patternsByWindowTime.size());
+
+		for (Map.Entry<Long, Map<String, Pattern<T, ?>>> entry: patternsByWindowTime.entrySet()) {
+			factories.add(compileMultiPatternFactory(entry.getValue(), entry.getKey(), inputTypeSerializer));
+		}
+
+		return factories;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> MultiPatternNFAFactory<T> compileMultiPatternFactory(
+			Map<String, Pattern<T, ?>> patterns,
+			long windowTime,
+			TypeSerializer<T> inputTypeSerializer) {
+		// set of all generated states identified by their unique names
+		Map<String, State<T>> states = new HashMap<>();
+		// states which can be shared by multiple patterns
+		Map<List<Object>, State<T>> sharedStates = new HashMap<>();
+		// names of the pattern states the NFA states correspond to
+		Map<String, String> patternStateNames = new HashMap<>();
+		// names of the patterns the final states belong to
+		Map<String, String> patternNames = new HashMap<>();
+
+		State<T> beginningState = new State<>(BEGINNING_STATE_NAME, State.StateType.Start);
+		states.put(BEGINNING_STATE_NAME, beginningState);
+
+		for (Map.Entry<String, Pattern<T, ?>> entry: patterns.entrySet()) {
+			List<Pattern<T, ?>> patternStates = getPatternStates(entry.getKey(), entry.getValue());
+			State<T> previousState = beginningState;
+
+			for (int i = 0; i < patternStates.size(); i++) {
+				Pattern<T, ?> patternState = patternStates.get(i);
+				FilterFunction<T> filterFunction = (FilterFunction<T>) patternState.getFilterFunction();
+				State<T> currentState;
+
+				if (i == patternStates.size() - 1) {
+					currentState = new State<>(
+						generateUniqueStateName(patternState.getName(), states),
+						State.StateType.Final);
+
+					patternNames.put(currentState.getName(), entry.getKey());
+				} else {
+					// the contiguity to the succeeding state determines whether the state has an
+					// ignoring transition, thus it has to be part of the key of a shared state
+					boolean followedBySucceedingState = patternStates.get(i + 1) instanceof FollowedByPattern;
+					List<Object> sharedStateKey = Arrays.<Object>asList(
+						previousState.getName(),
+						patternState.getName(),
+						filterFunction,
+						followedBySucceedingState);
+
+					if (sharedStates.containsKey(sharedStateKey)) {
+						// the state and the transition leading to it already exist
+						previousState = sharedStates.get(sharedStateKey);
+						continue;
+					}
+
+					currentState = new State<>(
+						generateUniqueStateName(patternState.getName(), states),
+						State.StateType.Normal);
+
+					if (followedBySucceedingState) {
+						// the followed by pattern entails a reflexive ignore transition
+						currentState.addStateTransition(new StateTransition<T>(
+							StateTransitionAction.IGNORE,
+							currentState,
+							null));
+					}
+
+					sharedStates.put(sharedStateKey, currentState);
+				}
+
+				states.put(currentState.getName(), currentState);
+				patternStateNames.put(currentState.getName(), patternState.getName());
+
+				previousState.addStateTransition(new StateTransition<T>(
+					StateTransitionAction.TAKE,
+					currentState,
+					filterFunction));
+
+				previousState = currentState;
+			}
+		}
+
+		return new MultiPatternNFAFactoryImpl<T>(
+			inputTypeSerializer,
+			windowTime,
+			new HashSet<>(states.values()),
+			patternStateNames,
+			patternNames);
+	}
+
+	/**
+	 * Returns the window length of the given pattern which is the minimum of all window lengths
+	 * of its pattern states. The same window length is used by {@link #compileFactory}.
+	 */
+	private static long getWindowTime(Pattern<?, ?> pattern) {
+		long windowTime = pattern.getWindowTime() != null ? pattern.getWindowTime().toMilliseconds() : 0L;
+
+		for (Pattern<?, ?> currentPattern = pattern.getPrevious(); currentPattern != null; currentPattern = currentPattern.getPrevious()) {
+			Time currentWindowTime = currentPattern.getWindowTime();
+
+			if (currentWindowTime != null && currentWindowTime.toMilliseconds() < windowTime) {
+				windowTime = currentWindowTime.toMilliseconds();
+			}
+		}
+
+		return windowTime;
+	}
+
+	/**
+	 * Returns the pattern states of the given pattern ordered from the beginning to the end.
+	 */
+	private static <T> List<Pattern<T, ?>> getPatternStates(String patternName, Pattern<T, ?> pattern) {
+		List<Pattern<T, ?>> patternStates = new ArrayList<>();
+		Set<String> stateNames = new HashSet<>();
+
+		for (Pattern<T, ?> currentPattern = pattern; currentPattern != null; currentPattern = currentPattern.getPrevious()) {
+			if (!stateNames.add(currentPattern.getName()) || BEGINNING_STATE_NAME.equals(currentPattern.getName())) {
+				throw new IllegalArgumentException("The pattern " + patternName + " contains the state name " +
+					currentPattern.getName() + " more than once or uses a reserved state name.");
+			}
+
+			patternStates.add(currentPattern);
+		}
+
+		Collections.reverse(patternStates);
+
+		return patternStates;
+	}
+
+	private static String generateUniqueStateName(String name, Map<String, ?> states) {
+		String uniqueName = name;
+
+		for (int i = 1; states.containsKey(uniqueName); i++) {
+			uniqueName = name + "_" + i;
+		}
+
+		return uniqueName;
+	}
+
 	/**
 	 * Factory interface for {@link NFA}.
 	 *
@@ -153,6 +333,18 @@ public class NFACompiler {
 		NFA<T> createNFA();
 	}
 
+	/**
+	 * Factory interface for an {@link NFA} which detects multiple patterns. The matches of such an
+	 * NFA contain the events identified by the names of the NFA states which are unique across all
+	 * patterns. The factory resolves them into the name of the detected pattern and the events
+	 * identified by the state names of that pattern.
+	 *
+	 * @param <T> Type of the input events which are processed by the NFA
+	 */
+	public interface MultiPatternNFAFactory<T> extends NFAFactory<T> {
+		Tuple2<String, Map<String, T>> resolveMatch(Map<String, T> match);
+	}
+
 	/**
 	 * Implementation of the {@link NFAFactory} interface.
 	 * <p>
@@ -184,4 +376,46 @@ public class NFACompiler {
 			return result;
 		}
 	}
+
+	/**
+	 * Implementation of the {@link MultiPatternNFAFactory} interface.
+	 *
+	 * @param <T> Type of the input events which are processed by the NFA
+	 */
+	private static class MultiPatternNFAFactoryImpl<T> extends NFAFactoryImpl<T> implements MultiPatternNFAFactory<T> {
+
+		private static final long serialVersionUID = -5498563640530291580L;
+
+		private final Map<String, String> patternStateNames;
+		private final Map<String, String> patternNames;
+
+		private MultiPatternNFAFactoryImpl(
+				TypeSerializer<T> inputTypeSerializer,
+				long windowTime,
+				Collection<State<T>> states,
+				Map<String, String> patternStateNames,
+				Map<String, String> patternNames) {
+			super(inputTypeSerializer, windowTime, states);
+
+			this.patternStateNames = patternStateNames;
+			this.patternNames = patternNames;
+		}
+
+		@Override
+		public Tuple2<String, Map<String, T>> resolveMatch(Map<String, T> match) {
+			String patternName = null;
+			Map<String, T> patternMatch = new HashMap<>(match.size());
+
+			for (Map.Entry<String, T> entry: match.entrySet()) {
+				if (patternName == null) {
+					// every match contains exactly one final state
+					patternName = patternNames.get(entry.getKey());
+				}
+
+				patternMatch.put(patternStateNames.get(entry.getKey()), entry.getValue());
+			}
+
+			return Tuple2.of(patternName, patternMatch);
+		}
+	}
 }
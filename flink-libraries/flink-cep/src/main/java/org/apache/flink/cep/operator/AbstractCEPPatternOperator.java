@@ -27,7 +27,6 @@ import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
-import java.util.PriorityQueue;
 
 /**
  * Base class for CEP pattern operator. The operator uses a {@link NFA} to detect complex event
@@ -59,7 +58,20 @@ public abstract class AbstractCEPPatternOperator<IN>
 
 	protected abstract NFA<IN> getNFA() throws IOException;
 
-	protected abstract PriorityQueue<StreamRecord<IN>> getPriorityQueue() throws IOException;
+	/**
+	 * Stores the given NFA after it has processed events.
+	 *
+	 * @param nfa NFA which has been modified
+	 */
+	protected abstract void updateNFA(NFA<IN> nfa) throws IOException;
+
+	/**
+	 * Buffers the given stream record until a watermark with a greater or equal timestamp
+	 * arrives.
+	 *
+	 * @param streamRecord Stream record to buffer
+	 */
+	protected abstract void bufferStreamRecord(StreamRecord<IN> streamRecord) throws Exception;
 
 	@Override
 	public void processElement(StreamRecord<IN> element) throws Exception {
@@ -67,16 +79,15 @@ public abstract class AbstractCEPPatternOperator<IN>
 			// there can be no out of order elements in processing time
 			NFA<IN> nfa = getNFA();
 			processEvent(nfa, element.getValue(), System.currentTimeMillis());
+			updateNFA(nfa);
 		} else {
-			PriorityQueue<StreamRecord<IN>> priorityQueue = getPriorityQueue();
-
 			// event time processing
 			// we have to buffer the elements until we receive the proper watermark
 			if (getExecutionConfig().isObjectReuseEnabled()) {
 				// copy the StreamRecord so that it cannot be changed
-				priorityQueue.offer(new StreamRecord<IN>(inputSerializer.copy(element.getValue()), element.getTimestamp()));
+				bufferStreamRecord(new StreamRecord<IN>(inputSerializer.copy(element.getValue()), element.getTimestamp()));
 			} else {
-				priorityQueue.offer(element);
+				bufferStreamRecord(element);
 			}
 		}
 	}
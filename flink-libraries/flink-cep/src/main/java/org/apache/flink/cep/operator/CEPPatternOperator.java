@@ -25,8 +25,8 @@ import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.runtime.state.AbstractStateBackend;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.MultiplexingStreamRecordSerializer;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
-import org.apache.flink.streaming.runtime.streamrecord.StreamRecordSerializer;
 import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
 
 import java.io.IOException;
@@ -45,7 +45,8 @@ import java.util.PriorityQueue;
 public class CEPPatternOperator<IN> extends AbstractCEPPatternOperator<IN> {
 	private static final long serialVersionUID = 7487334510746595640L;
 
-	private final StreamRecordSerializer<IN> streamRecordSerializer;
+	// keeps the timestamps of the buffered stream records
+	private final MultiplexingStreamRecordSerializer<IN> streamRecordSerializer;
 
 	// global nfa for all elements
 	private NFA<IN> nfa;
@@ -59,7 +60,7 @@ public class CEPPatternOperator<IN> extends AbstractCEPPatternOperator<IN> {
 			NFACompiler.NFAFactory<IN> nfaFactory) {
 		super(inputSerializer, isProcessingTime);
 
-		this.streamRecordSerializer = new StreamRecordSerializer<>(inputSerializer);
+		this.streamRecordSerializer = new MultiplexingStreamRecordSerializer<>(inputSerializer);
 		this.nfa = nfaFactory.createNFA();
 	}
 
@@ -76,8 +77,13 @@ public class CEPPatternOperator<IN> extends AbstractCEPPatternOperator<IN> {
 	}
 
 	@Override
-	protected PriorityQueue<StreamRecord<IN>> getPriorityQueue() throws IOException {
-		return priorityQueue;
+	protected void updateNFA(NFA<IN> nfa) {
+		// the NFA is kept on the heap and therefore already up to date
+	}
+
+	@Override
+	protected void bufferStreamRecord(StreamRecord<IN> streamRecord) {
+		priorityQueue.offer(streamRecord);
 	}
 
 	@Override
@@ -133,7 +139,7 @@ public class CEPPatternOperator<IN> extends AbstractCEPPatternOperator<IN> {
 		priorityQueue = new PriorityQueue<StreamRecord<IN>>(numberPriorityQueueEntries, new StreamRecordComparator<IN>());
 
 		for (int i = 0; i <numberPriorityQueueEntries; i++) {
-			priorityQueue.offer(streamRecordSerializer.deserialize(div));
+			priorityQueue.offer(streamRecordSerializer.deserialize(div).<IN>asRecord());
 		}
 
 		div.close();
@@ -18,35 +18,40 @@
 
 package org.apache.flink.cep.operator;
 
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
-import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
 import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.compiler.NFACompiler;
 import org.apache.flink.core.memory.DataInputView;
-import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.runtime.state.AbstractStateBackend;
 import org.apache.flink.runtime.state.StateHandle;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.MultiplexingStreamRecordSerializer;
+import org.apache.flink.streaming.runtime.streamrecord.StreamElement;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
-import org.apache.flink.streaming.runtime.streamrecord.StreamRecordSerializer;
 import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
 
 import java.io.IOException;
-import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
  * CEP pattern operator implementation for a keyed input stream. For each key, the operator creates
- * a {@link NFA} and a priority queue to buffer out of order elements. Both data structures are
- * stored using the key value state. Additionally, the set of all seen keys is kept as part of the
- * operator state. This is necessary to trigger the execution for all keys upon receiving a new
- * watermark.
+ * a {@link NFA} and a buffer for out of order elements. Both data structures are stored using the
+ * key value state. The NFA is stored with the {@link NFA.NFASerializer} which only writes the
+ * dynamic part of the NFA. Out of order elements are appended to a list state, so that buffering
+ * an element does not require to read and rewrite the already buffered elements. The buffered
+ * elements are written together with their timestamps, because they are needed to order the
+ * elements once the watermark has passed them. Additionally, the set of all seen keys is kept as
+ * part of the operator state. This is necessary to trigger the execution for all keys upon
+ * receiving a new watermark.
  *
  * @param <IN> Type of the input elements
  * @param <KEY> Type of the key on which the input stream is keyed
@@ -55,7 +60,7 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 	private static final long serialVersionUID = -7234999752950159178L;
 
 	private static final String NFA_OPERATOR_STATE_NAME = "nfaOperatorState";
-	private static final String PRIORIRY_QUEUE_STATE_NAME = "priorityQueueStateName";
+	private static final String EVENT_BUFFER_STATE_NAME = "eventBufferState";
 
 	// necessary to extract the key from the input elements
 	private final KeySelector<IN, KEY> keySelector;
@@ -63,7 +68,6 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 	// necessary to serialize the set of seen keys
 	private final TypeSerializer<KEY> keySerializer;
 
-	private final PriorityQueueFactory<StreamRecord<IN>> priorityQueueFactory = new PriorityQueueStreamRecordFactory<>();
 	private final NFACompiler.NFAFactory<IN> nfaFactory;
 
 	// stores the keys we've already seen to trigger execution upon receiving a watermark
@@ -72,7 +76,7 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 	private transient Set<KEY> keys;
 
 	private transient ValueState<NFA<IN>> nfaOperatorState;
-	private transient ValueState<PriorityQueue<StreamRecord<IN>>> priorityQueueOperatorState;
+	private transient ListState<StreamElement> eventBufferOperatorState;
 
 	public KeyedCEPPatternOperator(
 			TypeSerializer<IN> inputSerializer,
@@ -89,7 +93,6 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public void open() throws Exception {
 		if (keys == null) {
 			keys = new HashSet<>();
@@ -99,45 +102,45 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 			nfaOperatorState = getPartitionedState(
 					new ValueStateDescriptor<NFA<IN>>(
 						NFA_OPERATOR_STATE_NAME,
-						new KryoSerializer<NFA<IN>>((Class<NFA<IN>>) (Class<?>) NFA.class, getExecutionConfig()),
+						new NFA.NFASerializer<IN>(nfaFactory),
 						null));
 		}
 
-		if (priorityQueueOperatorState == null) {
-			priorityQueueOperatorState = getPartitionedState(
-					new ValueStateDescriptor<PriorityQueue<StreamRecord<IN>>>(
-						PRIORIRY_QUEUE_STATE_NAME,
-						new PriorityQueueSerializer<StreamRecord<IN>>(
-							new StreamRecordSerializer<IN>(getInputSerializer()),
-							new PriorityQueueStreamRecordFactory<IN>()),
-						null));
+		if (eventBufferOperatorState == null) {
+			eventBufferOperatorState = getPartitionedState(
+					new ListStateDescriptor<StreamElement>(
+						EVENT_BUFFER_STATE_NAME,
+						new MultiplexingStreamRecordSerializer<IN>(getInputSerializer())));
 		}
 	}
 
+	@Override
+	public void dispose() {
+		super.dispose();
+		keys = null;
+		nfaOperatorState = null;
+		eventBufferOperatorState = null;
+	}
+
 	@Override
 	protected NFA<IN> getNFA() throws IOException {
 		NFA<IN> nfa = nfaOperatorState.value();
 
 		if (nfa == null) {
 			nfa = nfaFactory.createNFA();
-
-			nfaOperatorState.update(nfa);
 		}
 
 		return nfa;
 	}
 
 	@Override
-	protected PriorityQueue<StreamRecord<IN>> getPriorityQueue() throws IOException {
-		PriorityQueue<StreamRecord<IN>> priorityQueue = priorityQueueOperatorState.value();
-
-		if (priorityQueue == null) {
-			priorityQueue = priorityQueueFactory.createPriorityQueue();
-
-			priorityQueueOperatorState.update(priorityQueue);
-		}
+	protected void updateNFA(NFA<IN> nfa) throws IOException {
+		nfaOperatorState.update(nfa);
+	}
 
-		return priorityQueue;
+	@Override
+	protected void bufferStreamRecord(StreamRecord<IN> streamRecord) throws Exception {
+		eventBufferOperatorState.add(streamRecord);
 	}
 
 	@Override
@@ -153,14 +156,44 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 		for (KEY key: keys) {
 			setKeyContext(key);
 
-			PriorityQueue<StreamRecord<IN>> priorityQueue = getPriorityQueue();
+			Iterable<StreamElement> bufferedRecords = eventBufferOperatorState.get();
+
+			if (bufferedRecords == null) {
+				continue;
+			}
+
+			PriorityQueue<StreamRecord<IN>> readyRecords = new PriorityQueue<StreamRecord<IN>>(
+				INITIAL_PRIORITY_QUEUE_CAPACITY,
+				new StreamRecordComparator<IN>());
+			List<StreamRecord<IN>> pendingRecords = new ArrayList<>();
+
+			for (StreamElement bufferedRecord: bufferedRecords) {
+				StreamRecord<IN> streamRecord = bufferedRecord.asRecord();
+
+				if (streamRecord.getTimestamp() <= mark.getTimestamp()) {
+					readyRecords.offer(streamRecord);
+				} else {
+					pendingRecords.add(streamRecord);
+				}
+			}
+
+			// only touch the state of keys which have received elements up to the watermark
+			if (!readyRecords.isEmpty()) {
+				NFA<IN> nfa = getNFA();
+
+				while (!readyRecords.isEmpty()) {
+					StreamRecord<IN> streamRecord = readyRecords.poll();
+
+					processEvent(nfa, streamRecord.getValue(), streamRecord.getTimestamp());
+				}
 
-			NFA<IN> nfa = getNFA();
+				updateNFA(nfa);
 
-			while (!priorityQueue.isEmpty() && priorityQueue.peek().getTimestamp() <= mark.getTimestamp()) {
-				StreamRecord<IN> streamRecord = priorityQueue.poll();
+				eventBufferOperatorState.clear();
 
-				processEvent(nfa, streamRecord.getValue(), streamRecord.getTimestamp());
+				for (StreamRecord<IN> streamRecord: pendingRecords) {
+					eventBufferOperatorState.add(streamRecord);
+				}
 			}
 		}
 
@@ -189,7 +222,7 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 		super.restoreState(state, recoveryTimestamp);
 
 		@SuppressWarnings("unchecked")
-		StateHandle<DataInputView> stateHandle = (StateHandle<DataInputView>) state;
+		StateHandle<DataInputView> stateHandle = (StateHandle<DataInputView>) state.getOperatorState();
 
 		DataInputView inputView = stateHandle.getState(getUserCodeClassloader());
 
@@ -203,134 +236,4 @@ public class KeyedCEPPatternOperator<IN, KEY> extends AbstractCEPPatternOperator
 			keys.add(keySerializer.deserialize(inputView));
 		}
 	}
-
-	/**
-	 * Custom type serializer implementation to serialize priority queues.
-	 *
-	 * @param <T> Type of the priority queue's elements
-	 */
-	private static class PriorityQueueSerializer<T> extends TypeSerializer<PriorityQueue<T>> {
-
-		private static final long serialVersionUID = -231980397616187715L;
-
-		private final TypeSerializer<T> elementSerializer;
-		private final PriorityQueueFactory<T> factory;
-
-		public PriorityQueueSerializer(final TypeSerializer<T> elementSerializer, final PriorityQueueFactory<T> factory) {
-			this.elementSerializer = elementSerializer;
-			this.factory = factory;
-		}
-
-		@Override
-		public boolean isImmutableType() {
-			return false;
-		}
-
-		@Override
-		public TypeSerializer<PriorityQueue<T>> duplicate() {
-			return new PriorityQueueSerializer<>(elementSerializer.duplicate(), factory);
-		}
-
-		@Override
-		public PriorityQueue<T> createInstance() {
-			return factory.createPriorityQueue();
-		}
-
-		@Override
-		public PriorityQueue<T> copy(PriorityQueue<T> from) {
-			PriorityQueue<T> result = factory.createPriorityQueue();
-
-			for (T element: from) {
-				result.offer(elementSerializer.copy(element));
-			}
-
-			return result;
-		}
-
-		@Override
-		public PriorityQueue<T> copy(PriorityQueue<T> from, PriorityQueue<T> reuse) {
-			reuse.clear();
-
-			for (T element: from) {
-				reuse.offer(elementSerializer.copy(element));
-			}
-
-			return reuse;
-		}
-
-		@Override
-		public int getLength() {
-			return 0;
-		}
-
-		@Override
-		public void serialize(PriorityQueue<T> record, DataOutputView target) throws IOException {
-			target.writeInt(record.size());
-
-			for (T element: record) {
-				elementSerializer.serialize(element, target);
-			}
-		}
-
-		@Override
-		public PriorityQueue<T> deserialize(DataInputView source) throws IOException {
-			PriorityQueue<T> result = factory.createPriorityQueue();
-
-			return deserialize(result, source);
-		}
-
-		@Override
-		public PriorityQueue<T> deserialize(PriorityQueue<T> reuse, DataInputView source) throws IOException {
-			reuse.clear();
-
-			int numberEntries = source.readInt();
-
-			for (int i = 0; i < numberEntries; i++) {
-				reuse.offer(elementSerializer.deserialize(source));
-			}
-
-			return reuse;
-		}
-
-		@Override
-		public void copy(DataInputView source, DataOutputView target) throws IOException {
-
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-			if (obj instanceof PriorityQueueSerializer) {
-				@SuppressWarnings("unchecked")
-				PriorityQueueSerializer<T> other = (PriorityQueueSerializer<T>) obj;
-
-				return factory.equals(other.factory) && elementSerializer.equals(other.elementSerializer);
-			} else {
-				return false;
-			}
-		}
-
-		@Override
-		public boolean canEqual(Object obj) {
-			return obj instanceof PriorityQueueSerializer;
-		}
-
-		@Override
-		public int hashCode() {
-			return Objects.hash(factory, elementSerializer);
-		}
-	}
-
-	private interface PriorityQueueFactory<T> extends Serializable {
-		PriorityQueue<T> createPriorityQueue();
-	}
-
-	private static class PriorityQueueStreamRecordFactory<T> implements PriorityQueueFactory<StreamRecord<T>> {
-
-		private static final long serialVersionUID = 1254766984454616593L;
-
-		@Override
-		public PriorityQueue<StreamRecord<T>> createPriorityQueue() {
-			return new PriorityQueue<StreamRecord<T>>(INITIAL_PRIORITY_QUEUE_CAPACITY, new StreamRecordComparator<T>());
-		}
-	}
 }
@@ -38,6 +38,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @SuppressWarnings("serial")
@@ -201,6 +202,93 @@ public class CEPITCase extends StreamingMultipleProgramsTestBase {
 		env.execute();
 	}
 
+	/**
+	 * Checks that multiple patterns with a common prefix are detected on a keyed stream and that
+	 * the matches are tagged with the names of the patterns.
+	 */
+	@Test
+	public void testMultipleKeyedPatternsCEP() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(2);
+
+		DataStream<Event> input = env.fromElements(
+			new Event(1, "barfoo", 1.0),
+			new Event(2, "start", 2.0),
+			new Event(3, "start", 2.1),
+			new Event(3, "middle", 3.2),
+			new Event(2, "middle", 6.0),
+			new Event(3, "end", 2.0),
+			new Event(2, "end", 1.0),
+			new Event(2, "other", 1.0)
+		).keyBy(new KeySelector<Event, Integer>() {
+
+			@Override
+			public Integer getKey(Event value) throws Exception {
+				return value.getId();
+			}
+		});
+
+		FilterFunction<Event> startFilter = new FilterFunction<Event>() {
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("start");
+			}
+		};
+
+		FilterFunction<Event> middleFilter = new FilterFunction<Event>() {
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("middle");
+			}
+		};
+
+		Map<String, Pattern<Event, ?>> patterns = new LinkedHashMap<>();
+
+		patterns.put("end", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("last").where(new FilterFunction<Event>() {
+
+				@Override
+				public boolean filter(Event value) throws Exception {
+					return value.getName().equals("end");
+				}
+			}));
+
+		patterns.put("other", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("last").where(new FilterFunction<Event>() {
+
+				@Override
+				public boolean filter(Event value) throws Exception {
+					return value.getName().equals("other");
+				}
+			}));
+
+		DataStream<String> result = CEP.patterns(input, patterns).map(new MapFunction<Tuple2<String, Map<String, Event>>, String>() {
+
+			@Override
+			public String map(Tuple2<String, Map<String, Event>> value) throws Exception {
+				StringBuilder builder = new StringBuilder();
+
+				builder.append(value.f0).append(",")
+					.append(value.f1.get("start").getId()).append(",")
+					.append(value.f1.get("middle").getId()).append(",")
+					.append(value.f1.get("last").getId());
+
+				return builder.toString();
+			}
+		});
+
+		result.writeAsText(resultPath, FileSystem.WriteMode.OVERWRITE);
+
+		// the expected sequences of matching event ids tagged with their patterns
+		expected = "end,2,2,2\nend,3,3,3\nother,2,2,2";
+
+		env.execute();
+	}
+
 	@Test
 	public void testSimplePatternEventTime() throws Exception {
 		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
@@ -19,6 +19,7 @@
 package org.apache.flink.cep.nfa;
 
 import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.cep.Event;
 import org.apache.flink.cep.StreamEvent;
 import org.apache.flink.cep.SubEvent;
@@ -30,10 +31,13 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class NFAITCase extends TestLogger {
 
@@ -157,4 +161,111 @@ public class NFAITCase extends TestLogger {
 		assertEquals(middleEvent, patternMap.get("middle"));
 		assertEquals(endEvent, patternMap.get("end"));
 	}
+
+	/**
+	 * Tests that an NFA detecting multiple patterns with a common prefix attributes the matches
+	 * to the correct patterns and evaluates shared conditions only once per event.
+	 */
+	@Test
+	public void testMultiPatternNFA() {
+		List<StreamEvent<Event>> inputEvents = new ArrayList<>();
+
+		Event startEvent = new Event(41, "start", 1.0);
+		Event middleEvent = new Event(42, "middle", 2.0);
+		Event endEvent1 = new Event(43, "end", 1.0);
+		Event endEvent2 = new Event(44, "end", 3.0);
+
+		inputEvents.add(new StreamEvent<>(startEvent, 1));
+		inputEvents.add(new StreamEvent<>(middleEvent, 2));
+		inputEvents.add(new StreamEvent<>(new Event(45, "foobar", 1.0), 3));
+		inputEvents.add(new StreamEvent<>(endEvent1, 4));
+		inputEvents.add(new StreamEvent<>(endEvent2, 5));
+
+		final CountingNameFilter startFilter = new CountingNameFilter("start");
+		final CountingNameFilter middleFilter = new CountingNameFilter("middle");
+		final CountingNameFilter endFilter = new CountingNameFilter("end");
+
+		Map<String, Pattern<Event, ?>> patterns = new LinkedHashMap<>();
+
+		patterns.put("any", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("end").where(endFilter));
+
+		patterns.put("expensive", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("expensiveEnd").where(endFilter).where(new FilterFunction<Event>() {
+				private static final long serialVersionUID = 2397744211364958624L;
+
+				@Override
+				public boolean filter(Event value) throws Exception {
+					return value.getPrice() > 2.0;
+				}
+			}));
+
+		Collection<NFACompiler.MultiPatternNFAFactory<Event>> nfaFactories =
+			NFACompiler.compileMultiPatternFactories(patterns, Event.createTypeSerializer());
+
+		assertEquals(1, nfaFactories.size());
+
+		NFACompiler.MultiPatternNFAFactory<Event> nfaFactory = nfaFactories.iterator().next();
+		NFA<Event> nfa = nfaFactory.createNFA();
+
+		List<Tuple2<String, Map<String, Event>>> resultingPatterns = new ArrayList<>();
+
+		for (StreamEvent<Event> inputEvent: inputEvents) {
+			Collection<Map<String, Event>> patternMatches = nfa.process(
+				inputEvent.getEvent(),
+				inputEvent.getTimestamp());
+
+			for (Map<String, Event> patternMatch: patternMatches) {
+				resultingPatterns.add(nfaFactory.resolveMatch(patternMatch));
+			}
+		}
+
+		// the shared conditions are evaluated at most once per event
+		assertEquals(inputEvents.size(), startFilter.getNumberInvocations());
+		assertEquals(inputEvents.size() - 1, middleFilter.getNumberInvocations());
+
+		Map<String, Event> anyMatch1 = new HashMap<>();
+		anyMatch1.put("start", startEvent);
+		anyMatch1.put("middle", middleEvent);
+		anyMatch1.put("end", endEvent1);
+
+		Map<String, Event> anyMatch2 = new HashMap<>(anyMatch1);
+		anyMatch2.put("end", endEvent2);
+
+		Map<String, Event> expensiveMatch = new HashMap<>();
+		expensiveMatch.put("start", startEvent);
+		expensiveMatch.put("middle", middleEvent);
+		expensiveMatch.put("expensiveEnd", endEvent2);
+
+		assertEquals(3, resultingPatterns.size());
+		assertEquals(Tuple2.of("any", anyMatch1), resultingPatterns.get(0));
+		assertTrue(resultingPatterns.contains(Tuple2.of("any", anyMatch2)));
+		assertTrue(resultingPatterns.contains(Tuple2.of("expensive", expensiveMatch)));
+	}
+
+	private static class CountingNameFilter implements FilterFunction<Event> {
+
+		private static final long serialVersionUID = -1478929101456618540L;
+
+		private final String name;
+
+		private int numberInvocations;
+
+		public CountingNameFilter(final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public boolean filter(Event value) throws Exception {
+			numberInvocations++;
+
+			return value.getName().equals(name);
+		}
+
+		public int getNumberInvocations() {
+			return numberInvocations;
+		}
+	}
 }
@@ -22,6 +22,10 @@ import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.cep.Event;
 import org.apache.flink.cep.StreamEvent;
+import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.runtime.util.DataInputDeserializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
 import org.apache.flink.util.TestLogger;
 import org.junit.Test;
 
@@ -250,6 +254,48 @@ public class NFATest extends TestLogger {
 		assertEquals(nfa, copy);
 	}
 
+	/**
+	 * Tests that an NFA which is serialized with the {@link NFA.NFASerializer} in the middle of
+	 * a match can be restored and continues the match.
+	 */
+	@Test
+	public void testNFASerializer() throws IOException {
+		Pattern<Event, ?> pattern = Pattern.<Event>begin("start").where(new NameFilter("start"))
+			.followedBy("middle").where(new NameFilter("middle"))
+			.followedBy("end").where(new NameFilter("end"));
+
+		NFACompiler.NFAFactory<Event> nfaFactory = NFACompiler.compileFactory(pattern, Event.createTypeSerializer());
+		NFA.NFASerializer<Event> serializer = new NFA.NFASerializer<>(nfaFactory);
+
+		Event startEvent = new Event(1, "start", 1.0);
+		Event middleEvent = new Event(2, "middle", 2.0);
+		Event endEvent = new Event(3, "end", 3.0);
+
+		NFA<Event> nfa = nfaFactory.createNFA();
+
+		assertEquals(Collections.emptyList(), nfa.process(startEvent, 1L));
+		assertEquals(Collections.emptyList(), nfa.process(new Event(4, "foobar", 4.0), 2L));
+		assertEquals(Collections.emptyList(), nfa.process(middleEvent, 3L));
+
+		DataOutputSerializer output = new DataOutputSerializer(64);
+		serializer.serialize(nfa, output);
+
+		DataInputDeserializer input = new DataInputDeserializer(output.getByteArray(), 0, output.length());
+		NFA<Event> copy = serializer.deserialize(input);
+
+		assertEquals(nfa, copy);
+
+		Collection<Map<String, Event>> patterns = copy.process(endEvent, 4L);
+
+		assertEquals(1, patterns.size());
+
+		Map<String, Event> patternMap = patterns.iterator().next();
+
+		assertEquals(startEvent, patternMap.get("start"));
+		assertEquals(middleEvent, patternMap.get("middle"));
+		assertEquals(endEvent, patternMap.get("end"));
+	}
+
 	private NFA<Event> createStartEndNFA(long windowLength) {
 		NFA<Event> nfa = new NFA<>(Event.createTypeSerializer(), windowLength);
 
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.cep.nfa;
+
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.cep.Event;
+import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Mini benchmark for the {@link SharedBuffer} and the {@link NFA}. It measures the time to put,
+ * extract and prune shared buffer entries as well as the time to process a stream of events with
+ * a windowed pattern. The benchmark is not executed as part of the regular tests.
+ */
+public class SharedBufferMiniBenchmark {
+
+	private static final int NUMBER_EVENTS = 1000000;
+
+	private static final int WINDOW_LENGTH = 10000;
+
+	private static final int PATTERN_WINDOW_LENGTH = 20;
+
+	private static final long SEED = 561349061987311L;
+
+	@Test
+	public void testPutExtractPrune() {
+		SharedBuffer<String, Event> sharedBuffer = new SharedBuffer<>(Event.createTypeSerializer());
+		DeweyNumber startVersion = DeweyNumber.fromString("1");
+		DeweyNumber version = DeweyNumber.fromString("1.0");
+
+		long putTime = 0;
+		long extractTime = 0;
+		long pruneTime = 0;
+		int numberPatterns = 0;
+
+		Event previousEvent = null;
+
+		for (int i = 0; i < NUMBER_EVENTS; i++) {
+			Event event = new Event(i, "e", i);
+
+			long start = System.nanoTime();
+
+			sharedBuffer.put("start", event, i, startVersion);
+
+			if (previousEvent != null) {
+				sharedBuffer.put("end", event, i, "start", previousEvent, i - 1, version);
+			}
+
+			long afterPut = System.nanoTime();
+
+			if (previousEvent != null) {
+				numberPatterns += sharedBuffer.extractPatterns("end", event, i, version).size();
+			}
+
+			long afterExtract = System.nanoTime();
+
+			sharedBuffer.prune(i - WINDOW_LENGTH);
+
+			long afterPrune = System.nanoTime();
+
+			putTime += afterPut - start;
+			extractTime += afterExtract - afterPut;
+			pruneTime += afterPrune - afterExtract;
+
+			previousEvent = event;
+		}
+
+		System.out.println("Put:     " + putTime / 1000000 + " ms");
+		System.out.println("Extract: " + extractTime / 1000000 + " ms (" + numberPatterns + " patterns)");
+		System.out.println("Prune:   " + pruneTime / 1000000 + " ms");
+	}
+
+	@Test
+	public void testWindowedPattern() {
+		Pattern<Event, ?> pattern = Pattern.<Event>begin("start").where(new NameFilter("a"))
+			.followedBy("middle").where(new NameFilter("b"))
+			.followedBy("end").where(new NameFilter("c"))
+			.within(Time.milliseconds(PATTERN_WINDOW_LENGTH));
+
+		NFA<Event> nfa = NFACompiler.compile(pattern, Event.createTypeSerializer());
+
+		Random random = new Random(SEED);
+		String[] names = {"a", "b", "c", "d", "e", "f", "g", "h"};
+		int numberPatterns = 0;
+
+		long start = System.nanoTime();
+
+		for (int i = 0; i < NUMBER_EVENTS; i++) {
+			Event event = new Event(i, names[random.nextInt(names.length)], i);
+
+			numberPatterns += nfa.process(event, i).size();
+		}
+
+		long end = System.nanoTime();
+
+		System.out.println("Processed " + NUMBER_EVENTS + " events in " + (end - start) / 1000000 +
+			" ms (" + numberPatterns + " patterns)");
+	}
+
+	private static class NameFilter implements FilterFunction<Event> {
+
+		private static final long serialVersionUID = -3143829548398434045L;
+
+		private final String name;
+
+		public NameFilter(final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public boolean filter(Event value) throws Exception {
+			return value.getName().equals(name);
+		}
+	}
+}
@@ -19,7 +19,10 @@
 package org.apache.flink.cep.nfa;
 
 import com.google.common.collect.LinkedHashMultimap;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.cep.Event;
+import org.apache.flink.runtime.util.DataInputDeserializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
 import org.apache.flink.util.TestLogger;
 import org.junit.Test;
 
@@ -133,4 +136,75 @@ public class SharedBufferTest extends TestLogger {
 
 		assertEquals(sharedBuffer, copy);
 	}
+
+	@Test
+	public void testSharedBufferSerializer() throws IOException {
+		SharedBuffer<String, Event> sharedBuffer = new SharedBuffer<>(Event.createTypeSerializer());
+		int numberEvents = 8;
+		Event[] events = new Event[numberEvents];
+		final long timestamp = 1L;
+
+		for (int i = 0; i < numberEvents; i++) {
+			events[i] = new Event(i + 1, "e" + (i + 1), i);
+		}
+
+		sharedBuffer.put("a1", events[0], timestamp, null, null, 0, DeweyNumber.fromString("1"));
+		sharedBuffer.put("a[]", events[1], timestamp, "a1", events[0], timestamp, DeweyNumber.fromString("1.0"));
+		sharedBuffer.put("a1", events[2], timestamp, null, null, 0, DeweyNumber.fromString("2"));
+		sharedBuffer.put("a[]", events[2], timestamp, "a[]", events[1], timestamp, DeweyNumber.fromString("1.0"));
+		sharedBuffer.put("a[]", events[3], timestamp, "a[]", events[2], timestamp, DeweyNumber.fromString("1.0"));
+		sharedBuffer.put("a[]", events[3], timestamp, "a1", events[2], timestamp, DeweyNumber.fromString("2.0"));
+		sharedBuffer.put("a[]", events[4], timestamp, "a[]", events[3], timestamp, DeweyNumber.fromString("1.0"));
+		sharedBuffer.put("a[]", events[5], timestamp, "a[]", events[4], timestamp, DeweyNumber.fromString("1.1"));
+		sharedBuffer.put("b", events[5], timestamp, "a[]", events[3], timestamp, DeweyNumber.fromString("2.0.0"));
+		sharedBuffer.put("b", events[5], timestamp, "a[]", events[4], timestamp, DeweyNumber.fromString("1.0.0"));
+		sharedBuffer.put("a[]", events[6], timestamp, "a[]", events[5], timestamp, DeweyNumber.fromString("1.1"));
+		sharedBuffer.put("b", events[7], timestamp, "a[]", events[6], timestamp, DeweyNumber.fromString("1.1.0"));
+
+		SharedBuffer.SharedBufferSerializer<String, Event> serializer = new SharedBuffer.SharedBufferSerializer<>(
+			StringSerializer.INSTANCE,
+			Event.createTypeSerializer());
+
+		DataOutputSerializer output = new DataOutputSerializer(64);
+		serializer.serialize(sharedBuffer, output);
+
+		DataInputDeserializer input = new DataInputDeserializer(output.getByteArray(), 0, output.length());
+		SharedBuffer<String, Event> copy = serializer.deserialize(input);
+
+		assertEquals(sharedBuffer, copy);
+		assertEquals(sharedBuffer, serializer.copy(sharedBuffer));
+	}
+
+	/**
+	 * Tests that pruning removes all expired entries, regardless of whether the entries have been
+	 * inserted in timestamp order or not.
+	 */
+	@Test
+	public void testSharedBufferPruning() {
+		SharedBuffer<String, Event> sharedBuffer = new SharedBuffer<>(Event.createTypeSerializer());
+		int numberEvents = 100;
+
+		for (int i = 0; i < numberEvents; i++) {
+			sharedBuffer.put("ordered", new Event(i, "e" + i, i), i, DeweyNumber.fromString("1"));
+		}
+
+		for (int i = 0; i < numberEvents; i++) {
+			// insert the entries with alternating timestamps
+			long timestamp = i % 2 == 0 ? i : numberEvents - i;
+			sharedBuffer.put("unordered", new Event(i, "e" + i, i), timestamp, DeweyNumber.fromString("1"));
+		}
+
+		sharedBuffer.prune(numberEvents / 2 - 1);
+
+		for (int i = 0; i < numberEvents; i++) {
+			long timestamp = i % 2 == 0 ? i : numberEvents - i;
+
+			assertEquals(i >= numberEvents / 2, sharedBuffer.contains("ordered", new Event(i, "e" + i, i), i));
+			assertEquals(timestamp >= numberEvents / 2, sharedBuffer.contains("unordered", new Event(i, "e" + i, i), timestamp));
+		}
+
+		sharedBuffer.prune(numberEvents);
+
+		assertTrue(sharedBuffer.isEmpty());
+	}
 }
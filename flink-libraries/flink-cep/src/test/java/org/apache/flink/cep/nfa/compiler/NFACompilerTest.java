@@ -29,11 +29,15 @@ import org.apache.flink.cep.nfa.State;
 import org.apache.flink.cep.nfa.StateTransition;
 import org.apache.flink.cep.nfa.StateTransitionAction;
 import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.util.TestLogger;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -126,4 +130,91 @@ public class NFACompilerTest extends TestLogger {
 		assertTrue(endState.isFinal());
 		assertEquals(0, endState.getStateTransitions().size());
 	}
+
+	/**
+	 * Tests that the NFACompiler merges the common prefix of multiple patterns and creates
+	 * separate NFAs for patterns with different window lengths.
+	 */
+	@Test
+	public void testNFACompilerWithMultiplePatterns() {
+		FilterFunction<Event> startFilter = new FilterFunction<Event>() {
+			private static final long serialVersionUID = -8003530581932434318L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("start");
+			}
+		};
+
+		FilterFunction<Event> middleFilter = new FilterFunction<Event>() {
+			private static final long serialVersionUID = 2725913640432617085L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("middle");
+			}
+		};
+
+		Map<String, Pattern<Event, ?>> patterns = new LinkedHashMap<>();
+
+		patterns.put("first", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("end"));
+
+		patterns.put("second", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.followedBy("end").where(new FilterFunction<Event>() {
+				private static final long serialVersionUID = -5093296366624530565L;
+
+				@Override
+				public boolean filter(Event value) throws Exception {
+					return value.getPrice() > 2;
+				}
+			}));
+
+		// the succeeding state is strictly contiguous, thus the middle state cannot be shared
+		patterns.put("third", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("middle").where(middleFilter)
+			.next("end"));
+
+		patterns.put("fourth", Pattern.<Event>begin("start").where(startFilter)
+			.followedBy("end")
+			.within(Time.milliseconds(10)));
+
+		TypeInformation<Event> typeInformation = (TypeInformation<Event>) TypeExtractor.createTypeInfo(Event.class);
+
+		List<NFACompiler.MultiPatternNFAFactory<Event>> nfaFactories = new ArrayList<>(
+			NFACompiler.compileMultiPatternFactories(patterns, typeInformation.createSerializer(new ExecutionConfig())));
+
+		assertEquals(2, nfaFactories.size());
+
+		Set<State<Event>> states = nfaFactories.get(0).createNFA().getStates();
+
+		Map<String, State<Event>> stateMap = new HashMap<>();
+
+		for (State<Event> state: states) {
+			stateMap.put(state.getName(), state);
+		}
+
+		// beginning, start, two middle states and three end states
+		assertEquals(7, states.size());
+
+		State<Event> beginningState = stateMap.get(NFACompiler.BEGINNING_STATE_NAME);
+		assertEquals(1, beginningState.getStateTransitions().size());
+
+		State<Event> startState = stateMap.get("start");
+		assertEquals(3, startState.getStateTransitions().size());
+
+		State<Event> sharedMiddleState = stateMap.get("middle");
+		assertEquals(3, sharedMiddleState.getStateTransitions().size());
+
+		State<Event> middleState = stateMap.get("middle_1");
+		assertEquals(1, middleState.getStateTransitions().size());
+
+		assertTrue(stateMap.get("end").isFinal());
+		assertTrue(stateMap.get("end_1").isFinal());
+		assertTrue(stateMap.get("end_2").isFinal());
+
+		assertEquals(3, nfaFactories.get(1).createNFA().getStates().size());
+	}
 }
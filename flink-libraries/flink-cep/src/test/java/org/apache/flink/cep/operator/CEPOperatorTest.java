@@ -18,13 +18,19 @@
 
 package org.apache.flink.cep.operator;
 
+import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.cep.Event;
 import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.cep.pattern.Pattern;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
 import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
 import org.apache.flink.util.TestLogger;
 import org.junit.Test;
@@ -94,6 +100,110 @@ public class CEPOperatorTest extends TestLogger {
 		harness.close();
 	}
 
+	/**
+	 * Tests that the buffered elements keep their timestamps across a snapshot and restore.
+	 * Otherwise the restored elements would be processed by the first watermark and the
+	 * window time of the pattern would be evaluated on wrong times.
+	 */
+	@Test
+	public void testCEPOperatorRestoreKeepsTimestamps() throws Exception {
+		OneInputStreamOperatorTestHarness<Event, Map<String, Event>> harness = new OneInputStreamOperatorTestHarness<>(
+			new CEPPatternOperator<Event>(
+				Event.createTypeSerializer(),
+				false,
+				NFACompiler.compileFactory(createStartEndPattern(), Event.createTypeSerializer()))
+		);
+
+		harness.open();
+
+		verifyRestoreKeepsTimestamps(harness);
+	}
+
+	@Test
+	public void testKeyedCEPOperatorRestoreKeepsTimestamps() throws Exception {
+		KeySelector<Event, Integer> keySelector = new KeySelector<Event, Integer>() {
+			private static final long serialVersionUID = -2715826547133457826L;
+
+			@Override
+			public Integer getKey(Event value) throws Exception {
+				return value.getId();
+			}
+		};
+
+		OneInputStreamOperatorTestHarness<Event, Map<String, Event>> harness = new OneInputStreamOperatorTestHarness<>(
+			new KeyedCEPPatternOperator<Event, Integer>(
+				Event.createTypeSerializer(),
+				false,
+				keySelector,
+				IntSerializer.INSTANCE,
+				NFACompiler.compileFactory(createStartEndPattern(), Event.createTypeSerializer()))
+		);
+
+		harness.configureForKeyedStream(keySelector, BasicTypeInfo.INT_TYPE_INFO);
+
+		harness.open();
+
+		verifyRestoreKeepsTimestamps(harness);
+	}
+
+	private static void verifyRestoreKeepsTimestamps(
+			OneInputStreamOperatorTestHarness<Event, Map<String, Event>> harness) throws Exception {
+
+		Event startEvent = new Event(42, "start", 1.0);
+		Event endEvent = new Event(42, "end", 1.0);
+
+		harness.processElement(new StreamRecord<>(startEvent, 100L));
+		harness.processElement(new StreamRecord<>(endEvent, 105L));
+
+		// do a snapshot, close and restore again
+		StreamTaskState snapshot = harness.snapshot(0L, 0L);
+		harness.close();
+		harness.setup();
+		harness.restore(snapshot, 10L);
+		harness.open();
+
+		// the restored elements lie after the watermark and must stay buffered
+		harness.processWatermark(new Watermark(50L));
+
+		assertEquals(new Watermark(50L), harness.getOutput().poll());
+		assertTrue(harness.getOutput().isEmpty());
+
+		harness.processWatermark(new Watermark(200L));
+
+		Object result = harness.getOutput().poll();
+
+		assertTrue(result instanceof StreamRecord);
+
+		@SuppressWarnings("unchecked")
+		Map<String, Event> patternMap = ((StreamRecord<Map<String, Event>>) result).getValue();
+
+		assertEquals(startEvent, patternMap.get("start"));
+		assertEquals(endEvent, patternMap.get("end"));
+
+		assertEquals(new Watermark(200L), harness.getOutput().poll());
+		assertTrue(harness.getOutput().isEmpty());
+
+		harness.close();
+	}
+
+	private static Pattern<Event, ?> createStartEndPattern() {
+		return Pattern.<Event>begin("start").where(new FilterFunction<Event>() {
+			private static final long serialVersionUID = 5726188262756267490L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("start");
+			}
+		}).followedBy("end").where(new FilterFunction<Event>() {
+			private static final long serialVersionUID = 7056763917392056548L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("end");
+			}
+		}).within(Time.milliseconds(10L));
+	}
+
 	public static class DummyNFAFactory<T> implements NFACompiler.NFAFactory<T> {
 
 		private static final long serialVersionUID = 1173020762472766713L;
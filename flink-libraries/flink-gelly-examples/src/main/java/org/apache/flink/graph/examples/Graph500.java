@@ -26,10 +26,14 @@ import org.apache.flink.api.java.io.CsvOutputFormat;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.utils.DataSetUtils;
 import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.graph.Edge;
 import org.apache.flink.graph.generator.RMatGraph;
 import org.apache.flink.graph.generator.random.JDKRandomGeneratorFactory;
 import org.apache.flink.graph.generator.random.RandomGenerableFactory;
+import org.apache.flink.graph.io.BinaryEdgeListOutputFormat;
 import org.apache.flink.types.LongValue;
+import org.apache.flink.types.NullValue;
 
 import java.text.NumberFormat;
 
@@ -69,10 +73,12 @@ public class Graph500 {
 		boolean simplify = parameters.getBoolean("simplify", DEFAULT_SIMPLIFY);
 		boolean clipAndFlip = parameters.getBoolean("clip_and_flip", DEFAULT_CLIP_AND_FLIP);
 
-		DataSet<Tuple2<LongValue,LongValue>> edges = new RMatGraph<>(env, rnd, vertexCount, edgeCount)
+		DataSet<Edge<LongValue,NullValue>> graphEdges = new RMatGraph<>(env, rnd, vertexCount, edgeCount)
 			.setSimpleGraph(simplify, clipAndFlip)
 			.generate()
-			.getEdges()
+			.getEdges();
+
+		DataSet<Tuple2<LongValue,LongValue>> edges = graphEdges
 			.project(0, 1);
 
 		// Print, hash, or write RMat graph to disk
@@ -93,6 +99,13 @@ public class Graph500 {
 
 			edges.writeAsCsv(filename, row_delimiter, field_delimiter);
 
+			env.execute();
+			break;
+
+		case "binary":
+			// fixed-length records which are read back with Graph.fromBinaryEdgeList
+			graphEdges.output(new BinaryEdgeListOutputFormat<NullValue>(new Path(parameters.get("filename"))));
+
 			env.execute();
 			break;
 		default:
@@ -109,6 +122,7 @@ public class Graph500 {
 			System.out.println("  Graph500 [--scale SCALE] [--edge_factor EDGE_FACTOR] --output hash");
 			System.out.println("  Graph500 [--scale SCALE] [--edge_factor EDGE_FACTOR] --output csv" +
 					" --filename FILENAME [--row_delimiter ROW_DELIMITER] [--field_delimiter FIELD_DELIMITER]");
+			System.out.println("  Graph500 [--scale SCALE] [--edge_factor EDGE_FACTOR] --output binary --filename FILENAME");
 
 			return;
 		}
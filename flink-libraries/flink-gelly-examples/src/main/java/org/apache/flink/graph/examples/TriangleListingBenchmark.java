@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.examples;
+
+import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.utils.DataSetUtils;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.graph.Graph;
+import org.apache.flink.graph.generator.RMatGraph;
+import org.apache.flink.graph.generator.random.JDKRandomGeneratorFactory;
+import org.apache.flink.graph.generator.random.RandomGenerableFactory;
+import org.apache.flink.graph.library.TriangleEnumerator;
+import org.apache.flink.graph.library.TriangleListing;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.NullValue;
+
+import java.text.NumberFormat;
+
+/**
+ * Compares the degree-ordered {@link TriangleListing} with the {@link TriangleEnumerator}
+ * on a simple, undirected RMat graph.
+ */
+public class TriangleListingBenchmark {
+
+	public static final int DEFAULT_SCALE = 10;
+
+	public static final int DEFAULT_EDGE_FACTOR = 16;
+
+	public static final boolean DEFAULT_CLIP_AND_FLIP = true;
+
+	public static void main(String[] args) throws Exception {
+		// Set up the execution environment
+		final ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		ParameterTool parameters = ParameterTool.fromArgs(args);
+
+		// Generate RMat graph
+		int scale = parameters.getInt("scale", DEFAULT_SCALE);
+		int edgeFactor = parameters.getInt("edge_factor", DEFAULT_EDGE_FACTOR);
+
+		RandomGenerableFactory<JDKRandomGenerator> rnd = new JDKRandomGeneratorFactory();
+
+		long vertexCount = 1 << scale;
+		long edgeCount = vertexCount * edgeFactor;
+
+		boolean clipAndFlip = parameters.getBoolean("clip_and_flip", DEFAULT_CLIP_AND_FLIP);
+
+		Graph<LongValue, NullValue, NullValue> graph = new RMatGraph<>(env, rnd, vertexCount, edgeCount)
+			.setSimpleGraph(true, clipAndFlip)
+			.generate();
+
+		DataSet<Tuple3<LongValue, LongValue, LongValue>> triangles;
+
+		switch (parameters.get("algorithm", "")) {
+		case "listing":
+			env.getConfig().enableObjectReuse();
+
+			triangles = graph
+				.run(new TriangleListing<LongValue, NullValue, NullValue>());
+			break;
+
+		case "enumerator":
+			// the TriangleEnumerator does not support object reuse
+			triangles = graph
+				.run(new TriangleEnumerator<LongValue, NullValue, NullValue>());
+			break;
+
+		default:
+			printUsage();
+			return;
+		}
+
+		// Print or hash the triangles
+		switch (parameters.get("output", "")) {
+		case "print":
+			triangles.print();
+			break;
+
+		case "hash":
+			System.out.println(DataSetUtils.checksumHashCode(triangles));
+			break;
+
+		default:
+			printUsage();
+			return;
+		}
+
+		JobExecutionResult result = env.getLastJobExecutionResult();
+
+		NumberFormat nf = NumberFormat.getInstance();
+		System.out.println("Execution runtime: " + nf.format(result.getNetRuntime()) + " ms");
+	}
+
+	private static void printUsage() {
+		System.out.println("Lists the triangles of a simple, undirected RMat graph using either the");
+		System.out.println("degree-ordered TriangleListing or the TriangleEnumerator.");
+		System.out.println();
+		System.out.println("The graph matrix contains 2^scale vertices and edge_factor * 2^scale");
+		System.out.println("edges before duplicate edges and self-loops are removed.");
+		System.out.println();
+		System.out.println("usage:");
+		System.out.println("  TriangleListingBenchmark --algorithm <listing | enumerator>" +
+				" [--scale SCALE] [--edge_factor EDGE_FACTOR] --output print");
+		System.out.println("  TriangleListingBenchmark --algorithm <listing | enumerator>" +
+				" [--scale SCALE] [--edge_factor EDGE_FACTOR] --output hash");
+	}
+}
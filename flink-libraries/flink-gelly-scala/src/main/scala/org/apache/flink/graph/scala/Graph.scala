@@ -26,6 +26,7 @@ import org.apache.flink.api.scala._
 import org.apache.flink.graph._
 import org.apache.flink.graph.validation.GraphValidator
 import org.apache.flink.graph.gsa.{ApplyFunction, GSAConfiguration, GatherFunction, SumFunction}
+import org.apache.flink.graph.spargel
 import org.apache.flink.graph.spargel.{MessagingFunction, ScatterGatherConfiguration, VertexUpdateFunction}
 import org.apache.flink.{graph => jg}
 import _root_.scala.collection.JavaConverters._
@@ -1150,6 +1151,48 @@ TypeInformation : ClassTag](jgraph: jg.Graph[K, VV, EV]) {
       maxIterations, parameters))
   }
 
+  /**
+   * Runs a scatter-gather iteration on the graph, combining the messages sent to the same vertex.
+   * No configuration options are provided.
+   *
+   * @param vertexUpdateFunction the vertex update function
+   * @param messagingFunction the messaging function
+   * @param combineFunction the message combiner function
+   * @param maxIterations maximum number of iterations to perform
+   *
+   * @return the updated Graph after the scatter-gather iteration has converged or
+   *         after maximumNumberOfIterations.
+   */
+  def runScatterGatherIteration[M](vertexUpdateFunction: VertexUpdateFunction[K, VV, M],
+                                   messagingFunction: MessagingFunction[K, VV, M, EV],
+                                   combineFunction: spargel.MessageCombiner[K, M],
+                                   maxIterations: Int): Graph[K, VV, EV] = {
+    wrapGraph(jgraph.runScatterGatherIteration(vertexUpdateFunction, messagingFunction,
+      combineFunction, maxIterations))
+  }
+
+  /**
+   * Runs a scatter-gather iteration on the graph with configuration options,
+   * combining the messages sent to the same vertex.
+   *
+   * @param vertexUpdateFunction the vertex update function
+   * @param messagingFunction the messaging function
+   * @param combineFunction the message combiner function
+   * @param maxIterations maximum number of iterations to perform
+   * @param parameters the iteration configuration parameters
+   *
+   * @return the updated Graph after the scatter-gather iteration has converged or
+   *         after maximumNumberOfIterations.
+   */
+  def runScatterGatherIteration[M](vertexUpdateFunction: VertexUpdateFunction[K, VV, M],
+                                   messagingFunction: MessagingFunction[K, VV, M, EV],
+                                   combineFunction: spargel.MessageCombiner[K, M],
+                                   maxIterations: Int, parameters: ScatterGatherConfiguration):
+  Graph[K, VV, EV] = {
+    wrapGraph(jgraph.runScatterGatherIteration(vertexUpdateFunction, messagingFunction,
+      combineFunction, maxIterations, parameters))
+  }
+
   /**
    * Runs a Gather-Sum-Apply iteration on the graph.
    * No configuration options are provided.
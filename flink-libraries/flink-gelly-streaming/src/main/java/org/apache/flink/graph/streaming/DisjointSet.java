@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A union-find data structure over the vertices seen in an edge stream. It is used as the
+ * summary of the connected components: two vertices are in the same component if and only if
+ * {@link #find(Object)} returns the same representative for both of them.
+ * <p>
+ * The structure keeps exactly one parent and one rank entry per vertex, with union by rank
+ * and path compression, so that the summary of a window can be merged into the running
+ * summary without keeping any edges.
+ *
+ * @param <K> the type of the vertex ids
+ */
+public class DisjointSet<K> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<K, K> parents;
+
+	private final Map<K, Integer> ranks;
+
+	public DisjointSet() {
+		this.parents = new HashMap<>();
+		this.ranks = new HashMap<>();
+	}
+
+	/**
+	 * @return the representative of every vertex seen so far
+	 */
+	public Map<K, K> getMatches() {
+		Map<K, K> matches = new HashMap<>(parents.size());
+		for (K element : parents.keySet()) {
+			matches.put(element, find(element));
+		}
+		return matches;
+	}
+
+	/**
+	 * @return the number of vertices seen so far
+	 */
+	public int size() {
+		return parents.size();
+	}
+
+	/**
+	 * Adds a vertex as a new singleton component, if it has not been seen before.
+	 *
+	 * @param element the vertex id
+	 */
+	public void makeSet(K element) {
+		if (!parents.containsKey(element)) {
+			parents.put(element, element);
+			ranks.put(element, 0);
+		}
+	}
+
+	/**
+	 * Finds the representative of the component of the given vertex, compressing the path to it.
+	 *
+	 * @param element the vertex id
+	 * @return the representative, or null if the vertex has not been seen
+	 */
+	public K find(K element) {
+		K parent = parents.get(element);
+		if (parent == null) {
+			return null;
+		}
+
+		K root = element;
+		while (!parent.equals(root)) {
+			root = parent;
+			parent = parents.get(root);
+		}
+
+		// path compression
+		K current = element;
+		while (!current.equals(root)) {
+			K next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Merges the components of the two given vertices, adding the vertices if necessary.
+	 *
+	 * @param e1 the first vertex id
+	 * @param e2 the second vertex id
+	 */
+	public void union(K e1, K e2) {
+		makeSet(e1);
+		makeSet(e2);
+
+		K root1 = find(e1);
+		K root2 = find(e2);
+		if (root1.equals(root2)) {
+			return;
+		}
+
+		int rank1 = ranks.get(root1);
+		int rank2 = ranks.get(root2);
+		if (rank1 < rank2) {
+			parents.put(root1, root2);
+		}
+		else if (rank1 > rank2) {
+			parents.put(root2, root1);
+		}
+		else {
+			parents.put(root2, root1);
+			ranks.put(root1, rank1 + 1);
+		}
+	}
+
+	/**
+	 * Merges another summary into this one.
+	 *
+	 * @param other the summary to merge
+	 */
+	public void merge(DisjointSet<K> other) {
+		for (Map.Entry<K, K> entry : other.parents.entrySet()) {
+			union(entry.getKey(), other.find(entry.getValue()));
+		}
+	}
+
+	@Override
+	public String toString() {
+		Map<K, StringBuilder> components = new HashMap<>();
+		for (K element : parents.keySet()) {
+			K root = find(element);
+			StringBuilder component = components.get(root);
+			if (component == null) {
+				components.put(root, new StringBuilder().append(element));
+			}
+			else {
+				component.append(',').append(element);
+			}
+		}
+
+		StringBuilder result = new StringBuilder();
+		for (StringBuilder component : components.values()) {
+			result.append('{').append(component).append('}');
+		}
+		return result.toString();
+	}
+}
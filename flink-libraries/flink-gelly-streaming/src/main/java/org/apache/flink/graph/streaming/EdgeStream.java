@@ -0,0 +1,602 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.FoldFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.api.java.typeutils.ValueTypeInfo;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.graph.EdgeDirection;
+import org.apache.flink.graph.Vertex;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.StateHandle;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.Preconditions;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents a graph that is given as an unbounded stream of edges. The graph properties are
+ * maintained incrementally as the edges arrive, so that they never have to be recomputed from
+ * the complete graph.
+ * <p>
+ * Each property is emitted once per window (in the time characteristic of the
+ * {@link StreamExecutionEnvironment}). The degrees are emitted only for the vertices whose
+ * degree was changed by the edges of the window, while the connected components and the
+ * triangle count estimate are emitted as a whole after every window that holds edges.
+ * The state kept per vertex is bounded and independent of the number of edges.
+ *
+ * @param <K> the type of the vertex ids
+ * @param <EV> the type of the edge values
+ */
+public class EdgeStream<K, EV> {
+
+	private final StreamExecutionEnvironment context;
+
+	private final DataStream<Edge<K, EV>> edges;
+
+	/**
+	 * Creates a graph from a stream of edges.
+	 *
+	 * @param edges a DataStream of edges.
+	 * @param context the Flink streaming execution environment.
+	 */
+	public EdgeStream(DataStream<Edge<K, EV>> edges, StreamExecutionEnvironment context) {
+		this.edges = edges;
+		this.context = context;
+	}
+
+	/**
+	 * @return the Flink streaming execution environment.
+	 */
+	public StreamExecutionEnvironment getContext() {
+		return this.context;
+	}
+
+	/**
+	 * @return the edge DataStream.
+	 */
+	public DataStream<Edge<K, EV>> getEdges() {
+		return this.edges;
+	}
+
+	/**
+	 * Maintains the degree (the number of in- and out-going edges) of every vertex.
+	 *
+	 * @param window the window after which the updated degrees are emitted
+	 * @return a stream with the new degree of every vertex whose degree changed in a window
+	 */
+	public DataStream<Vertex<K, LongValue>> getDegrees(Time window) {
+		return aggregateDegrees(EdgeDirection.ALL, window).name("Degrees");
+	}
+
+	/**
+	 * Maintains the in-degree of every vertex.
+	 *
+	 * @param window the window after which the updated in-degrees are emitted
+	 * @return a stream with the new in-degree of every vertex whose in-degree changed in a window
+	 */
+	public DataStream<Vertex<K, LongValue>> getInDegrees(Time window) {
+		return aggregateDegrees(EdgeDirection.IN, window).name("In-degrees");
+	}
+
+	/**
+	 * Maintains the out-degree of every vertex.
+	 *
+	 * @param window the window after which the updated out-degrees are emitted
+	 * @return a stream with the new out-degree of every vertex whose out-degree changed in a window
+	 */
+	public DataStream<Vertex<K, LongValue>> getOutDegrees(Time window) {
+		return aggregateDegrees(EdgeDirection.OUT, window).name("Out-degrees");
+	}
+
+	/**
+	 * Maintains the weakly connected components of the graph.
+	 * <p>
+	 * The edges of a window are first folded into one union-find summary per parallel partition.
+	 * The partial summaries are then merged into the running summary of the whole graph, which
+	 * holds one entry per vertex and no edges. The complete running summary is emitted after
+	 * every window.
+	 *
+	 * @param window the window after which the components are emitted
+	 * @return a stream with the summary of the connected components after every window
+	 */
+	@SuppressWarnings("unchecked")
+	public DataStream<DisjointSet<K>> getConnectedComponents(Time window) {
+		TypeInformation<DisjointSet<K>> summaryType =
+				new GenericTypeInfo<>((Class<DisjointSet<K>>) (Class<?>) DisjointSet.class);
+
+		return edges
+				.map(new AssignPartition<K, EV>())
+				.returns(new TupleTypeInfo<Tuple2<Integer, Edge<K, EV>>>(
+						BasicTypeInfo.INT_TYPE_INFO, edges.getType()))
+				.keyBy(0)
+				.timeWindow(window)
+				.fold(new DisjointSet<K>(), new UpdateComponents<K, EV>(), summaryType)
+				.name("Partial components")
+				.timeWindowAll(window)
+				.reduce(new MergeComponents<K>())
+				.flatMap(new CombineComponents<K>()).returns(summaryType)
+				.setParallelism(1)
+				.name("Connected components");
+	}
+
+	/**
+	 * Estimates the number of triangles of the graph, ignoring the edge directions.
+	 * <p>
+	 * The edges are broadcast to all parallel instances, each of which keeps an independent
+	 * reservoir sample of {@code sampleSize} edges (see {@link TriangleEstimator}) and emits its
+	 * local estimate once at the end of every window, tagged with the end of the window. The
+	 * emitted estimate of a window is the average of the local estimates of all instances for
+	 * that window.
+	 *
+	 * @param sampleSize the number of edges sampled by each parallel instance
+	 * @param window the window after which the estimate is emitted
+	 * @return a stream with the estimated number of triangles after every window
+	 */
+	public DataStream<Long> estimateTriangleCount(int sampleSize, Time window) {
+		Preconditions.checkArgument(sampleSize >= 3, "The sample size must be at least three.");
+
+		boolean processingTime = context.getStreamTimeCharacteristic() == TimeCharacteristic.ProcessingTime;
+
+		TypeInformation<Tuple3<Long, Double, Integer>> estimateType = new TupleTypeInfo<>(
+				BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO);
+
+		return edges
+				.broadcast()
+				.transform("Local triangle count estimates", estimateType,
+						new EstimateTriangles<K, EV>(sampleSize, window.toMilliseconds(), processingTime))
+				.transform("Triangle count estimate", BasicTypeInfo.LONG_TYPE_INFO,
+						new AverageEstimates(processingTime))
+				.setParallelism(1);
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Degrees
+	// --------------------------------------------------------------------------------------------
+
+	@SuppressWarnings("unchecked")
+	private SingleOutputStreamOperator<Vertex<K, LongValue>>
+			aggregateDegrees(EdgeDirection direction, Time window) {
+
+		TypeInformation<K> keyType = ((TupleTypeInfo<?>) edges.getType()).getTypeAt(0);
+		TypeInformation<Vertex<K, LongValue>> vertexType = new TupleTypeInfo<>(
+				(Class<Vertex<K, LongValue>>) (Class<?>) Vertex.class, keyType, ValueTypeInfo.LONG_VALUE_TYPE_INFO);
+
+		return edges
+				.flatMap(new EmitDegreeIncrements<K, EV>(direction))
+				.returns(new TupleTypeInfo<Tuple2<K, Long>>(keyType, BasicTypeInfo.LONG_TYPE_INFO))
+				.keyBy(0)
+				.timeWindow(window)
+				.reduce(new SumDegreeIncrements<K>())
+				.keyBy(0)
+				.map(new UpdateDegree<K>())
+				.returns(vertexType);
+	}
+
+	@SuppressWarnings("serial")
+	private static final class EmitDegreeIncrements<K, EV> implements FlatMapFunction<Edge<K, EV>, Tuple2<K, Long>> {
+
+		private final EdgeDirection direction;
+
+		private final Tuple2<K, Long> increment = new Tuple2<>(null, 1L);
+
+		private EmitDegreeIncrements(EdgeDirection direction) {
+			this.direction = direction;
+		}
+
+		@Override
+		public void flatMap(Edge<K, EV> edge, Collector<Tuple2<K, Long>> out) {
+			if (direction != EdgeDirection.IN) {
+				increment.f0 = edge.getSource();
+				out.collect(increment);
+			}
+			if (direction != EdgeDirection.OUT) {
+				increment.f0 = edge.getTarget();
+				out.collect(increment);
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class SumDegreeIncrements<K> implements ReduceFunction<Tuple2<K, Long>> {
+
+		@Override
+		public Tuple2<K, Long> reduce(Tuple2<K, Long> value1, Tuple2<K, Long> value2) {
+			value1.f1 += value2.f1;
+			return value1;
+		}
+	}
+
+	/**
+	 * Adds the degree increments of a window to the degree kept in the keyed state of the vertex.
+	 */
+	@SuppressWarnings("serial")
+	private static final class UpdateDegree<K> extends RichMapFunction<Tuple2<K, Long>, Vertex<K, LongValue>> {
+
+		private transient ValueState<LongValue> degree;
+
+		private transient Vertex<K, LongValue> outVertex;
+
+		@Override
+		public void open(Configuration parameters) {
+			degree = getRuntimeContext().getState(
+					new ValueStateDescriptor<>("degree", LongValue.class, null));
+			outVertex = new Vertex<>();
+		}
+
+		@Override
+		public Vertex<K, LongValue> map(Tuple2<K, Long> increment) throws Exception {
+			LongValue value = degree.value();
+			if (value == null) {
+				value = new LongValue();
+			}
+			value.setValue(value.getValue() + increment.f1);
+			degree.update(value);
+
+			outVertex.f0 = increment.f0;
+			outVertex.f1 = value;
+			return outVertex;
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Connected components
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Tags every edge with one of as many partitions as the operator has parallel instances,
+	 * so that each instance folds the edges of a window into a single partial summary.
+	 */
+	@SuppressWarnings("serial")
+	private static final class AssignPartition<K, EV> extends RichMapFunction<Edge<K, EV>, Tuple2<Integer, Edge<K, EV>>> {
+
+		private transient int numberOfPartitions;
+
+		private transient Tuple2<Integer, Edge<K, EV>> outEdge;
+
+		@Override
+		public void open(Configuration parameters) {
+			numberOfPartitions = getRuntimeContext().getNumberOfParallelSubtasks();
+			outEdge = new Tuple2<>();
+		}
+
+		@Override
+		public Tuple2<Integer, Edge<K, EV>> map(Edge<K, EV> edge) {
+			outEdge.f0 = (edge.getSource().hashCode() & Integer.MAX_VALUE) % numberOfPartitions;
+			outEdge.f1 = edge;
+			return outEdge;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class UpdateComponents<K, EV> implements FoldFunction<Tuple2<Integer, Edge<K, EV>>, DisjointSet<K>> {
+
+		@Override
+		public DisjointSet<K> fold(DisjointSet<K> summary, Tuple2<Integer, Edge<K, EV>> edge) {
+			summary.union(edge.f1.getSource(), edge.f1.getTarget());
+			return summary;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class MergeComponents<K> implements ReduceFunction<DisjointSet<K>> {
+
+		@Override
+		public DisjointSet<K> reduce(DisjointSet<K> summary1, DisjointSet<K> summary2) {
+			if (summary1.size() < summary2.size()) {
+				summary2.merge(summary1);
+				return summary2;
+			}
+			summary1.merge(summary2);
+			return summary1;
+		}
+	}
+
+	/**
+	 * Merges the summary of each window into the running summary of the whole graph.
+	 */
+	@SuppressWarnings("serial")
+	private static final class CombineComponents<K> extends RichFlatMapFunction<DisjointSet<K>, DisjointSet<K>>
+			implements Checkpointed<DisjointSet<K>> {
+
+		private DisjointSet<K> components = new DisjointSet<>();
+
+		@Override
+		public void flatMap(DisjointSet<K> windowComponents, Collector<DisjointSet<K>> out) {
+			components.merge(windowComponents);
+			out.collect(components);
+		}
+
+		@Override
+		public DisjointSet<K> snapshotState(long checkpointId, long checkpointTimestamp) {
+			return components;
+		}
+
+		@Override
+		public void restoreState(DisjointSet<K> state) {
+			components = state;
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Triangle count estimation
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Feeds the edges to a {@link TriangleEstimator} and emits its estimate once at the end of
+	 * every window that holds edges, rather than once per edge.
+	 * <p>
+	 * The estimate is recorded when an edge of a window arrives, so that the windows that end
+	 * at the same watermark are still emitted with their own estimate. In event time, the
+	 * estimate of a window carries the last timestamp of the window and is emitted before the
+	 * watermark that closes the window. In processing time, it is emitted by a timer at the
+	 * end of the window.
+	 * <p>
+	 * Every estimate is emitted as (window end, estimate, number of parallel instances), so that
+	 * {@link AverageEstimates} can assign it to its window regardless of when it arrives.
+	 */
+	@SuppressWarnings("serial")
+	private static final class EstimateTriangles<K, EV> extends AbstractStreamOperator<Tuple3<Long, Double, Integer>>
+			implements OneInputStreamOperator<Edge<K, EV>, Tuple3<Long, Double, Integer>>, Triggerable {
+
+		private final int sampleSize;
+
+		private final long windowSize;
+
+		private final boolean processingTime;
+
+		private transient TriangleEstimator<K> estimator;
+
+		/** The latest estimate of every window that has not been emitted yet, by window end. */
+		private transient TreeMap<Long, Double> pendingEstimates;
+
+		private EstimateTriangles(int sampleSize, long windowSize, boolean processingTime) {
+			this.sampleSize = sampleSize;
+			this.windowSize = windowSize;
+			this.processingTime = processingTime;
+		}
+
+		@Override
+		public void open() throws Exception {
+			super.open();
+			if (estimator == null) {
+				estimator = new TriangleEstimator<>(sampleSize,
+						System.nanoTime() + getRuntimeContext().getIndexOfThisSubtask());
+				pendingEstimates = new TreeMap<>();
+			}
+			if (processingTime) {
+				for (Long windowEnd : pendingEstimates.keySet()) {
+					registerTimer(windowEnd, this);
+				}
+			}
+		}
+
+		@Override
+		public void processElement(StreamRecord<Edge<K, EV>> element) {
+			Edge<K, EV> edge = element.getValue();
+			estimator.addEdge(edge.getSource(), edge.getTarget());
+
+			long time = processingTime ? System.currentTimeMillis() : element.getTimestamp();
+			long windowEnd = time - (time % windowSize) + windowSize;
+			if (pendingEstimates.put(windowEnd, estimator.getEstimate()) == null && processingTime) {
+				registerTimer(windowEnd, this);
+			}
+		}
+
+		@Override
+		public void processWatermark(Watermark mark) {
+			emitEstimates(mark.getTimestamp());
+			output.emitWatermark(mark);
+		}
+
+		@Override
+		public void trigger(long timestamp) {
+			emitEstimates(timestamp);
+		}
+
+		/**
+		 * Emits the estimates of all windows whose last timestamp is at or before the given time.
+		 */
+		private void emitEstimates(long time) {
+			Iterator<Map.Entry<Long, Double>> windows = pendingEstimates.entrySet().iterator();
+			while (windows.hasNext()) {
+				Map.Entry<Long, Double> window = windows.next();
+				if (window.getKey() - 1 > time) {
+					break;
+				}
+				Tuple3<Long, Double, Integer> estimate = new Tuple3<>(window.getKey(), window.getValue(),
+						getRuntimeContext().getNumberOfParallelSubtasks());
+				if (processingTime) {
+					output.collect(new StreamRecord<>(estimate));
+				} else {
+					output.collect(new StreamRecord<>(estimate, window.getKey() - 1));
+				}
+				windows.remove();
+			}
+		}
+
+		@Override
+		public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+			StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+			byte[] serializedEstimator = InstantiationUtil.serializeObject(estimator);
+			byte[] serializedEstimates = InstantiationUtil.serializeObject(pendingEstimates);
+
+			AbstractStateBackend.CheckpointStateOutputView out =
+					getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+			out.writeInt(serializedEstimator.length);
+			out.write(serializedEstimator);
+			out.writeInt(serializedEstimates.length);
+			out.write(serializedEstimates);
+
+			taskState.setOperatorState(out.closeAndGetHandle());
+			return taskState;
+		}
+
+		@Override
+		public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+			super.restoreState(taskState, recoveryTimestamp);
+
+			@SuppressWarnings("unchecked")
+			StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+			DataInputView in = inputState.getState(getUserCodeClassloader());
+
+			byte[] serializedEstimator = new byte[in.readInt()];
+			in.readFully(serializedEstimator);
+			estimator = InstantiationUtil.deserializeObject(serializedEstimator, getUserCodeClassloader());
+
+			byte[] serializedEstimates = new byte[in.readInt()];
+			in.readFully(serializedEstimates);
+			pendingEstimates = InstantiationUtil.deserializeObject(serializedEstimates, getUserCodeClassloader());
+		}
+	}
+
+	/**
+	 * Averages the local estimates of all parallel instances of {@link EstimateTriangles} by
+	 * window.
+	 * <p>
+	 * The average of a window is emitted as soon as all instances have sent their estimate for
+	 * it. Every instance emits its estimates in the order of the windows, so all earlier windows
+	 * are emitted at that point as well, even if an instance had no edges in one of them. In
+	 * event time, the averages also carry the last timestamp of their window and are emitted at
+	 * the latest when the watermark passes the end of the window.
+	 */
+	@SuppressWarnings("serial")
+	private static final class AverageEstimates extends AbstractStreamOperator<Long>
+			implements OneInputStreamOperator<Tuple3<Long, Double, Integer>, Long> {
+
+		private final boolean processingTime;
+
+		/** The sum and the number of the local estimates received for every window, by window end. */
+		private transient TreeMap<Long, Tuple2<Double, Integer>> partialEstimates;
+
+		private AverageEstimates(boolean processingTime) {
+			this.processingTime = processingTime;
+		}
+
+		@Override
+		public void open() throws Exception {
+			super.open();
+			if (partialEstimates == null) {
+				partialEstimates = new TreeMap<>();
+			}
+		}
+
+		@Override
+		public void processElement(StreamRecord<Tuple3<Long, Double, Integer>> element) {
+			Tuple3<Long, Double, Integer> estimate = element.getValue();
+
+			Tuple2<Double, Integer> partial = partialEstimates.get(estimate.f0);
+			if (partial == null) {
+				partial = new Tuple2<>(0.0, 0);
+				partialEstimates.put(estimate.f0, partial);
+			}
+			partial.f0 += estimate.f1;
+			partial.f1++;
+
+			if (partial.f1 >= estimate.f2) {
+				emitAverages(estimate.f0);
+			}
+		}
+
+		@Override
+		public void processWatermark(Watermark mark) {
+			if (!processingTime) {
+				emitAverages(mark.getTimestamp() + 1);
+			}
+			output.emitWatermark(mark);
+		}
+
+		/**
+		 * Emits the averages of all windows that end at or before the given window end.
+		 */
+		private void emitAverages(long windowEnd) {
+			Iterator<Map.Entry<Long, Tuple2<Double, Integer>>> windows =
+					partialEstimates.headMap(windowEnd, true).entrySet().iterator();
+			while (windows.hasNext()) {
+				Map.Entry<Long, Tuple2<Double, Integer>> window = windows.next();
+				long average = Math.round(window.getValue().f0 / window.getValue().f1);
+				if (processingTime) {
+					output.collect(new StreamRecord<>(average));
+				} else {
+					output.collect(new StreamRecord<>(average, window.getKey() - 1));
+				}
+				windows.remove();
+			}
+		}
+
+		@Override
+		public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+			StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+			byte[] serializedEstimates = InstantiationUtil.serializeObject(partialEstimates);
+
+			AbstractStateBackend.CheckpointStateOutputView out =
+					getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+			out.writeInt(serializedEstimates.length);
+			out.write(serializedEstimates);
+
+			taskState.setOperatorState(out.closeAndGetHandle());
+			return taskState;
+		}
+
+		@Override
+		public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+			super.restoreState(taskState, recoveryTimestamp);
+
+			@SuppressWarnings("unchecked")
+			StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+			DataInputView in = inputState.getState(getUserCodeClassloader());
+
+			byte[] serializedEstimates = new byte[in.readInt()];
+			in.readFully(serializedEstimates);
+			partialEstimates = InstantiationUtil.deserializeObject(serializedEstimates, getUserCodeClassloader());
+		}
+	}
+}
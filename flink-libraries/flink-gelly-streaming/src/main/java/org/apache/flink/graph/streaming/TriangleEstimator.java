@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Preconditions;
+
+/**
+ * Estimates the number of triangles of an undirected graph from a stream of its edges,
+ * using a fixed-size reservoir sample of the edges (TRIEST-BASE, De Stefani et al., KDD 2016).
+ * <p>
+ * The estimator counts the triangles of the sampled subgraph and scales the count by the
+ * inverse probability that all three edges of a triangle are in the sample. As long as fewer
+ * edges than the sample size have been seen, the count is exact. The memory usage is bounded
+ * by the sample size, independent of the length of the stream.
+ * <p>
+ * Self-loops are ignored and every edge is expected to appear only once in the stream.
+ *
+ * @param <K> the type of the vertex ids
+ */
+public class TriangleEstimator<K> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int sampleSize;
+
+	private final Random random;
+
+	private final List<Tuple2<K, K>> sample;
+
+	private final Map<K, Set<K>> neighbors;
+
+	private long numberOfEdges;
+
+	private long sampledTriangles;
+
+	public TriangleEstimator(int sampleSize, long seed) {
+		Preconditions.checkArgument(sampleSize >= 3, "The sample size must be at least three.");
+
+		this.sampleSize = sampleSize;
+		this.random = new Random(seed);
+		this.sample = new ArrayList<>(sampleSize);
+		this.neighbors = new HashMap<>();
+	}
+
+	/**
+	 * Adds an edge of the stream.
+	 *
+	 * @param source the source vertex id
+	 * @param target the target vertex id
+	 */
+	public void addEdge(K source, K target) {
+		if (source.equals(target)) {
+			return;
+		}
+
+		numberOfEdges++;
+
+		if (numberOfEdges <= sampleSize) {
+			sample.add(new Tuple2<>(source, target));
+		}
+		else if (random.nextDouble() < (double) sampleSize / numberOfEdges) {
+			int index = random.nextInt(sampleSize);
+			Tuple2<K, K> removed = sample.get(index);
+			removeFromSample(removed.f0, removed.f1);
+			sample.set(index, new Tuple2<>(source, target));
+		}
+		else {
+			return;
+		}
+
+		sampledTriangles += countCommonNeighbors(source, target);
+		addNeighbor(source, target);
+		addNeighbor(target, source);
+	}
+
+	/**
+	 * @return the estimated number of triangles of the edges seen so far
+	 */
+	public double getEstimate() {
+		double t = numberOfEdges;
+		double m = sampleSize;
+		double scale = Math.max(1.0, (t / m) * ((t - 1) / (m - 1)) * ((t - 2) / (m - 2)));
+		return scale * sampledTriangles;
+	}
+
+	/**
+	 * @return the number of edges seen so far
+	 */
+	public long getNumberOfEdges() {
+		return numberOfEdges;
+	}
+
+	private void removeFromSample(K source, K target) {
+		removeNeighbor(source, target);
+		removeNeighbor(target, source);
+		sampledTriangles -= countCommonNeighbors(source, target);
+	}
+
+	private long countCommonNeighbors(K source, K target) {
+		Set<K> sourceNeighbors = neighbors.get(source);
+		Set<K> targetNeighbors = neighbors.get(target);
+		if (sourceNeighbors == null || targetNeighbors == null) {
+			return 0;
+		}
+
+		// iterate over the smaller neighborhood
+		if (sourceNeighbors.size() > targetNeighbors.size()) {
+			Set<K> tmp = sourceNeighbors;
+			sourceNeighbors = targetNeighbors;
+			targetNeighbors = tmp;
+		}
+
+		long common = 0;
+		for (K neighbor : sourceNeighbors) {
+			if (targetNeighbors.contains(neighbor)) {
+				common++;
+			}
+		}
+		return common;
+	}
+
+	private void addNeighbor(K vertex, K neighbor) {
+		Set<K> vertexNeighbors = neighbors.get(vertex);
+		if (vertexNeighbors == null) {
+			vertexNeighbors = new HashSet<>();
+			neighbors.put(vertex, vertexNeighbors);
+		}
+		vertexNeighbors.add(neighbor);
+	}
+
+	private void removeNeighbor(K vertex, K neighbor) {
+		Set<K> vertexNeighbors = neighbors.get(vertex);
+		vertexNeighbors.remove(neighbor);
+		if (vertexNeighbors.isEmpty()) {
+			neighbors.remove(vertex);
+		}
+	}
+}
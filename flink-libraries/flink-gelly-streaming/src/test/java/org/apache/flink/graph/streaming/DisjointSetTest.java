@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class DisjointSetTest {
+
+	@Test
+	public void testUnion() {
+		DisjointSet<Long> ds = new DisjointSet<>();
+		ds.union(1L, 2L);
+		ds.union(3L, 4L);
+		ds.union(2L, 5L);
+
+		assertEquals(5, ds.size());
+		assertEquals(ds.find(1L), ds.find(5L));
+		assertEquals(ds.find(3L), ds.find(4L));
+		assertNotEquals(ds.find(1L), ds.find(3L));
+		assertNull(ds.find(6L));
+
+		ds.union(5L, 4L);
+		assertEquals(ds.find(1L), ds.find(3L));
+	}
+
+	@Test
+	public void testMerge() {
+		DisjointSet<Long> ds1 = new DisjointSet<>();
+		ds1.union(1L, 2L);
+		ds1.union(3L, 4L);
+
+		DisjointSet<Long> ds2 = new DisjointSet<>();
+		ds2.union(2L, 3L);
+		ds2.union(5L, 6L);
+
+		ds1.merge(ds2);
+
+		assertEquals(6, ds1.size());
+		assertEquals(ds1.find(1L), ds1.find(4L));
+		assertEquals(ds1.find(5L), ds1.find(6L));
+		assertNotEquals(ds1.find(1L), ds1.find(5L));
+	}
+}
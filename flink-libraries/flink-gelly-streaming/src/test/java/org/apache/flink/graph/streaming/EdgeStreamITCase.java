@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.timestamps.AscendingTimestampExtractor;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.util.StreamingMultipleProgramsTestBase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@SuppressWarnings("serial")
+public class EdgeStreamITCase extends StreamingMultipleProgramsTestBase {
+
+	private String resultPath;
+	private String expected;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Before
+	public void before() throws Exception {
+		resultPath = tempFolder.newFile().toURI().toString();
+		expected = "";
+	}
+
+	@After
+	public void after() throws Exception {
+		compareResultsByLinesInMemory(expected, resultPath);
+	}
+
+	@Test
+	public void testDegrees() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		getEdgeStream(env).getDegrees(Time.milliseconds(5))
+			.writeAsText(resultPath, FileSystem.WriteMode.OVERWRITE);
+		env.execute();
+
+		// the first window holds the edges 1-2, 1-3, 2-3 and 3-4,
+		// the second window the edges 3-5, 4-5 and 5-1
+		expected = "(1,2)\n(2,2)\n(3,3)\n(4,1)\n" +
+			"(1,3)\n(3,4)\n(4,2)\n(5,3)";
+	}
+
+	@Test
+	public void testOutDegrees() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		getEdgeStream(env).getOutDegrees(Time.milliseconds(5))
+			.writeAsText(resultPath, FileSystem.WriteMode.OVERWRITE);
+		env.execute();
+
+		expected = "(1,2)\n(2,1)\n(3,1)\n" +
+			"(3,2)\n(4,1)\n(5,1)";
+	}
+
+	@Test
+	public void testConnectedComponents() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+		DataStream<Edge<Long, Long>> edges = env.fromElements(
+			new Edge<>(1L, 2L, 1L),
+			new Edge<>(3L, 4L, 2L),
+			new Edge<>(5L, 6L, 3L),
+			new Edge<>(2L, 3L, 5L),
+			new Edge<>(7L, 8L, 6L))
+			.assignTimestampsAndWatermarks(new ValueTimestamp());
+
+		new EdgeStream<>(edges, env).getConnectedComponents(Time.milliseconds(4))
+			.map(new SortComponents())
+			.writeAsText(resultPath, FileSystem.WriteMode.OVERWRITE);
+		env.execute();
+
+		expected = "{1=1, 2=1, 3=3, 4=3, 5=5, 6=5}\n" +
+			"{1=1, 2=1, 3=1, 4=1, 5=5, 6=5, 7=7, 8=7}";
+	}
+
+	@Test
+	public void testTriangleCount() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		// the sample holds all edges, so the counts are exact
+		getEdgeStream(env).estimateTriangleCount(100, Time.milliseconds(5))
+			.writeAsText(resultPath, FileSystem.WriteMode.OVERWRITE);
+		env.execute();
+
+		// the triangle 1-2-3 is closed in the first window, 3-4-5 and 1-3-5 in the second
+		expected = "1\n3";
+	}
+
+	/**
+	 * Creates the stream of the edges 1-2, 1-3, 2-3, 3-4, 3-5, 4-5, 5-1
+	 * with the timestamps 1 to 7.
+	 */
+	private static EdgeStream<Long, Long> getEdgeStream(StreamExecutionEnvironment env) {
+		env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+
+		DataStream<Edge<Long, Long>> edges = env.fromElements(
+			new Edge<>(1L, 2L, 1L),
+			new Edge<>(1L, 3L, 2L),
+			new Edge<>(2L, 3L, 3L),
+			new Edge<>(3L, 4L, 4L),
+			new Edge<>(3L, 5L, 5L),
+			new Edge<>(4L, 5L, 6L),
+			new Edge<>(5L, 1L, 7L))
+			.assignTimestampsAndWatermarks(new ValueTimestamp());
+
+		return new EdgeStream<>(edges, env);
+	}
+
+	/**
+	 * Assigns the edge value as timestamp.
+	 */
+	private static final class ValueTimestamp extends AscendingTimestampExtractor<Edge<Long, Long>> {
+
+		@Override
+		public long extractAscendingTimestamp(Edge<Long, Long> edge) {
+			return edge.getValue();
+		}
+	}
+
+	private static final class SortComponents implements MapFunction<DisjointSet<Long>, String> {
+
+		@Override
+		public String map(DisjointSet<Long> components) {
+			Map<Long, Long> matches = components.getMatches();
+
+			// name each component after its smallest vertex
+			Map<Long, Long> minimums = new TreeMap<>();
+			for (Map.Entry<Long, Long> match : matches.entrySet()) {
+				Long min = minimums.get(match.getValue());
+				if (min == null || match.getKey() < min) {
+					minimums.put(match.getValue(), match.getKey());
+				}
+			}
+			Map<Long, Long> normalized = new TreeMap<>();
+			for (Map.Entry<Long, Long> match : matches.entrySet()) {
+				normalized.put(match.getKey(), minimums.get(match.getValue()));
+			}
+			return normalized.toString();
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.streaming;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TriangleEstimatorTest {
+
+	@Test
+	public void testExactCountWithinSample() {
+		TriangleEstimator<Long> estimator = new TriangleEstimator<>(100, 42L);
+
+		// a clique of five vertices has ten triangles
+		for (long i = 1; i <= 5; i++) {
+			for (long j = i + 1; j <= 5; j++) {
+				estimator.addEdge(i, j);
+			}
+		}
+		// self-loops are ignored
+		estimator.addEdge(1L, 1L);
+
+		assertEquals(10, estimator.getNumberOfEdges());
+		assertEquals(10.0, estimator.getEstimate(), 0.0);
+	}
+
+	@Test
+	public void testEstimateWithSampling() {
+		// a clique of 30 vertices has 4060 triangles and 435 edges
+		final int numVertices = 30;
+		final double expected = 4060;
+
+		double sum = 0;
+		final int runs = 50;
+		for (int run = 0; run < runs; run++) {
+			TriangleEstimator<Integer> estimator = new TriangleEstimator<>(200, run);
+			for (int i = 0; i < numVertices; i++) {
+				for (int j = i + 1; j < numVertices; j++) {
+					estimator.addEdge(i, j);
+				}
+			}
+			sum += estimator.getEstimate();
+		}
+
+		// the estimator is unbiased, so the average estimate is close to the exact count
+		assertEquals(expected, sum / runs, 0.1 * expected);
+	}
+}
@@ -46,6 +46,7 @@ import org.apache.flink.api.java.tuple.Tuple4;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.fs.Path;
 import org.apache.flink.graph.asm.translate.TranslateEdgeValues;
 import org.apache.flink.graph.asm.translate.TranslateGraphIds;
 import org.apache.flink.graph.asm.translate.TranslateVertexValues;
@@ -54,6 +55,8 @@ import org.apache.flink.graph.gsa.GSAConfiguration;
 import org.apache.flink.graph.gsa.GatherFunction;
 import org.apache.flink.graph.gsa.GatherSumApplyIteration;
 import org.apache.flink.graph.gsa.SumFunction;
+import org.apache.flink.graph.io.BinaryEdgeListInputFormat;
+import org.apache.flink.graph.io.BinaryEdgeListOutputFormat;
 import org.apache.flink.graph.pregel.ComputeFunction;
 import org.apache.flink.graph.pregel.MessageCombiner;
 import org.apache.flink.graph.pregel.VertexCentricConfiguration;
@@ -67,6 +70,7 @@ import org.apache.flink.graph.utils.Tuple2ToVertexMap;
 import org.apache.flink.graph.utils.Tuple3ToEdgeMap;
 import org.apache.flink.graph.utils.VertexToTuple2Map;
 import org.apache.flink.graph.validation.GraphValidator;
+import org.apache.flink.types.LongValue;
 import org.apache.flink.types.NullValue;
 import org.apache.flink.util.Collector;
 
@@ -406,6 +410,27 @@ public class Graph<K, VV, EV> {
 		return new GraphCsvReader(edgesPath, vertexValueInitializer, context);
 	}
 
+	/**
+	 * Creates a graph from a binary edge list written by the {@link BinaryEdgeListOutputFormat}.
+	 * Vertices will be created automatically.
+	 *
+	 * The fixed-length edge records are read in parallel without parsing, which makes this
+	 * considerably faster than reading the same edges through a {@link GraphCsvReader}.
+	 *
+	 * @param edgesPath a path to a binary edge list
+	 * @param context the execution environment.
+	 * @return the newly created graph.
+	 */
+	public static Graph<LongValue, NullValue, NullValue> fromBinaryEdgeList(String edgesPath,
+			ExecutionEnvironment context) {
+
+		DataSet<Edge<LongValue, NullValue>> edges = context
+			.createInput(new BinaryEdgeListInputFormat(new Path(edgesPath)))
+				.name("Binary edge list");
+
+		return fromDataSet(edges, context);
+	}
+
 	/**
 	 * @return the flink execution environment.
 	 */
@@ -1686,6 +1711,57 @@ public class Graph<K, VV, EV> {
 		return new Graph<K, VV, EV>(newVertices, this.edges, this.context);
 	}
 
+	/**
+	 * Runs a ScatterGather iteration on the graph, combining the messages sent to the same vertex.
+	 * No configuration options are provided.
+	 *
+	 * @param vertexUpdateFunction the vertex update function
+	 * @param messagingFunction the messaging function
+	 * @param combiner the message combiner
+	 * @param maximumNumberOfIterations maximum number of iterations to perform
+	 * 
+	 * @return the updated Graph after the scatter-gather iteration has converged or
+	 * after maximumNumberOfIterations.
+	 */
+	public <M> Graph<K, VV, EV> runScatterGatherIteration(
+			VertexUpdateFunction<K, VV, M> vertexUpdateFunction,
+			MessagingFunction<K, VV, M, EV> messagingFunction,
+			org.apache.flink.graph.spargel.MessageCombiner<K, M> combiner,
+			int maximumNumberOfIterations) {
+
+		return this.runScatterGatherIteration(vertexUpdateFunction, messagingFunction, combiner,
+				maximumNumberOfIterations, null);
+	}
+
+	/**
+	 * Runs a ScatterGather iteration on the graph with configuration options,
+	 * combining the messages sent to the same vertex.
+	 * 
+	 * @param vertexUpdateFunction the vertex update function
+	 * @param messagingFunction the messaging function
+	 * @param combiner the message combiner
+	 * @param maximumNumberOfIterations maximum number of iterations to perform
+	 * @param parameters the iteration configuration parameters
+	 * 
+	 * @return the updated Graph after the scatter-gather iteration has converged or
+	 * after maximumNumberOfIterations.
+	 */
+	public <M> Graph<K, VV, EV> runScatterGatherIteration(
+			VertexUpdateFunction<K, VV, M> vertexUpdateFunction,
+			MessagingFunction<K, VV, M, EV> messagingFunction,
+			org.apache.flink.graph.spargel.MessageCombiner<K, M> combiner,
+			int maximumNumberOfIterations, ScatterGatherConfiguration parameters) {
+
+		ScatterGatherIteration<K, VV, M, EV> iteration = ScatterGatherIteration.withEdges(
+				edges, vertexUpdateFunction, messagingFunction, combiner, maximumNumberOfIterations);
+
+		iteration.configure(parameters);
+
+		DataSet<Vertex<K, VV>> newVertices = this.getVertices().runOperation(iteration);
+
+		return new Graph<K, VV, EV>(newVertices, this.edges, this.context);
+	}
+
 	/**
 	 * Runs a Gather-Sum-Apply iteration on the graph.
 	 * No configuration options are provided.
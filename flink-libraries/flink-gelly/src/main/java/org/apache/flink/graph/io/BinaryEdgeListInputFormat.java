@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.io;
+
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.NullValue;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads an edge list written by the {@link BinaryEdgeListOutputFormat}, in which
+ * each edge is stored as a fixed-length record of two big-endian longs.
+ * <p>
+ * Since all records have the same length no delimiters need to be searched. A split
+ * reads every record which begins within the split, so records crossing a split
+ * boundary are read by the split in which they begin.
+ */
+public class BinaryEdgeListInputFormat
+extends FileInputFormat<Edge<LongValue, NullValue>>
+implements ResultTypeQueryable<Edge<LongValue, NullValue>> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The length in bytes of a single edge record.
+	 */
+	public static final int RECORD_LENGTH = 2 * 8;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private transient InputStream in;
+
+	private transient byte[] record;
+
+	// number of bytes remaining in which a record may begin
+	private transient long remaining;
+
+	private transient boolean end;
+
+	public BinaryEdgeListInputFormat() {}
+
+	public BinaryEdgeListInputFormat(Path filePath) {
+		super(filePath);
+	}
+
+	@Override
+	public void open(FileInputSplit split) throws IOException {
+		super.open(split);
+
+		this.in = new BufferedInputStream(this.stream, BUFFER_SIZE);
+		this.record = new byte[RECORD_LENGTH];
+
+		if (this.splitLength == READ_WHOLE_SPLIT_FLAG) {
+			this.remaining = Long.MAX_VALUE;
+		} else {
+			// skip the tail of a record which began in the previous split
+			long offset = (RECORD_LENGTH - this.splitStart % RECORD_LENGTH) % RECORD_LENGTH;
+			skipFully(offset);
+			this.remaining = this.splitLength - offset;
+		}
+
+		this.end = !readRecord();
+	}
+
+	@Override
+	public boolean reachedEnd() throws IOException {
+		return end;
+	}
+
+	@Override
+	public Edge<LongValue, NullValue> nextRecord(Edge<LongValue, NullValue> reuse) throws IOException {
+		if (end) {
+			return null;
+		}
+
+		if (reuse.f0 == null) {
+			reuse.f0 = new LongValue();
+		}
+		if (reuse.f1 == null) {
+			reuse.f1 = new LongValue();
+		}
+
+		reuse.f0.setValue(getLong(record, 0));
+		reuse.f1.setValue(getLong(record, 8));
+		reuse.f2 = NullValue.getInstance();
+
+		this.end = !readRecord();
+
+		return reuse;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in = null;
+		super.close();
+	}
+
+	@Override
+	public TypeInformation<Edge<LongValue, NullValue>> getProducedType() {
+		return TypeExtractor.getForObject(new Edge<>(new LongValue(), new LongValue(), NullValue.getInstance()));
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryEdgeListInputFormat (" + getFilePath() + ")";
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Reads the next record into the record buffer.
+	 *
+	 * @return whether a record was read
+	 * @throws IOException if the stream ends within a record
+	 */
+	private boolean readRecord() throws IOException {
+		if (remaining <= 0) {
+			return false;
+		}
+
+		int read = 0;
+		while (read < RECORD_LENGTH) {
+			int count = in.read(record, read, RECORD_LENGTH - read);
+
+			if (count < 0) {
+				if (read == 0) {
+					return false;
+				} else {
+					throw new IOException("The edge list ends with an incomplete record of " + read + " bytes.");
+				}
+			}
+
+			read += count;
+		}
+
+		if (remaining != Long.MAX_VALUE) {
+			remaining -= RECORD_LENGTH;
+		}
+
+		return true;
+	}
+
+	private void skipFully(long bytes) throws IOException {
+		while (bytes > 0) {
+			long skipped = in.skip(bytes);
+
+			if (skipped <= 0) {
+				// skip may return zero before the end of the stream
+				if (in.read() < 0) {
+					return;
+				}
+				skipped = 1;
+			}
+
+			bytes -= skipped;
+		}
+	}
+
+	private static long getLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+}
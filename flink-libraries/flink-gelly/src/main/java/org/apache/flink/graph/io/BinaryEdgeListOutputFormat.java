@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.io;
+
+import org.apache.flink.api.common.io.FileOutputFormat;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.types.LongValue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the source and target IDs of each edge as a fixed-length binary record
+ * of two big-endian longs. Edge values are discarded.
+ * <p>
+ * Each edge takes exactly 16 bytes, so the resulting edge list can be split at
+ * record boundaries and read in parallel with the {@link BinaryEdgeListInputFormat}.
+ *
+ * @param <EV> edge value type
+ */
+public class BinaryEdgeListOutputFormat<EV>
+extends FileOutputFormat<Edge<LongValue, EV>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private transient DataOutputStream out;
+
+	public BinaryEdgeListOutputFormat() {}
+
+	public BinaryEdgeListOutputFormat(Path outputPath) {
+		super(outputPath);
+	}
+
+	@Override
+	public void open(int taskNumber, int numTasks) throws IOException {
+		super.open(taskNumber, numTasks);
+
+		this.out = new DataOutputStream(new BufferedOutputStream(this.stream, BUFFER_SIZE));
+	}
+
+	@Override
+	public void writeRecord(Edge<LongValue, EV> record) throws IOException {
+		out.writeLong(record.f0.getValue());
+		out.writeLong(record.f1.getValue());
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			DataOutputStream o = this.out;
+			if (o != null) {
+				o.flush();
+			}
+		} finally {
+			this.out = null;
+			super.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryEdgeListOutputFormat (" + getOutputFilePath() + ")";
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.library;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.common.operators.Order;
+import org.apache.flink.api.common.operators.base.JoinOperatorBase.JoinHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.functions.FunctionAnnotation.ForwardedFields;
+import org.apache.flink.api.java.functions.FunctionAnnotation.ForwardedFieldsFirst;
+import org.apache.flink.api.java.functions.FunctionAnnotation.ForwardedFieldsSecond;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.ObjectArrayTypeInfo;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.graph.Graph;
+import org.apache.flink.graph.GraphAlgorithm;
+import org.apache.flink.graph.asm.degree.annotate.undirected.EdgeDegreePair;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.util.Collector;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the triangles of an undirected graph by intersecting sorted adjacency arrays.
+ * <p>
+ * Every edge is oriented from the endpoint with the lower degree to the endpoint with the
+ * higher degree (ties are broken by vertex ID), so that each vertex keeps at most
+ * <i>O(sqrt(|E|))</i> out-going edges. The out-going neighbors of every vertex are collected
+ * into an adjacency array sorted by vertex ID. A triangle (u, v, w) is then found exactly once,
+ * for the oriented edge (u, v), as the common element w of the adjacency arrays of u and v.
+ * Both arrays are brought together by hash joins, which keep the adjacency arrays in managed
+ * memory and intersect them locally, instead of materializing and shuffling all open triads.
+ * <p>
+ * The input graph must be undirected and simple: each edge must be present in both directions,
+ * and the graph must contain neither duplicate edges nor self-loops.
+ * The vertex IDs of each emitted triangle are sorted in ascending order.
+ *
+ * @param <K> ID type
+ * @param <VV> vertex value type
+ * @param <EV> edge value type
+ */
+public class TriangleListing<K extends Comparable<K>, VV, EV>
+implements GraphAlgorithm<K, VV, EV, DataSet<Tuple3<K, K, K>>> {
+
+	// Optional configuration
+	private int parallelism = ExecutionConfig.PARALLELISM_UNKNOWN;
+
+	/**
+	 * Override the operator parallelism.
+	 *
+	 * @param parallelism operator parallelism
+	 * @return this
+	 */
+	public TriangleListing<K, VV, EV> setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+
+		return this;
+	}
+
+	@Override
+	public DataSet<Tuple3<K, K, K>> run(Graph<K, VV, EV> input)
+			throws Exception {
+		TypeInformation<K> keyType = ((TupleTypeInfo<?>) input.getVertices().getType()).getTypeAt(0);
+		TypeSerializer<K> keySerializer = keyType.createSerializer(input.getContext().getConfig());
+
+		@SuppressWarnings("unchecked")
+		Class<K[]> arrayClass = (Class<K[]>) Array.newInstance(keyType.getTypeClass(), 0).getClass();
+		TypeInformation<Tuple2<K, K[]>> adjacencyType = new TupleTypeInfo<>(
+			keyType, ObjectArrayTypeInfo.getInfoFor(arrayClass, keyType));
+		TypeInformation<Tuple3<K, K, K[]>> edgeWithAdjacencyType = new TupleTypeInfo<>(
+			keyType, keyType, ObjectArrayTypeInfo.getInfoFor(arrayClass, keyType));
+
+		// s, t, (deg(s), deg(t))
+		DataSet<Edge<K, Tuple3<EV, LongValue, LongValue>>> edgeDegreePair = input
+			.run(new EdgeDegreePair<K, VV, EV>()
+				.setParallelism(parallelism));
+
+		// u, v where (deg(u), u) < (deg(v), v)
+		DataSet<Tuple2<K, K>> orientedEdges = edgeDegreePair
+			.flatMap(new OrientEdgeByDegree<K, EV>())
+				.setParallelism(parallelism)
+				.name("Orient edges by degree");
+
+		// u, [v] sorted by ID
+		DataSet<Tuple2<K, K[]>> adjacencyArrays = orientedEdges
+			.groupBy(0)
+			.sortGroup(1, Order.ASCENDING)
+			.reduceGroup(new BuildAdjacencyArray<K>(keySerializer, keyType.getTypeClass()))
+				.returns(adjacencyType)
+				.setParallelism(parallelism)
+				.name("Build adjacency arrays");
+
+		// u, v, [w] of v
+		DataSet<Tuple3<K, K, K[]>> edgesWithTargetAdjacency = orientedEdges
+			.join(adjacencyArrays, JoinHint.REPARTITION_HASH_SECOND)
+			.where(1)
+			.equalTo(0)
+			.with(new AppendTargetAdjacency<K>())
+				.returns(edgeWithAdjacencyType)
+				.setParallelism(parallelism)
+				.name("Target adjacency");
+
+		// u, v, w
+		return edgesWithTargetAdjacency
+			.join(adjacencyArrays, JoinHint.REPARTITION_HASH_SECOND)
+			.where(0)
+			.equalTo(0)
+			.with(new IntersectAdjacency<K>())
+				.setParallelism(parallelism)
+				.name("Intersect adjacency arrays");
+	}
+
+	/**
+	 * Emits each undirected edge once, oriented from the vertex with the lower degree to the
+	 * vertex with the higher degree. Ties are broken by vertex ID.
+	 *
+	 * @param <T> ID type
+	 * @param <ET> edge value type
+	 */
+	@ForwardedFields("0; 1")
+	private static final class OrientEdgeByDegree<T extends Comparable<T>, ET>
+	implements FlatMapFunction<Edge<T, Tuple3<ET, LongValue, LongValue>>, Tuple2<T, T>> {
+		private Tuple2<T, T> output = new Tuple2<>();
+
+		@Override
+		public void flatMap(Edge<T, Tuple3<ET, LongValue, LongValue>> value, Collector<Tuple2<T, T>> out)
+				throws Exception {
+			int degreeOrder = value.f2.f1.compareTo(value.f2.f2);
+
+			if (degreeOrder < 0 || (degreeOrder == 0 && value.f0.compareTo(value.f1) < 0)) {
+				output.f0 = value.f0;
+				output.f1 = value.f1;
+				out.collect(output);
+			}
+		}
+	}
+
+	/**
+	 * Collects the out-going neighbors of a vertex, sorted by ID, into an array.
+	 *
+	 * @param <T> ID type
+	 */
+	@ForwardedFields("0")
+	private static final class BuildAdjacencyArray<T>
+	implements GroupReduceFunction<Tuple2<T, T>, Tuple2<T, T[]>> {
+		private final TypeSerializer<T> serializer;
+
+		private final Class<T> keyClass;
+
+		private List<T> neighbors = new ArrayList<>();
+
+		private Tuple2<T, T[]> output = new Tuple2<>();
+
+		public BuildAdjacencyArray(TypeSerializer<T> serializer, Class<T> keyClass) {
+			this.serializer = serializer;
+			this.keyClass = keyClass;
+		}
+
+		@Override
+		public void reduce(Iterable<Tuple2<T, T>> values, Collector<Tuple2<T, T[]>> out)
+				throws Exception {
+			neighbors.clear();
+
+			T vertex = null;
+			for (Tuple2<T, T> edge : values) {
+				if (vertex == null) {
+					vertex = serializer.copy(edge.f0);
+				}
+
+				// the input objects may be reused
+				neighbors.add(serializer.copy(edge.f1));
+			}
+
+			@SuppressWarnings("unchecked")
+			T[] adjacency = neighbors.toArray((T[]) Array.newInstance(keyClass, neighbors.size()));
+
+			output.f0 = vertex;
+			output.f1 = adjacency;
+			out.collect(output);
+		}
+	}
+
+	/**
+	 * Appends the adjacency array of the edge target.
+	 *
+	 * @param <T> ID type
+	 */
+	@ForwardedFieldsFirst("0; 1")
+	@ForwardedFieldsSecond("1->2")
+	private static final class AppendTargetAdjacency<T>
+	implements FlatJoinFunction<Tuple2<T, T>, Tuple2<T, T[]>, Tuple3<T, T, T[]>> {
+		private Tuple3<T, T, T[]> output = new Tuple3<>();
+
+		@Override
+		public void join(Tuple2<T, T> edge, Tuple2<T, T[]> adjacency, Collector<Tuple3<T, T, T[]>> out)
+				throws Exception {
+			output.f0 = edge.f0;
+			output.f1 = edge.f1;
+			output.f2 = adjacency.f1;
+			out.collect(output);
+		}
+	}
+
+	/**
+	 * Intersects the sorted adjacency arrays of the edge source and target
+	 * and emits a triangle for each common neighbor.
+	 *
+	 * @param <T> ID type
+	 */
+	private static final class IntersectAdjacency<T extends Comparable<T>>
+	implements FlatJoinFunction<Tuple3<T, T, T[]>, Tuple2<T, T[]>, Tuple3<T, T, T>> {
+		private Tuple3<T, T, T> output = new Tuple3<>();
+
+		@Override
+		public void join(Tuple3<T, T, T[]> edge, Tuple2<T, T[]> adjacency, Collector<Tuple3<T, T, T>> out)
+				throws Exception {
+			T[] sourceNeighbors = adjacency.f1;
+			T[] targetNeighbors = edge.f2;
+
+			int i = 0;
+			int j = 0;
+
+			while (i < sourceNeighbors.length && j < targetNeighbors.length) {
+				int cmp = sourceNeighbors[i].compareTo(targetNeighbors[j]);
+
+				if (cmp < 0) {
+					i++;
+				} else if (cmp > 0) {
+					j++;
+				} else {
+					emitTriangle(edge.f0, edge.f1, sourceNeighbors[i], out);
+					i++;
+					j++;
+				}
+			}
+		}
+
+		private void emitTriangle(T u, T v, T w, Collector<Tuple3<T, T, T>> out) {
+			// sort the three vertex IDs
+			if (u.compareTo(v) > 0) {
+				T tmp = u;
+				u = v;
+				v = tmp;
+			}
+			if (v.compareTo(w) > 0) {
+				T tmp = v;
+				v = w;
+				w = tmp;
+
+				if (u.compareTo(v) > 0) {
+					tmp = u;
+					u = v;
+					v = tmp;
+				}
+			}
+
+			output.f0 = u;
+			output.f1 = v;
+			output.f2 = w;
+			out.collect(output);
+		}
+	}
+}
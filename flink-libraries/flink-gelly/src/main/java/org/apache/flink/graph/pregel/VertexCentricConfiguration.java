@@ -39,6 +39,9 @@ public class VertexCentricConfiguration extends IterationConfiguration {
 	/** the broadcast variables for the compute function **/
 	private List<Tuple2<String, DataSet<?>>> bcVars = new ArrayList<Tuple2<String,DataSet<?>>>();
 
+	/** flag that defines whether the out-going edges are kept in the solution set **/
+	private boolean adjacencyListsInSolutionSet = false;
+
 	public VertexCentricConfiguration() {}
 
 	/**
@@ -61,4 +64,30 @@ public class VertexCentricConfiguration extends IterationConfiguration {
 		return this.bcVars;
 	}
 
+	/**
+	 * Defines whether the out-going edges of each vertex are stored together with the vertex
+	 * in the solution set of the iteration.
+	 * In that case the edges are grouped by source vertex only once, before the first superstep,
+	 * and each superstep only has to ship the messages, instead of partitioning and co-grouping
+	 * the complete edge set with the vertex inboxes. This pays off for iterations with many
+	 * supersteps, at the cost of keeping the edges in the memory of the solution set.
+	 * By default, the edges are not kept in the solution set.
+	 *
+	 * @param adjacencyListsInSolutionSet True, to keep the edges in the solution set, false otherwise.
+	 */
+	public void setAdjacencyListsInSolutionSet(boolean adjacencyListsInSolutionSet) {
+		this.adjacencyListsInSolutionSet = adjacencyListsInSolutionSet;
+	}
+
+	/**
+	 * Gets whether the out-going edges of each vertex are stored together with the vertex
+	 * in the solution set of the iteration.
+	 * By default, the edges are not kept in the solution set.
+	 *
+	 * @return True, if the edges are kept in the solution set, false otherwise.
+	 */
+	public boolean isAdjacencyListsInSolutionSet() {
+		return this.adjacencyListsInSolutionSet;
+	}
+
 }
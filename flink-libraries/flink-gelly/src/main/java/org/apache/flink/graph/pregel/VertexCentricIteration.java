@@ -18,13 +18,18 @@
 
 package org.apache.flink.graph.pregel;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.flink.api.common.aggregators.Aggregator;
+import org.apache.flink.api.common.functions.CoGroupFunction;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.JoinFunction;
+import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.functions.RichGroupReduceFunction;
 import org.apache.flink.api.common.functions.RichMapFunction;
 import org.apache.flink.api.common.functions.RichCoGroupFunction;
@@ -37,7 +42,9 @@ import org.apache.flink.api.java.operators.DeltaIteration;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.operators.CustomUnaryOperation;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.typeutils.EitherTypeInfo;
+import org.apache.flink.api.java.typeutils.ObjectArrayTypeInfo;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
@@ -155,6 +162,10 @@ public class VertexCentricIteration<K, VV, EV, Message>
 			throw new IllegalStateException("The input data set has not been set.");
 		}
 
+		if (this.configuration != null && this.configuration.isAdjacencyListsInSolutionSet()) {
+			return createResultWithAdjacencyLists();
+		}
+
 		// prepare the type information
 		TypeInformation<K> keyType = ((TupleTypeInfo<?>) initialVertices.getType()).getTypeAt(0);
 		TypeInformation<Tuple2<K, Message>> messageTypeInfo =
@@ -192,36 +203,87 @@ public class VertexCentricIteration<K, VV, EV, Message>
 
 		// compute the solution set delta
 		DataSet<Vertex<K, VV>> solutionSetDelta = superstepComputation.flatMap(
-				new ProjectNewVertexValue<K, VV, Message>()).returns(vertexType);
+				new ProjectNewVertexValue<Vertex<K, VV>, K, Message>()).returns(vertexType);
 
 		// compute the inbox of each vertex for the next superstep (new workset)
 		DataSet<Tuple2<K, Either<NullValue, Message>>> allMessages = superstepComputation.flatMap(
-				new ProjectMessages<K, VV, Message>()).returns(workSetTypeInfo);
+				new ProjectMessages<Vertex<K, VV>, K, Message>()).returns(workSetTypeInfo);
 
-		DataSet<Tuple2<K, Either<NullValue, Message>>> newWorkSet = allMessages;
+		DataSet<Tuple2<K, Either<NullValue, Message>>> newWorkSet = combineMessages(allMessages, workSetTypeInfo);
 
-		// check if a combiner has been provided
-		if (combineFunction != null) {
+		configureComputeFunction(superstepComputation);
 
-			MessageCombinerUdf<K, Message> combinerUdf =
-					new MessageCombinerUdf<K, Message>(combineFunction, workSetTypeInfo);
+		return iteration.closeWith(solutionSetDelta, newWorkSet);
+	}
 
-			DataSet<Tuple2<K, Either<NullValue, Message>>> combinedMessages = allMessages
-					.groupBy(0).reduceGroup(combinerUdf)
-					.setCombinable(true);
+	/**
+	 * Creates the operator for the case where the out-going edges are kept in the solution set.
+	 * <p>
+	 * The edges are grouped by source vertex once, before the iteration, and every vertex is stored
+	 * in the solution set together with its adjacency list. In each superstep the workset is co-grouped
+	 * with the solution set, so the edges are not read from the edge data set again. The output of the
+	 * compute function is keyed by the id of the computing vertex, which lets the optimizer see that the
+	 * new vertex values are already partitioned like the solution set: the updated entries are written
+	 * back locally and only the messages are shipped between supersteps.
+	 * 
+	 * @return The operator that represents this vertex-centric graph computation.
+	 */
+	private DataSet<Vertex<K, VV>> createResultWithAdjacencyLists() {
 
-			newWorkSet = combinedMessages;
-		}
+		// prepare the type information
+		TypeInformation<K> keyType = ((TupleTypeInfo<?>) initialVertices.getType()).getTypeAt(0);
+		TypeInformation<VV> valueType = ((TupleTypeInfo<?>) initialVertices.getType()).getTypeAt(1);
+		TypeInformation<Tuple2<K, Message>> messageTypeInfo =
+			new TupleTypeInfo<Tuple2<K, Message>>(keyType, messageType);
+		TypeInformation<Vertex<K, VV>> vertexType = initialVertices.getType();
+		TypeInformation<Edge<K, EV>[]> adjacencyListType =
+			ObjectArrayTypeInfo.<Edge<K, EV>[], Edge<K, EV>>getInfoFor(edgesWithValue.getType());
+		TypeInformation<Tuple3<K, VV, Edge<K, EV>[]>> vertexWithEdgesType =
+			new TupleTypeInfo<Tuple3<K, VV, Edge<K, EV>[]>>(keyType, valueType, adjacencyListType);
+		TypeInformation<Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>> eitherTypeInfo =
+			new EitherTypeInfo<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>(vertexWithEdgesType, messageTypeInfo);
+		TypeInformation<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> intermediateTypeInfo =
+			new TupleTypeInfo<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>>(keyType, eitherTypeInfo);
+		TypeInformation<Either<NullValue, Message>> nullableMsgTypeInfo =
+				new EitherTypeInfo<NullValue, Message>(TypeExtractor.getForClass(NullValue.class), messageType);
+		TypeInformation<Tuple2<K, Either<NullValue, Message>>> workSetTypeInfo =
+			new TupleTypeInfo<Tuple2<K, Either<NullValue, Message>>>(keyType, nullableMsgTypeInfo);
 
-		// configure the compute function
-		superstepComputation = superstepComputation.name("Compute Function");
-		if (this.configuration != null) {
-			for (Tuple2<String, DataSet<?>> e : this.configuration.getBcastVars()) {
-				superstepComputation = superstepComputation.withBroadcastSet(e.f1, e.f0);
-			}
-		}
+		DataSet<Tuple3<K, VV, Edge<K, EV>[]>> verticesWithEdges = initialVertices
+				.coGroup(edgesWithValue).where(0).equalTo(0)
+				.with(new AppendAdjacencyList<K, VV, EV>())
+				.returns(vertexWithEdgesType)
+				.name("Build adjacency lists");
 
-		return iteration.closeWith(solutionSetDelta, newWorkSet);
+		DataSet<Tuple2<K, Either<NullValue, Message>>> initialWorkSet = initialVertices.map(
+				new InitializeWorkSet<K, VV, Message>()).returns(workSetTypeInfo);
+
+		final DeltaIteration<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Either<NullValue, Message>>> iteration =
+				verticesWithEdges.iterateDelta(initialWorkSet, this.maximumNumberOfIterations, 0);
+		setUpIteration(iteration);
+
+		VertexComputeWithAdjacencyListUdf<K, VV, EV, Message> vertexUdf =
+				new VertexComputeWithAdjacencyListUdf<K, VV, EV, Message>(computeFunction, intermediateTypeInfo);
+
+		CoGroupOperator<?, ?, Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> superstepComputation =
+				iteration.getWorkset().coGroup(iteration.getSolutionSet())
+				.where(0).equalTo(0)
+				.with(vertexUdf);
+
+		// compute the solution set delta; the key is forwarded, so the delta is not partitioned again
+		DataSet<Tuple3<K, VV, Edge<K, EV>[]>> solutionSetDelta = superstepComputation.flatMap(
+				new ProjectNewVertexValueWithAdjacencyList<K, VV, EV, Message>()).returns(vertexWithEdgesType);
+
+		// compute the inbox of each vertex for the next superstep (new workset)
+		DataSet<Tuple2<K, Either<NullValue, Message>>> allMessages = superstepComputation.flatMap(
+				new ProjectMessagesWithAdjacencyList<K, VV, EV, Message>()).returns(workSetTypeInfo);
+
+		DataSet<Tuple2<K, Either<NullValue, Message>>> newWorkSet = combineMessages(allMessages, workSetTypeInfo);
+
+		configureComputeFunction(superstepComputation);
+
+		return iteration.closeWith(solutionSetDelta, newWorkSet)
+				.map(new DropAdjacencyList<K, VV, EV>()).returns(vertexType);
 	}
 
 	/**
@@ -379,6 +441,85 @@ public class VertexCentricIteration<K, VV, EV, Message>
 		}
 	}
 
+	@SuppressWarnings("serial")
+	/**
+	 * This coGroup class wraps the user-defined compute function when the adjacency lists
+	 * are kept in the solution set.
+	 * The first input holds the inbox of the vertex.
+	 * The second input is the solution set entry with the vertex state and its out-going edges.
+	 * All outputs carry the id of the computing vertex in the first field.
+	 */
+	@ForwardedFieldsFirst("f0")
+	@ForwardedFieldsSecond("f0")
+	private static class VertexComputeWithAdjacencyListUdf<K, VV, EV, Message> extends RichCoGroupFunction<
+		Tuple2<K, Either<NullValue, Message>>, Tuple3<K, VV, Edge<K, EV>[]>,
+		Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>>
+		implements ResultTypeQueryable<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> {
+
+		final ComputeFunction<K, VV, EV, Message> computeFunction;
+		private transient TypeInformation<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> resultType;
+		private transient AdjacencyListCollector<K, VV, EV, Message> collector;
+
+		private VertexComputeWithAdjacencyListUdf(ComputeFunction<K, VV, EV, Message> compute,
+				TypeInformation<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> typeInfo) {
+
+			this.computeFunction = compute;
+			this.resultType = typeInfo;
+		}
+
+		@Override
+		public TypeInformation<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> getProducedType() {
+			return this.resultType;
+		}
+
+		@Override
+		public void open(Configuration parameters) throws Exception {
+			if (getIterationRuntimeContext().getSuperstepNumber() == 1) {
+				this.computeFunction.init(getIterationRuntimeContext());
+			}
+			this.computeFunction.preSuperstep();
+			this.collector = new AdjacencyListCollector<K, VV, EV, Message>();
+		}
+
+		@Override
+		public void close() throws Exception {
+			this.computeFunction.postSuperstep();
+		}
+
+		@Override
+		public void coGroup(
+				Iterable<Tuple2<K, Either<NullValue, Message>>> messages,
+				Iterable<Tuple3<K, VV, Edge<K, EV>[]>> solutionSet,
+				Collector<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> out) throws Exception {
+
+			final Iterator<Tuple3<K, VV, Edge<K, EV>[]>> vertexIter = solutionSet.iterator();
+			final Iterator<Tuple2<K, Either<NullValue, Message>>> inboxIter = messages.iterator();
+
+			// messages sent to vertices that do not exist are dropped
+			if (vertexIter.hasNext() && inboxIter.hasNext()) {
+
+				final Tuple3<K, VV, Edge<K, EV>[]> vertexWithEdges = vertexIter.next();
+				final Tuple2<K, Either<NullValue, Message>> first = inboxIter.next();
+				final MessageIterator<Message> messageIter = new MessageIterator<>();
+
+				if (getIterationRuntimeContext().getSuperstepNumber() == 1) {
+					// there are no messages during the 1st superstep
+				}
+				else {
+					messageIter.setFirst(first.f1.right());
+					@SuppressWarnings("unchecked")
+					Iterator<Tuple2<?, Either<NullValue, Message>>> downcastIter =
+						(Iterator<Tuple2<?, Either<NullValue, Message>>>) (Iterator<?>) inboxIter;
+					messageIter.setSource(downcastIter);
+				}
+
+				collector.set(vertexWithEdges.f0, vertexWithEdges.f2, out);
+				computeFunction.set(vertexWithEdges.f0, Arrays.asList(vertexWithEdges.f2).iterator(), collector);
+				computeFunction.compute(new Vertex<K, VV>(vertexWithEdges.f0, vertexWithEdges.f1), messageIter);
+			}
+		}
+	}
+
 	@SuppressWarnings("serial")
 	@ForwardedFields("f0")
 	public static class MessageCombinerUdf<K, Message> extends RichGroupReduceFunction<
@@ -462,6 +603,45 @@ public class VertexCentricIteration<K, VV, EV, Message>
 		}
 	}
 
+	/**
+	 * Helper method which applies the message combiner, if one has been provided.
+	 * The combiner is also run on the sending side, before the messages are shipped.
+	 *
+	 * @param allMessages the messages produced by the compute function
+	 * @param workSetTypeInfo the type information of the workset
+	 * @return the new workset
+	 */
+	private DataSet<Tuple2<K, Either<NullValue, Message>>> combineMessages(
+			DataSet<Tuple2<K, Either<NullValue, Message>>> allMessages,
+			TypeInformation<Tuple2<K, Either<NullValue, Message>>> workSetTypeInfo) {
+
+		// check if a combiner has been provided
+		if (combineFunction != null) {
+
+			MessageCombinerUdf<K, Message> combinerUdf =
+					new MessageCombinerUdf<K, Message>(combineFunction, workSetTypeInfo);
+
+			return allMessages.groupBy(0).reduceGroup(combinerUdf)
+					.setCombinable(true);
+		}
+		return allMessages;
+	}
+
+	/**
+	 * Helper method which sets the name and the broadcast sets of the compute function
+	 *
+	 * @param superstepComputation
+	 */
+	private void configureComputeFunction(CoGroupOperator<?, ?, ?> superstepComputation) {
+
+		superstepComputation.name("Compute Function");
+		if (this.configuration != null) {
+			for (Tuple2<String, DataSet<?>> e : this.configuration.getBcastVars()) {
+				superstepComputation.withBroadcastSet(e.f1, e.f0);
+			}
+		}
+	}
+
 	@SuppressWarnings("serial")
 	@ForwardedFieldsFirst("*->f0")
 	@ForwardedFieldsSecond("f1->f1")
@@ -482,11 +662,93 @@ public class VertexCentricIteration<K, VV, EV, Message>
 	}
 
 	@SuppressWarnings("serial")
-	private static final class ProjectNewVertexValue<K, VV, Message> implements
-		FlatMapFunction<Either<Vertex<K, VV>, Tuple2<K, Message>>, Vertex<K, VV>> {
+	@ForwardedFieldsFirst("f0; f1")
+	private static final class AppendAdjacencyList<K, VV, EV> implements
+			CoGroupFunction<Vertex<K, VV>, Edge<K, EV>, Tuple3<K, VV, Edge<K, EV>[]>> {
+
+		private final List<Edge<K, EV>> adjacencyList = new ArrayList<Edge<K, EV>>();
+
+		@Override
+		public void coGroup(Iterable<Vertex<K, VV>> vertices, Iterable<Edge<K, EV>> edges,
+				Collector<Tuple3<K, VV, Edge<K, EV>[]>> out) {
+
+			final Iterator<Vertex<K, VV>> vertexIterator = vertices.iterator();
+
+			// edges without a source vertex are ignored, as in the join with the edges
+			if (vertexIterator.hasNext()) {
+				final Vertex<K, VV> vertex = vertexIterator.next();
+
+				adjacencyList.clear();
+				for (Edge<K, EV> edge : edges) {
+					// the input objects may be reused, so the edges are copied
+					adjacencyList.add(new Edge<K, EV>(edge.getSource(), edge.getTarget(), edge.getValue()));
+				}
+
+				@SuppressWarnings("unchecked")
+				Edge<K, EV>[] edgeArray = adjacencyList.toArray(new Edge[adjacencyList.size()]);
+				out.collect(new Tuple3<K, VV, Edge<K, EV>[]>(vertex.getId(), vertex.getValue(), edgeArray));
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	@ForwardedFields("f0; f1")
+	private static final class DropAdjacencyList<K, VV, EV> implements
+			MapFunction<Tuple3<K, VV, Edge<K, EV>[]>, Vertex<K, VV>> {
 
-		public void flatMap(Either<Vertex<K, VV>, Tuple2<K, Message>> value,
-				Collector<Vertex<K, VV>> out) {
+		private Vertex<K, VV> outVertex = new Vertex<K, VV>();
+
+		public Vertex<K, VV> map(Tuple3<K, VV, Edge<K, EV>[]> vertexWithEdges) {
+			outVertex.setId(vertexWithEdges.f0);
+			outVertex.setValue(vertexWithEdges.f1);
+			return outVertex;
+		}
+	}
+
+	/**
+	 * Forwards the messages produced by the compute function and attaches the adjacency list
+	 * to the new vertex values, so that they can be written back to the solution set.
+	 * Every record is keyed by the id of the computing vertex.
+	 */
+	private static final class AdjacencyListCollector<K, VV, EV, Message>
+			implements Collector<Either<Vertex<K, VV>, Tuple2<K, Message>>> {
+
+		private final Tuple3<K, VV, Edge<K, EV>[]> outVertex = new Tuple3<K, VV, Edge<K, EV>[]>();
+
+		private final Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>> outTuple =
+				new Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>();
+
+		private Collector<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> out;
+
+		void set(K vertexId, Edge<K, EV>[] edges,
+				Collector<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>> out) {
+			this.outTuple.f0 = vertexId;
+			this.outVertex.f0 = vertexId;
+			this.outVertex.f2 = edges;
+			this.out = out;
+		}
+
+		@Override
+		public void collect(Either<Vertex<K, VV>, Tuple2<K, Message>> record) {
+			if (record.isLeft()) {
+				outVertex.f1 = record.left().getValue();
+				outTuple.f1 = Either.<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>Left(outVertex);
+			}
+			else {
+				outTuple.f1 = Either.<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>Right(record.right());
+			}
+			out.collect(outTuple);
+		}
+
+		@Override
+		public void close() {}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class ProjectNewVertexValue<V, K, Message> implements
+		FlatMapFunction<Either<V, Tuple2<K, Message>>, V> {
+
+		public void flatMap(Either<V, Tuple2<K, Message>> value, Collector<V> out) {
 
 			if (value.isLeft()) {
 				out.collect(value.left());
@@ -495,12 +757,12 @@ public class VertexCentricIteration<K, VV, EV, Message>
 	}
 
 	@SuppressWarnings("serial")
-	private static final class ProjectMessages<K, VV, Message> implements
-			FlatMapFunction<Either<Vertex<K, VV>, Tuple2<K, Message>>, Tuple2<K, Either<NullValue, Message>>> {
+	private static final class ProjectMessages<V, K, Message> implements
+			FlatMapFunction<Either<V, Tuple2<K, Message>>, Tuple2<K, Either<NullValue, Message>>> {
 
 		private Tuple2<K, Either<NullValue, Message>> outTuple = new Tuple2<K, Either<NullValue, Message>>();
 
-		public void flatMap(Either<Vertex<K, VV>, Tuple2<K, Message>> value,
+		public void flatMap(Either<V, Tuple2<K, Message>> value,
 				Collector<Tuple2<K, Either<NullValue, Message>>> out) {
 
 			if (value.isRight()) {
@@ -512,4 +774,39 @@ public class VertexCentricIteration<K, VV, EV, Message>
 		}
 	}
 
+	@SuppressWarnings("serial")
+	@ForwardedFields("f0")
+	private static final class ProjectNewVertexValueWithAdjacencyList<K, VV, EV, Message> implements
+			FlatMapFunction<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>, Tuple3<K, VV, Edge<K, EV>[]>> {
+
+		public void flatMap(Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>> value,
+				Collector<Tuple3<K, VV, Edge<K, EV>[]>> out) {
+
+			if (value.f1.isLeft()) {
+				Tuple3<K, VV, Edge<K, EV>[]> vertexWithEdges = value.f1.left();
+				vertexWithEdges.f0 = value.f0;
+				out.collect(vertexWithEdges);
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class ProjectMessagesWithAdjacencyList<K, VV, EV, Message> implements
+			FlatMapFunction<Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>>,
+					Tuple2<K, Either<NullValue, Message>>> {
+
+		private Tuple2<K, Either<NullValue, Message>> outTuple = new Tuple2<K, Either<NullValue, Message>>();
+
+		public void flatMap(Tuple2<K, Either<Tuple3<K, VV, Edge<K, EV>[]>, Tuple2<K, Message>>> value,
+				Collector<Tuple2<K, Either<NullValue, Message>>> out) {
+
+			if (value.f1.isRight()) {
+				Tuple2<K, Message> message = value.f1.right();
+				outTuple.setField(message.f0, 0);
+				outTuple.setField(Either.Right(message.f1), 1);
+				out.collect(outTuple);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.spargel;
+
+import java.io.Serializable;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+/**
+ * The base class for combining messages sent during a {@link ScatterGatherIteration}.
+ * <p>
+ * The combiner is applied to the messages before they are shipped to the target vertices,
+ * as well as to the shipped messages before they are handed to the {@link VertexUpdateFunction}.
+ * It must therefore be associative and commutative, and the combined message must be of the
+ * same type as the original messages.
+ * 
+ * @param <K> The type of the vertex id
+ * @param <Message> The type of the message sent between vertices along the edges.
+ */
+public abstract class MessageCombiner<K, Message> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Collector<Tuple2<K, Message>> out;
+
+	private Tuple2<K, Message> outValue;
+
+	void set(K target, Collector<Tuple2<K, Message>> collector) {
+		this.out = collector;
+		this.outValue = new Tuple2<K, Message>();
+		outValue.setField(target, 0);
+	}
+
+	/**
+	 * Combines messages sent from different vertices to a target vertex.
+	 * Implementing this method might reduce communication costs during a scatter-gather
+	 * iteration.
+	 * 
+	 * @param messages the input messages to combine
+	 * @throws Exception
+	 */
+	public abstract void combineMessages(MessageIterator<Message> messages) throws Exception;
+
+	/**
+	 * Sends the combined message to the target vertex.
+	 * 
+	 * @param combinedMessage
+	 */
+	public final void sendCombinedMessage(Message combinedMessage) {
+		outValue.setField(combinedMessage, 1);
+		out.collect(outValue);
+	}
+}
@@ -30,19 +30,28 @@ public final class MessageIterator<Message> implements Iterator<Message>, Iterab
 	private static final long serialVersionUID = 1L;
 
 	private transient Iterator<Tuple2<?, Message>> source;
-	
+	private Message first = null;
 	
 	final void setSource(Iterator<Tuple2<?, Message>> source) {
 		this.source = source;
 	}
+
+	final void setFirst(Message msg) {
+		this.first = msg;
+	}
 	
 	@Override
 	public final boolean hasNext() {
-		return this.source.hasNext();
+		return first != null || this.source.hasNext();
 	}
 	
 	@Override
 	public final Message next() {
+		if (first != null) {
+			Message toReturn = first;
+			first = null;
+			return toReturn;
+		}
 		return this.source.next().f1;
 	}
 
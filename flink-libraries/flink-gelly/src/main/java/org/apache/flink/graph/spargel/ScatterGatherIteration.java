@@ -23,8 +23,11 @@ import java.util.Map;
 
 import org.apache.flink.api.common.aggregators.Aggregator;
 import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.functions.RichGroupReduceFunction;
 import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.functions.FunctionAnnotation.ForwardedFields;
 import org.apache.flink.api.java.operators.DeltaIteration;
 import org.apache.flink.api.common.functions.RichCoGroupFunction;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
@@ -77,6 +80,8 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 	private final VertexUpdateFunction<K, VV, Message> updateFunction;
 
 	private final MessagingFunction<K, VV, Message, EV> messagingFunction;
+
+	private final MessageCombiner<K, Message> combineFunction;
 	
 	private final DataSet<Edge<K, EV>> edgesWithValue;
 	
@@ -92,6 +97,7 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 	
 	private ScatterGatherIteration(VertexUpdateFunction<K, VV, Message> uf,
 			MessagingFunction<K, VV, Message, EV> mf,
+			MessageCombiner<K, Message> mc,
 			DataSet<Edge<K, EV>> edgesWithValue, 
 			int maximumNumberOfIterations)
 	{
@@ -102,6 +108,7 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 
 		this.updateFunction = uf;
 		this.messagingFunction = mf;
+		this.combineFunction = mc;
 		this.edgesWithValue = edgesWithValue;
 		this.maximumNumberOfIterations = maximumNumberOfIterations;		
 		this.messageType = getMessageType(mf);
@@ -201,7 +208,34 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 					MessagingFunction<K, VV, Message, EV> mf,
 					int maximumNumberOfIterations)
 	{
-		return new ScatterGatherIteration<K, VV, Message, EV>(uf, mf, edgesWithValue, maximumNumberOfIterations);
+		return new ScatterGatherIteration<K, VV, Message, EV>(uf, mf, null, edgesWithValue, maximumNumberOfIterations);
+	}
+
+	/**
+	 * Creates a new scatter-gather iteration operator which combines the messages sent to the same vertex
+	 * before they are shipped.
+	 * 
+	 * @param edgesWithValue The data set containing edges.
+	 * @param uf The function that updates the state of the vertices from the incoming messages.
+	 * @param mf The function that turns changed vertex states into messages along the edges.
+	 * @param mc The function that combines messages sent to a vertex during a superstep.
+	 * 
+	 * @param <K> The type of the vertex key (the vertex identifier).
+	 * @param <VV> The type of the vertex value (the state of the vertex).
+	 * @param <Message> The type of the message sent between vertices along the edges.
+	 * @param <EV> The type of the values that are associated with the edges.
+	 * 
+	 * @return An instance of the scatter-gather graph computation operator.
+	 */
+	public static final <K, VV, Message, EV>
+			ScatterGatherIteration<K, VV, Message, EV> withEdges(
+					DataSet<Edge<K, EV>> edgesWithValue,
+					VertexUpdateFunction<K, VV, Message> uf,
+					MessagingFunction<K, VV, Message, EV> mf,
+					MessageCombiner<K, Message> mc,
+					int maximumNumberOfIterations)
+	{
+		return new ScatterGatherIteration<K, VV, Message, EV>(uf, mf, mc, edgesWithValue, maximumNumberOfIterations);
 	}
 
 	/**
@@ -446,6 +480,59 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 	//  UTIL methods
 	// --------------------------------------------------------------------------------------------
 
+	@SuppressWarnings("serial")
+	@ForwardedFields("f0")
+	private static final class MessageCombinerUdf<K, Message> extends RichGroupReduceFunction<
+			Tuple2<K, Message>, Tuple2<K, Message>>
+			implements ResultTypeQueryable<Tuple2<K, Message>>,
+			GroupCombineFunction<Tuple2<K, Message>, Tuple2<K, Message>> {
+
+		final MessageCombiner<K, Message> combinerFunction;
+		private transient TypeInformation<Tuple2<K, Message>> resultType;
+		private transient MessageIterator<Message> messageIter;
+
+		private MessageCombinerUdf(MessageCombiner<K, Message> combineFunction,
+				TypeInformation<Tuple2<K, Message>> messageTypeInfo) {
+
+			this.combinerFunction = combineFunction;
+			this.resultType = messageTypeInfo;
+		}
+
+		@Override
+		public TypeInformation<Tuple2<K, Message>> getProducedType() {
+			return resultType;
+		}
+
+		@Override
+		public void open(Configuration parameters) {
+			this.messageIter = new MessageIterator<Message>();
+		}
+
+		@Override
+		public void reduce(Iterable<Tuple2<K, Message>> messages, Collector<Tuple2<K, Message>> out) throws Exception {
+			final Iterator<Tuple2<K, Message>> messageIterator = messages.iterator();
+
+			if (messageIterator.hasNext()) {
+				final Tuple2<K, Message> first = messageIterator.next();
+
+				messageIter.setFirst(first.f1);
+
+				@SuppressWarnings("unchecked")
+				Iterator<Tuple2<?, Message>> downcastIter =
+						(Iterator<Tuple2<?, Message>>) (Iterator<?>) messageIterator;
+				messageIter.setSource(downcastIter);
+
+				combinerFunction.set(first.f0, out);
+				combinerFunction.combineMessages(messageIter);
+			}
+		}
+
+		@Override
+		public void combine(Iterable<Tuple2<K, Message>> messages, Collector<Tuple2<K, Message>> out) throws Exception {
+			this.reduce(messages, out);
+		}
+	}
+
 	/**
 	 * Method that builds the messaging function using a coGroup operator for a simple vertex(without
 	 * degrees).
@@ -574,6 +661,8 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 				throw new IllegalArgumentException("Illegal edge direction");
 		}
 
+		messages = combineMessages(messages, messageTypeInfo);
+
 		VertexUpdateUdf<K, VV, Message> updateUdf =
 				new VertexUpdateUdfSimpleVV<K, VV, Message>(updateFunction, vertexTypes);
 
@@ -649,6 +738,8 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 				throw new IllegalArgumentException("Illegal edge direction");
 		}
 
+		messages = combineMessages(messages, messageTypeInfo);
+
 		@SuppressWarnings({ "unchecked", "rawtypes" })
 		VertexUpdateUdf<K, Tuple3<VV, Long, Long>, Message> updateUdf =
 				new VertexUpdateUdfVVWithDegrees(updateFunction, vertexTypes);
@@ -668,6 +759,28 @@ public class ScatterGatherIteration<K, VV, Message, EV>
 				});
 	}
 
+	/**
+	 * Applies the message combiner, if one has been provided. The combiner is chained to the
+	 * messaging function and combines the messages before they are shipped; the combined messages
+	 * are combined once more after the shuffle.
+	 *
+	 * @param messages the messages produced by the messaging function
+	 * @param messageTypeInfo the type information of the messages
+	 * @return the (combined) messages
+	 */
+	private DataSet<Tuple2<K, Message>> combineMessages(DataSet<Tuple2<K, Message>> messages,
+			TypeInformation<Tuple2<K, Message>> messageTypeInfo) {
+
+		if (combineFunction == null) {
+			return messages;
+		}
+
+		return messages.groupBy(0)
+				.reduceGroup(new MessageCombinerUdf<K, Message>(combineFunction, messageTypeInfo))
+				.setCombinable(true)
+				.name("Message Combiner");
+	}
+
 	private <VVWithDegree> void configureUpdateFunction(CoGroupOperator<?, ?, Vertex<K, VVWithDegree>> updates) {
 
 		// configure coGroup update function with name and broadcast variables
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.io;
+
+import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileSystem.WriteMode;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.graph.Graph;
+import org.apache.flink.graph.generator.RMatGraph;
+import org.apache.flink.graph.generator.random.JDKRandomGeneratorFactory;
+import org.apache.flink.graph.generator.random.RandomGenerableFactory;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.NullValue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BinaryEdgeListFormatTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private ExecutionEnvironment env;
+
+	@Before
+	public void setup() {
+		env = ExecutionEnvironment.createCollectionsEnvironment();
+		env.getConfig().disableSysoutLogging();
+	}
+
+	@Test
+	public void testRoundTrip()
+			throws Exception {
+		String path = tempFolder.newFile().toURI().toString();
+
+		RandomGenerableFactory<JDKRandomGenerator> rnd = new JDKRandomGeneratorFactory();
+
+		List<Edge<LongValue,NullValue>> expected = new RMatGraph<>(env, rnd, 1024, 8192)
+			.generate()
+			.getEdges()
+			.collect();
+
+		BinaryEdgeListOutputFormat<NullValue> outputFormat = new BinaryEdgeListOutputFormat<>(new Path(path));
+		outputFormat.setWriteMode(WriteMode.OVERWRITE);
+
+		env.fromCollection(expected)
+			.output(outputFormat);
+		env.execute();
+
+		assertEquals(expected.size() * BinaryEdgeListInputFormat.RECORD_LENGTH, new File(new Path(path).toUri()).length());
+
+		Graph<LongValue,NullValue,NullValue> graph = Graph.fromBinaryEdgeList(path, env);
+
+		assertEquals(sort(expected), sort(graph.getEdges().collect()));
+	}
+
+	@Test
+	public void testUnalignedSplits()
+			throws Exception {
+		int edgeCount = 1000;
+
+		File file = tempFolder.newFile();
+		List<Edge<LongValue,NullValue>> expected = new ArrayList<>();
+
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			for (long i = 0; i < edgeCount; i++) {
+				out.writeLong(i);
+				out.writeLong(-i);
+				expected.add(new Edge<>(new LongValue(i), new LongValue(-i), NullValue.getInstance()));
+			}
+		}
+
+		BinaryEdgeListInputFormat inputFormat = new BinaryEdgeListInputFormat(new Path(file.toURI()));
+		inputFormat.configure(new Configuration());
+
+		// the split boundaries do not align with the record boundaries
+		FileInputSplit[] splits = inputFormat.createInputSplits(7);
+		assertEquals(7, splits.length);
+
+		List<Edge<LongValue,NullValue>> result = new ArrayList<>();
+
+		for (FileInputSplit split : splits) {
+			inputFormat.open(split);
+
+			while (!inputFormat.reachedEnd()) {
+				Edge<LongValue,NullValue> edge = inputFormat.nextRecord(new Edge<LongValue,NullValue>());
+				result.add(new Edge<>(edge.f0.copy(), edge.f1.copy(), edge.f2));
+			}
+
+			inputFormat.close();
+		}
+
+		assertEquals(expected, result);
+	}
+
+	@Test(expected = IOException.class)
+	public void testIncompleteRecord()
+			throws Exception {
+		File file = tempFolder.newFile();
+
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeLong(1);
+			out.writeLong(2);
+			out.writeLong(3);
+		}
+
+		BinaryEdgeListInputFormat inputFormat = new BinaryEdgeListInputFormat(new Path(file.toURI()));
+		inputFormat.configure(new Configuration());
+		inputFormat.open(inputFormat.createInputSplits(1)[0]);
+
+		while (!inputFormat.reachedEnd()) {
+			inputFormat.nextRecord(new Edge<LongValue,NullValue>());
+		}
+	}
+
+	private static List<Edge<LongValue,NullValue>> sort(List<Edge<LongValue,NullValue>> edges) {
+		List<Edge<LongValue,NullValue>> sorted = new ArrayList<>(edges);
+
+		Collections.sort(sorted, new Comparator<Edge<LongValue,NullValue>>() {
+			@Override
+			public int compare(Edge<LongValue,NullValue> o1, Edge<LongValue,NullValue> o2) {
+				int cmp = o1.f0.compareTo(o2.f0);
+				return cmp != 0 ? cmp : o1.f1.compareTo(o2.f1);
+			}
+		});
+
+		return sorted;
+	}
+}
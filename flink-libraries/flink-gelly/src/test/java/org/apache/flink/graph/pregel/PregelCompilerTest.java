@@ -19,6 +19,8 @@
 package org.apache.flink.graph.pregel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -270,6 +272,82 @@ public class PregelCompilerTest extends CompilerTestBase {
 		}
 	}
 
+	@SuppressWarnings("serial")
+	@Test
+	public void testPregelWithAdjacencyListsInSolutionSet() {
+		try {
+			ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+			env.setParallelism(DEFAULT_PARALLELISM);
+			// compose test program
+			{
+
+				DataSet<Vertex<Long, Long>> initialVertices = env.fromElements(
+						new Tuple2<>(1L, 1L), new Tuple2<>(2L, 2L))
+						.map(new Tuple2ToVertexMap<Long, Long>());
+
+				DataSet<Edge<Long, NullValue>> edges = env.fromElements(new Tuple2<>(1L, 2L))
+					.map(new MapFunction<Tuple2<Long,Long>, Edge<Long, NullValue>>() {
+
+						public Edge<Long, NullValue> map(Tuple2<Long, Long> edge) {
+							return new Edge<>(edge.f0, edge.f1, NullValue.getInstance());
+						}
+				});
+
+				Graph<Long, Long, NullValue> graph = Graph.fromDataSet(initialVertices, edges, env);
+
+				VertexCentricConfiguration parameters = new VertexCentricConfiguration();
+				parameters.setAdjacencyListsInSolutionSet(true);
+
+				DataSet<Vertex<Long, Long>> result = graph.runVertexCentricIteration(
+						new CCCompute(), null, 100, parameters).getVertices();
+
+				result.output(new DiscardingOutputFormat<Vertex<Long, Long>>());
+			}
+
+			Plan p = env.createProgramPlan("Pregel Connected Components");
+			OptimizedPlan op = compileNoStats(p);
+
+			// check the sink and the map that drops the adjacency lists
+			SinkPlanNode sink = op.getDataSinks().iterator().next();
+			assertEquals(ShipStrategyType.FORWARD, sink.getInput().getShipStrategy());
+			assertEquals(DEFAULT_PARALLELISM, sink.getParallelism());
+
+			SingleInputPlanNode dropAdjacencyLists = (SingleInputPlanNode) sink.getInput().getSource();
+			assertEquals(ShipStrategyType.FORWARD, dropAdjacencyLists.getInput().getShipStrategy());
+
+			// check the iteration
+			WorksetIterationPlanNode iteration = (WorksetIterationPlanNode) dropAdjacencyLists.getInput().getSource();
+			assertEquals(DEFAULT_PARALLELISM, iteration.getParallelism());
+
+			// check that the solution set delta is not partitioned again
+			PlanNode ssDelta = iteration.getSolutionSetDeltaPlanNode();
+			assertTrue(ssDelta instanceof SingleInputPlanNode);
+			assertEquals(ShipStrategyType.FORWARD, ((SingleInputPlanNode) ssDelta).getInput().getShipStrategy());
+
+			SingleInputPlanNode ssFlatMap = (SingleInputPlanNode) ((SingleInputPlanNode) (ssDelta)).getInput().getSource();
+			assertEquals(DEFAULT_PARALLELISM, ssFlatMap.getParallelism());
+			assertEquals(ShipStrategyType.FORWARD, ssFlatMap.getInput().getShipStrategy());
+
+			// check the computation coGroup: the adjacency lists are read from the solution set in place
+			DualInputPlanNode computationCoGroup = (DualInputPlanNode) (ssFlatMap.getInput().getSource());
+			assertEquals(DEFAULT_PARALLELISM, computationCoGroup.getParallelism());
+			assertEquals(ShipStrategyType.FORWARD, computationCoGroup.getInput1().getShipStrategy());
+			assertEquals(ShipStrategyType.FORWARD, computationCoGroup.getInput2().getShipStrategy());
+
+			// check that the edges are only partitioned once, when the adjacency lists are built
+			DualInputPlanNode buildAdjacencyLists = (DualInputPlanNode) iteration.getInput1().getSource();
+			assertFalse(buildAdjacencyLists.isOnDynamicPath());
+			assertEquals(ShipStrategyType.PARTITION_HASH, buildAdjacencyLists.getInput2().getShipStrategy());
+			assertEquals(new FieldList(0), buildAdjacencyLists.getInput2().getShipStrategyKeys());
+			assertNotEquals(ShipStrategyType.PARTITION_HASH, iteration.getInput1().getShipStrategy());
+		}
+		catch (Exception e) {
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
 	@SuppressWarnings("serial")
 	private static final class CCCompute extends ComputeFunction<Long, Long, NullValue, Long> {
 
@@ -38,8 +38,10 @@ import org.apache.flink.graph.Vertex;
 import org.apache.flink.optimizer.plan.DualInputPlanNode;
 import org.apache.flink.optimizer.plan.OptimizedPlan;
 import org.apache.flink.optimizer.plan.PlanNode;
+import org.apache.flink.optimizer.plan.SingleInputPlanNode;
 import org.apache.flink.optimizer.plan.SinkPlanNode;
 import org.apache.flink.optimizer.plan.WorksetIterationPlanNode;
+import org.apache.flink.runtime.operators.DriverStrategy;
 import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
 import org.apache.flink.runtime.operators.util.LocalStrategy;
 import org.apache.flink.types.NullValue;
@@ -129,6 +131,70 @@ public class SpargelCompilerTest extends CompilerTestBase {
 		}
 	}
 	
+	@SuppressWarnings("serial")
+	@Test
+	public void testSpargelCompilerWithCombiner() {
+		try {
+			ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+			env.setParallelism(DEFAULT_PARALLELISM);
+			// compose test program
+			{
+
+				DataSet<Vertex<Long, Long>> initialVertices = env.fromElements(
+						new Tuple2<>(1L, 1L), new Tuple2<>(2L, 2L))
+						.map(new Tuple2ToVertexMap<Long, Long>());
+
+				DataSet<Edge<Long, NullValue>> edges = env.fromElements(new Tuple2<>(1L, 2L))
+					.map(new MapFunction<Tuple2<Long,Long>, Edge<Long, NullValue>>() {
+
+						public Edge<Long, NullValue> map(Tuple2<Long, Long> edge) {
+							return new Edge<>(edge.f0, edge.f1, NullValue.getInstance());
+						}
+				});
+
+				Graph<Long, Long, NullValue> graph = Graph.fromDataSet(initialVertices, edges, env);
+
+				DataSet<Vertex<Long, Long>> result = graph.runScatterGatherIteration(
+						new ConnectedComponents.CCUpdater<Long, Long>(),
+						new ConnectedComponents.CCMessenger<Long, Long>(BasicTypeInfo.LONG_TYPE_INFO),
+						new MinCombiner(), 100)
+						.getVertices();
+
+				result.output(new DiscardingOutputFormat<Vertex<Long, Long>>());
+			}
+
+			Plan p = env.createProgramPlan("Spargel Connected Components");
+			OptimizedPlan op = compileNoStats(p);
+
+			// check the sink
+			SinkPlanNode sink = op.getDataSinks().iterator().next();
+			WorksetIterationPlanNode iteration = (WorksetIterationPlanNode) sink.getInput().getSource();
+
+			// the update function receives the combined messages without another shuffle
+			DualInputPlanNode ssJoin = (DualInputPlanNode) iteration.getSolutionSetDeltaPlanNode();
+			assertEquals(ShipStrategyType.FORWARD, ssJoin.getInput1().getShipStrategy());
+
+			// the messages are combined after the shuffle
+			SingleInputPlanNode reducer = (SingleInputPlanNode) ssJoin.getInput1().getSource();
+			assertEquals(DriverStrategy.SORTED_GROUP_REDUCE, reducer.getDriverStrategy());
+			assertEquals(ShipStrategyType.PARTITION_HASH, reducer.getInput().getShipStrategy());
+			assertEquals(new FieldList(0), reducer.getInput().getShipStrategyKeys());
+
+			// ... and before the shuffle, on the sending side
+			SingleInputPlanNode combiner = (SingleInputPlanNode) reducer.getInput().getSource();
+			assertEquals(DriverStrategy.SORTED_GROUP_COMBINE, combiner.getDriverStrategy());
+			assertEquals(ShipStrategyType.FORWARD, combiner.getInput().getShipStrategy());
+
+			DualInputPlanNode edgeJoin = (DualInputPlanNode) combiner.getInput().getSource();
+			assertEquals(DEFAULT_PARALLELISM, edgeJoin.getParallelism());
+		}
+		catch (Exception e) {
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
 	@SuppressWarnings("serial")
 	@Test
 	public void testSpargelCompilerWithBroadcastVariable() {
@@ -211,4 +277,17 @@ public class SpargelCompilerTest extends CompilerTestBase {
 			fail(e.getMessage());
 		}
 	}
+
+	@SuppressWarnings("serial")
+	private static final class MinCombiner extends MessageCombiner<Long, Long> {
+
+		@Override
+		public void combineMessages(MessageIterator<Long> messages) {
+			long minMessage = Long.MAX_VALUE;
+			for (Long msg : messages) {
+				minMessage = Math.min(minMessage, msg);
+			}
+			sendCombinedMessage(minMessage);
+		}
+	}
 }
@@ -31,6 +31,7 @@ import org.apache.flink.graph.Edge;
 import org.apache.flink.graph.EdgeDirection;
 import org.apache.flink.graph.Graph;
 import org.apache.flink.graph.Vertex;
+import org.apache.flink.graph.spargel.MessageCombiner;
 import org.apache.flink.graph.spargel.MessageIterator;
 import org.apache.flink.graph.spargel.MessagingFunction;
 import org.apache.flink.graph.spargel.ScatterGatherConfiguration;
@@ -513,6 +514,28 @@ public class ScatterGatherConfigurationITCase extends MultipleProgramsTestBase {
 		compareResultAsTuples(result, expectedResult);
 	}
 
+	@Test
+	public void testRunWithCombiner() throws Exception {
+		/*
+		 * Test Graph's runScatterGatherIteration with a message combiner
+		 */
+		final ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		Graph<Long, Long, Long> graph = Graph.fromCollection(TestGraphUtils.getLongLongVertices(),
+				TestGraphUtils.getLongLongEdges(), env);
+
+		List<Vertex<Long, Long>> result = graph.runScatterGatherIteration(
+				new MinIdUpdater(), new MinIdMessenger(), new MinCombiner(), 10).getVertices().collect();
+
+		expectedResult = "1,1\n" +
+				"2,1\n" +
+				"3,1\n" +
+				"4,1\n" +
+				"5,1";
+
+		compareResultAsTuples(result, expectedResult);
+	}
+
 	@SuppressWarnings("serial")
 	public static final class UpdateFunction extends VertexUpdateFunction<Long, Long, Long> {
 
@@ -777,6 +800,51 @@ public class ScatterGatherConfigurationITCase extends MultipleProgramsTestBase {
 		}
 	}
 
+	@SuppressWarnings("serial")
+	public static final class MinIdUpdater extends VertexUpdateFunction<Long, Long, Long> {
+
+		@Override
+		public void updateVertex(Vertex<Long, Long> vertex, MessageIterator<Long> inMessages) {
+			long minId = vertex.getValue();
+			int numMessages = 0;
+
+			for (Long msg : inMessages) {
+				minId = Math.min(minId, msg);
+				numMessages++;
+			}
+
+			// the combiner leaves at most one message per vertex
+			Assert.assertTrue(numMessages <= 1);
+
+			if (minId < vertex.getValue()) {
+				setNewVertexValue(minId);
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	public static final class MinIdMessenger extends MessagingFunction<Long, Long, Long, Long> {
+
+		@Override
+		public void sendMessages(Vertex<Long, Long> vertex) {
+			sendMessageToAllNeighbors(vertex.getValue());
+		}
+	}
+
+	@SuppressWarnings("serial")
+	public static final class MinCombiner extends MessageCombiner<Long, Long> {
+
+		@Override
+		public void combineMessages(MessageIterator<Long> messages) {
+			long minMessage = Long.MAX_VALUE;
+
+			for (Long msg : messages) {
+				minMessage = Math.min(minMessage, msg);
+			}
+			sendCombinedMessage(minMessage);
+		}
+	}
+
 	@SuppressWarnings("serial")
 	public static final class AssignOneMapper implements MapFunction<Vertex<Long, Long>, Long> {
 
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.graph.test;
+
+import java.util.List;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.graph.Edge;
+import org.apache.flink.graph.Graph;
+import org.apache.flink.graph.Vertex;
+import org.apache.flink.graph.pregel.ComputeFunction;
+import org.apache.flink.graph.pregel.MessageCombiner;
+import org.apache.flink.graph.pregel.MessageIterator;
+import org.apache.flink.graph.pregel.VertexCentricConfiguration;
+import org.apache.flink.test.util.MultipleProgramsTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class VertexCentricConfigurationITCase extends MultipleProgramsTestBase {
+
+	public VertexCentricConfigurationITCase(TestExecutionMode mode){
+		super(mode);
+	}
+
+	private String expectedResult;
+
+	@Test
+	public void testDefaultConfiguration() throws Exception {
+		VertexCentricConfiguration parameters = new VertexCentricConfiguration();
+
+		Assert.assertEquals(false, parameters.isAdjacencyListsInSolutionSet());
+	}
+
+	@Test
+	public void testAdjacencyListsInSolutionSet() throws Exception {
+		/*
+		 * Test the vertex-centric iteration with the edges kept in the solution set
+		 */
+		final ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		Graph<Long, Long, Long> graph = Graph.fromCollection(TestGraphUtils.getLongLongVertices(),
+				TestGraphUtils.getLongLongEdges(), env).mapVertices(new InitDistances());
+
+		VertexCentricConfiguration parameters = new VertexCentricConfiguration();
+		parameters.setAdjacencyListsInSolutionSet(true);
+
+		List<Vertex<Long, Long>> result = graph.runVertexCentricIteration(
+				new ShortestPathCompute(), new MinCombiner(), 10, parameters).getVertices().collect();
+
+		expectedResult = "1,0\n" +
+						"2,12\n" +
+						"3,13\n" +
+						"4,47\n" +
+						"5,48";
+
+		compareResultAsTuples(result, expectedResult);
+	}
+
+	@Test
+	public void testAdjacencyListsInSolutionSetWithInvalidTargets() throws Exception {
+		/*
+		 * Test that messages sent to vertices which do not exist are dropped,
+		 * when the edges are kept in the solution set
+		 */
+		final ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		Graph<Long, Long, Long> graph = Graph.fromDataSet(TestGraphUtils.getLongLongVertexData(env),
+				TestGraphUtils.getLongLongEdgeInvalidTrgData(env), env).mapVertices(new InitDistances());
+
+		VertexCentricConfiguration parameters = new VertexCentricConfiguration();
+		parameters.setAdjacencyListsInSolutionSet(true);
+
+		List<Vertex<Long, Long>> result = graph.runVertexCentricIteration(
+				new ShortestPathCompute(), null, 10, parameters).getVertices().collect();
+
+		expectedResult = "1,0\n" +
+						"2," + Long.MAX_VALUE + "\n" +
+						"3,13\n" +
+						"4,47\n" +
+						"5,48";
+
+		compareResultAsTuples(result, expectedResult);
+	}
+
+	@SuppressWarnings("serial")
+	private static final class InitDistances implements MapFunction<Vertex<Long, Long>, Long> {
+
+		public Long map(Vertex<Long, Long> vertex) {
+			return vertex.getId() == 1L ? 0L : Long.MAX_VALUE;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class ShortestPathCompute extends ComputeFunction<Long, Long, Long, Long> {
+
+		@Override
+		public void compute(Vertex<Long, Long> vertex, MessageIterator<Long> messages) {
+			long minDistance = vertex.getId() == 1L ? 0L : Long.MAX_VALUE;
+
+			for (Long msg : messages) {
+				minDistance = Math.min(minDistance, msg);
+			}
+
+			if (minDistance < vertex.getValue() || (getSuperstepNumber() == 1 && minDistance == 0L)) {
+				setNewVertexValue(minDistance);
+				for (Edge<Long, Long> e : getEdges()) {
+					sendMessageTo(e.getTarget(), minDistance + e.getValue());
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class MinCombiner extends MessageCombiner<Long, Long> {
+
+		@Override
+		public void combineMessages(MessageIterator<Long> messages) {
+			long minMessage = Long.MAX_VALUE;
+
+			for (Long msg : messages) {
+				minMessage = Math.min(minMessage, msg);
+			}
+			sendCombinedMessage(minMessage);
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.apache.flink.api.java.io.{TypeSerializerInputFormat, TypeSerializerOu
 import org.apache.flink.api.scala._
 import org.apache.flink.core.fs.FileSystem.WriteMode
 import org.apache.flink.core.fs.Path
+import org.apache.flink.ml.math.KryoSerializers
 
 import scala.reflect.ClassTag
 
@@ -49,11 +50,17 @@ object FlinkMLTools {
   def registerFlinkMLTypes(env: ExecutionEnvironment): Unit = {
 
     // Vector types
-    env.registerType(classOf[org.apache.flink.ml.math.DenseVector])
-    env.registerType(classOf[org.apache.flink.ml.math.SparseVector])
+    env.registerTypeWithKryoSerializer(
+      classOf[org.apache.flink.ml.math.DenseVector],
+      classOf[KryoSerializers.DenseVectorSerializer])
+    env.registerTypeWithKryoSerializer(
+      classOf[org.apache.flink.ml.math.SparseVector],
+      classOf[KryoSerializers.SparseVectorSerializer])
 
     // Matrix types
-    env.registerType(classOf[org.apache.flink.ml.math.DenseMatrix])
+    env.registerTypeWithKryoSerializer(
+      classOf[org.apache.flink.ml.math.DenseMatrix],
+      classOf[KryoSerializers.DenseMatrixSerializer])
     env.registerType(classOf[org.apache.flink.ml.math.SparseMatrix])
 
     // Breeze Vector types
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.ml.common
+
+import org.apache.flink.ml.math._
+
+import scala.collection.mutable.ArrayBuffer
+
+/** A batch of [[LabeledVector]]s whose feature vectors are stacked as the columns of a matrix.
+  *
+  * This allows to compute the predictions and gradients of a whole mini batch with two
+  * matrix-vector products ([[BLAS.gemv]]) instead of one vector operation per data point.
+  *
+  * @param labels Labels of the data points
+  * @param features Matrix with the feature vector of the i-th data point as its i-th column. It is
+  *                 a [[DenseMatrix]] if all feature vectors are dense and a [[SparseMatrix]]
+  *                 otherwise.
+  */
+case class LabeledVectorBatch(labels: DenseVector, features: Matrix) {
+
+  /** Number of data points in the batch
+    *
+    * @return
+    */
+  def size: Int = labels.size
+
+  /** Extracts a single data point of the batch
+    *
+    * @param index index of the data point
+    * @return labeled vector with a copy of the features of the data point
+    */
+  def apply(index: Int): LabeledVector = {
+    val vector = features match {
+      case dense: DenseMatrix =>
+        val offset = index * dense.numRows
+        DenseVector(dense.data.slice(offset, offset + dense.numRows))
+
+      case sparse: SparseMatrix =>
+        val from = sparse.colPtrs(index)
+        val until = sparse.colPtrs(index + 1)
+        new SparseVector(
+          sparse.numRows,
+          sparse.rowIndices.slice(from, until),
+          sparse.data.slice(from, until))
+    }
+
+    LabeledVector(labels(index), vector)
+  }
+}
+
+object LabeledVectorBatch {
+
+  /** Stacks the given data points into a batch. All feature vectors need to have the same size.
+    *
+    * @param dataPoints data points of the batch
+    * @return
+    */
+  def apply(dataPoints: Seq[LabeledVector]): LabeledVectorBatch = {
+    require(dataPoints.nonEmpty, "A batch needs to contain at least one data point.")
+
+    val numFeatures = dataPoints.head.vector.size
+    val labels = DenseVector(dataPoints.map(_.label): _*)
+
+    val allDense = dataPoints.forall {
+      dataPoint =>
+        require(dataPoint.vector.size == numFeatures,
+          s"All feature vectors need to have the size $numFeatures.")
+        dataPoint.vector.isInstanceOf[DenseVector]
+    }
+
+    val features = if (allDense) {
+      val data = new Array[Double](numFeatures * dataPoints.size)
+      var offset = 0
+      for (dataPoint <- dataPoints) {
+        val values = dataPoint.vector.asInstanceOf[DenseVector].data
+        System.arraycopy(values, 0, data, offset, numFeatures)
+        offset += numFeatures
+      }
+      new DenseMatrix(numFeatures, dataPoints.size, data)
+    } else {
+      val colPtrs = new Array[Int](dataPoints.size + 1)
+      val rowIndices = ArrayBuffer[Int]()
+      val data = ArrayBuffer[Double]()
+      var col = 0
+      for (dataPoint <- dataPoints) {
+        dataPoint.vector match {
+          case sparse: SparseVector =>
+            rowIndices ++= sparse.indices
+            data ++= sparse.data
+          case vector =>
+            for (index <- 0 until numFeatures if vector(index) != 0.0) {
+              rowIndices += index
+              data += vector(index)
+            }
+        }
+        col += 1
+        colPtrs(col) = data.size
+      }
+      new SparseMatrix(numFeatures, dataPoints.size, rowIndices.toArray, colPtrs, data.toArray)
+    }
+
+    LabeledVectorBatch(labels, features)
+  }
+
+  /** Groups the given data points into consecutive batches of at most batchSize data points.
+    *
+    * The data points are buffered until a batch is full. Since the runtime may reuse the input
+    * objects, each feature vector is copied as it is read.
+    *
+    * @param dataPoints data points to group
+    * @param batchSize maximum number of data points per batch
+    * @return
+    */
+  def batches(dataPoints: Iterator[LabeledVector], batchSize: Int): Iterator[LabeledVectorBatch] = {
+    require(batchSize > 0, "The batch size needs to be positive.")
+    dataPoints
+      .map(dataPoint => LabeledVector(dataPoint.label, dataPoint.vector.copy))
+      .grouped(batchSize)
+      .map(LabeledVectorBatch(_))
+  }
+}
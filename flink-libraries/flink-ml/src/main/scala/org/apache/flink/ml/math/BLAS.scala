@@ -223,6 +223,91 @@ object BLAS extends Serializable {
     }
   }
 
+  /**
+   * y := alpha * A * x + beta * y, or y := alpha * A^T^ * x + beta * y if transposeA is set.
+   *
+   * Like the level-1 routines, this uses the Java implementation for dense matrices.
+   *
+   * @param alpha a real scalar that will be multiplied to A * x.
+   * @param A the matrix A. Size of m x n, or n x m if transposeA is set.
+   * @param transposeA whether A^T^ is multiplied instead of A.
+   * @param x the vector x of size n.
+   * @param beta a real scalar that will be multiplied to y.
+   * @param y the vector y of size m, which is overwritten with the result.
+   */
+  def gemv(
+      alpha: Double,
+      A: Matrix,
+      transposeA: Boolean,
+      x: DenseVector,
+      beta: Double,
+      y: DenseVector): Unit = {
+    val (m, n) = if (transposeA) (A.numCols, A.numRows) else (A.numRows, A.numCols)
+    require(n == x.size, s"The size of x doesn't match the columns of A. A: $m x $n, x: ${x.size}")
+    require(m == y.size, s"The size of y doesn't match the rows of A. A: $m x $n, y: ${y.size}")
+
+    A match {
+      case dA: DenseMatrix =>
+        f2jBLAS.dgemv(if (transposeA) "T" else "N", dA.numRows, dA.numCols, alpha, dA.data,
+          dA.numRows, x.data, 1, beta, y.data, 1)
+      case sA: SparseMatrix =>
+        gemv(alpha, sA, transposeA, x, beta, y)
+      case _ =>
+        throw new IllegalArgumentException(s"gemv doesn't support matrix type ${A.getClass}.")
+    }
+  }
+
+  /**
+   * y := alpha * A * x + beta * y, or y := alpha * A^T^ * x + beta * y if transposeA is set.
+   */
+  private def gemv(
+      alpha: Double,
+      A: SparseMatrix,
+      transposeA: Boolean,
+      x: DenseVector,
+      beta: Double,
+      y: DenseVector): Unit = {
+    val xValues = x.data
+    val yValues = y.data
+    val aValues = A.data
+    val aRowIndices = A.rowIndices
+    val aColPtrs = A.colPtrs
+
+    if (beta == 0.0) {
+      java.util.Arrays.fill(yValues, 0.0)
+    } else if (beta != 1.0) {
+      f2jBLAS.dscal(yValues.length, beta, yValues, 1)
+    }
+
+    var col = 0
+    if (transposeA) {
+      // every column of A is a row of A^T^, which yields one element of y
+      while (col < A.numCols) {
+        var sum = 0.0
+        var k = aColPtrs(col)
+        while (k < aColPtrs(col + 1)) {
+          sum += aValues(k) * xValues(aRowIndices(k))
+          k += 1
+        }
+        yValues(col) += alpha * sum
+        col += 1
+      }
+    } else {
+      // every column of A is scaled by an element of x and added to y
+      while (col < A.numCols) {
+        val multiplier = alpha * xValues(col)
+        if (multiplier != 0.0) {
+          var k = aColPtrs(col)
+          while (k < aColPtrs(col + 1)) {
+            yValues(aRowIndices(k)) += multiplier * aValues(k)
+            k += 1
+          }
+        }
+        col += 1
+      }
+    }
+  }
+
   // For level-3 routines, we use the native BLAS.
   private def nativeBLAS: NetlibBLAS = {
     if (_nativeBLAS == null) {
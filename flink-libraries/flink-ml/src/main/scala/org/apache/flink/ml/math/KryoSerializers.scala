@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.ml.math
+
+import com.esotericsoftware.kryo.io.{Input, Output}
+import com.esotericsoftware.kryo.{Kryo, Serializer}
+
+/** Dedicated Kryo serializers for FlinkML's vector and matrix types.
+  *
+  * Vectors are usually stored in fields of the abstract type [[Vector]], for example in a
+  * [[org.apache.flink.ml.common.LabeledVector]], and are thus serialized with Kryo. Kryo's
+  * generic field serializer writes each field through reflection and instantiates the case
+  * classes without a default constructor via Objenesis. These serializers write the primitive
+  * arrays directly and call the constructors, which considerably reduces the per-element
+  * serialization overhead.
+  *
+  * The serializers are registered by [[org.apache.flink.ml.common.FlinkMLTools]].
+  */
+object KryoSerializers {
+
+  /** Serializes a [[DenseVector]] as its length followed by its values. */
+  class DenseVectorSerializer extends Serializer[DenseVector] {
+
+    override def write(kryo: Kryo, output: Output, vector: DenseVector): Unit = {
+      output.writeInt(vector.data.length, true)
+      output.writeDoubles(vector.data)
+    }
+
+    override def read(kryo: Kryo, input: Input, clazz: Class[DenseVector]): DenseVector = {
+      val length = input.readInt(true)
+      DenseVector(input.readDoubles(length))
+    }
+
+    override def copy(kryo: Kryo, original: DenseVector): DenseVector = {
+      original.copy
+    }
+  }
+
+  /** Serializes a [[SparseVector]] as its size and number of non-zero entries, followed by the
+    * gaps between the sorted indices as variable length integers and the non-zero values.
+    */
+  class SparseVectorSerializer extends Serializer[SparseVector] {
+
+    override def write(kryo: Kryo, output: Output, vector: SparseVector): Unit = {
+      val indices = vector.indices
+      val nonZeros = indices.length
+
+      output.writeInt(vector.size, true)
+      output.writeInt(nonZeros, true)
+
+      var previous = 0
+      var i = 0
+      while (i < nonZeros) {
+        output.writeInt(indices(i) - previous, true)
+        previous = indices(i)
+        i += 1
+      }
+
+      output.writeDoubles(vector.data)
+    }
+
+    override def read(kryo: Kryo, input: Input, clazz: Class[SparseVector]): SparseVector = {
+      val size = input.readInt(true)
+      val nonZeros = input.readInt(true)
+
+      val indices = new Array[Int](nonZeros)
+      var previous = 0
+      var i = 0
+      while (i < nonZeros) {
+        previous += input.readInt(true)
+        indices(i) = previous
+        i += 1
+      }
+
+      new SparseVector(size, indices, input.readDoubles(nonZeros))
+    }
+
+    override def copy(kryo: Kryo, original: SparseVector): SparseVector = {
+      original.copy
+    }
+  }
+
+  /** Serializes a [[DenseMatrix]] as its dimensions followed by its values in column major
+    * order.
+    */
+  class DenseMatrixSerializer extends Serializer[DenseMatrix] {
+
+    override def write(kryo: Kryo, output: Output, matrix: DenseMatrix): Unit = {
+      output.writeInt(matrix.numRows, true)
+      output.writeInt(matrix.numCols, true)
+      output.writeDoubles(matrix.data)
+    }
+
+    override def read(kryo: Kryo, input: Input, clazz: Class[DenseMatrix]): DenseMatrix = {
+      val numRows = input.readInt(true)
+      val numCols = input.readInt(true)
+      new DenseMatrix(numRows, numCols, input.readDoubles(numRows * numCols))
+    }
+
+    override def copy(kryo: Kryo, original: DenseMatrix): DenseMatrix = {
+      original.copy
+    }
+  }
+}
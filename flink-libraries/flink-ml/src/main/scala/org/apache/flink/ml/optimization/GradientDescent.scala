@@ -184,8 +184,10 @@ abstract class GradientDescent extends IterativeSolver {
     learningRateMethod: LearningRateMethodTrait)
   : DataSet[WeightVector] = {
 
-    data.mapWithBcVariable(currentWeights){
-      (data, weightVector) => (lossFunction.gradient(data, weightVector), 1)
+    // sum up the gradients of each partition locally, so that only a single gradient per
+    // partition is materialized and reduced instead of one gradient per data point
+    data.mapPartitionWithBcVariable(currentWeights){
+      (dataPoints, weightVector) => sumGradients(dataPoints, weightVector, lossFunction)
     }.reduce{
       (left, right) =>
         val (leftGradVector, leftCount) = left
@@ -230,6 +232,33 @@ abstract class GradientDescent extends IterativeSolver {
     }
   }
 
+  /** Sums up the gradients of the given data points into a single dense gradient
+    *
+    * The data points are stacked into batches of [[GradientDescent.BatchSize]] data points, whose
+    * gradients the loss function can compute at once (see [[LossFunction.addGradients]]).
+    *
+    * @param dataPoints The data points of a single partition
+    * @param weightVector The current weights
+    * @param lossFunction The loss function used to compute the gradients
+    * @return The summed gradient and the number of data points
+    */
+  private def sumGradients(
+    dataPoints: Iterator[LabeledVector],
+    weightVector: WeightVector,
+    lossFunction: LossFunction)
+  : (WeightVector, Int) = {
+    val gradientSum = DenseVector.zeros(weightVector.weights.size)
+    var interceptSum = 0.0
+    var count = 0
+
+    for (batch <- LabeledVectorBatch.batches(dataPoints, GradientDescent.BatchSize)) {
+      interceptSum += lossFunction.addGradients(batch, weightVector, gradientSum)
+      count += batch.size
+    }
+
+    (WeightVector(gradientSum, interceptSum), count)
+  }
+
   /** Calculates the new weights based on the gradient
     *
     * @param weightVector
@@ -257,8 +286,18 @@ abstract class GradientDescent extends IterativeSolver {
       weightDS: DataSet[WeightVector],
       lossFunction: LossFunction)
     : DataSet[Double] = {
-    data.mapWithBcVariable(weightDS){
-      (data, weightVector) => (lossFunction.loss(data, weightVector), 1)
+    data.mapPartitionWithBcVariable(weightDS){
+      (dataPoints, weightVector) => {
+        var lossSum = 0.0
+        var count = 0
+
+        while (dataPoints.hasNext) {
+          lossSum += lossFunction.loss(dataPoints.next(), weightVector)
+          count += 1
+        }
+
+        (lossSum, count)
+      }
     }.reduce{
       (left, right) => (left._1 + right._1, left._2 + right._2)
     }.map {
@@ -267,6 +306,12 @@ abstract class GradientDescent extends IterativeSolver {
   }
 }
 
+object GradientDescent {
+
+  /** Number of data points whose gradients are computed together */
+  val BatchSize = 256
+}
+
 /** Implementation of a SGD solver with L2 regularization.
   *
   * The regularization function is `1/2 ||w||_2^2` with `w` being the weight vector.
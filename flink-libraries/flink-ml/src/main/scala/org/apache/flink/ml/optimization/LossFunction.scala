@@ -18,8 +18,8 @@
 
 package org.apache.flink.ml.optimization
 
-import org.apache.flink.ml.common.{WeightVector, LabeledVector}
-import org.apache.flink.ml.math.BLAS
+import org.apache.flink.ml.common.{LabeledVectorBatch, WeightVector, LabeledVector}
+import org.apache.flink.ml.math.{DenseVector, BLAS}
 
 /** Abstract class that implements some of the functionality for common loss functions
   *
@@ -60,6 +60,29 @@ trait LossFunction extends Serializable {
     * @return
     */
   def lossGradient(dataPoint: LabeledVector, weightVector: WeightVector): (Double, WeightVector)
+
+  /** Adds the gradients of a batch of data points to the given gradient sum
+    *
+    * @param batch
+    * @param weightVector
+    * @param weightGradientSum dense vector to which the weight gradients are added
+    * @return the sum of the intercept gradients
+    */
+  def addGradients(
+      batch: LabeledVectorBatch,
+      weightVector: WeightVector,
+      weightGradientSum: DenseVector)
+    : Double = {
+    var interceptGradientSum = 0.0
+    var i = 0
+    while (i < batch.size) {
+      val WeightVector(weightGradient, interceptGradient) = gradient(batch(i), weightVector)
+      BLAS.axpy(1.0, weightGradient, weightGradientSum)
+      interceptGradientSum += interceptGradient
+      i += 1
+    }
+    interceptGradientSum
+  }
 }
 
 /** Generic loss function which lets you build a loss function out of the [[PartialLossFunction]]
@@ -93,4 +116,42 @@ case class GenericLossFunction(
 
     (loss, WeightVector(weightGradient, lossDerivative * interceptGradient))
   }
+
+  /** Adds the gradients of a batch of data points to the given gradient sum
+    *
+    * For the [[LinearPrediction]] and dense weights, the predictions of the batch are computed as
+    * `X^T * w + b` and the weight gradients are summed up as `X * d`, where X holds the feature
+    * vectors as columns and d the loss derivatives of the data points. Both are single
+    * matrix-vector products, so that no gradient vector is created per data point.
+    *
+    * @param batch
+    * @param weightVector
+    * @param weightGradientSum dense vector to which the weight gradients are added
+    * @return the sum of the intercept gradients
+    */
+  override def addGradients(
+      batch: LabeledVectorBatch,
+      weightVector: WeightVector,
+      weightGradientSum: DenseVector)
+    : Double = {
+    (predictionFunction, weightVector.weights) match {
+      case (LinearPrediction, weights: DenseVector) =>
+        val derivatives = DenseVector.init(batch.size, weightVector.intercept)
+        BLAS.gemv(1.0, batch.features, transposeA = true, weights, 1.0, derivatives)
+
+        var interceptGradientSum = 0.0
+        var i = 0
+        while (i < batch.size) {
+          derivatives(i) = partialLossFunction.derivative(derivatives(i), batch.labels(i))
+          interceptGradientSum += derivatives(i)
+          i += 1
+        }
+
+        BLAS.gemv(1.0, batch.features, transposeA = false, derivatives, 1.0, weightGradientSum)
+        interceptGradientSum
+
+      case _ =>
+        super.addGradients(batch, weightVector, weightGradientSum)
+    }
+  }
 }
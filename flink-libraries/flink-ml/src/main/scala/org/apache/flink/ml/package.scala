@@ -18,13 +18,16 @@
 
 package org.apache.flink
 
-import org.apache.flink.api.common.functions.{RichFilterFunction, RichMapFunction}
+import org.apache.flink.api.common.functions.{RichFilterFunction, RichMapFunction,
+RichMapPartitionFunction}
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.java.operators.DataSink
 import org.apache.flink.api.scala.{DataSet, ExecutionEnvironment}
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.ml.common.LabeledVector
+import org.apache.flink.util.Collector
 
+import scala.collection.JavaConverters._
 import scala.reflect.ClassTag
 
 package object ml {
@@ -70,6 +73,16 @@ package object ml {
       dataSet.map(new BroadcastSingleElementMapperWithIteration[T, B, O](dataSet.clean(fun)))
         .withBroadcastSet(broadcastVariable, "broadcastVariable")
     }
+
+    /** Applies the function once to all elements of each non-empty partition, so that
+      * partial results can be aggregated locally instead of emitting one result per element.
+      */
+    def mapPartitionWithBcVariable[B, O: TypeInformation: ClassTag](
+        broadcastVariable: DataSet[B])(fun: (Iterator[T], B) => O)
+      : DataSet[O] = {
+      dataSet.mapPartition(new BroadcastSingleElementPartitionMapper[T, B, O](dataSet.clean(fun)))
+        .withBroadcastSet(broadcastVariable, "broadcastVariable")
+    }
   }
 
   private class BroadcastSingleElementMapper[T, B, O](
@@ -102,6 +115,25 @@ package object ml {
     }
   }
 
+  private class BroadcastSingleElementPartitionMapper[T, B, O](
+      fun: (Iterator[T], B) => O)
+    extends RichMapPartitionFunction[T, O] {
+    var broadcastVariable: B = _
+
+    @throws(classOf[Exception])
+    override def open(configuration: Configuration): Unit = {
+      broadcastVariable = getRuntimeContext.getBroadcastVariable[B]("broadcastVariable").get(0)
+    }
+
+    override def mapPartition(values: java.lang.Iterable[T], out: Collector[O]): Unit = {
+      val iterator = values.iterator().asScala
+
+      if (iterator.hasNext) {
+        out.collect(fun(iterator, broadcastVariable))
+      }
+    }
+  }
+
   private class BroadcastSingleElementFilter[T, B](
       fun: (T, B) => Boolean)
     extends RichFilterFunction[T] {
@@ -537,9 +537,11 @@ object ALS {
     factors: Int,
     lambda: Double, blockIDPartitioner: FlinkPartitioner[Int]):
   DataSet[(Int, Array[Array[Double]])] = {
-    // send the item vectors to the blocks whose users have rated the items
-    val partialBlockMsgs = itemOut.join(items).where(0).equalTo(0).
-      withPartitioner(blockIDPartitioner).apply {
+    // send the item vectors to the blocks whose users have rated the items. The out information
+    // is the same in every superstep, so it is the build side of the hash join: within the
+    // iteration, its hash table is built once and reused in every superstep.
+    val partialBlockMsgs = itemOut.join(items, JoinHint.REPARTITION_HASH_FIRST).where(0)
+      .equalTo(0).withPartitioner(blockIDPartitioner).apply {
       (left, right, col: Collector[(Int, Int, Array[Array[Double]])]) => {
         val blockID = left._1
         val outInfo = left._2
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.ml.common
+
+import org.apache.flink.ml.math.{DenseVector, SparseVector}
+import org.scalatest.{FlatSpec, Matchers}
+
+class LabeledVectorBatchSuite extends FlatSpec with Matchers {
+  behavior of "LabeledVectorBatch"
+
+  it should "stack dense and sparse feature vectors into batches" in {
+    val dataPoints = Seq(
+      LabeledVector(1.0, DenseVector(1.0, 2.0)),
+      LabeledVector(2.0, new SparseVector(2, Array(1), Array(3.0))),
+      LabeledVector(3.0, DenseVector(4.0, 5.0)))
+
+    val batches = LabeledVectorBatch.batches(dataPoints.iterator, 2).toList
+
+    batches.map(_.size) should be(List(2, 1))
+    batches.flatMap(batch => (0 until batch.size).map(batch(_))).map {
+      dataPoint =>
+        val vector = dataPoint.vector
+        (dataPoint.label, (0 until vector.size).map(vector(_)).toList)
+    } should be(List((1.0, List(1.0, 2.0)), (2.0, List(0.0, 3.0)), (3.0, List(4.0, 5.0))))
+  }
+
+  it should "not be affected by reused input objects" in {
+    // emulates object reuse: the same vector instance is updated for every data point
+    val reused = DenseVector(0.0, 0.0)
+    val dataPoints = (1 to 3).iterator.map {
+      i =>
+        reused(0) = i
+        reused(1) = 10 * i
+        LabeledVector(i, reused)
+    }
+
+    val batches = LabeledVectorBatch.batches(dataPoints, 2).toList
+
+    batches.flatMap(batch => (0 until batch.size).map(batch(_))) should be(List(
+      LabeledVector(1.0, DenseVector(1.0, 10.0)),
+      LabeledVector(2.0, DenseVector(2.0, 20.0)),
+      LabeledVector(3.0, DenseVector(3.0, 30.0))))
+  }
+}
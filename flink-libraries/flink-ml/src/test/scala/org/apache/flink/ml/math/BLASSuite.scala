@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.ml.math
+
+import org.scalatest.{Matchers, FlatSpec}
+
+class BLASSuite extends FlatSpec with Matchers {
+
+  behavior of "Flink's BLAS"
+
+  // 2 x 3 matrix (1 0 2; 0 3 4)
+  val dense = DenseMatrix(2, 3, 1.0, 0.0, 0.0, 3.0, 2.0, 4.0)
+  val sparse = dense.toSparseMatrix
+
+  it should "multiply dense and sparse matrices with a vector" in {
+    for (matrix <- Seq(dense, sparse)) {
+      val y = DenseVector(1.0, 1.0)
+
+      BLAS.gemv(2.0, matrix, transposeA = false, DenseVector(1.0, 2.0, 3.0), 0.5, y)
+
+      y should be (DenseVector(14.5, 36.5))
+    }
+  }
+
+  it should "multiply transposed dense and sparse matrices with a vector" in {
+    for (matrix <- Seq(dense, sparse)) {
+      val y = DenseVector(Double.NaN, Double.NaN, Double.NaN)
+
+      BLAS.gemv(1.0, matrix, transposeA = true, DenseVector(1.0, 2.0), 0.0, y)
+
+      y should be (DenseVector(1.0, 6.0, 10.0))
+    }
+  }
+
+  it should "fail for vectors of non-matching sizes" in {
+    intercept[IllegalArgumentException] {
+      BLAS.gemv(1.0, dense, transposeA = false, DenseVector(1.0, 2.0), 0.0, DenseVector.zeros(2))
+    }
+
+    intercept[IllegalArgumentException] {
+      BLAS.gemv(1.0, dense, transposeA = true, DenseVector(1.0, 2.0), 0.0, DenseVector.zeros(2))
+    }
+  }
+}
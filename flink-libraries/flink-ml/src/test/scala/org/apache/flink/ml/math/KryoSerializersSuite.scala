@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.ml.math
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer
+import org.apache.flink.api.scala.ExecutionEnvironment
+import org.apache.flink.core.memory.{DataInputViewStreamWrapper, DataOutputViewStreamWrapper}
+import org.apache.flink.ml.common.{FlinkMLTools, LabeledVector}
+import org.scalatest.{FlatSpec, Matchers}
+
+class KryoSerializersSuite extends FlatSpec with Matchers {
+
+  behavior of "FlinkML's Kryo serializers"
+
+  private def createSerializer[T](clazz: Class[T]): KryoSerializer[T] = {
+    val env = ExecutionEnvironment.getExecutionEnvironment
+    FlinkMLTools.registerFlinkMLTypes(env)
+
+    new KryoSerializer[T](clazz, env.getConfig)
+  }
+
+  private def roundTrip[T](serializer: KryoSerializer[T], value: T): (T, Int) = {
+    val bytes = new ByteArrayOutputStream()
+    serializer.serialize(value, new DataOutputViewStreamWrapper(bytes))
+
+    val input = new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes.toByteArray))
+    (serializer.deserialize(input), bytes.size())
+  }
+
+  it should "serialize and deserialize dense vectors" in {
+    val serializer = createSerializer(classOf[Vector])
+    val vector = DenseVector(Array(1.0, -2.5, 0.0, 42.0))
+
+    val (result, _) = roundTrip(serializer, vector)
+
+    result should equal(vector)
+    serializer.copy(vector) should equal(vector)
+    serializer.copy(vector) should not be theSameInstanceAs(vector)
+  }
+
+  it should "serialize and deserialize sparse vectors" in {
+    val serializer = createSerializer(classOf[Vector])
+    val vector = SparseVector.fromCOO(100000, (3, 1.0), (17, -2.0), (99999, 3.5))
+
+    val (result, length) = roundTrip(serializer, vector)
+
+    result should equal(vector)
+    serializer.copy(vector) should equal(vector)
+
+    // the gap-encoded indices and the lengths need only a few bytes in addition to the values
+    length should be < (3 * 8 + 24)
+  }
+
+  it should "serialize and deserialize empty vectors" in {
+    val serializer = createSerializer(classOf[Vector])
+
+    roundTrip(serializer, DenseVector(Array[Double]()))._1 should equal(
+      DenseVector(Array[Double]()))
+    roundTrip(serializer, new SparseVector(10, Array[Int](), Array[Double]()))._1 should equal(
+      new SparseVector(10, Array[Int](), Array[Double]()))
+  }
+
+  it should "serialize and deserialize dense matrices" in {
+    val serializer = createSerializer(classOf[Matrix])
+    val matrix = DenseMatrix(2, 3, Array(1.0, 2.0, 3.0, 4.0, 5.0, 6.0))
+
+    val (result, _) = roundTrip(serializer, matrix)
+
+    result should equal(matrix)
+    serializer.copy(matrix) should equal(matrix)
+  }
+
+  it should "serialize and deserialize labeled vectors" in {
+    val serializer = createSerializer(classOf[LabeledVector])
+    val labeledVector = LabeledVector(1.0, SparseVector.fromCOO(5, (1, 2.0), (4, 3.0)))
+
+    roundTrip(serializer, labeledVector)._1 should equal(labeledVector)
+  }
+}
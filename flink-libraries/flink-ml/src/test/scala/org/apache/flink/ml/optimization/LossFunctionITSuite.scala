@@ -18,8 +18,8 @@
 
 package org.apache.flink.ml.optimization
 
-import org.apache.flink.ml.common.{LabeledVector, WeightVector}
-import org.apache.flink.ml.math.DenseVector
+import org.apache.flink.ml.common.{LabeledVectorBatch, LabeledVector, WeightVector}
+import org.apache.flink.ml.math.{BLAS, SparseVector, DenseVector}
 import org.scalatest.{Matchers, FlatSpec}
 
 import org.apache.flink.api.scala._
@@ -48,4 +48,38 @@ class LossFunctionITSuite extends FlatSpec with Matchers with FlinkTestBase {
 
     gradient.weights(0) should be (4.0 +- 0.001)
   }
+
+  it should "calculate the gradients of a batch like those of the single data points" in {
+    val lossFunction = GenericLossFunction(SquaredLoss, LinearPrediction)
+    val weightVector = new WeightVector(DenseVector(1.0, -2.0, 0.5), 1.0)
+
+    val denseExamples = Seq(
+      LabeledVector(1.0, DenseVector(2.0, 0.0, 1.0)),
+      LabeledVector(-1.0, DenseVector(0.0, 3.0, -1.0)))
+    val mixedExamples = denseExamples :+ LabeledVector(0.5, SparseVector(3, Array(1), Array(4.0)))
+
+    for (examples <- Seq(denseExamples, mixedExamples)) {
+      val batch = LabeledVectorBatch(examples)
+      batch.size should be (examples.size)
+
+      val expectedWeightGradient = DenseVector.zeros(3)
+      var expectedInterceptGradient = 0.0
+      for ((example, i) <- examples.zipWithIndex) {
+        batch(i).label should be (example.label)
+        batch(i).vector.equalsVector(example.vector) should be (true)
+
+        val gradient = lossFunction.gradient(example, weightVector)
+        BLAS.axpy(1.0, gradient.weights, expectedWeightGradient)
+        expectedInterceptGradient += gradient.intercept
+      }
+
+      val weightGradient = DenseVector.zeros(3)
+      val interceptGradient = lossFunction.addGradients(batch, weightVector, weightGradient)
+
+      interceptGradient should be (expectedInterceptGradient +- 0.001)
+      for (i <- 0 until 3) {
+        weightGradient(i) should be (expectedWeightGradient(i) +- 0.001)
+      }
+    }
+  }
 }
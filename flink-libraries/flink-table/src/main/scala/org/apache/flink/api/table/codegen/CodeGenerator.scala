@@ -22,16 +22,18 @@ import org.apache.calcite.rex._
 import org.apache.calcite.sql.{SqlLiteral, SqlOperator}
 import org.apache.calcite.sql.`type`.SqlTypeName._
 import org.apache.calcite.sql.fun.SqlStdOperatorTable._
-import org.apache.flink.api.common.functions.{FlatJoinFunction, FlatMapFunction, Function, MapFunction}
+import org.apache.flink.api.common.functions.{CombineFunction, FlatJoinFunction, FlatMapFunction, Function, GroupReduceFunction, MapFunction}
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo.{DOUBLE_TYPE_INFO, FLOAT_TYPE_INFO, LONG_TYPE_INFO}
 import org.apache.flink.api.common.typeinfo.{AtomicType, TypeInformation}
 import org.apache.flink.api.common.typeutils.CompositeType
 import org.apache.flink.api.java.typeutils.{PojoTypeInfo, TupleTypeInfo}
 import org.apache.flink.api.scala.typeutils.CaseClassTypeInfo
-import org.apache.flink.api.table.TableConfig
+import org.apache.flink.api.table.{Row, TableConfig}
 import org.apache.flink.api.table.codegen.CodeGenUtils._
 import org.apache.flink.api.table.codegen.Indenter.toISC
 import org.apache.flink.api.table.codegen.calls.ScalarFunctions
 import org.apache.flink.api.table.codegen.calls.ScalarOperators._
+import org.apache.flink.api.table.runtime.aggregate._
 import org.apache.flink.api.table.typeutils.{TypeConverter, RowTypeInfo}
 import TypeConverter.sqlTypeToTypeInfo
 
@@ -495,6 +497,416 @@ class CodeGenerator(
     }
   }
 
+  // ----------------------------------------------------------------------------------------------
+  // Aggregations
+  // ----------------------------------------------------------------------------------------------
+
+  /**
+    * Generates a [[org.apache.flink.api.common.functions.MapFunction]] that transforms a record
+    * of the first input into an intermediate aggregate Row. The group keys are placed at the
+    * start of the intermediate Row, followed by the intermediate values of all aggregates (see
+    * [[org.apache.flink.api.table.runtime.aggregate.Aggregate]]).
+    *
+    * The values of all aggregates are computed in a single pass on primitive types.
+    *
+    * @param name Class name of the Function.
+    * @param aggregates aggregates for which the intermediate values are computed. The
+    *                   intermediate values are stored in the same order.
+    * @param aggFields indexes of the aggregated fields in the input
+    * @param groupings indexes of the group keys in the input
+    * @param returnType type of the intermediate aggregate Row
+    * @return instance of GeneratedFunction
+    */
+  def generateAggregatePrepareFunction(
+      name: String,
+      aggregates: Array[Aggregate[_ <: Any]],
+      aggFields: Array[Int],
+      groupings: Array[Int],
+      returnType: RowTypeInfo)
+    : GeneratedFunction[MapFunction[Any, Row]] = {
+
+    val groupKeyExprs = groupings.map(generateInputAccess(input1, input1Term, _))
+
+    val aggregateExprs = aggregates.zip(aggFields).flatMap {
+      case (aggregate, aggField) =>
+        generateAggregatePrepare(aggregate, generateInputAccess(input1, input1Term, aggField))
+    }
+
+    val resultExpr = generateResultExpression(
+      groupKeyExprs ++ aggregateExprs,
+      returnType,
+      returnType.getFieldNames)
+
+    val body =
+      s"""
+        |${resultExpr.code}
+        |return ${resultExpr.resultTerm};
+        |""".stripMargin
+
+    generateFunction(
+      name,
+      classOf[MapFunction[Any, Row]],
+      body,
+      returnType.asInstanceOf[TypeInformation[Any]])
+  }
+
+  /**
+    * Generates a [[org.apache.flink.api.common.functions.GroupReduceFunction]] that merges the
+    * intermediate aggregate Rows of the first input and evaluates the final aggregate values.
+    * The generated function also implements
+    * [[org.apache.flink.api.common.functions.CombineFunction]] which merges intermediate
+    * aggregate Rows into a single intermediate aggregate Row. All aggregates must support
+    * partial aggregation.
+    *
+    * The intermediate values are merged into primitive local variables. They are only boxed
+    * once per group when the result is emitted.
+    *
+    * @param name Class name of the Function.
+    * @param aggregates aggregates in the order of their intermediate values
+    * @param groupKeysMapping index mapping of group keys between intermediate aggregate Row and
+    *                         output Row
+    * @param aggregateMapping index mapping between aggregate list and aggregated value index in
+    *                         output Row
+    * @param returnType type of the output Row
+    * @return instance of GeneratedFunction
+    */
+  def generateAggregateReduceCombineFunction(
+      name: String,
+      aggregates: Array[Aggregate[_ <: Any]],
+      groupKeysMapping: Array[(Int, Int)],
+      aggregateMapping: Array[(Int, Int)],
+      returnType: RowTypeInfo)
+    : GeneratedFunction[GroupReduceFunction[Row, Row]] = {
+
+    if (!aggregates.forall(_.supportPartial)) {
+      throw new CodeGenException("Aggregates must support partial aggregation.")
+    }
+
+    val funcName = newName(name)
+    val inputTypeTerm = boxedTypeTermForTypeInfo(input1)
+    val iteratorTerm = newName("iterator")
+    val combinedTerm = "combined"
+
+    // offsets of the intermediate values of each aggregate
+    val aggOffsets = aggregates.map(_.intermediateDataType.length)
+      .scanLeft(groupKeysMapping.length)(_ + _)
+
+    // one primitive accumulator per intermediate value
+    val accTerms = aggregates.zip(aggOffsets).map {
+      case (aggregate, offset) =>
+        aggregate.intermediateDataType.indices.map(i => (newName("acc"), offset + i))
+    }
+
+    val accTypes = accTerms.map(_.map {
+      case (_, offset) => input1.asInstanceOf[CompositeType[_]].getTypeAt(offset)
+        .asInstanceOf[TypeInformation[_]]
+    })
+
+    val initCode = aggregates.indices.map { i =>
+      val initValues = generateAggregateInit(aggregates(i), accTypes(i))
+      accTerms(i).zip(accTypes(i)).zip(initValues).map {
+        case (((accTerm, _), accType), initValue) =>
+          s"${primitiveTypeTermForTypeInfo(accType)} $accTerm = $initValue;"
+      }.mkString("\n")
+    }.mkString("\n")
+
+    val mergeCode = aggregates.indices.map { i =>
+      val values = accTerms(i).zip(accTypes(i)).map {
+        case ((_, offset), accType) =>
+          val boxedTerm = boxedTypeTermForTypeInfo(accType)
+          val primitiveTerm = primitiveTypeTermForTypeInfo(accType)
+          s"(($boxedTerm) $input1Term.productElement($offset)).${primitiveTerm}Value()"
+      }
+      generateAggregateMerge(aggregates(i), accTerms(i).map(_._1), accTypes(i), values)
+    }.mkString("\n")
+
+    val loopCode =
+      s"""
+        |java.util.Iterator $iteratorTerm = _records.iterator();
+        |$inputTypeTerm $input1Term = null;
+        |$initCode
+        |while ($iteratorTerm.hasNext()) {
+        |  $input1Term = ($inputTypeTerm) $iteratorTerm.next();
+        |  $mergeCode
+        |}
+        |""".stripMargin
+
+    val groupKeysCode = groupKeysMapping.map {
+      case (after, previous) =>
+        s"$outRecordTerm.setField($after, $input1Term.productElement($previous));"
+    }.mkString("\n")
+
+    val evaluateCode = aggregateMapping.map {
+      case (after, previous) =>
+        val resultType = returnType.getTypeAt(after).asInstanceOf[TypeInformation[_]]
+        val value = generateAggregateEvaluate(
+          aggregates(previous),
+          accTerms(previous).map(_._1),
+          resultType)
+        s"$outRecordTerm.setField($after, $value);"
+    }.mkString("\n")
+
+    val combineKeysCode = groupKeysMapping.indices.map { i =>
+      s"$combinedTerm.setField($i, $input1Term.productElement($i));"
+    }.mkString("\n")
+
+    val combineValuesCode = accTerms.flatten.map {
+      case (accTerm, offset) => s"$combinedTerm.setField($offset, $accTerm);"
+    }.mkString("\n")
+
+    addReusableOutRecord(returnType)
+    val intermediateTypeTerm = input1.getTypeClass.getCanonicalName
+    reusableMemberStatements.add(
+      s"""
+        |transient $intermediateTypeTerm $combinedTerm =
+        |    new $intermediateTypeTerm(${input1.getArity});
+        |""".stripMargin)
+
+    val funcCode = j"""
+      public class $funcName
+          implements ${classOf[GroupReduceFunction[_, _]].getCanonicalName},
+          ${classOf[CombineFunction[_, _]].getCanonicalName} {
+
+        ${reuseMemberCode()}
+
+        public $funcName() throws Exception {
+          ${reuseInitCode()}
+        }
+
+        @Override
+        public void reduce(
+            java.lang.Iterable _records,
+            org.apache.flink.util.Collector $collectorTerm) throws Exception {
+          $loopCode
+          $groupKeysCode
+          $evaluateCode
+          $collectorTerm.collect($outRecordTerm);
+        }
+
+        @Override
+        public Object combine(java.lang.Iterable _records) throws Exception {
+          $loopCode
+          $combineKeysCode
+          $combineValuesCode
+          return $combinedTerm;
+        }
+      }
+    """.stripMargin
+
+    GeneratedFunction(funcName, returnType.asInstanceOf[TypeInformation[Any]], funcCode)
+  }
+
+  /**
+    * Generates a [[org.apache.flink.api.common.functions.MapFunction]] that evaluates the final
+    * aggregate values of a single intermediate aggregate Row of the first input, which has
+    * already been merged by partial aggregation. All aggregates must support partial aggregation.
+    *
+    * @param name Class name of the Function.
+    * @param aggregates aggregates in the order of their intermediate values
+    * @param groupKeysMapping index mapping of group keys between intermediate aggregate Row and
+    *                         output Row
+    * @param aggregateMapping index mapping between aggregate list and aggregated value index in
+    *                         output Row
+    * @param returnType type of the output Row
+    * @return instance of GeneratedFunction
+    */
+  def generateAggregateEvaluateFunction(
+      name: String,
+      aggregates: Array[Aggregate[_ <: Any]],
+      groupKeysMapping: Array[(Int, Int)],
+      aggregateMapping: Array[(Int, Int)],
+      returnType: RowTypeInfo)
+    : GeneratedFunction[MapFunction[Row, Row]] = {
+
+    if (!aggregates.forall(_.supportPartial)) {
+      throw new CodeGenException("Aggregates must support partial aggregation.")
+    }
+
+    // offsets of the intermediate values of each aggregate
+    val aggOffsets = aggregates.map(_.intermediateDataType.length)
+      .scanLeft(groupKeysMapping.length)(_ + _)
+
+    // one primitive local variable per intermediate value
+    val accTerms = aggregates.zip(aggOffsets).map {
+      case (aggregate, offset) =>
+        aggregate.intermediateDataType.indices.map(i => (newName("acc"), offset + i))
+    }
+
+    val unboxCode = accTerms.flatten.map {
+      case (accTerm, offset) =>
+        val accType = input1.asInstanceOf[CompositeType[_]].getTypeAt(offset)
+          .asInstanceOf[TypeInformation[_]]
+        val boxedTerm = boxedTypeTermForTypeInfo(accType)
+        val primitiveTerm = primitiveTypeTermForTypeInfo(accType)
+        s"$primitiveTerm $accTerm = " +
+          s"(($boxedTerm) $input1Term.productElement($offset)).${primitiveTerm}Value();"
+    }.mkString("\n")
+
+    val groupKeysCode = groupKeysMapping.map {
+      case (after, previous) =>
+        s"$outRecordTerm.setField($after, $input1Term.productElement($previous));"
+    }.mkString("\n")
+
+    val evaluateCode = aggregateMapping.map {
+      case (after, previous) =>
+        val resultType = returnType.getTypeAt(after).asInstanceOf[TypeInformation[_]]
+        val value = generateAggregateEvaluate(
+          aggregates(previous),
+          accTerms(previous).map(_._1),
+          resultType)
+        s"$outRecordTerm.setField($after, $value);"
+    }.mkString("\n")
+
+    addReusableOutRecord(returnType)
+
+    val body =
+      s"""
+        |$unboxCode
+        |$groupKeysCode
+        |$evaluateCode
+        |return $outRecordTerm;
+        |""".stripMargin
+
+    generateFunction(
+      name,
+      classOf[MapFunction[Row, Row]],
+      body,
+      returnType.asInstanceOf[TypeInformation[Any]])
+  }
+
+  private def generateAggregatePrepare(
+      aggregate: Aggregate[_],
+      fieldExpr: GeneratedExpression)
+    : Seq[GeneratedExpression] = {
+
+    val intermediateTypes = aggregate.intermediateDataType.map(sqlTypeToTypeInfo(_))
+    val initValues = generateAggregateInit(aggregate, intermediateTypes)
+
+    val values = aggregate match {
+      case _: CountAggregate =>
+        Seq("1L")
+      case _: IntegralAvgAggregate[_] =>
+        Seq(s"(long) ${fieldExpr.resultTerm}", "1L")
+      case _: FloatingAvgAggregate[_] =>
+        Seq(s"(double) ${fieldExpr.resultTerm}", "1L")
+      case _: SumAggregate[_] | _: MinAggregate[_] | _: MaxAggregate[_] =>
+        Seq(fieldExpr.resultTerm)
+      case _ =>
+        throw new CodeGenException(s"Unsupported aggregate: ${aggregate.getClass.getName}")
+    }
+
+    intermediateTypes.zip(initValues).zip(values).map {
+      case ((intermediateType, initValue), value) =>
+        val resultTerm = newName("result")
+        val resultTypeTerm = primitiveTypeTermForTypeInfo(intermediateType)
+        // null values are prepared like an initial aggregate buffer
+        val resultCode = if (nullCheck) {
+          s"""
+            |${fieldExpr.code}
+            |$resultTypeTerm $resultTerm = ${fieldExpr.nullTerm} ? $initValue : $value;
+            |""".stripMargin
+        } else {
+          s"""
+            |${fieldExpr.code}
+            |$resultTypeTerm $resultTerm = $value;
+            |""".stripMargin
+        }
+        GeneratedExpression(resultTerm, "false", resultCode, intermediateType)
+    }
+  }
+
+  private def generateAggregateInit(
+      aggregate: Aggregate[_],
+      intermediateTypes: Seq[TypeInformation[_]])
+    : Seq[String] = {
+
+    def zero(tpe: TypeInformation[_]): String = tpe match {
+      case LONG_TYPE_INFO => "0L"
+      case FLOAT_TYPE_INFO => "0.0f"
+      case DOUBLE_TYPE_INFO => "0.0d"
+      case _ => s"(${primitiveTypeTermForTypeInfo(tpe)}) 0"
+    }
+
+    aggregate match {
+      case _: CountAggregate | _: SumAggregate[_] | _: AvgAggregate[_] =>
+        intermediateTypes.map(zero)
+      case _: MinAggregate[_] =>
+        intermediateTypes.map(t => s"${boxedTypeTermForTypeInfo(t)}.MAX_VALUE")
+      case _: MaxAggregate[_] =>
+        intermediateTypes.map {
+          // MIN_VALUE of floating point types is the smallest positive value
+          case t@(FLOAT_TYPE_INFO | DOUBLE_TYPE_INFO) =>
+            s"-${boxedTypeTermForTypeInfo(t)}.MAX_VALUE"
+          case t => s"${boxedTypeTermForTypeInfo(t)}.MIN_VALUE"
+        }
+      case _ =>
+        throw new CodeGenException(s"Unsupported aggregate: ${aggregate.getClass.getName}")
+    }
+  }
+
+  private def generateAggregateMerge(
+      aggregate: Aggregate[_],
+      accTerms: Seq[String],
+      accTypes: Seq[TypeInformation[_]],
+      values: Seq[String])
+    : String = {
+
+    val accTypeTerm = primitiveTypeTermForTypeInfo(accTypes.head)
+
+    aggregate match {
+      case _: CountAggregate | _: FloatingAvgAggregate[_] =>
+        accTerms.zip(values).map {
+          case (accTerm, value) => s"$accTerm += $value;"
+        }.mkString("\n")
+
+      case _: IntegralAvgAggregate[_] =>
+        // sum and count fail on overflow
+        accTerms.zip(values).map {
+          case (accTerm, value) =>
+            val valueTerm = newName("value")
+            val sumTerm = newName("sum")
+            s"""
+              |long $valueTerm = $value;
+              |long $sumTerm = $accTerm + $valueTerm;
+              |if ((($accTerm ^ $sumTerm) & ($valueTerm ^ $sumTerm)) < 0) {
+              |  throw new ArithmeticException("Overflow in average aggregate.");
+              |}
+              |$accTerm = $sumTerm;
+              |""".stripMargin
+        }.mkString("\n")
+
+      case _: SumAggregate[_] =>
+        s"${accTerms.head} = ($accTypeTerm) (${accTerms.head} + ${values.head});"
+
+      case _: MinAggregate[_] =>
+        s"${accTerms.head} = ($accTypeTerm) java.lang.Math.min(${accTerms.head}, ${values.head});"
+
+      case _: MaxAggregate[_] =>
+        s"${accTerms.head} = ($accTypeTerm) java.lang.Math.max(${accTerms.head}, ${values.head});"
+
+      case _ =>
+        throw new CodeGenException(s"Unsupported aggregate: ${aggregate.getClass.getName}")
+    }
+  }
+
+  private def generateAggregateEvaluate(
+      aggregate: Aggregate[_],
+      accTerms: Seq[String],
+      resultType: TypeInformation[_])
+    : String = {
+
+    val resultTypeTerm = primitiveTypeTermForTypeInfo(resultType)
+
+    aggregate match {
+      case _: AvgAggregate[_] =>
+        s"($resultTypeTerm) (${accTerms.head} / ${accTerms(1)})"
+      case _: CountAggregate | _: SumAggregate[_] | _: MinAggregate[_] | _: MaxAggregate[_] =>
+        accTerms.head
+      case _ =>
+        throw new CodeGenException(s"Unsupported aggregate: ${aggregate.getClass.getName}")
+    }
+  }
+
   // ----------------------------------------------------------------------------------------------
   // RexVisitor methods
   // ----------------------------------------------------------------------------------------------
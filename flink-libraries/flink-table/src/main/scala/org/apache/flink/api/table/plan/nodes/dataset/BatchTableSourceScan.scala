@@ -19,34 +19,66 @@
 package org.apache.flink.api.table.plan.nodes.dataset
 
 import org.apache.calcite.plan._
-import org.apache.calcite.rel.RelNode
-import org.apache.calcite.rel.`type`.RelDataType
+import org.apache.calcite.rel.metadata.RelMetadataQuery
+import org.apache.calcite.rel.{RelNode, RelWriter}
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.java.DataSet
 import org.apache.flink.api.table.BatchTableEnvironment
 import org.apache.flink.api.table.plan.schema.TableSourceTable
-import org.apache.flink.api.table.sources.BatchTableSource
+import org.apache.flink.api.table.sources.{BatchTableSource, FilterableTableSource}
 
 /** Flink RelNode to read data from an external source defined by a [[BatchTableSource]]. */
 class BatchTableSourceScan(
     cluster: RelOptCluster,
     traitSet: RelTraitSet,
     table: RelOptTable,
-    rowType: RelDataType)
-  extends BatchScan(cluster, traitSet, table, rowType) {
+    val tableSource: BatchTableSource[_])
+  extends BatchScan(
+    cluster,
+    traitSet,
+    table,
+    new TableSourceTable(tableSource).getRowType(cluster.getTypeFactory)) {
 
-  val tableSourceTable = table.unwrap(classOf[TableSourceTable])
-  val tableSource = tableSourceTable.tableSource.asInstanceOf[BatchTableSource[_]]
+  val tableSourceTable = new TableSourceTable(tableSource)
 
   override def copy(traitSet: RelTraitSet, inputs: java.util.List[RelNode]): RelNode = {
     new BatchTableSourceScan(
       cluster,
       traitSet,
       table,
-      rowType
+      tableSource
     )
   }
 
+  override def explainTerms(pw: RelWriter): RelWriter = {
+    val predicates = tableSource match {
+      case fts: FilterableTableSource[_] => fts.getPredicates.mkString(" && ")
+      case _ => ""
+    }
+    super.explainTerms(pw)
+      .item("fields", tableSource.getFieldsNames.mkString(", "))
+      .itemIf("filter", predicates, predicates.nonEmpty)
+  }
+
+  override def estimateRowCount(metadata: RelMetadataQuery): Double = {
+    val rowCnt = super.estimateRowCount(metadata)
+
+    tableSource match {
+      // every pushed-down predicate reduces the result cardinality
+      case fts: FilterableTableSource[_] =>
+        (rowCnt * math.pow(0.75, fts.getPredicates.length)).max(1.0)
+      case _ =>
+        rowCnt
+    }
+  }
+
+  override def computeSelfCost (planner: RelOptPlanner, metadata: RelMetadataQuery): RelOptCost = {
+
+    // the cost of a scan grows with the number of fields that need to be read
+    val rowCnt = metadata.getRowCount(this)
+    planner.getCostFactory.makeCost(rowCnt, rowCnt * tableSource.getNumberOfFields, 0)
+  }
+
   override def translateToPlan(
       tableEnv: BatchTableEnvironment,
       expectedType: Option[TypeInformation[Any]]): DataSet[Any] = {
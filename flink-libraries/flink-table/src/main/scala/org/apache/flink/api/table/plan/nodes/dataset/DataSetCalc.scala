@@ -41,7 +41,7 @@ class DataSetCalc(
     traitSet: RelTraitSet,
     input: RelNode,
     rowType: RelDataType,
-    calcProgram: RexProgram,
+    val calcProgram: RexProgram,
     ruleDescription: String)
   extends SingleRel(cluster, traitSet, input)
   with FlinkCalc
@@ -83,7 +83,7 @@ class DataSetCalc(
 
     if (calcProgram.getCondition != null) {
       // we reduce the result card to push filters down
-      (rowCnt * 0.75).min(1.0)
+      (rowCnt * 0.75).max(1.0)
     } else {
       rowCnt
     }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.plan.nodes.dataset
+
+import org.apache.calcite.plan._
+import org.apache.calcite.rel.`type`.RelDataType
+import org.apache.calcite.rel.metadata.RelMetadataQuery
+import org.apache.calcite.rel.{BiRel, RelNode, RelWriter}
+import org.apache.calcite.rex.RexNode
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.java.DataSet
+import org.apache.flink.api.table.runtime.SemiJoinCoGroupFunction
+import org.apache.flink.api.table.typeutils.TypeConverter
+import org.apache.flink.api.table.{BatchTableEnvironment, Row, TableException}
+
+import scala.collection.JavaConverters._
+import scala.collection.JavaConversions._
+
+/**
+  * Flink RelNode which matches along with a SemiJoin. It returns each Row of the left input
+  * at most once if the right input contains a Row with equal keys.
+  *
+  * Both inputs are co-grouped on their keys.
+  */
+class DataSetSemiJoin(
+    cluster: RelOptCluster,
+    traitSet: RelTraitSet,
+    left: RelNode,
+    right: RelNode,
+    rowType: RelDataType,
+    condition: RexNode,
+    leftKeys: Array[Int],
+    rightKeys: Array[Int],
+    ruleDescription: String)
+  extends BiRel(cluster, traitSet, left, right)
+  with DataSetRel {
+
+  override def deriveRowType() = rowType
+
+  override def copy(traitSet: RelTraitSet, inputs: java.util.List[RelNode]): RelNode = {
+    new DataSetSemiJoin(
+      cluster,
+      traitSet,
+      inputs.get(0),
+      inputs.get(1),
+      rowType,
+      condition,
+      leftKeys,
+      rightKeys,
+      ruleDescription)
+  }
+
+  override def toString: String = {
+    s"SemiJoin(where: ($conditionToString), join: ($selectionToString))"
+  }
+
+  override def explainTerms(pw: RelWriter): RelWriter = {
+    super.explainTerms(pw)
+      .item("where", conditionToString)
+      .item("join", selectionToString)
+  }
+
+  override def computeSelfCost (planner: RelOptPlanner, metadata: RelMetadataQuery): RelOptCost = {
+
+    val children = this.getInputs
+    children.foldLeft(planner.getCostFactory.makeCost(0, 0, 0)) { (cost, child) =>
+      val rowCnt = metadata.getRowCount(child)
+      val rowSize = this.estimateRowSize(child.getRowType)
+      cost.plus(planner.getCostFactory.makeCost(rowCnt, rowCnt, rowCnt * rowSize))
+    }
+  }
+
+  override def translateToPlan(
+      tableEnv: BatchTableEnvironment,
+      expectedType: Option[TypeInformation[Any]]): DataSet[Any] = {
+
+    val config = tableEnv.getConfig
+
+    // check if keys are compatible
+    val leftFields = left.getRowType.getFieldList
+    val rightFields = right.getRowType.getFieldList
+    leftKeys.zip(rightKeys).foreach { case (leftKey, rightKey) =>
+      if (leftFields.get(leftKey).getType.getSqlTypeName !=
+          rightFields.get(rightKey).getType.getSqlTypeName) {
+        throw new TableException(
+          "Equality join predicate on incompatible types.\n" +
+            s"\tLeft: ${left.toString},\n" +
+            s"\tRight: ${right.toString},\n" +
+            s"\tCondition: ($conditionToString)"
+        )
+      }
+    }
+
+    val leftDataSet = left.asInstanceOf[DataSetRel].translateToPlan(
+      tableEnv,
+      // tell the input operators that this operator currently only supports Rows as input
+      Some(TypeConverter.DEFAULT_ROW_TYPE)).asInstanceOf[DataSet[Row]]
+    val rightDataSet = right.asInstanceOf[DataSetRel].translateToPlan(
+      tableEnv,
+      Some(TypeConverter.DEFAULT_ROW_TYPE)).asInstanceOf[DataSet[Row]]
+
+    val joinOpName = s"where: ($conditionToString), semi join: ($selectionToString)"
+
+    val result = leftDataSet.coGroup(rightDataSet)
+      .where(leftKeys: _*)
+      .equalTo(rightKeys: _*)
+      .`with`(new SemiJoinCoGroupFunction(leftKeys))
+      .returns(leftDataSet.getType)
+      .name(joinOpName)
+      .asInstanceOf[DataSet[Any]]
+
+    // if the expected type is not a Row, inject a mapper to convert to the expected type
+    expectedType match {
+      case Some(typeInfo) if typeInfo.getTypeClass != classOf[Row] =>
+        val mapName = s"convert: (${rowType.getFieldNames.asScala.toList.mkString(", ")})"
+        result.map(getConversionMapper(config,
+          result.getType,
+          expectedType.get,
+          "SemiJoinOutputConversion",
+          rowType.getFieldNames.asScala
+        ))
+        .name(mapName)
+      case _ => result
+    }
+  }
+
+  private def selectionToString: String = {
+    rowType.getFieldNames.asScala.toList.mkString(", ")
+  }
+
+  private def conditionToString: String = {
+    val inFields = (left.getRowType.getFieldNames ++ right.getRowType.getFieldNames).toList
+    getExpressionString(condition, inFields, None)
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.plan.nodes.datastream
+
+import org.apache.calcite.plan.{RelOptCluster, RelTraitSet}
+import org.apache.calcite.rel.`type`.RelDataType
+import org.apache.calcite.rel.core.AggregateCall
+import org.apache.calcite.rel.{RelNode, RelWriter, SingleRel}
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.java.tuple.Tuple
+import org.apache.flink.api.table.runtime.aggregate.AggregateUtil
+import org.apache.flink.api.table.runtime.aggregate.AggregateUtil.CalcitePair
+import org.apache.flink.api.table.typeutils.{RowTypeInfo, TypeConverter}
+import org.apache.flink.api.table._
+import org.apache.flink.streaming.api.TimeCharacteristic
+import org.apache.flink.streaming.api.datastream.{AllWindowedStream, DataStream, KeyedStream, WindowedStream}
+import org.apache.flink.streaming.api.windowing.assigners._
+import org.apache.flink.streaming.api.windowing.time.Time
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow
+
+import scala.collection.JavaConverters._
+
+/**
+  * Flink RelNode which matches along with a LogicalWindowAggregate. The aggregates are computed
+  * incrementally: every row is transformed into an intermediate aggregate Row, which is merged
+  * into the window state by a reduce function. Only when the window fires, the final aggregate
+  * values are evaluated.
+  */
+class DataStreamAggregate(
+    window: GroupWindow,
+    cluster: RelOptCluster,
+    traitSet: RelTraitSet,
+    input: RelNode,
+    namedAggregates: Seq[CalcitePair[AggregateCall, String]],
+    rowType: RelDataType,
+    inputType: RelDataType,
+    grouping: Array[Int])
+  extends SingleRel(cluster, traitSet, input)
+  with DataStreamRel {
+
+  override def deriveRowType() = rowType
+
+  override def copy(traitSet: RelTraitSet, inputs: java.util.List[RelNode]): RelNode = {
+    new DataStreamAggregate(
+      window,
+      cluster,
+      traitSet,
+      inputs.get(0),
+      namedAggregates,
+      rowType,
+      inputType,
+      grouping)
+  }
+
+  override def toString: String = {
+    s"Aggregate(${ if (!grouping.isEmpty) {
+      s"groupBy: ($groupingToString), "
+    } else {
+      ""
+    }}window: ($window), select: ($aggregationToString))"
+  }
+
+  override def explainTerms(pw: RelWriter): RelWriter = {
+    super.explainTerms(pw)
+      .itemIf("groupBy", groupingToString, !grouping.isEmpty)
+      .item("window", window)
+      .item("select", aggregationToString)
+  }
+
+  override def translateToPlan(
+      tableEnv: StreamTableEnvironment,
+      expectedType: Option[TypeInformation[Any]]): DataStream[Any] = {
+
+    val config = tableEnv.getConfig
+
+    val groupingKeys = grouping.indices.toArray
+
+    val inputDS = input.asInstanceOf[DataStreamRel].translateToPlan(
+      tableEnv,
+      // tell the input operator that this operator currently only supports Rows as input
+      Some(TypeConverter.DEFAULT_ROW_TYPE))
+
+    // add grouping fields, position keys in the input, and input type
+    val aggregateResult = AggregateUtil.createOperatorFunctionsForIncrementalAggregates(
+      namedAggregates, inputType, rowType, grouping, config, inputDS.getType)
+
+    // get the output types
+    val fieldTypes: Array[TypeInformation[_]] = rowType.getFieldList.asScala
+      .map(f => f.getType.getSqlTypeName)
+      .map(n => TypeConverter.sqlTypeToTypeInfo(n))
+      .toArray
+
+    val aggString = aggregationToString
+    val prepareOpName = s"prepare select: ($aggString)"
+    val mappedInput = inputDS
+      .map(aggregateResult._1)
+      .name(prepareOpName)
+
+    val reduceFunction = aggregateResult._2
+    val windowFunction = aggregateResult._3
+    val rowTypeInfo = new RowTypeInfo(fieldTypes, rowType.getFieldNames.asScala)
+
+    val assigner = createWindowAssigner(tableEnv)
+
+    val result: DataStream[Any] = {
+      if (groupingKeys.length > 0) {
+        // grouped window aggregation
+        val aggOpName = s"groupBy: ($groupingToString), window: ($window), select: ($aggString)"
+
+        val keyedStream: KeyedStream[Row, Tuple] = mappedInput.keyBy(groupingKeys: _*)
+        val windowedStream: WindowedStream[Row, Tuple, TimeWindow] = keyedStream.window(assigner)
+
+        windowedStream
+          .apply(reduceFunction, windowFunction, rowTypeInfo.asInstanceOf[TypeInformation[Row]])
+          .name(aggOpName)
+          .asInstanceOf[DataStream[Any]]
+      }
+      else {
+        // non-grouped window aggregation
+        val aggOpName = s"window: ($window), select: ($aggString)"
+
+        val windowedStream: AllWindowedStream[Row, TimeWindow] = mappedInput.windowAll(assigner)
+
+        windowedStream
+          .apply(reduceFunction, windowFunction, rowTypeInfo.asInstanceOf[TypeInformation[Row]])
+          .name(aggOpName)
+          .asInstanceOf[DataStream[Any]]
+      }
+    }
+
+    // if the expected type is not a Row, inject a mapper to convert to the expected type
+    expectedType match {
+      case Some(typeInfo) if typeInfo.getTypeClass != classOf[Row] =>
+        val mapName = s"convert: (${rowType.getFieldNames.asScala.toList.mkString(", ")})"
+        result.map(getConversionMapper(config,
+          rowTypeInfo.asInstanceOf[TypeInformation[Any]],
+          expectedType.get,
+          "AggregateOutputConversion",
+          rowType.getFieldNames.asScala
+        ))
+        .name(mapName)
+      case _ => result
+    }
+  }
+
+  /**
+    * Creates the window assigner for the group window. Event time windows are used unless the
+    * environment is set to processing time.
+    */
+  private def createWindowAssigner(
+      tableEnv: StreamTableEnvironment): WindowAssigner[Object, TimeWindow] = {
+
+    val processingTime =
+      tableEnv.execEnv.getStreamTimeCharacteristic == TimeCharacteristic.ProcessingTime
+
+    val assigner = window match {
+      case TumblingGroupWindow(size) if processingTime =>
+        TumblingProcessingTimeWindows.of(Time.milliseconds(size))
+      case TumblingGroupWindow(size) =>
+        TumblingEventTimeWindows.of(Time.milliseconds(size))
+      case SlidingGroupWindow(size, slide) if processingTime =>
+        SlidingProcessingTimeWindows.of(Time.milliseconds(size), Time.milliseconds(slide))
+      case SlidingGroupWindow(size, slide) =>
+        SlidingEventTimeWindows.of(Time.milliseconds(size), Time.milliseconds(slide))
+      case SessionGroupWindow(gap) if processingTime =>
+        ProcessingTimeSessionWindows.withGap(Time.milliseconds(gap))
+      case SessionGroupWindow(gap) =>
+        EventTimeSessionWindows.withGap(Time.milliseconds(gap))
+    }
+    assigner.asInstanceOf[WindowAssigner[Object, TimeWindow]]
+  }
+
+  private def groupingToString: String = {
+
+    val inFields = inputType.getFieldNames.asScala
+    grouping.map( inFields(_) ).mkString(", ")
+  }
+
+  private def aggregationToString: String = {
+
+    val inFields = inputType.getFieldNames.asScala
+    val outFields = rowType.getFieldNames.asScala
+
+    val groupStrings = grouping.map( inFields(_) )
+
+    val aggs = namedAggregates.map(_.getKey)
+    val aggStrings = aggs.map( a => s"${a.getAggregation}(${
+      if (a.getArgList.size() > 0) {
+        inFields(a.getArgList.get(0))
+      } else {
+        "*"
+      }
+    })")
+
+    (groupStrings ++ aggStrings).zip(outFields).map {
+      case (f, o) => if (f == o) {
+        f
+      } else {
+        s"$f AS $o"
+      }
+    }.mkString(", ")
+  }
+
+}
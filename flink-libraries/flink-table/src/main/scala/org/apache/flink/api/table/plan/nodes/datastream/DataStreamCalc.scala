@@ -39,7 +39,7 @@ class DataStreamCalc(
     traitSet: RelTraitSet,
     input: RelNode,
     rowType: RelDataType,
-    calcProgram: RexProgram,
+    val calcProgram: RexProgram,
     ruleDescription: String)
   extends SingleRel(cluster, traitSet, input)
   with FlinkCalc
@@ -19,9 +19,12 @@
 package org.apache.flink.api.table.plan.nodes.datastream
 
 import org.apache.calcite.rel.RelNode
+import org.apache.flink.api.common.functions.MapFunction
 import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.table.codegen.CodeGenerator
 import org.apache.flink.api.table.{StreamTableEnvironment, TableConfig}
 import org.apache.flink.api.table.plan.nodes.FlinkRel
+import org.apache.flink.api.table.runtime.MapRunner
 import org.apache.flink.streaming.api.datastream.DataStream
 
 trait DataStreamRel extends RelNode with FlinkRel {
@@ -41,5 +44,32 @@ trait DataStreamRel extends RelNode with FlinkRel {
     tableEnv: StreamTableEnvironment,
     expectedType: Option[TypeInformation[Any]] = None) : DataStream[Any]
 
-}
+  private[datastream] def getConversionMapper(
+      config: TableConfig,
+      inputType: TypeInformation[Any],
+      expectedType: TypeInformation[Any],
+      conversionOperatorName: String,
+      fieldNames: Seq[String]): MapFunction[Any, Any] = {
+
+    val generator = new CodeGenerator(config, inputType)
+    val conversion = generator.generateConverterResultExpression(expectedType, fieldNames)
+
+    val body =
+      s"""
+         |${conversion.code}
+         |return ${conversion.resultTerm};
+         |""".stripMargin
 
+    val genFunction = generator.generateFunction(
+      conversionOperatorName,
+      classOf[MapFunction[Any, Any]],
+      body,
+      expectedType)
+
+    new MapRunner[Any, Any](
+      genFunction.name,
+      genFunction.code,
+      genFunction.returnType)
+  }
+
+}
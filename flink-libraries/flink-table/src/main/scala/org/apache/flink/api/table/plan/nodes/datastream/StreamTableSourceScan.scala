@@ -19,12 +19,11 @@
 package org.apache.flink.api.table.plan.nodes.datastream
 
 import org.apache.calcite.plan._
-import org.apache.calcite.rel.RelNode
-import org.apache.calcite.rel.`type`.RelDataType
+import org.apache.calcite.rel.{RelNode, RelWriter}
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.table.StreamTableEnvironment
 import org.apache.flink.api.table.plan.schema.TableSourceTable
-import org.apache.flink.api.table.sources.StreamTableSource
+import org.apache.flink.api.table.sources.{FilterableTableSource, StreamTableSource}
 import org.apache.flink.streaming.api.datastream.DataStream
 
 /** Flink RelNode to read data from an external source defined by a [[StreamTableSource]]. */
@@ -32,21 +31,34 @@ class StreamTableSourceScan(
     cluster: RelOptCluster,
     traitSet: RelTraitSet,
     table: RelOptTable,
-    rowType: RelDataType)
-  extends StreamScan(cluster, traitSet, table, rowType) {
+    val tableSource: StreamTableSource[_])
+  extends StreamScan(
+    cluster,
+    traitSet,
+    table,
+    new TableSourceTable(tableSource).getRowType(cluster.getTypeFactory)) {
 
-  val tableSourceTable = table.unwrap(classOf[TableSourceTable])
-  val tableSource = tableSourceTable.tableSource.asInstanceOf[StreamTableSource[_]]
+  val tableSourceTable = new TableSourceTable(tableSource)
 
   override def copy(traitSet: RelTraitSet, inputs: java.util.List[RelNode]): RelNode = {
     new StreamTableSourceScan(
       cluster,
       traitSet,
       table,
-      rowType
+      tableSource
     )
   }
 
+  override def explainTerms(pw: RelWriter): RelWriter = {
+    val predicates = tableSource match {
+      case fts: FilterableTableSource[_] => fts.getPredicates.mkString(" && ")
+      case _ => ""
+    }
+    super.explainTerms(pw)
+      .item("fields", tableSource.getFieldsNames.mkString(", "))
+      .itemIf("filter", predicates, predicates.nonEmpty)
+  }
+
   override def translateToPlan(
       tableEnv: StreamTableEnvironment,
       expectedType: Option[TypeInformation[Any]]): DataStream[Any] = {
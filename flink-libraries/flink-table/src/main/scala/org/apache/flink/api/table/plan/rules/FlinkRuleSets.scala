@@ -60,6 +60,8 @@ object FlinkRuleSets {
 
     // join rules
     JoinPushExpressionsRule.INSTANCE,
+    // convert a join with a distinct aggregation on the join keys into a semi join
+    SemiJoinRule.INSTANCE,
 
     // remove union with only a single child
     UnionEliminatorRule.INSTANCE,
@@ -100,11 +102,15 @@ object FlinkRuleSets {
     DataSetAggregateRule.INSTANCE,
     DataSetCalcRule.INSTANCE,
     DataSetJoinRule.INSTANCE,
+    DataSetSemiJoinRule.INSTANCE,
     DataSetScanRule.INSTANCE,
     DataSetUnionRule.INSTANCE,
     DataSetSortRule.INSTANCE,
     DataSetValuesRule.INSTANCE,
-    BatchTableSourceScanRule.INSTANCE
+    BatchTableSourceScanRule.INSTANCE,
+
+    // push filters and projections into table sources
+    PushCalcIntoBatchTableSourceScanRule.INSTANCE
   )
 
   /**
@@ -141,11 +147,15 @@ object FlinkRuleSets {
       UnionEliminatorRule.INSTANCE,
 
       // translate to DataStream nodes
+      DataStreamAggregateRule.INSTANCE,
       DataStreamCalcRule.INSTANCE,
       DataStreamScanRule.INSTANCE,
       DataStreamUnionRule.INSTANCE,
       DataStreamValuesRule.INSTANCE,
-      StreamTableSourceScanRule.INSTANCE
+      StreamTableSourceScanRule.INSTANCE,
+
+      // push filters and projections into table sources
+      PushCalcIntoStreamTableSourceScanRule.INSTANCE
   )
 
     RuleSets.ofList(rules ++ StreamRules.RULES.asList.take(7))
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.plan.rules
+
+import java.math.BigDecimal
+
+import org.apache.calcite.plan.RelOptUtil
+import org.apache.calcite.rel.`type`.RelDataTypeFactory
+import org.apache.calcite.rex._
+import org.apache.calcite.sql.SqlKind
+import org.apache.calcite.util.NlsString
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo._
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.table.expressions._
+import org.apache.flink.api.table.plan.schema.TableSourceTable
+import org.apache.flink.api.table.sources.{FilterableTableSource, ProjectableTableSource, TableSource}
+
+import scala.collection.JavaConversions._
+import scala.collection.JavaConverters._
+import scala.util.Try
+
+/**
+  * Pushes the predicates and the field accesses of a calc program into a [[TableSource]] which
+  * implements [[FilterableTableSource]] or [[ProjectableTableSource]].
+  */
+object TableSourcePushDown {
+
+  /**
+    * Pushes the conjunctive predicates of the program's condition which the source supports
+    * into the source and projects the source on the fields that the program still accesses.
+    *
+    * @param program The calc program that is evaluated on the output of the source.
+    * @param tableSource The source to push into.
+    * @param rexBuilder The builder to create the remaining program.
+    * @param typeFactory The type factory to derive the output type of the new source.
+    * @return The new source and the program to evaluate on its output, or None if nothing could
+    *         be pushed into the source.
+    */
+  def pushIntoTableSource(
+      program: RexProgram,
+      tableSource: TableSource[_],
+      rexBuilder: RexBuilder,
+      typeFactory: RelDataTypeFactory)
+    : Option[(TableSource[_], RexProgram)] = {
+
+    val projects = program.getProjectList.map(program.expandLocalRef).toList
+    val conjuncts = Option(program.getCondition)
+      .map(c => RelOptUtil.conjunctions(program.expandLocalRef(c)).toList)
+      .getOrElse(List())
+
+    // push supported predicates into the source
+    val (filteredSource, remainingConjuncts) = tableSource match {
+      case fts: FilterableTableSource[_] if conjuncts.nonEmpty =>
+        val converted = conjuncts.map { c =>
+          (c, toPredicate(c, tableSource).filter(fts.supportsPredicate))
+        }
+        val pushed = converted.flatMap(_._2)
+        if (pushed.nonEmpty) {
+          val source = fts.applyPredicates(pushed.toArray).asInstanceOf[TableSource[_]]
+          (source, converted.filter(_._2.isEmpty).map(_._1))
+        } else {
+          (tableSource, conjuncts)
+        }
+      case _ =>
+        (tableSource, conjuncts)
+    }
+
+    // project the source on the fields which are accessed by the remaining program
+    val usedFields = RelOptUtil.InputFinder.bits(projects ++ remainingConjuncts, null).toArray
+    val (projectedSource, fieldMapping) = filteredSource match {
+      case pts: ProjectableTableSource[_] if usedFields.length < tableSource.getNumberOfFields =>
+        // we need at least one field to emit a record
+        val fields = if (usedFields.isEmpty) Array(0) else usedFields
+        val source = pts.projectFields(fields).asInstanceOf[TableSource[_]]
+        (source, fields.zipWithIndex.toMap)
+      case _ =>
+        (filteredSource, tableSource.getFieldsNames.indices.map(i => (i, i)).toMap)
+    }
+
+    if (projectedSource eq tableSource) {
+      None
+    } else {
+      val rewriter = new InputRefRewriter(fieldMapping)
+      val newProjects = projects.map(_.accept(rewriter))
+      val newCondition = if (remainingConjuncts.isEmpty) {
+        null
+      } else {
+        RexUtil.composeConjunction(rexBuilder, remainingConjuncts.map(_.accept(rewriter)), false)
+      }
+
+      val inputRowType = new TableSourceTable(projectedSource).getRowType(typeFactory)
+      val newProgram = RexProgram.create(
+        inputRowType,
+        newProjects.asJava,
+        newCondition,
+        program.getOutputRowType,
+        rexBuilder)
+
+      Some((projectedSource, newProgram))
+    }
+  }
+
+  /**
+    * Converts a comparison between a field and a literal into an [[Expression]]. The field is
+    * always placed on the left side and the literal is converted to the type of the field.
+    */
+  private def toPredicate(rex: RexNode, tableSource: TableSource[_]): Option[Expression] = {
+
+    def comparison(kind: SqlKind, ref: RexInputRef, literal: RexLiteral): Option[Expression] = {
+      val fieldName = tableSource.getFieldsNames(ref.getIndex)
+      val fieldType = tableSource.getFieldTypes(ref.getIndex)
+
+      toLiteralValue(literal, fieldType).flatMap { value =>
+        val field = ResolvedFieldReference(fieldName)
+        val lit = Literal(value, fieldType)
+        kind match {
+          case SqlKind.EQUALS => Some(EqualTo(field, lit))
+          case SqlKind.NOT_EQUALS => Some(NotEqualTo(field, lit))
+          case SqlKind.GREATER_THAN => Some(GreaterThan(field, lit))
+          case SqlKind.GREATER_THAN_OR_EQUAL => Some(GreaterThanOrEqual(field, lit))
+          case SqlKind.LESS_THAN => Some(LessThan(field, lit))
+          case SqlKind.LESS_THAN_OR_EQUAL => Some(LessThanOrEqual(field, lit))
+          case _ => None
+        }
+      }
+    }
+
+    rex match {
+      case call: RexCall if call.getOperands.size == 2 =>
+        (call.getOperands.get(0), call.getOperands.get(1)) match {
+          case (ref: RexInputRef, literal: RexLiteral) =>
+            comparison(call.getKind, ref, literal)
+          case (literal: RexLiteral, ref: RexInputRef) =>
+            comparison(mirror(call.getKind), ref, literal)
+          case _ =>
+            None
+        }
+      case _ =>
+        None
+    }
+  }
+
+  private def mirror(kind: SqlKind): SqlKind = kind match {
+    case SqlKind.GREATER_THAN => SqlKind.LESS_THAN
+    case SqlKind.GREATER_THAN_OR_EQUAL => SqlKind.LESS_THAN_OR_EQUAL
+    case SqlKind.LESS_THAN => SqlKind.GREATER_THAN
+    case SqlKind.LESS_THAN_OR_EQUAL => SqlKind.GREATER_THAN_OR_EQUAL
+    case k => k
+  }
+
+  /** Converts the value of a literal to the type of a field if this is possible without loss. */
+  private def toLiteralValue(literal: RexLiteral, fieldType: TypeInformation[_]): Option[Any] =
+    (literal.getValue, fieldType) match {
+      case (d: BigDecimal, BYTE_TYPE_INFO) => Try(d.byteValueExact()).toOption
+      case (d: BigDecimal, SHORT_TYPE_INFO) => Try(d.shortValueExact()).toOption
+      case (d: BigDecimal, INT_TYPE_INFO) => Try(d.intValueExact()).toOption
+      case (d: BigDecimal, LONG_TYPE_INFO) => Try(d.longValueExact()).toOption
+      case (d: BigDecimal, FLOAT_TYPE_INFO) =>
+        // a float literal that is not exact would compare differently than in the calc
+        val f = d.floatValue()
+        if (new BigDecimal(f).compareTo(d) == 0) Some(f) else None
+      case (d: BigDecimal, DOUBLE_TYPE_INFO) => Some(d.doubleValue())
+      case (s: NlsString, STRING_TYPE_INFO) => Some(s.getValue)
+      case (b: java.lang.Boolean, BOOLEAN_TYPE_INFO) => Some(b)
+      case _ => None
+    }
+
+  /** Replaces the indexes of input references according to the given mapping. */
+  private class InputRefRewriter(mapping: Map[Int, Int]) extends RexShuttle {
+
+    override def visitInputRef(inputRef: RexInputRef): RexNode =
+      new RexInputRef(mapping(inputRef.getIndex), inputRef.getType)
+  }
+}
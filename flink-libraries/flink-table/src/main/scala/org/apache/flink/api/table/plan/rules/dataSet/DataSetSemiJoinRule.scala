@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.plan.rules.dataSet
+
+import org.apache.calcite.plan.{Convention, RelOptRule, RelTraitSet}
+import org.apache.calcite.rel.RelNode
+import org.apache.calcite.rel.convert.ConverterRule
+import org.apache.calcite.rel.core.SemiJoin
+import org.apache.flink.api.table.plan.nodes.dataset.{DataSetConvention, DataSetSemiJoin}
+
+import scala.collection.JavaConversions._
+
+class DataSetSemiJoinRule
+  extends ConverterRule(
+      classOf[SemiJoin],
+      Convention.NONE,
+      DataSetConvention.INSTANCE,
+      "DataSetSemiJoinRule")
+  {
+
+    def convert(rel: RelNode): RelNode = {
+
+      val semiJoin: SemiJoin = rel.asInstanceOf[SemiJoin]
+      val traitSet: RelTraitSet = rel.getTraitSet.replace(DataSetConvention.INSTANCE)
+      val convLeft: RelNode = RelOptRule.convert(semiJoin.getLeft, DataSetConvention.INSTANCE)
+      val convRight: RelNode = RelOptRule.convert(semiJoin.getRight, DataSetConvention.INSTANCE)
+
+      new DataSetSemiJoin(
+        rel.getCluster,
+        traitSet,
+        convLeft,
+        convRight,
+        rel.getRowType,
+        semiJoin.getCondition,
+        semiJoin.getLeftKeys.map(_.intValue()).toArray,
+        semiJoin.getRightKeys.map(_.intValue()).toArray,
+        description)
+    }
+  }
+
+object DataSetSemiJoinRule {
+  val INSTANCE: RelOptRule = new DataSetSemiJoinRule
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.plan.rules.dataSet
+
+import org.apache.calcite.plan.RelOptRule.{none, operand}
+import org.apache.calcite.plan.{RelOptRule, RelOptRuleCall}
+import org.apache.flink.api.table.plan.nodes.dataset.{DataSetCalc, BatchTableSourceScan}
+import org.apache.flink.api.table.plan.rules.TableSourcePushDown
+import org.apache.flink.api.table.sources.{BatchTableSource, FilterableTableSource, ProjectableTableSource}
+
+/**
+  * Rule to push the predicates and the projection of a [[DataSetCalc]] into a
+  * [[BatchTableSourceScan]] whose source implements [[FilterableTableSource]] or
+  * [[ProjectableTableSource]].
+  */
+class PushCalcIntoBatchTableSourceScanRule
+  extends RelOptRule(
+    operand(classOf[DataSetCalc], operand(classOf[BatchTableSourceScan], none)),
+    "PushCalcIntoBatchTableSourceScanRule") {
+
+  override def matches(call: RelOptRuleCall): Boolean = {
+    val scan: BatchTableSourceScan = call.rel(1).asInstanceOf[BatchTableSourceScan]
+    scan.tableSource match {
+      case _: FilterableTableSource[_] | _: ProjectableTableSource[_] => true
+      case _ => false
+    }
+  }
+
+  override def onMatch(call: RelOptRuleCall): Unit = {
+    val calc: DataSetCalc = call.rel(0).asInstanceOf[DataSetCalc]
+    val scan: BatchTableSourceScan = call.rel(1).asInstanceOf[BatchTableSourceScan]
+
+    val pushedDown = TableSourcePushDown.pushIntoTableSource(
+      calc.calcProgram,
+      scan.tableSource,
+      calc.getCluster.getRexBuilder,
+      calc.getCluster.getTypeFactory)
+
+    pushedDown.foreach { case (tableSource, program) =>
+      val newScan = new BatchTableSourceScan(
+        scan.getCluster,
+        scan.getTraitSet,
+        scan.getTable,
+        tableSource.asInstanceOf[BatchTableSource[_]])
+
+      val newCalc = new DataSetCalc(
+        calc.getCluster,
+        calc.getTraitSet,
+        newScan,
+        calc.getRowType,
+        program,
+        description)
+
+      call.transformTo(newCalc)
+    }
+  }
+}
+
+object PushCalcIntoBatchTableSourceScanRule {
+  val INSTANCE: RelOptRule = new PushCalcIntoBatchTableSourceScanRule
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.plan.rules.datastream
+
+import org.apache.calcite.plan.RelOptRule.{none, operand}
+import org.apache.calcite.plan.{RelOptRule, RelOptRuleCall}
+import org.apache.flink.api.table.plan.nodes.datastream.{DataStreamCalc, StreamTableSourceScan}
+import org.apache.flink.api.table.plan.rules.TableSourcePushDown
+import org.apache.flink.api.table.sources.{StreamTableSource, FilterableTableSource, ProjectableTableSource}
+
+/**
+  * Rule to push the predicates and the projection of a [[DataStreamCalc]] into a
+  * [[StreamTableSourceScan]] whose source implements [[FilterableTableSource]] or
+  * [[ProjectableTableSource]].
+  */
+class PushCalcIntoStreamTableSourceScanRule
+  extends RelOptRule(
+    operand(classOf[DataStreamCalc], operand(classOf[StreamTableSourceScan], none)),
+    "PushCalcIntoStreamTableSourceScanRule") {
+
+  override def matches(call: RelOptRuleCall): Boolean = {
+    val scan: StreamTableSourceScan = call.rel(1).asInstanceOf[StreamTableSourceScan]
+    scan.tableSource match {
+      case _: FilterableTableSource[_] | _: ProjectableTableSource[_] => true
+      case _ => false
+    }
+  }
+
+  override def onMatch(call: RelOptRuleCall): Unit = {
+    val calc: DataStreamCalc = call.rel(0).asInstanceOf[DataStreamCalc]
+    val scan: StreamTableSourceScan = call.rel(1).asInstanceOf[StreamTableSourceScan]
+
+    val pushedDown = TableSourcePushDown.pushIntoTableSource(
+      calc.calcProgram,
+      scan.tableSource,
+      calc.getCluster.getRexBuilder,
+      calc.getCluster.getTypeFactory)
+
+    pushedDown.foreach { case (tableSource, program) =>
+      val newScan = new StreamTableSourceScan(
+        scan.getCluster,
+        scan.getTraitSet,
+        scan.getTable,
+        tableSource.asInstanceOf[StreamTableSource[_]])
+
+      val newCalc = new DataStreamCalc(
+        calc.getCluster,
+        calc.getTraitSet,
+        newScan,
+        calc.getRowType,
+        program,
+        description)
+
+      call.transformTo(newCalc)
+    }
+  }
+}
+
+object PushCalcIntoStreamTableSourceScanRule {
+  val INSTANCE: RelOptRule = new PushCalcIntoStreamTableSourceScanRule
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.runtime
+
+import java.lang.Iterable
+
+import org.apache.flink.api.common.functions.{AbstractRichFunction, MapFunction}
+import org.apache.flink.api.java.tuple.Tuple
+import org.apache.flink.api.table.Row
+import org.apache.flink.configuration.Configuration
+import org.apache.flink.streaming.api.functions.windowing.{AllWindowFunction, WindowFunction}
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow
+import org.apache.flink.util.Collector
+import org.slf4j.LoggerFactory
+
+/**
+  * Runs a generated MapFunction that evaluates the final aggregate values of a window from the
+  * single pre-aggregated intermediate Row. It is used for grouped as well as non-grouped windows.
+  */
+class AggregateWindowRunner(
+    name: String,
+    code: String)
+  extends AbstractRichFunction
+  with WindowFunction[Row, Row, Tuple, TimeWindow]
+  with AllWindowFunction[Row, Row, TimeWindow]
+  with FunctionCompiler[MapFunction[Row, Row]] {
+
+  val LOG = LoggerFactory.getLogger(this.getClass)
+
+  private var function: MapFunction[Row, Row] = null
+
+  override def open(parameters: Configuration): Unit = {
+    LOG.debug(s"Compiling MapFunction: $name \n\n Code:\n$code")
+    val clazz = compile(getRuntimeContext.getUserCodeClassLoader, name, code)
+    LOG.debug("Instantiating MapFunction.")
+    function = clazz.newInstance()
+  }
+
+  override def apply(
+      key: Tuple,
+      window: TimeWindow,
+      records: Iterable[Row],
+      out: Collector[Row]): Unit = {
+
+    apply(window, records, out)
+  }
+
+  override def apply(
+      window: TimeWindow,
+      records: Iterable[Row],
+      out: Collector[Row]): Unit = {
+
+    // the window contents were pre-aggregated to a single intermediate Row
+    out.collect(function.map(records.iterator().next()))
+  }
+}
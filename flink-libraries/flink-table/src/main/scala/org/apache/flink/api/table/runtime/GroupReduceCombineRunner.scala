@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.runtime
+
+import java.lang.Iterable
+
+import org.apache.flink.api.common.functions.{CombineFunction, GroupReduceFunction, RichGroupReduceFunction}
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable
+import org.apache.flink.configuration.Configuration
+import org.apache.flink.util.Collector
+import org.slf4j.LoggerFactory
+
+/**
+  * Runs a generated GroupReduceFunction that also implements CombineFunction.
+  */
+class GroupReduceCombineRunner[IN, OUT](
+    name: String,
+    code: String,
+    @transient returnType: TypeInformation[OUT])
+  extends RichGroupReduceFunction[IN, OUT]
+  with CombineFunction[IN, IN]
+  with ResultTypeQueryable[OUT]
+  with FunctionCompiler[GroupReduceFunction[IN, OUT]] {
+
+  val LOG = LoggerFactory.getLogger(this.getClass)
+
+  private var function: GroupReduceFunction[IN, OUT] = null
+
+  private var combineFunction: CombineFunction[IN, IN] = null
+
+  override def open(parameters: Configuration): Unit = {
+    LOG.debug(s"Compiling GroupReduceFunction: $name \n\n Code:\n$code")
+    val clazz = compile(getRuntimeContext.getUserCodeClassLoader, name, code)
+    LOG.debug("Instantiating GroupReduceFunction.")
+    function = clazz.newInstance()
+    combineFunction = function.asInstanceOf[CombineFunction[IN, IN]]
+  }
+
+  override def reduce(values: Iterable[IN], out: Collector[OUT]): Unit =
+    function.reduce(values, out)
+
+  override def combine(values: Iterable[IN]): IN =
+    combineFunction.combine(values)
+
+  override def getProducedType: TypeInformation[OUT] = returnType
+}
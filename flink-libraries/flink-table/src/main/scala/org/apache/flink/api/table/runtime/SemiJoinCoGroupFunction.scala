@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.runtime
+
+import java.lang.Iterable
+
+import org.apache.flink.api.common.functions.RichCoGroupFunction
+import org.apache.flink.api.table.Row
+import org.apache.flink.util.Collector
+
+import scala.collection.JavaConversions._
+
+/**
+  * Executes a semi join on co-grouped inputs. All Rows of the left input are forwarded if
+  * the right input contains at least one Row with the same key. Matching Rows of the right
+  * input are not iterated.
+  *
+  * Rows with a null key field never match.
+  *
+  * @param leftKeys key fields of the left input
+  */
+class SemiJoinCoGroupFunction(leftKeys: Array[Int])
+  extends RichCoGroupFunction[Row, Row, Row] {
+
+  override def coGroup(first: Iterable[Row], second: Iterable[Row], out: Collector[Row]): Unit = {
+    val leftRows = first.iterator()
+    if (leftRows.hasNext && second.iterator().hasNext) {
+      val row = leftRows.next()
+      if (SemiJoinFilterFunction.extractKey(row, leftKeys) != null) {
+        out.collect(row)
+        leftRows.foreach(out.collect)
+      }
+    }
+  }
+}
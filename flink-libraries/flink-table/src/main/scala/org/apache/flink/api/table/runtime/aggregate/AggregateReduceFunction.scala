@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.runtime.aggregate
+
+import com.google.common.base.Preconditions
+import org.apache.flink.api.common.functions.ReduceFunction
+import org.apache.flink.api.table.Row
+
+/**
+  * Merges two intermediate aggregate Rows into one. It is used to incrementally pre-aggregate
+  * the rows of a window, so that only a single intermediate Row per key and window is kept in
+  * the window state.
+  *
+  * The merged result is written into a new Row. Neither input may be modified, because with
+  * overlapping windows the same intermediate Row can be part of the state of several windows.
+  *
+  * @param aggregates The aggregate functions. All of them must support partial aggregation.
+  */
+class AggregateReduceFunction(
+    private val aggregates: Array[Aggregate[_ <: Any]])
+    extends ReduceFunction[Row] {
+
+  Preconditions.checkNotNull(aggregates)
+
+  override def reduce(value1: Row, value2: Row): Row = {
+    // copy value1, including the group keys which are identical for both Rows
+    val arity = value1.productArity
+    val result = new Row(arity)
+    var i = 0
+    while (i < arity) {
+      result.setField(i, value1.productElement(i))
+      i += 1
+    }
+
+    // merge the intermediate aggregate values of value2 into the copy
+    i = 0
+    while (i < aggregates.length) {
+      aggregates(i).merge(value2, result)
+      i += 1
+    }
+    result
+  }
+}
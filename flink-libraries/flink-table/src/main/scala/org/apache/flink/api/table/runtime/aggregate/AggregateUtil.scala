@@ -25,12 +25,18 @@ import org.apache.calcite.sql.SqlAggFunction
 import org.apache.calcite.sql.`type`.SqlTypeName._
 import org.apache.calcite.sql.`type`.{SqlTypeFactoryImpl, SqlTypeName}
 import org.apache.calcite.sql.fun._
-import org.apache.flink.api.common.functions.{GroupReduceFunction, MapFunction}
+import org.apache.flink.api.common.functions.{GroupReduceFunction, MapFunction, ReduceFunction}
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.java.tuple.Tuple
+import org.apache.flink.api.table.codegen.CodeGenerator
 import org.apache.flink.api.table.plan.PlanGenException
+import org.apache.flink.api.table.runtime.{AggregateWindowRunner, GroupReduceCombineRunner, MapRunner}
 import org.apache.flink.api.table.typeutils.{TypeConverter, RowTypeInfo}
 import TypeConverter._
 import org.apache.flink.api.table.typeutils.RowTypeInfo
 import org.apache.flink.api.table.{Row, TableConfig}
+import org.apache.flink.streaming.api.functions.windowing.{AllWindowFunction, WindowFunction}
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow
 
 import scala.collection.JavaConversions._
 import scala.collection.mutable.ArrayBuffer
@@ -62,11 +68,17 @@ object AggregateUtil {
    *                               sum(y) aggOffsetInRow = 4
    * }}}
    *
+   * If all aggregates support partial aggregation and are known to the
+   * [[org.apache.flink.api.table.codegen.CodeGenerator]], both functions are generated. The
+   * generated functions compute all aggregates in a single pass on primitive values and the
+   * [[org.apache.flink.api.common.functions.GroupReduceFunction]] is combinable.
    */
   def createOperatorFunctionsForAggregates(namedAggregates: Seq[CalcitePair[AggregateCall, String]],
       inputType: RelDataType, outputType: RelDataType,
       groupings: Array[Int],
-      config: TableConfig): (MapFunction[Any, Row], GroupReduceFunction[Row, Row] ) = {
+      config: TableConfig,
+      inputTypeInfo: TypeInformation[Any])
+    : (MapFunction[Any, Row], GroupReduceFunction[Row, Row]) = {
 
     val aggregateFunctionsAndFieldIndexes =
       transformToAggregateFunctions(namedAggregates.map(_.getKey), inputType, groupings.length)
@@ -83,10 +95,6 @@ object AggregateUtil {
         config.getNullCheck,
         config.getEfficientTypeUsage)
 
-    val mapFunction = new AggregateMapFunction[Row, Row](
-        aggregates, aggFieldIndexes, groupings,
-        mapReturnType.asInstanceOf[RowTypeInfo]).asInstanceOf[MapFunction[Any, Row]]
-
     // the mapping relation between field index of intermediate aggregate Row and output Row.
     val groupingOffsetMapping = getGroupKeysMapping(inputType, outputType, groupings)
 
@@ -102,19 +110,176 @@ object AggregateUtil {
 
     val allPartialAggregate = aggregates.map(_.supportPartial).forall(x => x)
 
-    val intermediateRowArity = groupings.length + aggregates.map(_.intermediateDataType.length).sum
+    if (allPartialAggregate && aggregates.forall(isCodeGenSupported)) {
+      val outputReturnType = determineReturnType(
+        outputType,
+        Some(TypeConverter.DEFAULT_ROW_TYPE),
+        config.getNullCheck,
+        config.getEfficientTypeUsage)
 
-    val reduceGroupFunction =
-      if (allPartialAggregate) {
-        new AggregateReduceCombineFunction(aggregates, groupingOffsetMapping,
-          aggOffsetMapping, intermediateRowArity)
-      }
-      else {
-        new AggregateReduceGroupFunction(aggregates, groupingOffsetMapping,
-          aggOffsetMapping, intermediateRowArity)
-      }
+      val mapGenerator = new CodeGenerator(config, inputTypeInfo)
+      val genMapFunction = mapGenerator.generateAggregatePrepareFunction(
+        "AggregatePrepare",
+        aggregates,
+        aggFieldIndexes,
+        groupings,
+        mapReturnType.asInstanceOf[RowTypeInfo])
+
+      val mapFunction = new MapRunner[Any, Row](
+        genMapFunction.name,
+        genMapFunction.code,
+        genMapFunction.returnType.asInstanceOf[TypeInformation[Row]])
+
+      val reduceGenerator = new CodeGenerator(config, mapReturnType)
+      val genReduceFunction = reduceGenerator.generateAggregateReduceCombineFunction(
+        "AggregateReduceCombine",
+        aggregates,
+        groupingOffsetMapping,
+        aggOffsetMapping,
+        outputReturnType.asInstanceOf[RowTypeInfo])
+
+      val reduceGroupFunction = new GroupReduceCombineRunner[Row, Row](
+        genReduceFunction.name,
+        genReduceFunction.code,
+        genReduceFunction.returnType.asInstanceOf[TypeInformation[Row]])
+
+      (mapFunction, reduceGroupFunction)
+    }
+    else {
+      val mapFunction = new AggregateMapFunction[Row, Row](
+          aggregates, aggFieldIndexes, groupings,
+          mapReturnType.asInstanceOf[RowTypeInfo]).asInstanceOf[MapFunction[Any, Row]]
+
+      val intermediateRowArity =
+        groupings.length + aggregates.map(_.intermediateDataType.length).sum
+
+      val reduceGroupFunction =
+        if (allPartialAggregate) {
+          new AggregateReduceCombineFunction(aggregates, groupingOffsetMapping,
+            aggOffsetMapping, intermediateRowArity)
+        }
+        else {
+          new AggregateReduceGroupFunction(aggregates, groupingOffsetMapping,
+            aggOffsetMapping, intermediateRowArity)
+        }
+
+      (mapFunction, reduceGroupFunction)
+    }
+  }
+
+  // Whether the CodeGenerator can generate code for the aggregate.
+  private def isCodeGenSupported(aggregate: Aggregate[_]): Boolean = aggregate match {
+    case _: SumAggregate[_] | _: AvgAggregate[_] | _: MinAggregate[_] | _: MaxAggregate[_] |
+         _: CountAggregate => true
+    case _ => false
+  }
+
+  /**
+   * Create Flink operator functions for incremental aggregates on windows of a stream. It
+   * includes 3 implementations of Flink operator functions:
+   * [[org.apache.flink.api.common.functions.MapFunction]] to create the intermediate aggregate
+   * Row (with the same format as in [[createOperatorFunctionsForAggregates]]),
+   * [[org.apache.flink.api.common.functions.ReduceFunction]] to merge intermediate aggregate
+   * Rows as they arrive in a window, and a window function to evaluate the final aggregate
+   * values once the window fires. The window state therefore only holds a single intermediate
+   * Row per key and window.
+   *
+   * If all aggregates are known to the [[org.apache.flink.api.table.codegen.CodeGenerator]],
+   * the map function and the evaluation of the window function are generated. The
+   * [[org.apache.flink.api.common.functions.ReduceFunction]] is never generated: the window
+   * operator rejects rich reduce functions, so there is no open() in which the generated code
+   * could be compiled with the user code class loader.
+   */
+  def createOperatorFunctionsForIncrementalAggregates(
+      namedAggregates: Seq[CalcitePair[AggregateCall, String]],
+      inputType: RelDataType,
+      outputType: RelDataType,
+      groupings: Array[Int],
+      config: TableConfig,
+      inputTypeInfo: TypeInformation[Any])
+    : (MapFunction[Any, Row],
+      ReduceFunction[Row],
+      WindowFunction[Row, Row, Tuple, TimeWindow] with AllWindowFunction[Row, Row, TimeWindow]) = {
 
-    (mapFunction, reduceGroupFunction)
+    val aggregateFunctionsAndFieldIndexes =
+      transformToAggregateFunctions(namedAggregates.map(_.getKey), inputType, groupings.length)
+    // store the aggregate fields of each aggregate function, by the same order of aggregates.
+    val aggFieldIndexes = aggregateFunctionsAndFieldIndexes._1
+    val aggregates = aggregateFunctionsAndFieldIndexes._2
+
+    if (!aggregates.forall(_.supportPartial)) {
+      throw new PlanGenException("Window aggregation requires aggregate functions that " +
+        "support partial aggregation.")
+    }
+
+    val bufferDataType: RelRecordType =
+      createAggregateBufferDataType(groupings, aggregates, inputType)
+
+    val mapReturnType = determineReturnType(
+        bufferDataType,
+        Some(TypeConverter.DEFAULT_ROW_TYPE),
+        config.getNullCheck,
+        config.getEfficientTypeUsage)
+
+    // the mapping relation between field index of intermediate aggregate Row and output Row.
+    val groupingOffsetMapping = getGroupKeysMapping(inputType, outputType, groupings)
+
+    // the mapping relation between aggregate function index in list and its corresponding
+    // field index in output Row.
+    val aggOffsetMapping = getAggregateMapping(namedAggregates, outputType)
+
+    if (groupingOffsetMapping.length != groupings.length ||
+        aggOffsetMapping.length != namedAggregates.length) {
+      throw new PlanGenException("Could not find output field in input data type " +
+          "or aggregate functions.")
+    }
+
+    val reduceFunction = new AggregateReduceFunction(aggregates)
+
+    if (aggregates.forall(isCodeGenSupported)) {
+      val outputReturnType = determineReturnType(
+        outputType,
+        Some(TypeConverter.DEFAULT_ROW_TYPE),
+        config.getNullCheck,
+        config.getEfficientTypeUsage)
+
+      val mapGenerator = new CodeGenerator(config, inputTypeInfo)
+      val genMapFunction = mapGenerator.generateAggregatePrepareFunction(
+        "AggregatePrepare",
+        aggregates,
+        aggFieldIndexes,
+        groupings,
+        mapReturnType.asInstanceOf[RowTypeInfo])
+
+      val mapFunction = new MapRunner[Any, Row](
+        genMapFunction.name,
+        genMapFunction.code,
+        genMapFunction.returnType.asInstanceOf[TypeInformation[Row]])
+
+      val evaluateGenerator = new CodeGenerator(config, mapReturnType)
+      val genEvaluateFunction = evaluateGenerator.generateAggregateEvaluateFunction(
+        "AggregateEvaluate",
+        aggregates,
+        groupingOffsetMapping,
+        aggOffsetMapping,
+        outputReturnType.asInstanceOf[RowTypeInfo])
+
+      val windowFunction = new AggregateWindowRunner(
+        genEvaluateFunction.name,
+        genEvaluateFunction.code)
+
+      (mapFunction, reduceFunction, windowFunction)
+    }
+    else {
+      val mapFunction = new AggregateMapFunction[Row, Row](
+          aggregates, aggFieldIndexes, groupings,
+          mapReturnType.asInstanceOf[RowTypeInfo]).asInstanceOf[MapFunction[Any, Row]]
+
+      val windowFunction = new AggregateWindowFunction(aggregates, groupingOffsetMapping,
+        aggOffsetMapping, outputType.getFieldCount)
+
+      (mapFunction, reduceFunction, windowFunction)
+    }
   }
 
   private def transformToAggregateFunctions(
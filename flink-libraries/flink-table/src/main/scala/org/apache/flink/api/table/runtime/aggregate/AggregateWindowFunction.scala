@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.runtime.aggregate
+
+import java.lang.Iterable
+
+import com.google.common.base.Preconditions
+import org.apache.flink.api.java.tuple.Tuple
+import org.apache.flink.api.table.Row
+import org.apache.flink.streaming.api.functions.windowing.{AllWindowFunction, WindowFunction}
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow
+import org.apache.flink.util.Collector
+
+/**
+  * Evaluates the final aggregate values of a window from the single pre-aggregated
+  * intermediate Row and sets them, together with the group keys, into the output Row.
+  * It is used for grouped as well as non-grouped windows.
+  *
+  * @param aggregates The aggregate functions.
+  * @param groupKeysMapping The mapping of group key fields from intermediate to output Row.
+  * @param aggregateMapping The mapping of aggregate functions to fields of the output Row.
+  * @param finalRowArity The arity of the output Row.
+  */
+class AggregateWindowFunction(
+    private val aggregates: Array[Aggregate[_ <: Any]],
+    private val groupKeysMapping: Array[(Int, Int)],
+    private val aggregateMapping: Array[(Int, Int)],
+    private val finalRowArity: Int)
+    extends WindowFunction[Row, Row, Tuple, TimeWindow]
+    with AllWindowFunction[Row, Row, TimeWindow] {
+
+  Preconditions.checkNotNull(aggregates)
+  Preconditions.checkNotNull(groupKeysMapping)
+
+  @transient private var output: Row = _
+
+  override def apply(
+      key: Tuple,
+      window: TimeWindow,
+      records: Iterable[Row],
+      out: Collector[Row]): Unit = {
+
+    apply(window, records, out)
+  }
+
+  override def apply(
+      window: TimeWindow,
+      records: Iterable[Row],
+      out: Collector[Row]): Unit = {
+
+    if (output == null) {
+      output = new Row(finalRowArity)
+    }
+
+    // the window contents were pre-aggregated to a single intermediate Row
+    val buffer = records.iterator().next()
+
+    // Set group keys value to final output.
+    groupKeysMapping.foreach {
+      case (after, previous) =>
+        output.setField(after, buffer.productElement(previous))
+    }
+
+    // Evaluate final aggregate value and set to output.
+    aggregateMapping.foreach {
+      case (after, previous) =>
+        output.setField(after, aggregates(previous).evaluate(buffer))
+    }
+
+    out.collect(output)
+  }
+}
@@ -19,16 +19,21 @@
 package org.apache.flink.api.table.sources
 
 import org.apache.flink.api.common.typeinfo.TypeInformation
-import org.apache.flink.api.java.io.TupleCsvInputFormat
+import org.apache.flink.api.java.io.{CsvInputFormat, TupleCsvInputFormat}
 import org.apache.flink.api.java.tuple.Tuple
 import org.apache.flink.api.java.typeutils.{TupleTypeInfoBase, TupleTypeInfo}
 import org.apache.flink.api.java.{ExecutionEnvironment, DataSet}
 import org.apache.flink.api.table.Row
+import org.apache.flink.api.table.expressions._
 import org.apache.flink.core.fs.Path
 
 /**
   * A [[TableSource]] for simple CSV files with up to 25 fields.
   *
+  * The source supports projection and filter push-down. Fields which are not selected and not
+  * referenced by a predicate are skipped by the parser. Comparisons of a field with a literal are
+  * evaluated directly after parsing a line.
+  *
   * @param path The path to the CSV file.
   * @param fieldNames The names of the table fields.
   * @param fieldTypes The types of the table fields.
@@ -49,7 +54,9 @@ class CsvTableSource(
     ignoreFirstLine: Boolean = false,
     ignoreComments: String = null,
     lenient: Boolean = false)
-  extends BatchTableSource[Tuple] {
+  extends BatchTableSource[Tuple]
+  with ProjectableTableSource[Tuple]
+  with FilterableTableSource[Tuple] {
 
   if (fieldNames.length != fieldTypes.length) {
     throw new IllegalArgumentException("Number of field names and field types must be equal.")
@@ -59,11 +66,17 @@ class CsvTableSource(
     throw new IllegalArgumentException("Only up to 25 fields supported with this CsvTableSource.")
   }
 
+  /** The indexes of the fields in the file that are returned by this source. */
+  private var selectedFields: Array[Int] = fieldNames.indices.toArray
+
+  /** The predicates that are evaluated by this source. */
+  private var predicates: Array[Expression] = Array()
+
   /** Returns the data of the table as a [[DataSet]] of [[Row]]. */
   override def getDataSet(execEnv: ExecutionEnvironment): DataSet[Tuple] = {
 
     val typeInfo = getReturnType.asInstanceOf[TupleTypeInfoBase[Tuple]]
-    val inputFormat = new TupleCsvInputFormat(new Path(path), rowDelim, fieldDelim, typeInfo)
+    val inputFormat = createInputFormat(typeInfo)
 
     inputFormat.setSkipFirstLineAsHeader(ignoreFirstLine)
     inputFormat.setLenient(lenient)
@@ -78,16 +91,176 @@ class CsvTableSource(
   }
 
   /** Returns the types of the table fields. */
-  override def getFieldTypes: Array[TypeInformation[_]] = fieldTypes
+  override def getFieldTypes: Array[TypeInformation[_]] = selectedFields.map(fieldTypes(_))
 
   /** Returns the names of the table fields. */
-  override def getFieldsNames: Array[String] = fieldNames
+  override def getFieldsNames: Array[String] = selectedFields.map(fieldNames(_))
 
   /** Returns the number of fields of the table. */
-  override def getNumberOfFields: Int = fieldNames.length
+  override def getNumberOfFields: Int = selectedFields.length
 
   /** Returns the [[TypeInformation]] for the return type of the [[CsvTableSource]]. */
   override def getReturnType: TypeInformation[Tuple] = {
-    new TupleTypeInfo(fieldTypes.toArray:_*)
+    new TupleTypeInfo(getFieldTypes.toArray:_*)
+  }
+
+  /** Returns a copy of the [[CsvTableSource]] that only parses and returns the given fields. */
+  override def projectFields(fields: Array[Int]): CsvTableSource = {
+
+    if (fields.isEmpty) {
+      throw new IllegalArgumentException("At least one field must be selected.")
+    }
+    if (fields.zip(fields.tail).exists { case (l, r) => l >= r }) {
+      throw new IllegalArgumentException("Projected fields must be in ascending order.")
+    }
+    if (fields.last >= selectedFields.length) {
+      throw new IllegalArgumentException(s"Invalid field index: ${fields.last}.")
+    }
+
+    val copy = copySource()
+    copy.selectedFields = fields.map(selectedFields(_))
+    copy
+  }
+
+  /** Returns true if the predicate compares a field of the file with a literal of its type. */
+  override def supportsPredicate(predicate: Expression): Boolean = predicate match {
+    case c: BinaryComparison =>
+      (c.left, c.right) match {
+        case (ResolvedFieldReference(name), Literal(value, tpe)) =>
+          val idx = fieldNames.indexOf(name)
+          idx >= 0 && tpe == fieldTypes(idx) && value.isInstanceOf[Comparable[_]]
+        case _ =>
+          false
+      }
+    case _ =>
+      false
+  }
+
+  /** Returns a copy of the [[CsvTableSource]] that also evaluates the given predicates. */
+  override def applyPredicates(predicates: Array[Expression]): CsvTableSource = {
+
+    predicates.find(!supportsPredicate(_)).foreach { p =>
+      throw new IllegalArgumentException(s"Unsupported predicate: $p")
+    }
+
+    val copy = copySource()
+    copy.predicates = this.predicates ++ predicates
+    copy
+  }
+
+  /** Returns the predicates that are evaluated by the [[CsvTableSource]]. */
+  override def getPredicates: Array[Expression] = predicates
+
+  private def copySource(): CsvTableSource = {
+    val copy = new CsvTableSource(
+      path,
+      fieldNames,
+      fieldTypes,
+      fieldDelim,
+      rowDelim,
+      quoteCharacter,
+      ignoreFirstLine,
+      ignoreComments,
+      lenient)
+    copy.selectedFields = selectedFields
+    copy.predicates = predicates
+    copy
+  }
+
+  private def createInputFormat(typeInfo: TupleTypeInfoBase[Tuple]): CsvInputFormat[Tuple] = {
+
+    val isProjection = !selectedFields.sameElements(fieldNames.indices)
+
+    if (predicates.isEmpty && !isProjection) {
+      new TupleCsvInputFormat(new Path(path), rowDelim, fieldDelim, typeInfo)
+    }
+    else if (predicates.isEmpty) {
+      new TupleCsvInputFormat(new Path(path), rowDelim, fieldDelim, typeInfo, selectedFields)
+    }
+    else {
+      // parse the selected fields and all fields that are referenced by a predicate
+      val filterFields = predicates.map { case c: BinaryComparison =>
+        fieldNames.indexOf(c.left.asInstanceOf[ResolvedFieldReference].name)
+      }
+      val parsedFields = (selectedFields ++ filterFields).distinct.sorted
+
+      val fieldPredicates = predicates.map { case c: BinaryComparison =>
+        val position = parsedFields.indexOf(
+          fieldNames.indexOf(c.left.asInstanceOf[ResolvedFieldReference].name))
+        val literal = c.right.asInstanceOf[Literal].value.asInstanceOf[Comparable[Any]]
+        val accepts: Int => Boolean = c match {
+          case _: EqualTo => _ == 0
+          case _: NotEqualTo => _ != 0
+          case _: GreaterThan => _ > 0
+          case _: GreaterThanOrEqual => _ >= 0
+          case _: LessThan => _ < 0
+          case _: LessThanOrEqual => _ <= 0
+        }
+        CsvFieldPredicate(position, literal, accepts)
+      }
+
+      val inputFormat = new FilteringCsvInputFormat(
+        new Path(path),
+        parsedFields.map(fieldTypes(_).getTypeClass.asInstanceOf[Class[_]]),
+        parsedFields,
+        selectedFields.map(parsedFields.indexOf(_)),
+        fieldPredicates)
+
+      inputFormat.setDelimiter(rowDelim)
+      inputFormat.setFieldDelimiter(fieldDelim)
+      inputFormat
+    }
+  }
+}
+
+/** A comparison of a parsed CSV field with a literal. */
+private case class CsvFieldPredicate(
+    position: Int,
+    literal: Comparable[Any],
+    accepts: Int => Boolean) {
+
+  def eval(parsedValues: Array[AnyRef]): Boolean =
+    accepts(parsedValues(position).asInstanceOf[Comparable[Any]].compareTo(literal))
+}
+
+/**
+  * A [[CsvInputFormat]] that parses only the given fields of a line, drops lines which do not
+  * satisfy all predicates, and returns the selected fields as a [[Tuple]].
+  *
+  * @param path The path to the CSV file.
+  * @param parsedTypes The types of the fields to parse.
+  * @param parsedFields The indexes of the fields to parse in ascending order.
+  * @param outputPositions The positions of the returned fields within the parsed fields.
+  * @param predicates The predicates that a line must satisfy.
+  */
+private class FilteringCsvInputFormat(
+    path: Path,
+    parsedTypes: Array[Class[_]],
+    parsedFields: Array[Int],
+    outputPositions: Array[Int],
+    predicates: Array[CsvFieldPredicate])
+  extends CsvInputFormat[Tuple](path) {
+
+  private val includedMask = new Array[Boolean](parsedFields.last + 1)
+  parsedFields.foreach(includedMask(_) = true)
+  setFieldsGeneric(includedMask, parsedTypes)
+
+  override protected def fillRecord(reuse: Tuple, parsedValues: Array[AnyRef]): Tuple = {
+    if (predicates.forall(_.eval(parsedValues))) {
+      val record = if (reuse != null) {
+        reuse
+      } else {
+        Tuple.getTupleClass(outputPositions.length).newInstance()
+      }
+      var i = 0
+      while (i < outputPositions.length) {
+        record.setField(parsedValues(outputPositions(i)), i)
+        i += 1
+      }
+      record
+    }
+    else {
+      null
+    }
   }
 }
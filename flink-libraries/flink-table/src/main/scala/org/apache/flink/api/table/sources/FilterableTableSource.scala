@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.table.sources
+
+import org.apache.flink.api.table.expressions.Expression
+
+/** Adds support for filter push-down to a [[TableSource]].
+  * A [[TableSource]] extending this interface is able to filter the records of the return table.
+  *
+  * Predicates are handed to the source as comparisons between a
+  * [[org.apache.flink.api.table.expressions.ResolvedFieldReference]] and a
+  * [[org.apache.flink.api.table.expressions.Literal]] of the same type as the field.
+  *
+  * @tparam T The return type of the [[FilterableTableSource]].
+  */
+trait FilterableTableSource[T] {
+
+  /** Returns true if the [[TableSource]] is able to evaluate the given predicate. */
+  def supportsPredicate(predicate: Expression): Boolean
+
+  /** Creates a copy of the [[TableSource]] that only returns records which satisfy all given
+    * predicates in addition to the predicates that were already applied.
+    *
+    * @param predicates The conjunctive predicates, each supported by [[supportsPredicate]].
+    * @return A copy of the [[TableSource]] that filters its output.
+    */
+  def applyPredicates(predicates: Array[Expression]): FilterableTableSource[T]
+
+  /** Returns the predicates which are applied by the [[TableSource]]. */
+  def getPredicates: Array[Expression]
+
+}
@@ -20,7 +20,7 @@ package org.apache.flink.api.table
 import org.apache.calcite.rel.RelNode
 import org.apache.calcite.rel.`type`.RelDataTypeField
 import org.apache.calcite.rel.core.JoinRelType
-import org.apache.calcite.rel.logical.LogicalProject
+import org.apache.calcite.rel.logical.{LogicalAggregate, LogicalProject}
 import org.apache.calcite.rex.{RexCall, RexInputRef, RexLiteral, RexNode}
 import org.apache.calcite.sql.SqlKind
 import org.apache.calcite.tools.RelBuilder.{AggCall, GroupKey}
@@ -28,6 +28,7 @@ import org.apache.calcite.util.NlsString
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.table.plan.PlanGenException
 import org.apache.flink.api.table.plan.RexNodeTranslator.extractAggCalls
+import org.apache.flink.api.table.plan.logical.LogicalWindowAggregate
 import org.apache.flink.api.table.expressions._
 import org.apache.flink.api.table.sinks.TableSink
 import org.apache.flink.api.table.typeutils.TypeConverter
@@ -107,7 +108,8 @@ class Table(
       // aggregation on stream table is not currently supported
       tableEnv match {
         case _: StreamTableEnvironment =>
-          throw new TableException("Aggregation on stream tables is currently not supported.")
+          throw new TableException("Aggregation on stream tables is only supported on " +
+            "group windows. Please define a window with window() before calling select().")
         case _ =>
           val emptyKey: GroupKey = relBuilder.groupKey()
           relBuilder.aggregate(emptyKey, aggCalls.toIterable.asJava)
@@ -270,18 +272,11 @@ class Table(
     */
   def groupBy(fields: Expression*): GroupedTable = {
 
-    // group by on stream tables is currently not supported
-    tableEnv match {
-      case _: StreamTableEnvironment =>
-        throw new TableException("Group by on stream tables is currently not supported.")
-      case _ => {
-        relBuilder.push(relNode)
-        val groupExpr = fields.map(_.toRexNode(relBuilder)).toIterable.asJava
-        val groupKey = relBuilder.groupKey(groupExpr)
+    relBuilder.push(relNode)
+    val groupExpr = fields.map(_.toRexNode(relBuilder)).toIterable.asJava
+    val groupKey = relBuilder.groupKey(groupExpr)
 
-        new GroupedTable(relBuilder.build(), tableEnv, groupKey)
-      }
-    }
+    new GroupedTable(relBuilder.build(), tableEnv, groupKey)
   }
 
   /**
@@ -299,6 +294,28 @@ class Table(
     groupBy(fieldsExpr: _*)
   }
 
+  /**
+    * Groups the elements of a stream table into time windows. Use this before a selection with
+    * aggregations to compute one result row per window. The aggregates are computed
+    * incrementally while the window is open.
+    *
+    * Example:
+    *
+    * {{{
+    *   tab.window(Tumble over 1000).select('value.sum)
+    * }}}
+    *
+    * @param window The [[GroupWindow]] that defines the windows.
+    */
+  def window(window: GroupWindow): GroupWindowedTable = {
+    GroupWindowedTable.checkStreamTable(tableEnv)
+
+    relBuilder.push(relNode)
+    val groupKey = relBuilder.groupKey()
+
+    new GroupWindowedTable(relBuilder.build(), tableEnv, groupKey, window)
+  }
+
   /**
     * Removes duplicate values and returns only distinct (different) values.
     *
@@ -540,6 +557,14 @@ class GroupedTable(
     */
   def select(fields: Expression*): Table = {
 
+    // aggregation on stream tables requires a group window
+    tableEnv match {
+      case _: StreamTableEnvironment =>
+        throw new TableException("Aggregation on stream tables is only supported on " +
+          "group windows. Please define a window with window() before calling select().")
+      case _ =>
+    }
+
     relBuilder.push(relNode)
 
     // separate aggregations and selection expressions
@@ -582,4 +607,114 @@ class GroupedTable(
     select(fieldExprs: _*)
   }
 
+  /**
+    * Groups the elements of each group into time windows. Use this before a selection with
+    * aggregations to compute one result row per group and window. The aggregates are computed
+    * incrementally while the window is open.
+    *
+    * Example:
+    *
+    * {{{
+    *   tab.groupBy('key).window(Slide over 1000 every 100).select('key, 'value.avg)
+    * }}}
+    *
+    * @param window The [[GroupWindow]] that defines the windows.
+    */
+  def window(window: GroupWindow): GroupWindowedTable = {
+    GroupWindowedTable.checkStreamTable(tableEnv)
+
+    new GroupWindowedTable(relNode, tableEnv, groupKey, window)
+  }
+
+}
+
+/**
+  * A table that has been grouped on a set of grouping keys (possibly none) and into time
+  * windows.
+  *
+  * @param relNode The root node of the relational Calcite [[RelNode]] tree.
+  * @param tableEnv The [[TableEnvironment]] to which the table is bound.
+  * @param groupKey The Calcite [[GroupKey]] of this table.
+  * @param window The [[GroupWindow]] of this table.
+  */
+class GroupWindowedTable(
+  private[flink] override val relNode: RelNode,
+  private[flink] override val tableEnv: TableEnvironment,
+  private[flink] val groupKey: GroupKey,
+  private[flink] val window: GroupWindow) extends BaseTable(relNode, tableEnv) {
+
+  def relBuilder = tableEnv.getRelBuilder
+
+  /**
+    * Performs a selection operation on a windowed table. Similar to an SQL SELECT statement.
+    * The field expressions can contain complex expressions and aggregations.
+    *
+    * Example:
+    *
+    * {{{
+    *   tab.groupBy('key).window(Tumble over 1000).select('key, 'value.avg as 'average)
+    * }}}
+    */
+  def select(fields: Expression*): Table = {
+
+    relBuilder.push(relNode)
+
+    // separate aggregations and selection expressions
+    val extractedAggCalls: List[(Expression, List[AggCall])] = fields
+      .map(extractAggCalls(_, tableEnv)).toList
+
+    // get aggregation calls
+    val aggCalls: List[AggCall] = extractedAggCalls.flatMap(_._2)
+
+    // apply aggregations and attach the window to the aggregate
+    relBuilder.aggregate(groupKey, aggCalls.toIterable.asJava)
+    relBuilder.build() match {
+      case aggregate: LogicalAggregate =>
+        relBuilder.push(LogicalWindowAggregate.create(window, aggregate))
+      case _ =>
+        throw new TableException("Window aggregation requires at least one grouping field " +
+          "or aggregation.")
+    }
+
+    // get selection expressions
+    val exprs: List[RexNode] = try {
+      extractedAggCalls.map(_._1.toRexNode(relBuilder))
+    } catch {
+      case iae: IllegalArgumentException  =>
+        throw new IllegalArgumentException(
+          "Only grouping fields and aggregations allowed after window.", iae)
+      case e: Exception => throw e
+    }
+
+    relBuilder.project(exprs.toIterable.asJava)
+
+    new Table(relBuilder.build(), tableEnv)
+  }
+
+  /**
+    * Performs a selection operation on a windowed table. Similar to an SQL SELECT statement.
+    * The field expressions can contain complex expressions and aggregations.
+    *
+    * Example:
+    *
+    * {{{
+    *   tab.groupBy("key").window(Tumble over 1000).select("key, value.avg as average")
+    * }}}
+    */
+  def select(fields: String): Table = {
+    val fieldExprs = ExpressionParser.parseExpressionList(fields)
+    select(fieldExprs: _*)
+  }
+
+}
+
+object GroupWindowedTable {
+
+  private[flink] def checkStreamTable(tableEnv: TableEnvironment): Unit = {
+    tableEnv match {
+      case _: StreamTableEnvironment =>
+      case _ =>
+        throw new TableException("Group windows are currently only supported on stream tables.")
+    }
+  }
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table
+
+/**
+  * A group window specification for aggregations on stream tables.
+  *
+  * Group windows assign rows to finite groups based on time. The time semantics are taken from
+  * the [[org.apache.flink.streaming.api.TimeCharacteristic]] of the underlying
+  * [[org.apache.flink.streaming.api.environment.StreamExecutionEnvironment]], i.e., event time
+  * windows use the timestamps of the stream records. All sizes and gaps are in milliseconds.
+  */
+sealed abstract class GroupWindow
+
+/**
+  * Tumbling group window of fixed size. Tumbling windows do not overlap.
+  *
+  * @param size The size of the window in milliseconds.
+  */
+case class TumblingGroupWindow(size: Long) extends GroupWindow {
+  if (size <= 0) {
+    throw new IllegalArgumentException("Window size must be positive.")
+  }
+
+  override def toString: String = s"TumblingGroupWindow($size)"
+}
+
+/**
+  * Sliding group window of fixed size that is evaluated every `slide` milliseconds.
+  *
+  * @param size The size of the window in milliseconds.
+  * @param slide The slide of the window in milliseconds.
+  */
+case class SlidingGroupWindow(size: Long, slide: Long) extends GroupWindow {
+  if (size <= 0 || slide <= 0) {
+    throw new IllegalArgumentException("Window size and slide must be positive.")
+  }
+
+  override def toString: String = s"SlidingGroupWindow($size, $slide)"
+}
+
+/**
+  * Session group window. A session closes after a period of inactivity of `gap` milliseconds.
+  *
+  * @param gap The session gap in milliseconds.
+  */
+case class SessionGroupWindow(gap: Long) extends GroupWindow {
+  if (gap <= 0) {
+    throw new IllegalArgumentException("Session gap must be positive.")
+  }
+
+  override def toString: String = s"SessionGroupWindow($gap)"
+}
+
+/**
+  * Helper object to define tumbling group windows.
+  *
+  * Example:
+  *
+  * {{{
+  *   tab.groupBy('key).window(Tumble over 1000).select('key, 'value.sum)
+  * }}}
+  */
+object Tumble {
+
+  /**
+    * Creates a tumbling window of the given size in milliseconds.
+    */
+  def over(size: Long): TumblingGroupWindow = TumblingGroupWindow(size)
+}
+
+/**
+  * Helper object to define sliding group windows.
+  *
+  * Example:
+  *
+  * {{{
+  *   tab.groupBy('key).window(Slide over 1000 every 100).select('key, 'value.sum)
+  * }}}
+  */
+object Slide {
+
+  /**
+    * Creates a partially specified sliding window of the given size in milliseconds.
+    * The slide must be set with [[SlideWithSize.every()]].
+    */
+  def over(size: Long): SlideWithSize = new SlideWithSize(size)
+}
+
+/**
+  * Partially specified sliding window.
+  *
+  * @param size The size of the window in milliseconds.
+  */
+class SlideWithSize(size: Long) {
+
+  /**
+    * Sets the slide of the window in milliseconds.
+    */
+  def every(slide: Long): SlidingGroupWindow = SlidingGroupWindow(size, slide)
+}
+
+/**
+  * Helper object to define session group windows.
+  *
+  * Example:
+  *
+  * {{{
+  *   tab.groupBy('key).window(Session withGap 1000).select('key, 'value.sum)
+  * }}}
+  */
+object Session {
+
+  /**
+    * Creates a session window that closes after the given gap of inactivity in milliseconds.
+    */
+  def withGap(gap: Long): SessionGroupWindow = SessionGroupWindow(gap)
+}
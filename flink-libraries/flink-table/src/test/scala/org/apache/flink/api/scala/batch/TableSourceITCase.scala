@@ -80,6 +80,62 @@ class TableSourceITCase(mode: TestExecutionMode)
   @Test
   def testCsvTableSource(): Unit = {
 
+    val env = ExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    val csvTable = createCsvTableSource()
+    tEnv.registerTableSource("csvTable", csvTable)
+    val results = tEnv.sql(
+      "SELECT last, sum(score), max(id) FROM csvTable GROUP BY last").collect()
+
+    val expected = Seq(
+      "Smith,102.52,7",
+      "Taylor,45.6,2",
+      "Miller,14.67,6",
+      "Williams,36.84,8").mkString("\n")
+    TestBaseUtils.compareResultAsText(results.asJava, expected)
+  }
+
+  @Test
+  def testCsvTableSourceProjectionAndFilterPushDown(): Unit = {
+
+    val env = ExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    tEnv.registerTableSource("csvTable", createCsvTableSource())
+    val result = tEnv
+      .scan("csvTable")
+      .where('id > 2 && ('last !== "Smith"))
+      .select('last, 'id)
+
+    val expected = Seq(
+      "Miller,3",
+      "Williams,5",
+      "Miller,6",
+      "Williams,8").mkString("\n")
+    TestBaseUtils.compareResultAsText(result.collect().asJava, expected)
+  }
+
+  @Test
+  def testCsvTableSourceProjectionPushDownSQL(): Unit = {
+
+    val env = ExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    tEnv.registerTableSource("csvTable", createCsvTableSource())
+    val results = tEnv.sql(
+      "SELECT first, score * 2 FROM csvTable WHERE 5 < id OR last = 'Taylor'").collect()
+
+    val expected = Seq(
+      "Bob,91.2",
+      "Sally,13.56",
+      "Alice,180.2",
+      "Kelly,4.68").mkString("\n")
+    TestBaseUtils.compareResultAsText(results.asJava, expected)
+  }
+
+  private def createCsvTableSource(): CsvTableSource = {
+
     val csvRecords = Seq(
       "First#Id#Score#Last",
       "Mike#1#12.3#Smith",
@@ -99,10 +155,7 @@ class TableSourceITCase(mode: TestExecutionMode)
     tmpWriter.write(csvRecords.mkString("$"))
     tmpWriter.close()
 
-    val env = ExecutionEnvironment.getExecutionEnvironment
-    val tEnv = TableEnvironment.getTableEnvironment(env)
-
-    val csvTable = new CsvTableSource(
+    new CsvTableSource(
       tempFile.getAbsolutePath,
       Array("first", "id", "score", "last"),
       Array(
@@ -116,17 +169,6 @@ class TableSourceITCase(mode: TestExecutionMode)
       ignoreFirstLine = true,
       ignoreComments = "%"
     )
-
-    tEnv.registerTableSource("csvTable", csvTable)
-    val results = tEnv.sql(
-      "SELECT last, sum(score), max(id) FROM csvTable GROUP BY last").collect()
-
-    val expected = Seq(
-      "Smith,102.52,7",
-      "Taylor,45.6,2",
-      "Miller,14.67,6",
-      "Williams,36.84,8").mkString("\n")
-    TestBaseUtils.compareResultAsText(results.asJava, expected)
   }
 
 }
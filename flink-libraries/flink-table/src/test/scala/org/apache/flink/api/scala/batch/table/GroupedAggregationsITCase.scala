@@ -197,4 +197,20 @@ class GroupedAggregationsITCase(mode: TestExecutionMode) extends MultipleProgram
     val results = t.toDataSet[Row].collect()
     TestBaseUtils.compareResultAsText(results.asJava, expected)
   }
+
+  @Test
+  def testGroupedAggregationTypes(): Unit = {
+
+    val env = ExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    val t = CollectionDataSets.get3TupleDataSet(env).toTable(tEnv, 'a, 'b, 'c)
+      .groupBy('b)
+      .select('b, 'a.min, 'a.max, 'a.sum, 'c.count, 'a.avg, 'b.sum)
+
+    val expected = "1,1,1,1,1,1,1\n" + "2,2,3,5,2,2,4\n" + "3,4,6,15,3,5,9\n" +
+      "4,7,10,34,4,8,16\n" + "5,11,15,65,5,13,25\n" + "6,16,21,111,6,18,36\n"
+    val results = t.toDataSet[Row].collect()
+    TestBaseUtils.compareResultAsText(results.asJava, expected)
+  }
 }
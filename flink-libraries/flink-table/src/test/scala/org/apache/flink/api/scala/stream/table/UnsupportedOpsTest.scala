@@ -35,11 +35,11 @@ class UnsupportedOpsTest extends StreamingMultipleProgramsTestBase {
   }
 
   @Test(expected = classOf[TableException])
-  def testGroupBy(): Unit = {
+  def testGroupByWithoutWindow(): Unit = {
     val env = StreamExecutionEnvironment.getExecutionEnvironment
     val tEnv = TableEnvironment.getTableEnvironment(env)
     StreamTestData.getSmall3TupleDataStream(env).toTable(tEnv)
-      .groupBy('_1)
+      .groupBy('_1).select('_1, '_2.sum)
   }
 
   @Test(expected = classOf[TableException])
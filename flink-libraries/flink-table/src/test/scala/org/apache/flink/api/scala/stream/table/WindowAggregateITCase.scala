@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.scala.stream.table
+
+import org.apache.flink.api.scala._
+import org.apache.flink.api.scala.stream.utils.{StreamITCase, StreamTestData}
+import org.apache.flink.api.scala.table._
+import org.apache.flink.api.table.{Row, Session, Slide, TableEnvironment, Tumble}
+import org.apache.flink.streaming.api.TimeCharacteristic
+import org.apache.flink.streaming.api.scala.{DataStream, StreamExecutionEnvironment}
+import org.apache.flink.streaming.util.StreamingMultipleProgramsTestBase
+import org.junit.Assert._
+import org.junit.Test
+
+import scala.collection.mutable
+
+class WindowAggregateITCase extends StreamingMultipleProgramsTestBase {
+
+  /** Uses the first field (in seconds) as event time. */
+  private def getTimestampedDataStream(
+      env: StreamExecutionEnvironment): DataStream[(Int, Long, String)] = {
+
+    env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime)
+    StreamTestData.get3TupleDataStream(env)
+      .assignAscendingTimestamps(_._1 * 1000L)
+  }
+
+  @Test
+  def testGroupedTumblingWindow(): Unit = {
+    val env = StreamExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    StreamITCase.testResults = mutable.MutableList()
+    val ds = getTimestampedDataStream(env).toTable(tEnv, 'a, 'b, 'c)
+
+    val windowedTable = ds
+      .groupBy('b)
+      .window(Tumble over 5000)
+      .select('b, 'a.sum, 'a.count, 'a.avg)
+
+    val results = windowedTable.toDataStream[Row]
+    results.addSink(new StreamITCase.StringSink)
+    env.execute()
+
+    val expected = mutable.MutableList(
+      "1,1,1,1", "2,5,2,2", "3,4,1,4", "3,11,2,5",
+      "4,24,3,8", "4,10,1,10", "5,50,4,12", "5,15,1,15",
+      "6,70,4,17", "6,41,2,20")
+    assertEquals(expected.sorted, StreamITCase.testResults.sorted)
+  }
+
+  @Test
+  def testNonGroupedTumblingWindow(): Unit = {
+    val env = StreamExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    StreamITCase.testResults = mutable.MutableList()
+    val ds = getTimestampedDataStream(env).toTable(tEnv, 'a, 'b, 'c)
+
+    val windowedTable = ds
+      .window(Tumble over 10000)
+      .select('a.min, 'a.max, 'b.sum)
+
+    val results = windowedTable.toDataStream[Row]
+    results.addSink(new StreamITCase.StringSink)
+    env.execute()
+
+    val expected = mutable.MutableList("1,9,26", "10,19,53", "20,21,12")
+    assertEquals(expected.sorted, StreamITCase.testResults.sorted)
+  }
+
+  @Test
+  def testGroupedSlidingWindow(): Unit = {
+    val env = StreamExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    StreamITCase.testResults = mutable.MutableList()
+    val ds = getTimestampedDataStream(env).toTable(tEnv, 'a, 'b, 'c)
+
+    val windowedTable = ds
+      .filter('b === 2L)
+      .groupBy('b)
+      .window(Slide over 2000 every 1000)
+      .select("b, a.sum")
+
+    val results = windowedTable.toDataStream[Row]
+    results.addSink(new StreamITCase.StringSink)
+    env.execute()
+
+    val expected = mutable.MutableList("2,2", "2,5", "2,3")
+    assertEquals(expected.sorted, StreamITCase.testResults.sorted)
+  }
+
+  @Test
+  def testGroupedSessionWindow(): Unit = {
+    val env = StreamExecutionEnvironment.getExecutionEnvironment
+    val tEnv = TableEnvironment.getTableEnvironment(env)
+
+    StreamITCase.testResults = mutable.MutableList()
+    val ds = getTimestampedDataStream(env).toTable(tEnv, 'a, 'b, 'c)
+
+    val windowedTable = ds
+      .filter('a !== 5)
+      .groupBy('b)
+      .window(Session withGap 1500)
+      .select('b, 'a.count)
+
+    val results = windowedTable.toDataStream[Row]
+    results.addSink(new StreamITCase.StringSink)
+    env.execute()
+
+    // the gap at a = 5 splits the session of b = 3
+    val expected = mutable.MutableList("1,1", "2,2", "3,1", "3,1", "4,4", "5,5", "6,6")
+    assertEquals(expected.sorted, StreamITCase.testResults.sorted)
+  }
+}
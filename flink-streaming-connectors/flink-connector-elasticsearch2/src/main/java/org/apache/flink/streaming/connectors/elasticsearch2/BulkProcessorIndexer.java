@@ -19,17 +19,40 @@ package org.apache.flink.streaming.connectors.elasticsearch2;
 import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.bulk.BulkProcessor;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class BulkProcessorIndexer implements RequestIndexer {
 	private final BulkProcessor bulkProcessor;
 
+	/** Counts the actions that were added but not yet acknowledged, may be null. */
+	private final AtomicLong numPendingActions;
+
 	public BulkProcessorIndexer(BulkProcessor bulkProcessor) {
+		this(bulkProcessor, null);
+	}
+
+	public BulkProcessorIndexer(BulkProcessor bulkProcessor, AtomicLong numPendingActions) {
 		this.bulkProcessor = bulkProcessor;
+		this.numPendingActions = numPendingActions;
 	}
 
 	@Override
 	public void add(ActionRequest... actionRequests) {
 		for (ActionRequest actionRequest : actionRequests) {
-			this.bulkProcessor.add(actionRequest);
+			if (numPendingActions == null) {
+				this.bulkProcessor.add(actionRequest);
+				continue;
+			}
+
+			// counted before adding, because add() may already execute and acknowledge the bulk
+			numPendingActions.incrementAndGet();
+			try {
+				this.bulkProcessor.add(actionRequest);
+			} catch (RuntimeException e) {
+				// the action was not added, so it will never be acknowledged
+				numPendingActions.decrementAndGet();
+				throw e;
+			}
 		}
 	}
 }
@@ -20,7 +20,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import org.apache.flink.api.java.utils.ParameterTool;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
@@ -38,11 +40,13 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -72,20 +76,43 @@ import java.util.concurrent.atomic.AtomicReference;
  *   <li> {@code bulk.flush.max.size.mb}: Maximum amount of data (in megabytes) to buffer
  *   <li> {@code bulk.flush.interval.ms}: Interval at which to flush data regardless of the other two
  *   settings in milliseconds
+ *   <li> {@code bulk.flush.max.concurrent.requests}: Maximum number of bulk requests that may be in flight
+ *   while new elements are buffered. The default of 0 sends every bulk request synchronously
+ *   <li> {@code bulk.flush.on.checkpoint}: Whether to send all buffered elements and to wait for all
+ *   in-flight bulk requests when a checkpoint is taken (default {@code true})
+ *   <li> {@code bulk.flush.backoff.enable}: Whether to retry bulk requests that were rejected because the
+ *   cluster was overloaded (default {@code true})
+ *   <li> {@code bulk.flush.backoff.type}: {@code EXPONENTIAL} (default) or {@code CONSTANT} delays between
+ *   the retries
+ *   <li> {@code bulk.flush.backoff.retries}: Maximum number of retries of a rejected bulk request
+ *   <li> {@code bulk.flush.backoff.delay}: The (initial) delay between the retries in milliseconds
  * </ul>
  *
  * <p>
+ * With flushing on checkpoints enabled, a completed checkpoint guarantees that all elements received
+ * before it were acknowledged by the cluster, which gives at-least-once delivery.
+ *
+ * <p>
  * You also have to provide an {@link RequestIndexer}. This is used to create an
  * {@link IndexRequest} from an element that needs to be added to Elasticsearch. See
  * {@link RequestIndexer} for an example.
  *
  * @param <T> Type of the elements emitted by this sink
  */
-public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
+public class ElasticsearchSink<T> extends RichSinkFunction<T> implements Checkpointed<Serializable> {
 
 	public static final String CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS = "bulk.flush.max.actions";
 	public static final String CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB = "bulk.flush.max.size.mb";
 	public static final String CONFIG_KEY_BULK_FLUSH_INTERVAL_MS = "bulk.flush.interval.ms";
+	public static final String CONFIG_KEY_BULK_FLUSH_MAX_CONCURRENT_REQUESTS = "bulk.flush.max.concurrent.requests";
+	public static final String CONFIG_KEY_BULK_FLUSH_ON_CHECKPOINT = "bulk.flush.on.checkpoint";
+	public static final String CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE = "bulk.flush.backoff.enable";
+	public static final String CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE = "bulk.flush.backoff.type";
+	public static final String CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES = "bulk.flush.backoff.retries";
+	public static final String CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY = "bulk.flush.backoff.delay";
+
+	private static final int DEFAULT_BULK_FLUSH_BACKOFF_RETRIES = 8;
+	private static final long DEFAULT_BULK_FLUSH_BACKOFF_DELAY = 50L;
 
 	private static final long serialVersionUID = 1L;
 
@@ -132,6 +159,16 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 	 */
 	private final AtomicReference<Throwable> failureThrowable = new AtomicReference<>();
 
+	/**
+	 * The number of actions that were added to the BulkProcessor but not yet acknowledged by the cluster.
+	 */
+	private final AtomicLong numPendingActions = new AtomicLong();
+
+	/**
+	 * Whether checkpoints wait until all buffered and in-flight actions are acknowledged.
+	 */
+	private transient boolean flushOnCheckpoint;
+
 	/**
 	 * Creates a new ElasticsearchSink that connects to the cluster using a TransportClient.
 	 *
@@ -186,6 +223,7 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 
 			@Override
 			public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+				// failed items were already retried by the BulkProcessor if backoff is enabled
 				if (response.hasFailures()) {
 					for (BulkItemResponse itemResp : response.getItems()) {
 						if (itemResp.isFailed()) {
@@ -195,6 +233,7 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 					}
 					hasFailure.set(true);
 				}
+				actionsCompleted(request.numberOfActions());
 			}
 
 			@Override
@@ -202,14 +241,15 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 				LOG.error(failure.getMessage());
 				failureThrowable.compareAndSet(null, failure);
 				hasFailure.set(true);
+				actionsCompleted(request.numberOfActions());
 			}
 		});
 
-		// This makes flush() blocking
-		bulkProcessorBuilder.setConcurrentRequests(0);
-
 		ParameterTool params = ParameterTool.fromMap(userConfig);
 
+		// with 0 concurrent requests, add() and flush() block until the bulk request is acknowledged
+		bulkProcessorBuilder.setConcurrentRequests(params.getInt(CONFIG_KEY_BULK_FLUSH_MAX_CONCURRENT_REQUESTS, 0));
+
 		if (params.has(CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS)) {
 			bulkProcessorBuilder.setBulkActions(params.getInt(CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS));
 		}
@@ -223,26 +263,88 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 			bulkProcessorBuilder.setFlushInterval(TimeValue.timeValueMillis(params.getInt(CONFIG_KEY_BULK_FLUSH_INTERVAL_MS)));
 		}
 
+		bulkProcessorBuilder.setBackoffPolicy(createBackoffPolicy(params));
+
+		flushOnCheckpoint = params.getBoolean(CONFIG_KEY_BULK_FLUSH_ON_CHECKPOINT, true);
+
 		bulkProcessor = bulkProcessorBuilder.build();
-		requestIndexer = new BulkProcessorIndexer(bulkProcessor);
+		requestIndexer = new BulkProcessorIndexer(bulkProcessor, numPendingActions);
+	}
+
+	private static BackoffPolicy createBackoffPolicy(ParameterTool params) {
+		if (!params.getBoolean(CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, true)) {
+			return BackoffPolicy.noBackoff();
+		}
+
+		TimeValue delay = TimeValue.timeValueMillis(
+				params.getLong(CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, DEFAULT_BULK_FLUSH_BACKOFF_DELAY));
+		int retries = params.getInt(CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, DEFAULT_BULK_FLUSH_BACKOFF_RETRIES);
+
+		String type = params.get(CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, "EXPONENTIAL");
+		switch (type.toUpperCase()) {
+			case "CONSTANT":
+				return BackoffPolicy.constantBackoff(delay, retries);
+			case "EXPONENTIAL":
+				return BackoffPolicy.exponentialBackoff(delay, retries);
+			default:
+				throw new IllegalArgumentException("Unknown backoff type '" + type + "' for "
+						+ CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE + ", expected CONSTANT or EXPONENTIAL.");
+		}
 	}
 
 	@Override
 	public void invoke(T element) {
+		checkErrorAndRethrow();
 		elasticsearchSinkFunction.process(element, getRuntimeContext(), requestIndexer);
 	}
 
+	// ------------------------------------------------------------------------
+	//  Checkpointing
+	// ------------------------------------------------------------------------
+
+	@Override
+	public Serializable snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		checkErrorAndRethrow();
+
+		if (flushOnCheckpoint) {
+			// the checkpoint lock is held, so no new actions are added while we wait
+			flushAndWaitForPendingActions();
+
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Flushed all pending actions for checkpoint {}.", checkpointId);
+			}
+			checkErrorAndRethrow();
+		}
+
+		// nothing to restore, the sink only has to make sure that nothing is buffered
+		return null;
+	}
+
 	@Override
-	public void close() {
-		if (bulkProcessor != null) {
-			bulkProcessor.close();
-			bulkProcessor = null;
+	public void restoreState(Serializable state) {}
+
+	/**
+	 * Flushes the buffered actions and waits until all actions, including those of bulk requests
+	 * that are already in flight, are acknowledged or failed.
+	 */
+	private void flushAndWaitForPendingActions() throws InterruptedException {
+		bulkProcessor.flush();
+		synchronized (numPendingActions) {
+			while (numPendingActions.get() > 0) {
+				numPendingActions.wait(100);
+			}
 		}
+	}
 
-		if (client != null) {
-			client.close();
+	private void actionsCompleted(int numActions) {
+		if (numPendingActions.addAndGet(-numActions) <= 0) {
+			synchronized (numPendingActions) {
+				numPendingActions.notifyAll();
+			}
 		}
+	}
 
+	private void checkErrorAndRethrow() {
 		if (hasFailure.get()) {
 			Throwable cause = failureThrowable.get();
 			if (cause != null) {
@@ -251,7 +353,25 @@ public class ElasticsearchSink<T> extends RichSinkFunction<T>  {
 				throw new RuntimeException("An error occured in ElasticsearchSink.");
 			}
 		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		try {
+			if (bulkProcessor != null) {
+				// with concurrent requests, closing the BulkProcessor does not wait for
+				// the bulk requests in flight, so they are awaited before the client is closed
+				flushAndWaitForPendingActions();
+				bulkProcessor.close();
+				bulkProcessor = null;
+			}
+		} finally {
+			if (client != null) {
+				client.close();
+			}
+		}
 
+		checkErrorAndRethrow();
 	}
 
 }
@@ -94,6 +94,51 @@ public class ElasticsearchSinkITCase extends StreamingMultipleProgramsTestBase {
 		node.close();
 	}
 
+	@Test
+	public void testConcurrentBulkRequestsWithCheckpointing() throws Exception {
+
+		File dataDir = tempFolder.newFolder();
+
+		Node node = NodeBuilder.nodeBuilder()
+				.settings(Settings.settingsBuilder()
+						.put("path.home", dataDir.getParent())
+						.put("http.enabled", false)
+						.put("path.data", dataDir.getAbsolutePath()))
+				.clusterName("my-concurrent-bulk-cluster")
+				.node();
+
+		final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.enableCheckpointing(100);
+
+		DataStreamSource<Tuple2<Integer, String>> source = env.addSource(new TestSourceFunction());
+
+		Map<String, String> config = new HashMap<>();
+		// buffer a few elements and keep up to two bulk requests in flight
+		config.put(ElasticsearchSink.CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, "3");
+		config.put(ElasticsearchSink.CONFIG_KEY_BULK_FLUSH_MAX_CONCURRENT_REQUESTS, "2");
+		config.put(ElasticsearchSink.CONFIG_KEY_BULK_FLUSH_ON_CHECKPOINT, "true");
+		config.put(ElasticsearchSink.CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, "CONSTANT");
+		config.put(ElasticsearchSink.CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, "10");
+		config.put("cluster.name", "my-concurrent-bulk-cluster");
+
+		List<InetSocketAddress> transports = new ArrayList<>();
+		transports.add(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 9300));
+
+		source.addSink(new ElasticsearchSink<>(config, transports, new TestElasticsearchSinkFunction()));
+
+		env.execute("Elasticsearch Concurrent Bulk Requests Test");
+
+		// closing the sink flushes and waits until all in-flight bulk requests are acknowledged
+		Client client = node.client();
+		for (int i = 0; i < NUM_ELEMENTS; i++) {
+			GetResponse response = client.get(new GetRequest("my-index",
+					"my-type", Integer.toString(i))).actionGet();
+			Assert.assertEquals("message #" + i, response.getSource().get("data"));
+		}
+
+		node.close();
+	}
+
  @Test(expected = IllegalArgumentException.class)
  public void testNullTransportClient() throws Exception {
 
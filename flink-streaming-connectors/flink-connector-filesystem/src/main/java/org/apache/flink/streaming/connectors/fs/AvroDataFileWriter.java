@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+
+/**
+ * A {@link Writer} that writes the bucket files as Avro container files. The elements are grouped
+ * into blocks which are compressed with the configured codec, for example {@code "deflate"} or
+ * {@code "snappy"}.
+ *
+ * <p>
+ * Elements can be Avro specific or generic records, or any type that can be written with Avro's
+ * reflection-based {@link ReflectDatumWriter} using the given schema.
+ *
+ * <p>
+ * An element is only written to the file once its block is complete, so {@link #getPos()} does not
+ * include the block that is currently being filled. A part file may therefore grow by up to one
+ * block (see {@link #setSyncInterval(int)}) beyond the batch size of the sink. {@link #flush()}
+ * completes the current block, so the returned valid length always ends at a block boundary and a
+ * truncated file remains a readable Avro container file.
+ *
+ * @param <T> The type of the elements that are being written by the sink.
+ */
+public class AvroDataFileWriter<T> extends StreamWriterBase<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The schema as a JSON string, since {@link Schema} is not serializable.
+	 */
+	private final String schemaString;
+
+	private final String codecName;
+
+	private int syncInterval = DataFileConstants.DEFAULT_SYNC_INTERVAL;
+
+	private transient DataFileWriter<T> dataFileWriter;
+
+	/**
+	 * Creates a new {@code AvroDataFileWriter} that writes uncompressed Avro container files.
+	 *
+	 * @param schema The schema of the elements.
+	 */
+	public AvroDataFileWriter(Schema schema) {
+		this(schema, DataFileConstants.NULL_CODEC);
+	}
+
+	/**
+	 * Creates a new {@code AvroDataFileWriter} that compresses the blocks of the Avro container
+	 * files with the given codec.
+	 *
+	 * @param schema The schema of the elements.
+	 * @param codecName Name of an Avro codec, as accepted by {@link CodecFactory#fromString(String)}.
+	 */
+	public AvroDataFileWriter(Schema schema, String codecName) {
+		this(schema.toString(), codecName);
+	}
+
+	private AvroDataFileWriter(String schemaString, String codecName) {
+		this.schemaString = schemaString;
+		this.codecName = codecName;
+
+		// fail early for unknown codecs
+		CodecFactory.fromString(codecName);
+	}
+
+	/**
+	 * Sets the approximate number of uncompressed bytes to write in each block.
+	 * The default is {@code 64 KB}.
+	 */
+	public AvroDataFileWriter<T> setSyncInterval(int syncInterval) {
+		this.syncInterval = syncInterval;
+		return this;
+	}
+
+	@Override
+	public void open(FileSystem fs, Path path) throws IOException {
+		super.open(fs, path);
+
+		Schema schema = new Schema.Parser().parse(schemaString);
+
+		dataFileWriter = new DataFileWriter<>(new ReflectDatumWriter<T>(schema));
+		dataFileWriter.setCodec(CodecFactory.fromString(codecName));
+		dataFileWriter.setSyncInterval(syncInterval);
+		dataFileWriter.create(schema, getStream());
+	}
+
+	@Override
+	public void write(T element) throws IOException {
+		getStream(); // Throws if the stream is not open
+		dataFileWriter.append(element);
+	}
+
+	@Override
+	public long flush() throws IOException {
+		if (dataFileWriter != null) {
+			// completes the current block and writes it to the stream
+			dataFileWriter.flush();
+		}
+		return super.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (dataFileWriter != null) {
+			// the stream is closed by the base class, closing the DataFileWriter would close it twice
+			dataFileWriter.flush();
+			dataFileWriter = null;
+		}
+		super.close();
+	}
+
+	@Override
+	public Writer<T> duplicate() {
+		AvroDataFileWriter<T> result = new AvroDataFileWriter<>(schemaString, codecName);
+		result.syncInterval = syncInterval;
+		return result;
+	}
+}
@@ -114,6 +114,11 @@ import java.util.UUID;
  *
  * This will create a sink that writes to {@code SequenceFiles} and rolls every minute.
  *
+ * <p>
+ * Note: This sink writes to one bucket at a time. If elements alternate between buckets, use the
+ * {@link org.apache.flink.streaming.connectors.fs.bucketing.BucketingSink}, which keeps one part
+ * file open for every active bucket.
+ *
  * @see org.apache.flink.streaming.connectors.fs.DateTimeBucketer
  * @see StringWriter
  * @see SequenceFileWriter
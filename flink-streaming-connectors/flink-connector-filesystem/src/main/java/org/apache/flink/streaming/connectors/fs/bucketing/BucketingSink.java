@@ -0,0 +1,1129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs.bucketing;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.InputTypeConfigurable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.fs.hdfs.HadoopFileSystem;
+import org.apache.flink.runtime.state.CheckpointListener;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.streaming.connectors.fs.Clock;
+import org.apache.flink.streaming.connectors.fs.StringWriter;
+import org.apache.flink.streaming.connectors.fs.SystemClock;
+import org.apache.flink.streaming.connectors.fs.Writer;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sink that emits its input elements to {@link org.apache.hadoop.fs.FileSystem} files within
+ * buckets. This is integrated with the checkpointing mechanism to provide exactly once semantics.
+ *
+ * <p>
+ * When creating the sink a {@code basePath} must be specified. The base directory contains
+ * one directory for every bucket. The bucket directories themselves contain several part files,
+ * one for each parallel subtask of the sink. These part files contain the actual output data.
+ *
+ * <p>
+ * The sink uses a {@link Bucketer} to determine in which bucket directory each element should
+ * be written to inside the base directory. The {@code Bucketer} can, for example, use time or
+ * a property of the element to determine the bucket directory. The default {@code Bucketer} is a
+ * {@link DateTimeBucketer} which will create one new bucket every hour. You can specify
+ * a custom {@code Bucketer} using {@link #setBucketer(Bucketer)}. For example, use the
+ * {@link BasePathBucketer} if you don't want to have buckets but still want to write part-files
+ * in a fault-tolerant way.
+ *
+ * <p>
+ * In contrast to the {@link org.apache.flink.streaming.connectors.fs.RollingSink}, this sink keeps
+ * one part file open for every active bucket, so that elements which alternate between buckets
+ * (for example late data that falls into a previous hour) do not cause part files to be closed and
+ * reopened for every switch. The number of part files that are open at the same time can be bounded
+ * using {@link #setMaxOpenBuckets(int)}. If a new part file would exceed that bound, the part file
+ * of the least recently written bucket is closed first.
+ *
+ * <p>
+ * The filenames of the part files contain the part prefix, the parallel subtask index of the sink
+ * and a rolling counter. For example the file {@code "part-1-17"} contains the data from
+ * {@code subtask 1} of the sink and is the {@code 17th} bucket created by that subtask. Per default
+ * the part prefix is {@code "part"} but this can be configured using {@link #setPartPrefix(String)}.
+ * When a part file becomes bigger than the user-specified batch size the current part file is closed,
+ * the part counter is increased and a new part file is created. The batch size defaults to {@code 384MB},
+ * this can be configured using {@link #setBatchSize(long)}.
+ *
+ * <p>
+ * In some scenarios, the open buckets are required to change based on time. In these cases, the sink
+ * needs to determine when a bucket has become inactive, in order to flush and close the part file.
+ * To support this there are two configurable settings:
+ * <ol>
+ *     <li>the frequency to flush inactive buckets, configured by {@link #setInactiveBucketCheckInterval(long)},
+ *     and</li>
+ *     <li>the minimum amount of time a bucket has to not receive any data before it is considered inactive,
+ *     configured by {@link #setInactiveBucketThreshold(long)}</li>
+ * </ol>
+ * Both of these parameters default to {@code 60,000 ms}, or {@code 1 min}.
+ *
+ * <p>
+ * Part files can be in one of three states: {@code in-progress}, {@code pending} or {@code finished}.
+ * The reason for this is how the sink works together with the checkpointing mechanism to provide exactly-once
+ * semantics and fault-tolerance. The part file that is currently being written to is {@code in-progress}. Once
+ * a part file is closed for writing it becomes {@code pending}. When a checkpoint is successful the currently
+ * pending files will be moved to {@code finished}.
+ *
+ * <p>
+ * In case of a failure, and in order to guarantee exactly-once semantics, the sink should roll back to the state it
+ * had when that last successful checkpoint occurred. To this end, when restoring, the restored files in {@code pending}
+ * state are transferred into the {@code finished} state while any {@code in-progress} files are rolled back, so that
+ * they do not contain data that arrived after the checkpoint from which we restore. If the {@code FileSystem} supports
+ * the {@code truncate()} method this will be used to reset the file back to its previous state. If not, a special
+ * file with the same name as the part file and the suffix {@code ".valid-length"} will be created that contains the
+ * length up to which the file contains valid data. When reading the file, it must be ensured that it is only read up
+ * to that point. The prefixes and suffixes for the different file states and valid-length files can be configured
+ * using the adequate setter method, e.g. {@link #setPendingSuffix(String)}.
+ *
+ * <p>
+ * The state of every bucket, that is its in-progress file, the valid length of that file and its pending files,
+ * is part of the checkpoint. Buckets that are inactive and whose files have all been moved to their final
+ * location are removed from the state.
+ *
+ * <p>
+ * <b>NOTE:</b>
+ * <ol>
+ *     <li>
+ *         If checkpointing is not enabled the pending files will never be moved to the finished state. In that case,
+ *         the pending suffix/prefix can be set to {@code ""} to make the sink work in a non-fault-tolerant way but
+ *         still provide output without prefixes and suffixes.
+ *     </li>
+ *     <li>
+ *         The part files are written using an instance of {@link Writer}. By default, a
+ *         {@link StringWriter} is used, which writes the result of {@code toString()} for
+ *         every element, separated by newlines. You can configure the writer using the
+ *         {@link #setWriter(Writer)}. For example,
+ *         {@link org.apache.flink.streaming.connectors.fs.SequenceFileWriter} can be used to write
+ *         Hadoop {@code SequenceFiles} and {@link org.apache.flink.streaming.connectors.fs.AvroDataFileWriter}
+ *         can be used to write block-compressed Avro container files.
+ *     </li>
+ * </ol>
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ *     new BucketingSink<Tuple2<IntWritable, Text>>(outPath)
+ *         .setWriter(new SequenceFileWriter<IntWritable, Text>())
+ *         .setBucketer(new DateTimeBucketer<Tuple2<IntWritable, Text>>("yyyy-MM-dd--HHmm")
+ * }</pre>
+ *
+ * This will create a sink that writes to {@code SequenceFiles} and rolls every minute.
+ *
+ * @see DateTimeBucketer
+ * @see StringWriter
+ * @see org.apache.flink.streaming.connectors.fs.SequenceFileWriter
+ *
+ * @param <T> Type of the elements emitted by this sink
+ */
+public class BucketingSink<T>
+		extends RichSinkFunction<T>
+		implements InputTypeConfigurable, Checkpointed<BucketingSink.State<T>>, CheckpointListener, Triggerable {
+	private static final long serialVersionUID = 1L;
+
+	private static Logger LOG = LoggerFactory.getLogger(BucketingSink.class);
+
+	// --------------------------------------------------------------------------------------------
+	//  User configuration values
+	// --------------------------------------------------------------------------------------------
+	// These are initialized with some defaults but are meant to be changeable by the user
+
+	/**
+	 * The default maximum size of part files (currently {@code 384 MB}).
+	 */
+	private final long DEFAULT_BATCH_SIZE = 1024L * 1024L * 384L;
+
+	/**
+	 * The default time between checks for inactive buckets. By default, {@code 60 sec}.
+	 */
+	private final long DEFAULT_INACTIVE_BUCKET_CHECK_INTERVAL_MS = 60 * 1000L;
+
+	/**
+	 * The default threshold (in {@code ms}) for marking a bucket as inactive and
+	 * closing its part files. By default, {@code 60 sec}.
+	 */
+	private final long DEFAULT_INACTIVE_BUCKET_THRESHOLD_MS = 60 * 1000L;
+
+	/**
+	 * The default maximum number of buckets with an open part file. By default, unbounded.
+	 */
+	private final int DEFAULT_MAX_OPEN_BUCKETS = Integer.MAX_VALUE;
+
+	/**
+	 * The suffix for {@code in-progress} part files. These are files we are
+	 * currently writing to, but which were not yet confirmed by a checkpoint.
+	 */
+	private final String DEFAULT_IN_PROGRESS_SUFFIX = ".in-progress";
+
+	/**
+	 * The prefix for {@code in-progress} part files. These are files we are
+	 * currently writing to, but which were not yet confirmed by a checkpoint.
+	 */
+	private final String DEFAULT_IN_PROGRESS_PREFIX = "_";
+
+	/**
+	 * The suffix for {@code pending} part files. These are closed files that we are
+	 * not currently writing to (inactive or reached {@link #batchSize}), but which
+	 * were not yet confirmed by a checkpoint.
+	 */
+	private final String DEFAULT_PENDING_SUFFIX = ".pending";
+
+	/**
+	 * The prefix for {@code pending} part files. These are closed files that we are
+	 * not currently writing to (inactive or reached {@link #batchSize}), but which
+	 * were not yet confirmed by a checkpoint.
+	 */
+	private final String DEFAULT_PENDING_PREFIX = "_";
+
+	/**
+	 * When {@code truncate()} is not supported by the used {@link FileSystem}, we create
+	 * a file along the part file with this suffix that contains the length up to which
+	 * the part file is valid.
+	 */
+	private final String DEFAULT_VALID_SUFFIX = ".valid-length";
+
+	/**
+	 * When {@code truncate()} is not supported by the used {@link FileSystem}, we create
+	 * a file along the part file with this preffix that contains the length up to which
+	 * the part file is valid.
+	 */
+	private final String DEFAULT_VALID_PREFIX = "_";
+
+	/**
+	 * The default prefix for part files.
+	 */
+	private final String DEFAULT_PART_REFIX = "part";
+
+	/**
+	 * The default timeout for asynchronous operations such as recoverLease and truncate (in {@code ms}).
+	 */
+	private final long DEFAULT_ASYNC_TIMEOUT_MS = 60 * 1000;
+
+
+	/**
+	 * The base {@code Path} that stores all bucket directories.
+	 */
+	private final String basePath;
+
+	/**
+	 * The {@code Bucketer} that is used to determine the path of bucket directories.
+	 */
+	private Bucketer<T> bucketer;
+
+	/**
+	 * We have a template and call duplicate() for each bucket in invoke() to get the actual
+	 * writer that is used for the part files of that bucket.
+	 */
+	private Writer<T> writerTemplate;
+
+	private long batchSize = DEFAULT_BATCH_SIZE;
+	private long inactiveBucketCheckInterval = DEFAULT_INACTIVE_BUCKET_CHECK_INTERVAL_MS;
+	private long inactiveBucketThreshold = DEFAULT_INACTIVE_BUCKET_THRESHOLD_MS;
+	private int maxOpenBuckets = DEFAULT_MAX_OPEN_BUCKETS;
+
+	// These are the actually configured prefixes/suffixes
+	private String inProgressSuffix = DEFAULT_IN_PROGRESS_SUFFIX;
+	private String inProgressPrefix = DEFAULT_IN_PROGRESS_PREFIX;
+
+	private String pendingSuffix = DEFAULT_PENDING_SUFFIX;
+	private String pendingPrefix = DEFAULT_PENDING_PREFIX;
+
+	private String validLengthSuffix = DEFAULT_VALID_SUFFIX;
+	private String validLengthPrefix = DEFAULT_VALID_PREFIX;
+
+	private String partPrefix = DEFAULT_PART_REFIX;
+
+	/**
+	 * If this is true we remove any leftover in-progress/pending files when the sink is opened.
+	 *
+	 * <p>
+	 * This should only be set to false if using the sink without checkpoints, to not remove
+	 * the files already in the directory.
+	 */
+	private boolean cleanupOnOpen = true;
+
+	/**
+	 * The timeout for asynchronous operations such as recoverLease and truncate (in {@code ms}).
+	 */
+	private long asyncTimeout = DEFAULT_ASYNC_TIMEOUT_MS;
+
+	// --------------------------------------------------------------------------------------------
+	//  Internal fields (not configurable by user)
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Our subtask index, retrieved from the {@code RuntimeContext} in {@link #open}.
+	 */
+	private transient int subtaskIndex;
+
+	/**
+	 * We use reflection to get the .truncate() method, this is only available starting with
+	 * Hadoop 2.7
+	 */
+	private transient Method refTruncate;
+
+	/**
+	 * The state object that is handled by Flink from snapshot/restore. This contains state for
+	 * every open bucket: the current in-progress part file path, its valid length and the pending part files.
+	 */
+	private transient State<T> state;
+
+	private transient org.apache.hadoop.conf.Configuration hadoopConf;
+
+	private transient FileSystem fs;
+
+	private transient Clock clock;
+
+	/**
+	 * Creates a new {@code BucketingSink} that writes files to the given base directory.
+	 *
+	 * <p>
+	 * This uses a{@link DateTimeBucketer} as bucketer and a {@link StringWriter} has writer.
+	 * The maximum bucket size is set to 384 MB.
+	 *
+	 * @param basePath The directory to which to write the bucket files.
+	 */
+	public BucketingSink(String basePath) {
+		this.basePath = basePath;
+		this.bucketer = new DateTimeBucketer<>();
+		this.writerTemplate = new StringWriter<>();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setInputType(TypeInformation<?> type, ExecutionConfig executionConfig) {
+		if (this.writerTemplate instanceof InputTypeConfigurable) {
+			((InputTypeConfigurable) writerTemplate).setInputType(type, executionConfig);
+		}
+	}
+
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+
+		subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+
+		if (state == null) {
+			state = new State<>();
+		}
+
+		initFileSystem();
+		refTruncate = reflectTruncate(fs);
+
+		// delete pending/in-progress files that might be left if we fail while
+		// no checkpoint has yet been done
+		if (cleanupOnOpen) {
+			try {
+				if (fs.exists(new Path(basePath))) {
+					deleteLeftoverFiles(subtaskIndex, "OPEN");
+				}
+			} catch (IOException e) {
+				LOG.error("Error while deleting leftover pending/in-progress files: {}", e);
+				throw new RuntimeException("Error while deleting leftover pending/in-progress files.", e);
+			}
+		}
+
+		clock = new SystemClock();
+
+		long currentProcessingTime = clock.currentTimeMillis();
+		((StreamingRuntimeContext) getRuntimeContext()).registerTimer(
+				currentProcessingTime + inactiveBucketCheckInterval, this);
+	}
+
+	/**
+	 * Creates the {@link FileSystem} of the base path, if it has not been created yet.
+	 */
+	private void initFileSystem() throws IOException {
+		if (fs == null) {
+			hadoopConf = HadoopFileSystem.getHadoopConfiguration();
+			fs = new Path(basePath).getFileSystem(hadoopConf);
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (state != null) {
+			for (BucketState<T> bucketState : state.bucketStates.values()) {
+				closeCurrentPartFile(bucketState);
+			}
+		}
+	}
+
+	@Override
+	public void invoke(T value) throws Exception {
+		Path bucketPath = bucketer.getBucketPath(clock, new Path(basePath), value);
+
+		long currentProcessingTime = clock.currentTimeMillis();
+
+		BucketState<T> bucketState = state.getBucketState(bucketPath);
+		if (bucketState == null) {
+			bucketState = new BucketState<>(currentProcessingTime);
+			state.addBucketState(bucketPath, bucketState);
+		}
+
+		if (shouldRoll(bucketState)) {
+			openNewPartFile(bucketPath, bucketState);
+		}
+
+		bucketState.writer.write(value);
+		bucketState.lastWrittenToTime = currentProcessingTime;
+	}
+
+	/**
+	 * Determines whether we should change the part file of the given bucket.
+	 *
+	 * <p>
+	 * This will roll if no file was created yet for the bucket or if the file size is larger
+	 * than the specified size.
+	 */
+	private boolean shouldRoll(BucketState<T> bucketState) throws IOException {
+		boolean shouldRoll = false;
+		if (!bucketState.isWriterOpen) {
+			shouldRoll = true;
+			LOG.debug("BucketingSink {} starting new bucket.", subtaskIndex);
+		} else {
+			long writePosition = bucketState.writer.getPos();
+			if (writePosition > batchSize) {
+				shouldRoll = true;
+				LOG.debug(
+					"BucketingSink {} starting new part file because file position {} is above batch size {}.",
+					subtaskIndex,
+					writePosition,
+					batchSize);
+			}
+		}
+		return shouldRoll;
+	}
+
+	@Override
+	public void trigger(long timestamp) throws Exception {
+		long currentProcessingTime = clock.currentTimeMillis();
+
+		closePartFilesByTime(currentProcessingTime);
+
+		((StreamingRuntimeContext) getRuntimeContext()).registerTimer(
+				currentProcessingTime + inactiveBucketCheckInterval, this);
+	}
+
+	/**
+	 * Checks for inactive buckets, and closes their part files. Buckets are considered inactive if
+	 * they have not been written to for a period greater than {@code inactiveBucketThreshold} ms.
+	 */
+	private void closePartFilesByTime(long currentProcessingTime) throws Exception {
+		synchronized (state.bucketStates) {
+			for (Map.Entry<String, BucketState<T>> entry : state.bucketStates.entrySet()) {
+				BucketState<T> bucketState = entry.getValue();
+				if (bucketState.isWriterOpen &&
+						bucketState.lastWrittenToTime < currentProcessingTime - inactiveBucketThreshold) {
+					LOG.debug("BucketingSink {} closing bucket {} due to inactivity of over {} ms.",
+						subtaskIndex, entry.getKey(), inactiveBucketThreshold);
+					closeCurrentPartFile(bucketState);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes the part file of the least recently written bucket if opening one more part file
+	 * would exceed {@code maxOpenBuckets}.
+	 */
+	private void closeLeastRecentlyWrittenPartFileIfNecessary() throws Exception {
+		int numOpenBuckets = 0;
+		BucketState<T> leastRecentlyWritten = null;
+		String leastRecentlyWrittenPath = null;
+
+		synchronized (state.bucketStates) {
+			for (Map.Entry<String, BucketState<T>> entry : state.bucketStates.entrySet()) {
+				BucketState<T> bucketState = entry.getValue();
+				if (bucketState.isWriterOpen) {
+					numOpenBuckets++;
+					if (leastRecentlyWritten == null ||
+							bucketState.lastWrittenToTime < leastRecentlyWritten.lastWrittenToTime) {
+						leastRecentlyWritten = bucketState;
+						leastRecentlyWrittenPath = entry.getKey();
+					}
+				}
+			}
+		}
+
+		if (numOpenBuckets >= maxOpenBuckets && leastRecentlyWritten != null) {
+			LOG.debug("BucketingSink {} closing least recently written bucket {} because {} buckets are open.",
+				subtaskIndex, leastRecentlyWrittenPath, numOpenBuckets);
+			closeCurrentPartFile(leastRecentlyWritten);
+		}
+	}
+
+	/**
+	 * Opens a new part file in the given bucket.
+	 *
+	 * <p>
+	 * This closes the old part file of the bucket, if one is open.
+	 */
+	private void openNewPartFile(Path bucketPath, BucketState<T> bucketState) throws Exception {
+		closeCurrentPartFile(bucketState);
+		closeLeastRecentlyWrittenPartFileIfNecessary();
+
+		try {
+			if (fs.mkdirs(bucketPath)) {
+				LOG.debug("Created new bucket directory: {}", bucketPath);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Could not create new bucket path.", e);
+		}
+
+		Path partPath = new Path(bucketPath, partPrefix + "-" + subtaskIndex + "-" + bucketState.partCounter);
+
+		// This should work since there is only one parallel subtask that tries names with
+		// our subtask id. Otherwise we would run into concurrency issues here.
+		while (fs.exists(partPath) || fs.exists(getPendingPathFor(partPath))) {
+			bucketState.partCounter++;
+			partPath = new Path(bucketPath, partPrefix + "-" + subtaskIndex + "-" + bucketState.partCounter);
+		}
+
+		// increase, so we don't have to check for this name next time
+		bucketState.partCounter++;
+
+		LOG.debug("Next part path is {}", partPath.toString());
+		bucketState.currentFile = partPath.toString();
+
+		Path inProgressPath = getInProgressPathFor(partPath);
+		if (bucketState.writer == null) {
+			bucketState.writer = writerTemplate.duplicate();
+		}
+
+		bucketState.writer.open(fs, inProgressPath);
+		bucketState.isWriterOpen = true;
+	}
+
+	/**
+	 * Closes the current part file of the given bucket.
+	 *
+	 * <p>
+	 * This moves the current in-progress part file to a pending file and adds it to the list
+	 * of pending files in the bucket state.
+	 */
+	private void closeCurrentPartFile(BucketState<T> bucketState) throws Exception {
+		if (bucketState.isWriterOpen) {
+			bucketState.writer.close();
+			bucketState.isWriterOpen = false;
+		}
+
+		if (bucketState.currentFile != null) {
+			Path currentPartPath = new Path(bucketState.currentFile);
+			Path inProgressPath = getInProgressPathFor(currentPartPath);
+			Path pendingPath = getPendingPathFor(currentPartPath);
+
+			fs.rename(inProgressPath, pendingPath);
+			LOG.debug("Moving in-progress bucket {} to pending file {}",
+				inProgressPath,
+				pendingPath);
+			bucketState.pendingFiles.add(currentPartPath.toString());
+			bucketState.currentFile = null;
+		}
+	}
+
+	/**
+	 * Gets the truncate() call using reflection.
+	 *
+	 * <p>
+	 * Note: This code comes from Flume
+	 */
+	private Method reflectTruncate(FileSystem fs) {
+		Method m = null;
+		if (fs != null) {
+			Class<?> fsClass = fs.getClass();
+			try {
+				m = fsClass.getMethod("truncate", Path.class, long.class);
+			} catch (NoSuchMethodException ex) {
+				LOG.debug("Truncate not found. Will write a file with suffix '{}' " +
+					" and prefix '{}' to specify how many bytes in a bucket are valid.", validLengthSuffix, validLengthPrefix);
+				return null;
+			}
+
+			// verify that truncate actually works
+			FSDataOutputStream outputStream;
+			Path testPath = new Path(basePath, UUID.randomUUID().toString());
+			try {
+				outputStream = fs.create(testPath);
+				outputStream.writeUTF("hello");
+				outputStream.close();
+			} catch (IOException e) {
+				LOG.error("Could not create file for checking if truncate works.", e);
+				throw new RuntimeException("Could not create file for checking if truncate works.", e);
+			}
+
+			try {
+				m.invoke(fs, testPath, 2);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				LOG.debug("Truncate is not supported.", e);
+				m = null;
+			}
+
+			try {
+				fs.delete(testPath, false);
+			} catch (IOException e) {
+				LOG.error("Could not delete truncate test file.", e);
+				throw new RuntimeException("Could not delete truncate test file.", e);
+			}
+		}
+		return m;
+	}
+
+	private Path getPendingPathFor(Path path) {
+		return new Path(path.getParent(), pendingPrefix + path.getName()).suffix(pendingSuffix);
+	}
+
+	private Path getInProgressPathFor(Path path) {
+		return new Path(path.getParent(), inProgressPrefix + path.getName()).suffix(inProgressSuffix);
+	}
+
+	private Path getValidLengthPathFor(Path path) {
+		return new Path(path.getParent(), validLengthPrefix + path.getName()).suffix(validLengthSuffix);
+	}
+
+	@Override
+	public void notifyCheckpointComplete(long checkpointId) throws Exception {
+		synchronized (state.bucketStates) {
+			Iterator<Map.Entry<String, BucketState<T>>> bucketStatesIt = state.bucketStates.entrySet().iterator();
+			while (bucketStatesIt.hasNext()) {
+				BucketState<T> bucketState = bucketStatesIt.next().getValue();
+				synchronized (bucketState.pendingFilesPerCheckpoint) {
+					Iterator<Map.Entry<Long, List<String>>> pendingCheckpointsIt =
+						bucketState.pendingFilesPerCheckpoint.entrySet().iterator();
+
+					while (pendingCheckpointsIt.hasNext()) {
+						Map.Entry<Long, List<String>> entry = pendingCheckpointsIt.next();
+						Long pastCheckpointId = entry.getKey();
+
+						if (pastCheckpointId <= checkpointId) {
+							LOG.debug("Moving pending files to final location for checkpoint {}", pastCheckpointId);
+							// All the pending files are buckets that have been completed but are waiting to be renamed
+							// to their final name
+							for (String filename : entry.getValue()) {
+								Path finalPath = new Path(filename);
+								Path pendingPath = getPendingPathFor(finalPath);
+
+								fs.rename(pendingPath, finalPath);
+								LOG.debug(
+									"Moving pending file {} to final location after complete checkpoint {}.",
+									pendingPath,
+									pastCheckpointId);
+							}
+							pendingCheckpointsIt.remove();
+						}
+					}
+
+					if (!bucketState.isWriterOpen &&
+							bucketState.pendingFiles.isEmpty() &&
+							bucketState.pendingFilesPerCheckpoint.isEmpty()) {
+						// the bucket is inactive and all of its files are final, we don't need its state anymore
+						bucketStatesIt.remove();
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public State<T> snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		synchronized (state.bucketStates) {
+			for (BucketState<T> bucketState : state.bucketStates.values()) {
+				if (bucketState.isWriterOpen) {
+					bucketState.currentFileValidLength = bucketState.writer.flush();
+				}
+				if (!bucketState.pendingFiles.isEmpty()) {
+					synchronized (bucketState.pendingFilesPerCheckpoint) {
+						bucketState.pendingFilesPerCheckpoint.put(checkpointId, bucketState.pendingFiles);
+					}
+					bucketState.pendingFiles = new ArrayList<>();
+				}
+			}
+		}
+		return state;
+	}
+
+	@Override
+	public void restoreState(State<T> state) {
+		this.state = state;
+
+		try {
+			initFileSystem();
+		} catch (IOException e) {
+			LOG.error("Error while creating FileSystem in checkpoint restore.", e);
+			throw new RuntimeException("Error while creating FileSystem in checkpoint restore.", e);
+		}
+
+		for (BucketState<T> bucketState : state.bucketStates.values()) {
+			// we can clean all the pending files since they where renamed to
+			// final files after this checkpoint was successful
+			bucketState.pendingFiles.clear();
+
+			if (bucketState.currentFile != null) {
+				// We were writing to a file when the last checkpoint occured. This file can either
+				// be still in-progress or became a pending file at some point after the checkpoint.
+				// Either way, we have to truncate it back to a valid state (or write a .valid-length
+				// file that specifies up to which length it is valid) and rename it to the final name
+				// before starting a new bucket file.
+				Path partPath = new Path(bucketState.currentFile);
+				try {
+					Path partPendingPath = getPendingPathFor(partPath);
+					Path partInProgressPath = getInProgressPathFor(partPath);
+
+					if (fs.exists(partPendingPath)) {
+						LOG.debug("In-progress file {} has been moved to pending after checkpoint, moving to final location.", partPath);
+						// has been moved to pending in the mean time, rename to final location
+						fs.rename(partPendingPath, partPath);
+					} else if (fs.exists(partInProgressPath)) {
+						LOG.debug("In-progress file {} is still in-progress, moving to final location.", partPath);
+						// it was still in progress, rename to final path
+						fs.rename(partInProgressPath, partPath);
+					} else if (fs.exists(partPath)) {
+						LOG.debug("In-Progress file {} was already moved to final location {}.", bucketState.currentFile, partPath);
+					} else {
+						LOG.debug("In-Progress file {} was neither moved to pending nor is still in progress. Possibly, " +
+							"it was moved to final location by a previous snapshot restore", bucketState.currentFile);
+					}
+
+					if (refTruncate == null) {
+						refTruncate = reflectTruncate(fs);
+					}
+
+					// truncate it or write a ".valid-length" file to specify up to which point it is valid
+					if (refTruncate != null) {
+						truncateToValidLength(partPath, bucketState.currentFileValidLength);
+					} else {
+						LOG.debug("Writing valid-length file for {} to specify valid length {}", partPath, bucketState.currentFileValidLength);
+						Path validLengthFilePath = getValidLengthPathFor(partPath);
+						if (!fs.exists(validLengthFilePath)) {
+							FSDataOutputStream lengthFileOut = fs.create(validLengthFilePath);
+							lengthFileOut.writeUTF(Long.toString(bucketState.currentFileValidLength));
+							lengthFileOut.close();
+						}
+					}
+
+					// invalidate in the state object
+					bucketState.currentFile = null;
+					bucketState.currentFileValidLength = -1;
+				} catch (IOException e) {
+					LOG.error("Error while restoring BucketingSink state.", e);
+					throw new RuntimeException("Error while restoring BucketingSink state.", e);
+				} catch (InvocationTargetException | IllegalAccessException e) {
+					LOG.error("Could not invoke truncate.", e);
+					throw new RuntimeException("Could not invoke truncate.", e);
+				}
+			}
+
+			// Move files that are confirmed by a checkpoint but did not get moved to final location
+			// because the checkpoint notification did not happen before a failure
+
+			LOG.debug("Moving pending files to final location on restore.");
+
+			for (Map.Entry<Long, List<String>> entry : bucketState.pendingFilesPerCheckpoint.entrySet()) {
+				// All the pending files are buckets that have been completed but are waiting to be renamed
+				// to their final name
+				for (String filename : entry.getValue()) {
+					Path finalPath = new Path(filename);
+					Path pendingPath = getPendingPathFor(finalPath);
+
+					try {
+						if (fs.exists(pendingPath)) {
+							LOG.debug("(RESTORE) Moving pending file {} to final location after complete checkpoint {}.", pendingPath, entry.getKey());
+							fs.rename(pendingPath, finalPath);
+						}
+					} catch (IOException e) {
+						LOG.error("(RESTORE) Error while renaming pending file {} to final path {}: {}", pendingPath, finalPath, e);
+						throw new RuntimeException("Error while renaming pending file " + pendingPath + " to final path " + finalPath, e);
+					}
+				}
+			}
+
+			synchronized (bucketState.pendingFilesPerCheckpoint) {
+				bucketState.pendingFilesPerCheckpoint.clear();
+			}
+		}
+
+		// we need to get this here since open() has not yet been called
+		int subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+		// delete pending files
+		try {
+			deleteLeftoverFiles(subtaskIndex, "RESTORE");
+		} catch (IOException e) {
+			LOG.error("Error while deleting old pending files: {}", e);
+			throw new RuntimeException("Error while deleting old pending files.", e);
+		}
+	}
+
+	/**
+	 * Truncates the given part file to the valid length, after recovering the lease of the file
+	 * if it is stored in HDFS.
+	 */
+	private void truncateToValidLength(Path partPath, long validLength)
+			throws IOException, InvocationTargetException, IllegalAccessException {
+
+		LOG.debug("Truncating {} to valid length {}", partPath, validLength);
+		// some-one else might still hold the lease from a previous try, we are
+		// recovering, after all ...
+		if (fs instanceof DistributedFileSystem) {
+			DistributedFileSystem dfs = (DistributedFileSystem) fs;
+			LOG.debug("Trying to recover file lease {}", partPath);
+			dfs.recoverLease(partPath);
+			boolean isclosed = dfs.isFileClosed(partPath);
+			StopWatch sw = new StopWatch();
+			sw.start();
+			while (!isclosed) {
+				if (sw.getTime() > asyncTimeout) {
+					break;
+				}
+				try {
+					Thread.sleep(500);
+				} catch (InterruptedException e1) {
+					// ignore it
+				}
+				isclosed = dfs.isFileClosed(partPath);
+			}
+		}
+		Boolean truncated = (Boolean) refTruncate.invoke(fs, partPath, validLength);
+		if (!truncated) {
+			LOG.debug("Truncate did not immediately complete for {}, waiting...", partPath);
+
+			// we must wait for the asynchronous truncate operation to complete
+			StopWatch sw = new StopWatch();
+			sw.start();
+			long newLen = fs.getFileStatus(partPath).getLen();
+			while (newLen != validLength) {
+				if (sw.getTime() > asyncTimeout) {
+					break;
+				}
+				try {
+					Thread.sleep(500);
+				} catch (InterruptedException e1) {
+					// ignore it
+				}
+				newLen = fs.getFileStatus(partPath).getLen();
+			}
+			if (newLen != validLength) {
+				throw new RuntimeException("Truncate did not truncate to right length. Should be " + validLength + " is " + newLen + ".");
+			}
+		}
+	}
+
+	/**
+	 * Deletes all pending and in-progress part files of the given subtask below the base path.
+	 */
+	private void deleteLeftoverFiles(int subtaskIndex, String phase) throws IOException {
+		RemoteIterator<LocatedFileStatus> bucketFiles = fs.listFiles(new Path(basePath), true);
+
+		while (bucketFiles.hasNext()) {
+			LocatedFileStatus file = bucketFiles.next();
+			if (file.getPath().toString().endsWith(pendingSuffix)) {
+				// only delete files that contain our subtask index
+				if (file.getPath().toString().contains(partPrefix + "-" + subtaskIndex + "-")) {
+					LOG.debug("({}) Deleting leftover pending file {}", phase, file.getPath().toString());
+					fs.delete(file.getPath(), true);
+				}
+			}
+			if (file.getPath().toString().endsWith(inProgressSuffix)) {
+				// only delete files that contain our subtask index
+				if (file.getPath().toString().contains(partPrefix + "-" + subtaskIndex + "-")) {
+					LOG.debug("({}) Deleting leftover in-progress file {}", phase, file.getPath().toString());
+					fs.delete(file.getPath(), true);
+				}
+			}
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Setters for User configuration values
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Sets the maximum bucket size in bytes.
+	 *
+	 * <p>
+	 * When a bucket part file becomes larger than this size a new bucket part file is started and
+	 * the old one is closed. The name of the bucket files depends on the {@link Bucketer}.
+	 *
+	 * @param batchSize The bucket part file size in bytes.
+	 */
+	public BucketingSink<T> setBatchSize(long batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Sets the default time between checks for inactive buckets.
+	 *
+	 * @param interval The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setInactiveBucketCheckInterval(long interval) {
+		this.inactiveBucketCheckInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Sets the default threshold for marking a bucket as inactive and closing its part files.
+	 * Buckets which haven't been written to for at least this period of time become inactive.
+	 *
+	 * @param threshold The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setInactiveBucketThreshold(long threshold) {
+		this.inactiveBucketThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of buckets that have an open part file at the same time.
+	 *
+	 * <p>
+	 * When a part file is opened for a bucket while this many part files are already open, the part
+	 * file of the bucket that was written to least recently is closed first.
+	 *
+	 * @param maxOpenBuckets The maximum number of open part files.
+	 */
+	public BucketingSink<T> setMaxOpenBuckets(int maxOpenBuckets) {
+		if (maxOpenBuckets < 1) {
+			throw new IllegalArgumentException("The maximum number of open buckets must be at least 1.");
+		}
+		this.maxOpenBuckets = maxOpenBuckets;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Bucketer} to use for determining the bucket files to write to.
+	 *
+	 * @param bucketer The bucketer to use.
+	 */
+	public BucketingSink<T> setBucketer(Bucketer<T> bucketer) {
+		this.bucketer = bucketer;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Writer} to be used for writing the incoming elements to bucket files.
+	 *
+	 * @param writer The {@code Writer} to use.
+	 */
+	public BucketingSink<T> setWriter(Writer<T> writer) {
+		this.writerTemplate = writer;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of in-progress part files. The default is {@code "in-progress"}.
+	 */
+	public BucketingSink<T> setInProgressSuffix(String inProgressSuffix) {
+		this.inProgressSuffix = inProgressSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of in-progress part files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setInProgressPrefix(String inProgressPrefix) {
+		this.inProgressPrefix = inProgressPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of pending part files. The default is {@code ".pending"}.
+	 */
+	public BucketingSink<T> setPendingSuffix(String pendingSuffix) {
+		this.pendingSuffix = pendingSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of pending part files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setPendingPrefix(String pendingPrefix) {
+		this.pendingPrefix = pendingPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of valid-length files. The default is {@code ".valid-length"}.
+	 */
+	public BucketingSink<T> setValidLengthSuffix(String validLengthSuffix) {
+		this.validLengthSuffix = validLengthSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of valid-length files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setValidLengthPrefix(String validLengthPrefix) {
+		this.validLengthPrefix = validLengthPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of part files.  The default is {@code "part"}.
+	 */
+	public BucketingSink<T> setPartPrefix(String partPrefix) {
+		this.partPrefix = partPrefix;
+		return this;
+	}
+
+	/**
+	 * Disable cleanup of leftover in-progress/pending files when the sink is opened.
+	 *
+	 * <p>
+	 * This should only be disabled if using the sink without checkpoints, to not remove
+	 * the files already in the directory.
+	 */
+	public BucketingSink<T> disableCleanupOnOpen() {
+		this.cleanupOnOpen = false;
+		return this;
+	}
+
+	/**
+	 * Sets the default timeout for asynchronous operations such as recoverLease and truncate.
+	 *
+	 * @param timeout The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setAsyncTimeout(long timeout) {
+		this.asyncTimeout = timeout;
+		return this;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Internal Classes
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * This is used during snapshot/restore to keep track of in-progress buckets.
+	 * For each bucket, we maintain a state.
+	 */
+	static final class State<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * For every bucket directory (key), we maintain a bucket state (value).
+		 */
+		final Map<String, BucketState<T>> bucketStates = new HashMap<>();
+
+		void addBucketState(Path bucketPath, BucketState<T> state) {
+			synchronized (bucketStates) {
+				bucketStates.put(bucketPath.toString(), state);
+			}
+		}
+
+		BucketState<T> getBucketState(Path bucketPath) {
+			synchronized (bucketStates) {
+				return bucketStates.get(bucketPath.toString());
+			}
+		}
+
+		@Override
+		public String toString() {
+			return bucketStates.toString();
+		}
+	}
+
+	/**
+	 * This is used for keeping track of the current in-progress buckets and files that we mark
+	 * for moving from pending to final location after we get a checkpoint-complete notification.
+	 */
+	static final class BucketState<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The file that was in-progress when the last checkpoint occurred.
+		 */
+		String currentFile;
+
+		/**
+		 * The valid length of the in-progress file at the time of the last checkpoint.
+		 */
+		long currentFileValidLength = -1;
+
+		/**
+		 * The time this bucket was last written to.
+		 */
+		long lastWrittenToTime;
+
+		/**
+		 * For counting the part files inside a bucket directory. Part files follow the pattern
+		 * {@code "{part-prefix}-{subtask}-{count}"}. When creating new part files we increase the counter.
+		 */
+		int partCounter;
+
+		/**
+		 * Tracks if the writer is currently opened or closed.
+		 */
+		transient boolean isWriterOpen;
+
+		/**
+		 * The actual writer that we use for writing the part files.
+		 */
+		transient Writer<T> writer;
+
+		/**
+		 * Pending files that accumulated since the last checkpoint.
+		 */
+		List<String> pendingFiles = new ArrayList<>();
+
+		/**
+		 * When doing a checkpoint we move the pending files since the last checkpoint to this map
+		 * with the id of the checkpoint. When we get the checkpoint-complete notification we move
+		 * pending files of completed checkpoints to their final location.
+		 */
+		final Map<Long, List<String>> pendingFilesPerCheckpoint = new HashMap<>();
+
+		BucketState(long lastWrittenToTime) {
+			this.lastWrittenToTime = lastWrittenToTime;
+		}
+
+		@Override
+		public String toString() {
+			return
+				"In-progress=" + currentFile +
+				" validLength=" + currentFileValidLength +
+				" pendingForNextCheckpoint=" + pendingFiles +
+				" pendingForPrevCheckpoints=" + pendingFilesPerCheckpoint +
+				" lastModified@" + lastWrittenToTime;
+		}
+	}
+}
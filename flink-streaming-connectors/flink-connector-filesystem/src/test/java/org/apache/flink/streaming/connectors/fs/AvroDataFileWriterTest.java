@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link AvroDataFileWriter}.
+ */
+public class AvroDataFileWriterTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final Schema SCHEMA = SchemaBuilder.record("Event").fields()
+		.requiredLong("id")
+		.requiredString("name")
+		.endRecord();
+
+	@Test
+	public void testValidLengthEndsAtBlockBoundary() throws Exception {
+		File file = new File(tempFolder.getRoot(), "part-0-0");
+		FileSystem fs = FileSystem.getLocal(new Configuration());
+
+		Writer<GenericRecord> writer = new AvroDataFileWriter<GenericRecord>(SCHEMA, "deflate").duplicate();
+		writer.open(fs, new Path(file.getAbsolutePath()));
+
+		for (long i = 0; i < 100; i++) {
+			writer.write(createRecord(i));
+		}
+		long validLength = writer.flush();
+
+		for (long i = 100; i < 150; i++) {
+			writer.write(createRecord(i));
+		}
+		writer.close();
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+
+		assertEquals(150, countRecords(bytes));
+		// a file truncated to the valid length must still be a readable container file
+		assertEquals(100, countRecords(Arrays.copyOf(bytes, (int) validLength)));
+	}
+
+	private static GenericRecord createRecord(long id) {
+		GenericRecord record = new GenericData.Record(SCHEMA);
+		record.put("id", id);
+		record.put("name", "event-" + id);
+		return record;
+	}
+
+	private static int countRecords(byte[] bytes) throws Exception {
+		int count = 0;
+		try (DataFileReader<GenericRecord> reader = new DataFileReader<>(
+				new SeekableByteArrayInput(bytes), new GenericDatumReader<GenericRecord>(SCHEMA))) {
+			long expectedId = 0;
+			while (reader.hasNext()) {
+				assertEquals(expectedId++, reader.next().get("id"));
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs.bucketing;
+
+import org.apache.flink.streaming.api.operators.StreamSink;
+import org.apache.flink.streaming.connectors.fs.Clock;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link BucketingSink} on the local file system.
+ */
+public class BucketingSinkTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final long NO_TIMER = Long.MAX_VALUE / 2;
+
+	private OneInputStreamOperatorTestHarness<String, Object> createTestSink(
+			BucketingSink<String> sink) throws Exception {
+		return new OneInputStreamOperatorTestHarness<>(new StreamSink<>(sink));
+	}
+
+	private BucketingSink<String> createSink(File outDir) {
+		return new BucketingSink<String>(outDir.getAbsolutePath())
+			.setBucketer(new FirstCharBucketer())
+			.setInactiveBucketCheckInterval(NO_TIMER);
+	}
+
+	@Test
+	public void testBucketsAreKeptOpenConcurrently() throws Exception {
+		File outDir = tempFolder.newFolder();
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createTestSink(createSink(outDir));
+		testHarness.open();
+
+		// alternating between buckets must not roll any part files
+		testHarness.processElement(new StreamRecord<>("a1"));
+		testHarness.processElement(new StreamRecord<>("b1"));
+		testHarness.processElement(new StreamRecord<>("a2"));
+		testHarness.processElement(new StreamRecord<>("b2"));
+
+		assertTrue(new File(outDir, "a/_part-0-0.in-progress").exists());
+		assertTrue(new File(outDir, "b/_part-0-0.in-progress").exists());
+		assertFalse(new File(outDir, "a/_part-0-1.in-progress").exists());
+		assertFalse(new File(outDir, "b/_part-0-1.in-progress").exists());
+
+		testHarness.close();
+
+		assertTrue(new File(outDir, "a/_part-0-0.pending").exists());
+		assertTrue(new File(outDir, "b/_part-0-0.pending").exists());
+		assertEquals("a1\na2\n", readFile(new File(outDir, "a/_part-0-0.pending")));
+		assertEquals("b1\nb2\n", readFile(new File(outDir, "b/_part-0-0.pending")));
+	}
+
+	@Test
+	public void testInactiveBucketsAreClosedAndCommitted() throws Exception {
+		File outDir = tempFolder.newFolder();
+
+		BucketingSink<String> sink = createSink(outDir).setInactiveBucketThreshold(0);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createTestSink(sink);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a1"));
+		testHarness.processElement(new StreamRecord<>("b1"));
+
+		// make sure that the buckets have not been written to in the current millisecond
+		Thread.sleep(10);
+		sink.trigger(0);
+
+		assertTrue(new File(outDir, "a/_part-0-0.pending").exists());
+		assertTrue(new File(outDir, "b/_part-0-0.pending").exists());
+
+		testHarness.snapshot(1, 1);
+		sink.notifyCheckpointComplete(1);
+
+		assertEquals("a1\n", readFile(new File(outDir, "a/part-0-0")));
+		assertEquals("b1\n", readFile(new File(outDir, "b/part-0-0")));
+
+		// writing to the bucket again starts a new part file
+		testHarness.processElement(new StreamRecord<>("a2"));
+		assertTrue(new File(outDir, "a/_part-0-1.in-progress").exists());
+
+		testHarness.close();
+	}
+
+	@Test
+	public void testLeastRecentlyWrittenBucketIsClosed() throws Exception {
+		File outDir = tempFolder.newFolder();
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness =
+			createTestSink(createSink(outDir).setMaxOpenBuckets(2));
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a1"));
+		Thread.sleep(2);
+		testHarness.processElement(new StreamRecord<>("b1"));
+		Thread.sleep(2);
+		testHarness.processElement(new StreamRecord<>("a2"));
+		Thread.sleep(2);
+		testHarness.processElement(new StreamRecord<>("c1"));
+
+		assertTrue(new File(outDir, "a/_part-0-0.in-progress").exists());
+		assertTrue(new File(outDir, "b/_part-0-0.pending").exists());
+		assertTrue(new File(outDir, "c/_part-0-0.in-progress").exists());
+
+		testHarness.close();
+	}
+
+	@Test
+	public void testRestoreTruncatesInProgressFiles() throws Exception {
+		File outDir = tempFolder.newFolder();
+
+		BucketingSink<String> sink = createSink(outDir);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createTestSink(sink);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a1"));
+		testHarness.processElement(new StreamRecord<>("b1"));
+
+		BucketingSink.State<String> snapshot = InstantiationUtil.clone(sink.snapshotState(1, 1));
+
+		// these are lost because of the failure
+		testHarness.processElement(new StreamRecord<>("a2"));
+		testHarness.processElement(new StreamRecord<>("b2"));
+
+		BucketingSink<String> restoredSink = createSink(outDir);
+
+		testHarness = createTestSink(restoredSink);
+		testHarness.setup();
+		restoredSink.restoreState(snapshot);
+		testHarness.open();
+
+		// the local file system does not support truncate(), so the sink writes valid-length files
+		assertTrue(new File(outDir, "a/part-0-0").exists());
+		assertTrue(new File(outDir, "b/part-0-0").exists());
+		assertEquals(3, readValidLength(new File(outDir, "a/_part-0-0.valid-length")));
+		assertEquals(3, readValidLength(new File(outDir, "b/_part-0-0.valid-length")));
+
+		testHarness.processElement(new StreamRecord<>("a3"));
+		testHarness.close();
+
+		assertEquals("a3\n", readFile(new File(outDir, "a/_part-0-1.pending")));
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static String readFile(File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private static long readValidLength(File file) throws Exception {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return Long.parseLong(in.readUTF());
+		}
+	}
+
+	private static class FirstCharBucketer implements Bucketer<String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Path getBucketPath(Clock clock, Path basePath, String element) {
+			return new Path(basePath, element.substring(0, 1));
+		}
+	}
+}
@@ -18,6 +18,7 @@
 
 package org.apache.flink.streaming.connectors.kafka.internal;
 
+import org.apache.flink.api.common.accumulators.LongCounter;
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.AssignerWithPunctuatedWatermarks;
@@ -88,6 +89,13 @@ public class Kafka09Fetcher<T> extends AbstractFetcher<T, TopicPartition> implem
 	/** Flag to mark the main work loop as alive */
 	private volatile boolean running = true;
 
+	/** Statistics of the fetch loop, forwarded as accumulators together with the Kafka metrics */
+	private final LongCounter pollCount = new LongCounter();
+	private final LongCounter pollTimeMicros = new LongCounter();
+	private final LongCounter emittedBatches = new LongCounter();
+	private final LongCounter emittedRecords = new LongCounter();
+	private final LongCounter emitTimeMicros = new LongCounter();
+
 	// ------------------------------------------------------------------------
 
 	public Kafka09Fetcher(
@@ -197,6 +205,13 @@ public class Kafka09Fetcher<T> extends AbstractFetcher<T, TopicPartition> implem
 						}
 					}
 				}
+
+				// statistics of the fetch loop itself
+				runtimeContext.addAccumulator("KafkaFetcher-poll-count", pollCount);
+				runtimeContext.addAccumulator("KafkaFetcher-poll-time-us", pollTimeMicros);
+				runtimeContext.addAccumulator("KafkaFetcher-emitted-batches", emittedBatches);
+				runtimeContext.addAccumulator("KafkaFetcher-emitted-records", emittedRecords);
+				runtimeContext.addAccumulator("KafkaFetcher-emit-time-us", emitTimeMicros);
 			}
 
 			// seek the consumer to the initial offsets
@@ -209,13 +224,19 @@ public class Kafka09Fetcher<T> extends AbstractFetcher<T, TopicPartition> implem
 			// from now on, external operations may call the consumer
 			this.consumer = consumer;
 
+			// the records of one partition that are emitted together
+			final List<T> batch = new ArrayList<>();
+
 			// main fetch loop
 			while (running) {
 				// get the next batch of records
 				final ConsumerRecords<byte[], byte[]> records;
 				synchronized (consumerLock) {
 					try {
+						final long pollStart = System.nanoTime();
 						records = consumer.poll(pollTimeout);
+						pollTimeMicros.add((System.nanoTime() - pollStart) / 1000);
+						pollCount.add(1L);
 					}
 					catch (WakeupException we) {
 						if (running) {
@@ -231,6 +252,9 @@ public class Kafka09Fetcher<T> extends AbstractFetcher<T, TopicPartition> implem
 					
 					List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition.getKafkaPartitionHandle());
 
+					// deserialize all records of the partition first, so that they can be emitted
+					// under a single acquisition of the checkpoint lock
+					long lastOffset = -1L;
 					for (ConsumerRecord<byte[], byte[]> record : partitionRecords) {
 						T value = deserializer.deserialize(
 								record.key(), record.value(),
@@ -242,9 +266,20 @@ public class Kafka09Fetcher<T> extends AbstractFetcher<T, TopicPartition> implem
 							break;
 						}
 
-						// emit the actual record. this also update offset state atomically
+						batch.add(value);
+						lastOffset = record.offset();
+					}
+
+					if (!batch.isEmpty()) {
+						// emit the actual records. this also updates the offset state atomically
 						// and deals with timestamps and watermark generation
-						emitRecord(value, partition, record.offset());
+						final long emitStart = System.nanoTime();
+						emitRecords(batch, partition, lastOffset);
+						emitTimeMicros.add((System.nanoTime() - emitStart) / 1000);
+						emittedBatches.add(1L);
+						emittedRecords.add(batch.size());
+
+						batch.clear();
 					}
 				}
 			}
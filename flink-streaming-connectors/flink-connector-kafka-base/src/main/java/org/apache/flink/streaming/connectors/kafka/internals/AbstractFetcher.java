@@ -228,6 +228,40 @@ public abstract class AbstractFetcher<T, KPH> {
 		}
 	}
 
+	/**
+	 * Emits a batch of records that were fetched from the same partition, in their order.
+	 * In contrast to {@link #emitRecord(Object, KafkaTopicPartitionState, long)}, the checkpoint
+	 * lock is acquired only once for the whole batch, and the offset state is updated once with
+	 * the offset of the last record.
+	 *
+	 * @param records The records to emit, in the order of their offsets
+	 * @param partitionState The state of the Kafka partition from which the records were fetched
+	 * @param lastOffset The offset of the last record of the batch
+	 */
+	protected final void emitRecords(List<T> records, KafkaTopicPartitionState<KPH> partitionState, long lastOffset) {
+		final int numRecords = records.size();
+		if (numRecords == 0) {
+			return;
+		}
+
+		if (timestampWatermarkMode == NO_TIMESTAMPS_WATERMARKS) {
+			// emit the records, using the checkpoint lock to guarantee
+			// atomicity of record emission and offset state update
+			synchronized (checkpointLock) {
+				for (int i = 0; i < numRecords; i++) {
+					sourceContext.collect(records.get(i));
+				}
+				partitionState.setOffset(lastOffset);
+			}
+		}
+		else if (timestampWatermarkMode == PERIODIC_WATERMARKS) {
+			emitRecordsWithTimestampsAndPeriodicWatermarks(records, partitionState, lastOffset);
+		}
+		else {
+			emitRecordsWithTimestampsAndPunctuatedWatermarks(records, partitionState, lastOffset);
+		}
+	}
+
 	/**
 	 * Record emission, if a timestamp will be attached from an assigner that is
 	 * also a periodic watermark generator.
@@ -285,6 +319,73 @@ public abstract class AbstractFetcher<T, KPH> {
 			updateMinPunctuatedWatermark(newWatermark);
 		}
 	}
+
+	/**
+	 * Batch record emission, if timestamps will be attached from an assigner that is
+	 * also a periodic watermark generator.
+	 */
+	private void emitRecordsWithTimestampsAndPeriodicWatermarks(
+			List<T> records, KafkaTopicPartitionState<KPH> partitionState, long lastOffset)
+	{
+		@SuppressWarnings("unchecked")
+		final KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH> withWatermarksState =
+				(KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH>) partitionState;
+
+		final int numRecords = records.size();
+
+		// the timestamps are extracted in emission order under the checkpoint lock, so that the
+		// periodic emitter cannot emit a watermark that already covers records of this batch
+		// which were not emitted yet. the partition state lock is nested inside the checkpoint
+		// lock, in the same order as in the periodic emitter
+		synchronized (checkpointLock) {
+			for (int i = 0; i < numRecords; i++) {
+				final T record = records.get(i);
+				final long timestamp;
+				//noinspection SynchronizationOnLocalVariableOrMethodParameter
+				synchronized (withWatermarksState) {
+					timestamp = withWatermarksState.getTimestampForRecord(record);
+				}
+
+				sourceContext.collectWithTimestamp(record, timestamp);
+			}
+			partitionState.setOffset(lastOffset);
+		}
+	}
+
+	/**
+	 * Batch record emission, if timestamps will be attached from an assigner that is
+	 * also a punctuated watermark generator.
+	 */
+	private void emitRecordsWithTimestampsAndPunctuatedWatermarks(
+			List<T> records, KafkaTopicPartitionState<KPH> partitionState, long lastOffset)
+	{
+		@SuppressWarnings("unchecked")
+		final KafkaTopicPartitionStateWithPunctuatedWatermarks<T, KPH> withWatermarksState =
+				(KafkaTopicPartitionStateWithPunctuatedWatermarks<T, KPH>) partitionState;
+
+		final int numRecords = records.size();
+
+		// the timestamps and watermarks are extracted in emission order, so that the partition
+		// watermark never runs ahead of the records that were already emitted when a new
+		// cross-partition watermark is computed. only one thread ever works on accessing
+		// timestamps and watermarks from the punctuated extractor
+		synchronized (checkpointLock) {
+			for (int i = 0; i < numRecords; i++) {
+				final T record = records.get(i);
+				final long timestamp = withWatermarksState.getTimestampForRecord(record);
+				final Watermark newWatermark = withWatermarksState.checkAndGetNewWatermark(record, timestamp);
+
+				sourceContext.collectWithTimestamp(record, timestamp);
+
+				// a new watermark must follow the record that produced it
+				if (newWatermark != null) {
+					updateMinPunctuatedWatermark(newWatermark);
+				}
+			}
+			partitionState.setOffset(lastOffset);
+		}
+	}
+
 	/**
 	 *Checks whether a new per-partition watermark is also a new cross-partition watermark.
 	 */
@@ -31,7 +31,9 @@ import org.apache.flink.util.SerializedValue;
 import org.junit.Test;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -177,6 +179,130 @@ public class AbstractFetcherTimestampsTest {
 		assertTrue(watermarkTs >= 13L && watermarkTs <= 15L);
 	}
 
+	@Test
+	public void testPunctuatedWatermarksWithBatchEmission() throws Exception {
+		List<KafkaTopicPartition> originalPartitions = Arrays.asList(
+				new KafkaTopicPartition("test topic name", 7),
+				new KafkaTopicPartition("test topic name", 13));
+
+		TestSourceContext<Long> sourceContext = new TestSourceContext<>();
+
+		TestFetcher<Long> fetcher = new TestFetcher<>(
+				sourceContext, originalPartitions, null,
+				new SerializedValue<AssignerWithPunctuatedWatermarks<Long>>(new PunctuatedTestExtractor()),
+				new MockRuntimeContext(17, 3));
+
+		final KafkaTopicPartitionState<Object> part1 = fetcher.subscribedPartitions()[0];
+		final KafkaTopicPartitionState<Object> part2 = fetcher.subscribedPartitions()[1];
+
+		// elements generate a watermark if the timestamp is a multiple of three
+
+		fetcher.emitRecords(Arrays.asList(1L, 2L, 3L, 4L), part1, 4L);
+		assertEquals(4L, sourceContext.getLatestElement().getValue().longValue());
+		assertEquals(4L, sourceContext.getLatestElement().getTimestamp());
+		assertEquals(4L, part1.getOffset());
+		assertFalse(sourceContext.hasWatermark());
+
+		fetcher.emitRecords(Arrays.asList(5L, 6L, 7L), part2, 3L);
+		assertEquals(7L, sourceContext.getLatestElement().getValue().longValue());
+		assertEquals(3L, part2.getOffset());
+
+		// the minimum watermark across both partitions
+		assertTrue(sourceContext.hasWatermark());
+		assertEquals(3L, sourceContext.getLatestWatermark().getTimestamp());
+
+		// empty batches leave the offsets untouched
+		fetcher.emitRecords(Collections.<Long>emptyList(), part1, 17L);
+		assertEquals(4L, part1.getOffset());
+	}
+
+	@Test
+	public void testPunctuatedWatermarksDoNotOvertakeRecordsOfBatch() throws Exception {
+		List<KafkaTopicPartition> originalPartitions = Collections.singletonList(
+				new KafkaTopicPartition("test topic name", 7));
+
+		OrderCheckingSourceContext sourceContext = new OrderCheckingSourceContext();
+
+		TestFetcher<Long> fetcher = new TestFetcher<>(
+				sourceContext, originalPartitions, null,
+				new SerializedValue<AssignerWithPunctuatedWatermarks<Long>>(new PunctuatedTestExtractor()),
+				new MockRuntimeContext(17, 3));
+
+		final KafkaTopicPartitionState<Object> part1 = fetcher.subscribedPartitions()[0];
+
+		// elements generate a watermark if the timestamp is a multiple of three
+		fetcher.emitRecords(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), part1, 10L);
+
+		// every watermark directly follows the element that produced it
+		assertEquals(Arrays.asList(1L, 2L, 3L, -3L, 4L, 5L, 6L, -6L, 7L, 8L, 9L, -9L, 10L), sourceContext.events);
+		assertEquals(10L, part1.getOffset());
+	}
+
+	@Test
+	public void testPeriodicWatermarksWithBatchEmission() throws Exception {
+		ExecutionConfig config = new ExecutionConfig();
+		config.setAutoWatermarkInterval(10);
+
+		List<KafkaTopicPartition> originalPartitions = Arrays.asList(
+				new KafkaTopicPartition("test topic name", 7),
+				new KafkaTopicPartition("test topic name", 13));
+
+		TestSourceContext<Long> sourceContext = new TestSourceContext<>();
+
+		TestFetcher<Long> fetcher = new TestFetcher<>(
+				sourceContext, originalPartitions,
+				new SerializedValue<AssignerWithPeriodicWatermarks<Long>>(new PeriodicTestExtractor()),
+				null, new MockRuntimeContext(17, 3, config, sourceContext.getCheckpointLock()));
+
+		final KafkaTopicPartitionState<Object> part1 = fetcher.subscribedPartitions()[0];
+		final KafkaTopicPartitionState<Object> part2 = fetcher.subscribedPartitions()[1];
+
+		fetcher.emitRecords(Arrays.asList(1L, 2L, 3L), part1, 3L);
+		assertEquals(3L, sourceContext.getLatestElement().getValue().longValue());
+		assertEquals(3L, sourceContext.getLatestElement().getTimestamp());
+		assertEquals(3L, part1.getOffset());
+
+		fetcher.emitRecords(Arrays.asList(12L, 13L), part2, 2L);
+		assertEquals(13L, sourceContext.getLatestElement().getValue().longValue());
+		assertEquals(13L, sourceContext.getLatestElement().getTimestamp());
+		assertEquals(2L, part2.getOffset());
+
+		// this blocks until the periodic thread emitted the watermark
+		assertEquals(3L, sourceContext.getLatestWatermark().getTimestamp());
+	}
+
+	@Test
+	public void testPeriodicWatermarksDoNotOvertakeRecordsOfBatch() throws Exception {
+		ExecutionConfig config = new ExecutionConfig();
+		config.setAutoWatermarkInterval(1);
+
+		List<KafkaTopicPartition> originalPartitions = Collections.singletonList(
+				new KafkaTopicPartition("test topic name", 7));
+
+		OrderCheckingSourceContext sourceContext = new OrderCheckingSourceContext();
+
+		TestFetcher<Long> fetcher = new TestFetcher<>(
+				sourceContext, originalPartitions,
+				new SerializedValue<AssignerWithPeriodicWatermarks<Long>>(new SlowPeriodicTestExtractor()),
+				null, new MockRuntimeContext(17, 3, config, sourceContext.getCheckpointLock()));
+
+		final KafkaTopicPartitionState<Object> part1 = fetcher.subscribedPartitions()[0];
+
+		// the extraction of a batch takes longer than the watermark interval, so the periodic
+		// emitter fires while the batches are emitted. the source context fails if an element
+		// is behind a watermark that was emitted before it
+		long offset = 0L;
+		for (int batch = 0; batch < 5; batch++) {
+			List<Long> records = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				records.add(++offset);
+			}
+			fetcher.emitRecords(records, part1, offset);
+		}
+
+		assertEquals(50L, part1.getOffset());
+	}
+
 	// ------------------------------------------------------------------------
 	//  Test mocks
 	// ------------------------------------------------------------------------
@@ -270,6 +396,45 @@ public class AbstractFetcherTimestampsTest {
 		}
 	}
 
+	/**
+	 * Source context that records elements and (negated) watermarks in the order in which
+	 * they are emitted, and fails if an element is late with respect to an earlier watermark.
+	 */
+	private static final class OrderCheckingSourceContext implements SourceContext<Long> {
+
+		private final Object checkpointLock = new Object();
+
+		private final List<Long> events = new ArrayList<>();
+
+		private long currentWatermark = Long.MIN_VALUE;
+
+		@Override
+		public void collect(Long element) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void collectWithTimestamp(Long element, long timestamp) {
+			assertTrue("element " + element + " is behind watermark " + currentWatermark,
+					timestamp > currentWatermark);
+			events.add(element);
+		}
+
+		@Override
+		public void emitWatermark(Watermark mark) {
+			currentWatermark = mark.getTimestamp();
+			events.add(-mark.getTimestamp());
+		}
+
+		@Override
+		public Object getCheckpointLock() {
+			return checkpointLock;
+		}
+
+		@Override
+		public void close() {}
+	}
+
 	// ------------------------------------------------------------------------
 
 	private static class PeriodicTestExtractor implements AssignerWithPeriodicWatermarks<Long> {
@@ -289,6 +454,19 @@ public class AbstractFetcherTimestampsTest {
 		}
 	}
 
+	private static class SlowPeriodicTestExtractor extends PeriodicTestExtractor {
+
+		@Override
+		public long extractTimestamp(Long element, long previousElementTimestamp) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.extractTimestamp(element, previousElementTimestamp);
+		}
+	}
+
 	private static class PunctuatedTestExtractor implements AssignerWithPunctuatedWatermarks<Long> {
 
 		@Override
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+import org.apache.flink.streaming.connectors.kinesis.config.InitialPosition;
+import org.apache.flink.streaming.connectors.kinesis.config.KinesisConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.internals.KinesisDataFetcher;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+import org.apache.flink.streaming.connectors.kinesis.proxy.KinesisProxy;
+import org.apache.flink.streaming.connectors.kinesis.proxy.KinesisProxyInterface;
+import org.apache.flink.streaming.util.serialization.DeserializationSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The Flink Kinesis Consumer is a parallel source that reads one or more Kinesis streams.
+ *
+ * <p>The shards of the streams are assigned to the parallel instances of the source, and each instance
+ * reads each of its shards in a separate thread. The consumer periodically looks for new shards, so it
+ * also reads the shards that are created when a stream is resharded.
+ *
+ * <p>The consumer participates in checkpointing and stores the sequence number of the last record it
+ * emitted from each shard, which gives exactly-once processing guarantees within Flink. The records
+ * are emitted with their approximate arrival timestamps in Kinesis.
+ *
+ * <p>The consumer is configured with {@link Properties}; the keys and defaults are listed in
+ * {@link KinesisConfigConstants}. Setting an endpoint instead of a region allows to read from a
+ * local Kinesis stand-in.
+ *
+ * @param <T> The type of the elements produced by this consumer
+ */
+public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T>
+		implements Checkpointed<HashMap<KinesisStreamShard, String>>, ResultTypeQueryable<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(FlinkKinesisConsumer.class);
+
+	/** The names of the streams to read */
+	private final List<String> streams;
+
+	/** The configuration of the AWS access and the consumer */
+	private final Properties configProps;
+
+	/** The schema to turn the Kinesis records into Java objects */
+	private final KinesisDeserializationSchema<T> deserializer;
+
+	// ------------------------------------------------------------------------
+	//  Runtime state
+	// ------------------------------------------------------------------------
+
+	/** The fetcher that reads the shards of this instance */
+	private transient volatile KinesisDataFetcher<T> fetcher;
+
+	/** The sequence numbers to restore, or null */
+	private transient HashMap<KinesisStreamShard, String> sequenceNumsToRestore;
+
+	private volatile boolean running = true;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Creates a new Flink Kinesis Consumer for a single stream.
+	 *
+	 * @param stream The name of the stream
+	 * @param deserializer The schema to turn the data of the records into Java objects
+	 * @param configProps The configuration, see {@link KinesisConfigConstants}
+	 */
+	public FlinkKinesisConsumer(String stream, DeserializationSchema<T> deserializer, Properties configProps) {
+		this(stream, new KinesisDeserializationSchemaWrapper<>(deserializer), configProps);
+	}
+
+	/**
+	 * Creates a new Flink Kinesis Consumer for a single stream.
+	 *
+	 * @param stream The name of the stream
+	 * @param deserializer The schema to turn the records and their metadata into Java objects
+	 * @param configProps The configuration, see {@link KinesisConfigConstants}
+	 */
+	public FlinkKinesisConsumer(String stream, KinesisDeserializationSchema<T> deserializer, Properties configProps) {
+		this(Collections.singletonList(stream), deserializer, configProps);
+	}
+
+	/**
+	 * Creates a new Flink Kinesis Consumer for several streams.
+	 *
+	 * @param streams The names of the streams
+	 * @param deserializer The schema to turn the records and their metadata into Java objects
+	 * @param configProps The configuration, see {@link KinesisConfigConstants}
+	 */
+	public FlinkKinesisConsumer(List<String> streams, KinesisDeserializationSchema<T> deserializer, Properties configProps) {
+		checkNotNull(streams, "streams can not be null");
+		checkArgument(!streams.isEmpty(), "There must be at least one stream");
+		this.streams = streams;
+		this.deserializer = checkNotNull(deserializer, "deserializer can not be null");
+		this.configProps = checkNotNull(configProps, "configProps can not be null");
+
+		validateConfig(configProps);
+
+		if (LOG.isInfoEnabled()) {
+			LOG.info("Flink Kinesis Consumer is going to read the following streams: {}", streams);
+		}
+	}
+
+	private static void validateConfig(Properties configProps) {
+		checkArgument(configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_REGION) != null ||
+				configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_ENDPOINT) != null,
+				"Either the AWS region (" + KinesisConfigConstants.CONFIG_AWS_REGION + ") or an endpoint ("
+						+ KinesisConfigConstants.CONFIG_AWS_ENDPOINT + ") must be configured");
+
+		checkArgument(configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_ACCESSKEYID) == null ||
+				configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_SECRETKEY) != null,
+				"The secret key must be configured together with the access key id");
+
+		String initialPosition = configProps.getProperty(KinesisConfigConstants.CONFIG_STREAM_INIT_POSITION_TYPE);
+		if (initialPosition != null) {
+			try {
+				InitialPosition.valueOf(initialPosition);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid initial position '" + initialPosition + "' for "
+						+ KinesisConfigConstants.CONFIG_STREAM_INIT_POSITION_TYPE + ", must be one of "
+						+ Arrays.toString(InitialPosition.values()));
+			}
+		}
+
+		String maxRecords = configProps.getProperty(KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_MAX);
+		if (maxRecords != null) {
+			int max = Integer.parseInt(maxRecords);
+			checkArgument(max > 0 && max <= KinesisConfigConstants.MAX_SHARD_GETRECORDS,
+					KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_MAX + " must be between 1 and "
+							+ KinesisConfigConstants.MAX_SHARD_GETRECORDS);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Source life cycle
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void run(SourceContext<T> sourceContext) throws Exception {
+		KinesisDataFetcher<T> fetcher = createFetcher(sourceContext, createKinesisProxy(configProps));
+
+		if (sequenceNumsToRestore != null) {
+			LOG.info("Restoring the sequence numbers of {} shards.", sequenceNumsToRestore.size());
+			fetcher.restoreState(sequenceNumsToRestore);
+		}
+
+		// publish the fetcher only after the restore, so that snapshots always see the restored state
+		this.fetcher = fetcher;
+		sequenceNumsToRestore = null;
+		if (!running) {
+			return;
+		}
+
+		fetcher.runFetcher();
+	}
+
+	@Override
+	public void cancel() {
+		running = false;
+
+		KinesisDataFetcher<T> fetcher = this.fetcher;
+		if (fetcher != null) {
+			fetcher.shutdownFetcher();
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		cancel();
+		super.close();
+	}
+
+	@Override
+	public TypeInformation<T> getProducedType() {
+		return deserializer.getProducedType();
+	}
+
+	/**
+	 * Creates the proxy through which the fetcher calls Kinesis. Tests can replace it.
+	 */
+	protected KinesisProxyInterface createKinesisProxy(Properties configProps) {
+		return new KinesisProxy(configProps);
+	}
+
+	protected KinesisDataFetcher<T> createFetcher(SourceContext<T> sourceContext, KinesisProxyInterface kinesis) {
+		return new KinesisDataFetcher<>(streams, sourceContext, getRuntimeContext(), configProps, deserializer, kinesis);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Checkpointing
+	// ------------------------------------------------------------------------
+
+	@Override
+	public HashMap<KinesisStreamShard, String> snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		if (!running) {
+			LOG.debug("snapshotState() called on closed source");
+			return null;
+		}
+
+		KinesisDataFetcher<T> fetcher = this.fetcher;
+		if (fetcher == null) {
+			// the fetcher has not yet been initialized, which means we need to return the
+			// originally restored sequence numbers
+			return sequenceNumsToRestore;
+		}
+
+		HashMap<KinesisStreamShard, String> state = fetcher.snapshotState();
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Snapshotting state. Sequence numbers: {}, checkpoint id: {}, timestamp: {}",
+					state, checkpointId, checkpointTimestamp);
+		}
+		return state;
+	}
+
+	@Override
+	public void restoreState(HashMap<KinesisStreamShard, String> restoredState) throws Exception {
+		LOG.info("Setting restore state in the FlinkKinesisConsumer");
+		sequenceNumsToRestore = restoredState;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis;
+
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Kinesis-specific deserialization schema, which also receives the metadata of a record,
+ * for example its partition key and the shard it was read from.
+ *
+ * @param <T> The type created by the deserialization schema
+ */
+public interface KinesisDeserializationSchema<T> extends Serializable, ResultTypeQueryable<T> {
+
+	/**
+	 * Deserializes a Kinesis record.
+	 *
+	 * @param recordValue The data of the record
+	 * @param partitionKey The partition key of the record
+	 * @param seqNum The sequence number of the record
+	 * @param approxArrivalTimestamp The approximate time at which the record arrived in Kinesis
+	 * @param stream The name of the stream the record was read from
+	 * @param shardId The id of the shard the record was read from
+	 * @return The deserialized element, or null to skip the record
+	 * @throws IOException Thrown if the record cannot be deserialized
+	 */
+	T deserialize(byte[] recordValue, String partitionKey, String seqNum,
+			long approxArrivalTimestamp, String stream, String shardId) throws IOException;
+}
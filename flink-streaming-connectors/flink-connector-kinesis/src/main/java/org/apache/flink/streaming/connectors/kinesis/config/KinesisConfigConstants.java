@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.config;
+
+/**
+ * Keys and default values of the properties that configure the {@code FlinkKinesisConsumer}.
+ */
+public class KinesisConfigConstants {
+
+	// ------------------------------------------------------------------------
+	//  AWS access
+	// ------------------------------------------------------------------------
+
+	/** The AWS region of the streams */
+	public static final String CONFIG_AWS_REGION = "aws.region";
+
+	/** The access key id; without it, the default AWS credentials provider chain is used */
+	public static final String CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_ACCESSKEYID = "aws.credentials.provider.basic.accesskeyid";
+
+	/** The secret key that belongs to the access key id */
+	public static final String CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_SECRETKEY = "aws.credentials.provider.basic.secretkey";
+
+	/** An explicit endpoint, for example of a local Kinesis stand-in, that overrides the region's endpoint */
+	public static final String CONFIG_AWS_ENDPOINT = "aws.endpoint";
+
+	// ------------------------------------------------------------------------
+	//  Consumer behaviour
+	// ------------------------------------------------------------------------
+
+	/** The {@link InitialPosition} for shards without checkpointed sequence numbers */
+	public static final String CONFIG_STREAM_INIT_POSITION_TYPE = "flink.stream.initpos";
+
+	/** The maximum number of records that one GetRecords call returns, at most 10000 */
+	public static final String CONFIG_SHARD_GETRECORDS_MAX = "flink.shard.getrecords.maxcount";
+
+	/** The time between two GetRecords calls for the same shard, in milliseconds */
+	public static final String CONFIG_SHARD_GETRECORDS_INTERVAL_MILLIS = "flink.shard.getrecords.intervalmillis";
+
+	/** Whether the number of records per GetRecords call adapts to the size of the records */
+	public static final String CONFIG_SHARD_ADAPTIVE_READS = "flink.shard.adaptivereads";
+
+	/** The time between two lookups of new shards, in milliseconds */
+	public static final String CONFIG_SHARD_DISCOVERY_INTERVAL_MILLIS = "flink.shard.discovery.intervalmillis";
+
+	/** The number of retries of a throttled call to Kinesis */
+	public static final String CONFIG_SHARD_CALL_RETRIES = "flink.shard.call.retries";
+
+	/** The base delay of the exponential backoff between retries of throttled calls, in milliseconds */
+	public static final String CONFIG_SHARD_CALL_BACKOFF_BASE_MILLIS = "flink.shard.call.backoff.base";
+
+	/** The maximum delay between retries of throttled calls, in milliseconds */
+	public static final String CONFIG_SHARD_CALL_BACKOFF_MAX_MILLIS = "flink.shard.call.backoff.max";
+
+	// ------------------------------------------------------------------------
+	//  Default values
+	// ------------------------------------------------------------------------
+
+	public static final String DEFAULT_STREAM_INIT_POSITION_TYPE = InitialPosition.LATEST.name();
+
+	public static final int DEFAULT_SHARD_GETRECORDS_MAX = 100;
+
+	/** Kinesis allows 5 GetRecords calls per second and shard */
+	public static final long DEFAULT_SHARD_GETRECORDS_INTERVAL_MILLIS = 200L;
+
+	public static final boolean DEFAULT_SHARD_ADAPTIVE_READS = false;
+
+	public static final long DEFAULT_SHARD_DISCOVERY_INTERVAL_MILLIS = 10000L;
+
+	public static final int DEFAULT_SHARD_CALL_RETRIES = 5;
+
+	public static final long DEFAULT_SHARD_CALL_BACKOFF_BASE_MILLIS = 300L;
+
+	public static final long DEFAULT_SHARD_CALL_BACKOFF_MAX_MILLIS = 5000L;
+
+	// ------------------------------------------------------------------------
+	//  Limits of the Kinesis service
+	// ------------------------------------------------------------------------
+
+	/** The maximum number of records that one GetRecords call can return */
+	public static final int MAX_SHARD_GETRECORDS = 10000;
+
+	/** The maximum number of bytes per second that can be read from one shard */
+	public static final long MAX_SHARD_BYTES_PER_SECOND = 2L * 1024 * 1024;
+
+	private KinesisConfigConstants() {}
+}
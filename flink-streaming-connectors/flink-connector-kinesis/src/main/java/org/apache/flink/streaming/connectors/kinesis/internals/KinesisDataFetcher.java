@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.internals;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.connectors.kinesis.KinesisDeserializationSchema;
+import org.apache.flink.streaming.connectors.kinesis.config.InitialPosition;
+import org.apache.flink.streaming.connectors.kinesis.config.KinesisConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+import org.apache.flink.streaming.connectors.kinesis.model.SentinelSequenceNumber;
+import org.apache.flink.streaming.connectors.kinesis.proxy.KinesisProxyInterface;
+import org.apache.flink.util.InstantiationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The fetcher of a parallel {@code FlinkKinesisConsumer} instance. The thread that runs the fetcher
+ * periodically lists the shards of the subscribed streams and assigns new shards, including the
+ * shards that are created by resharding, to the parallel instances. Each shard that is assigned to
+ * this instance is read by its own {@link ShardConsumer} thread.
+ *
+ * <p>The shard consumers emit each batch of records that one GetRecords call returns under a
+ * single acquisition of the checkpoint lock, together with the update of the sequence number of
+ * the shard. A checkpoint therefore always contains the sequence number of the last emitted record.
+ *
+ * @param <T> The type of the elements produced by the deserialization schema
+ */
+public class KinesisDataFetcher<T> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KinesisDataFetcher.class);
+
+	private final List<String> streams;
+
+	private final SourceContext<T> sourceContext;
+
+	private final Object checkpointLock;
+
+	private final String taskName;
+
+	private final int indexOfThisSubtask;
+
+	private final int numberOfParallelSubtasks;
+
+	private final Properties configProps;
+
+	private final KinesisDeserializationSchema<T> deserializationSchema;
+
+	private final ClassLoader userCodeClassLoader;
+
+	private final KinesisProxyInterface kinesis;
+
+	private final long discoveryIntervalMillis;
+
+	/** The shards this instance is subscribed to; only grows, and is guarded by the checkpoint lock */
+	private final List<KinesisStreamShardState> subscribedShardsState = new ArrayList<>();
+
+	/** The shards this instance is subscribed to, only accessed by the fetcher thread */
+	private final Set<KinesisStreamShard> subscribedShards = new HashSet<>();
+
+	/** The id of the last shard that was listed per stream, to list only new shards later */
+	private final Map<String, String> lastDiscoveredShardIds = new HashMap<>();
+
+	private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+	private volatile boolean running = true;
+
+	/** The fetcher thread waits on this lock between shard discoveries */
+	private final Object discoveryWaitLock = new Object();
+
+	private ExecutorService shardConsumersExecutor;
+
+	/** Whether the next discovery is the first one without restored shards, so that shards start at the initial position */
+	private boolean initialDiscovery = true;
+
+	public KinesisDataFetcher(
+			List<String> streams,
+			SourceContext<T> sourceContext,
+			RuntimeContext runtimeContext,
+			Properties configProps,
+			KinesisDeserializationSchema<T> deserializationSchema,
+			KinesisProxyInterface kinesis) {
+
+		this.streams = checkNotNull(streams);
+		this.sourceContext = checkNotNull(sourceContext);
+		this.checkpointLock = sourceContext.getCheckpointLock();
+		this.taskName = runtimeContext.getTaskName();
+		this.indexOfThisSubtask = runtimeContext.getIndexOfThisSubtask();
+		this.numberOfParallelSubtasks = runtimeContext.getNumberOfParallelSubtasks();
+		this.userCodeClassLoader = runtimeContext.getUserCodeClassLoader();
+		this.configProps = checkNotNull(configProps);
+		this.deserializationSchema = checkNotNull(deserializationSchema);
+		this.kinesis = checkNotNull(kinesis);
+
+		this.discoveryIntervalMillis = Long.parseLong(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_DISCOVERY_INTERVAL_MILLIS,
+				Long.toString(KinesisConfigConstants.DEFAULT_SHARD_DISCOVERY_INTERVAL_MILLIS)));
+	}
+
+	// ------------------------------------------------------------------------
+	//  Fetcher life cycle
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Restores the sequence numbers of the shards this instance was subscribed to. Shards that are
+	 * discovered later are read from their oldest record, because they were created after the checkpoint.
+	 * If the restored state contains no shards, the checkpoint was taken before the first discovery,
+	 * and the discovered shards start at the configured initial position.
+	 *
+	 * @param restoredState The checkpointed sequence numbers per shard
+	 */
+	public void restoreState(Map<KinesisStreamShard, String> restoredState) {
+		for (Map.Entry<KinesisStreamShard, String> entry : restoredState.entrySet()) {
+			subscribeTo(entry.getKey(), entry.getValue());
+		}
+		initialDiscovery = restoredState.isEmpty();
+	}
+
+	/**
+	 * Runs the shard discovery and the shard consumers until the fetcher is shut down or fails.
+	 */
+	public void runFetcher() throws Exception {
+		shardConsumersExecutor = createShardConsumersExecutor();
+
+		try {
+			// resume the restored shards that were not yet completely read
+			for (int i = 0; i < subscribedShardsState.size(); i++) {
+				startShardConsumer(i, false);
+			}
+
+			while (running) {
+				try {
+					discoverNewShards();
+					initialDiscovery = false;
+
+					// woken up early if the fetcher is shut down, or if a shard consumer failed
+					synchronized (discoveryWaitLock) {
+						if (running) {
+							discoveryWaitLock.wait(discoveryIntervalMillis);
+						}
+					}
+				} catch (InterruptedException e) {
+					if (running) {
+						throw e;
+					}
+				}
+			}
+		} finally {
+			shardConsumersExecutor.shutdownNow();
+			shardConsumersExecutor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		checkAndRethrowError();
+	}
+
+	/**
+	 * Stops the shard discovery and interrupts the shard consumers.
+	 */
+	public void shutdownFetcher() {
+		running = false;
+		synchronized (discoveryWaitLock) {
+			discoveryWaitLock.notifyAll();
+		}
+
+		ExecutorService executor = shardConsumersExecutor;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the sequence numbers of all subscribed shards.
+	 *
+	 * <p>Important: This method must be called under the checkpoint lock.
+	 */
+	public HashMap<KinesisStreamShard, String> snapshotState() {
+		// this method assumes that the checkpoint lock is held
+		assert Thread.holdsLock(checkpointLock);
+
+		HashMap<KinesisStreamShard, String> state = new HashMap<>(subscribedShardsState.size());
+		for (KinesisStreamShardState shardState : subscribedShardsState) {
+			state.put(shardState.getShard(), shardState.getLastProcessedSequenceNum());
+		}
+		return state;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Shard discovery and assignment
+	// ------------------------------------------------------------------------
+
+	private void discoverNewShards() throws Exception {
+		for (String stream : streams) {
+			List<KinesisStreamShard> newShards = kinesis.getShardList(stream, lastDiscoveredShardIds.get(stream));
+
+			for (KinesisStreamShard shard : newShards) {
+				lastDiscoveredShardIds.put(stream, shard.getShardId());
+
+				if (isAssignedToThisSubtask(shard, numberOfParallelSubtasks, indexOfThisSubtask)
+						&& !subscribedShards.contains(shard)) {
+
+					// shards that are created by resharding after the consumer started are read completely
+					final boolean startAtLatest = initialDiscovery && getInitialPosition() == InitialPosition.LATEST;
+					final String startingSequenceNum;
+					if (startAtLatest) {
+						// the latest record is not a position that can be checkpointed, so the shard is
+						// checkpointed with the time of the subscription until its first record is read
+						startingSequenceNum = SentinelSequenceNumber.toArrivalTimestampSequenceNum(System.currentTimeMillis());
+					} else {
+						startingSequenceNum = SentinelSequenceNumber.SENTINEL_EARLIEST_SEQUENCE_NUM.name();
+					}
+
+					int index = subscribeTo(shard, startingSequenceNum);
+					startShardConsumer(index, startAtLatest);
+
+					if (LOG.isInfoEnabled()) {
+						LOG.info("Subtask {} is now reading {} starting at {}.", indexOfThisSubtask, shard, startingSequenceNum);
+					}
+				}
+			}
+		}
+	}
+
+	private InitialPosition getInitialPosition() {
+		return InitialPosition.valueOf(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_STREAM_INIT_POSITION_TYPE,
+				KinesisConfigConstants.DEFAULT_STREAM_INIT_POSITION_TYPE));
+	}
+
+	private int subscribeTo(KinesisStreamShard shard, String sequenceNum) {
+		subscribedShards.add(shard);
+		synchronized (checkpointLock) {
+			subscribedShardsState.add(new KinesisStreamShardState(shard, sequenceNum));
+			return subscribedShardsState.size() - 1;
+		}
+	}
+
+	private void startShardConsumer(int shardStateIndex, boolean startAtLatest) throws Exception {
+		final KinesisStreamShard shard;
+		final String sequenceNum;
+		synchronized (checkpointLock) {
+			KinesisStreamShardState state = subscribedShardsState.get(shardStateIndex);
+			shard = state.getShard();
+			sequenceNum = state.getLastProcessedSequenceNum();
+		}
+
+		if (SentinelSequenceNumber.SENTINEL_SHARD_ENDING_SEQUENCE_NUM.name().equals(sequenceNum)) {
+			return;
+		}
+
+		// each consumer gets its own copy of the schema, which need not be thread-safe
+		KinesisDeserializationSchema<T> schema = InstantiationUtil.clone(deserializationSchema, userCodeClassLoader);
+
+		shardConsumersExecutor.submit(new ShardConsumer<>(
+				this, shardStateIndex, shard, sequenceNum, startAtLatest, schema, kinesis, configProps));
+	}
+
+	/**
+	 * Decides which parallel instance reads a shard. All instances decide the same way, without
+	 * communicating, because the hash code of a shard only depends on the stream name and shard id.
+	 */
+	static boolean isAssignedToThisSubtask(KinesisStreamShard shard, int numberOfParallelSubtasks, int indexOfThisSubtask) {
+		return (shard.hashCode() & Integer.MAX_VALUE) % numberOfParallelSubtasks == indexOfThisSubtask;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Methods called by the shard consumers
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Emits the records of one GetRecords call and updates the sequence number of the shard,
+	 * atomically with respect to checkpoints.
+	 *
+	 * @param records The deserialized records
+	 * @param timestamps The approximate arrival timestamps of the records
+	 * @param shardStateIndex The index of the shard in the subscribed shards
+	 * @param lastSequenceNum The sequence number of the last record that was fetched
+	 */
+	void emitRecords(List<T> records, long[] timestamps, int shardStateIndex, String lastSequenceNum) {
+		final int numRecords = records.size();
+		synchronized (checkpointLock) {
+			for (int i = 0; i < numRecords; i++) {
+				sourceContext.collectWithTimestamp(records.get(i), timestamps[i]);
+			}
+			subscribedShardsState.get(shardStateIndex).setLastProcessedSequenceNum(lastSequenceNum);
+		}
+	}
+
+	/**
+	 * Updates the sequence number of a shard without emitting records.
+	 */
+	void updateState(int shardStateIndex, String lastSequenceNum) {
+		synchronized (checkpointLock) {
+			subscribedShardsState.get(shardStateIndex).setLastProcessedSequenceNum(lastSequenceNum);
+		}
+	}
+
+	/**
+	 * Whether the shard consumers should keep reading.
+	 */
+	boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Reports the error of a shard consumer and stops the fetcher, which rethrows the error.
+	 */
+	void stopWithError(Throwable t) {
+		if (error.compareAndSet(null, t)) {
+			shutdownFetcher();
+		}
+	}
+
+	private void checkAndRethrowError() throws Exception {
+		Throwable t = error.get();
+		if (t != null) {
+			if (t instanceof Exception) {
+				throw (Exception) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
+			} else {
+				throw new Exception(t);
+			}
+		}
+	}
+
+	private ExecutorService createShardConsumersExecutor() {
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "ShardConsumer " + threadCount.getAndIncrement() + " of " + taskName);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
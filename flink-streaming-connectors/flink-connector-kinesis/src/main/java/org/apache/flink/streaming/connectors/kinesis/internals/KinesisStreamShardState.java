@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.internals;
+
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+
+/**
+ * A shard that a fetcher is subscribed to, with the sequence number of the last record that
+ * was emitted from it, or one of the sentinel values.
+ */
+class KinesisStreamShardState {
+
+	private final KinesisStreamShard shard;
+
+	/** Guarded by the checkpoint lock */
+	private String lastProcessedSequenceNum;
+
+	KinesisStreamShardState(KinesisStreamShard shard, String lastProcessedSequenceNum) {
+		this.shard = shard;
+		this.lastProcessedSequenceNum = lastProcessedSequenceNum;
+	}
+
+	KinesisStreamShard getShard() {
+		return shard;
+	}
+
+	String getLastProcessedSequenceNum() {
+		return lastProcessedSequenceNum;
+	}
+
+	void setLastProcessedSequenceNum(String lastProcessedSequenceNum) {
+		this.lastProcessedSequenceNum = lastProcessedSequenceNum;
+	}
+
+	@Override
+	public String toString() {
+		return shard + " @ " + lastProcessedSequenceNum;
+	}
+}
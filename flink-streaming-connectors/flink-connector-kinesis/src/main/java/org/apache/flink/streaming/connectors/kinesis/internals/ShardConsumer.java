@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.internals;
+
+import com.amazonaws.services.kinesis.clientlibrary.types.UserRecord;
+import com.amazonaws.services.kinesis.model.ExpiredIteratorException;
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.Record;
+import com.amazonaws.services.kinesis.model.ShardIteratorType;
+import org.apache.flink.streaming.connectors.kinesis.KinesisDeserializationSchema;
+import org.apache.flink.streaming.connectors.kinesis.config.KinesisConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+import org.apache.flink.streaming.connectors.kinesis.model.SentinelSequenceNumber;
+import org.apache.flink.streaming.connectors.kinesis.proxy.KinesisProxyInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Reads the records of a single shard, until the shard is closed by resharding and completely
+ * read, or until the fetcher shuts down.
+ *
+ * <p>Records that were aggregated by the Kinesis Producer Library are split into the user records.
+ * All records of a GetRecords call are emitted together, so the checkpointed sequence number never
+ * points into the middle of an aggregated record.
+ *
+ * <p>With adaptive reads, the number of records per GetRecords call is chosen such that the calls
+ * read close to the 2 MB per second and shard that Kinesis allows, based on the average size of the
+ * records of the previous call.
+ *
+ * @param <T> The type of the elements produced by the deserialization schema
+ */
+class ShardConsumer<T> implements Runnable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ShardConsumer.class);
+
+	private final KinesisDataFetcher<T> fetcher;
+
+	private final int shardStateIndex;
+
+	private final KinesisStreamShard shard;
+
+	private final KinesisDeserializationSchema<T> deserializer;
+
+	private final KinesisProxyInterface kinesis;
+
+	private final long fetchIntervalMillis;
+
+	private final boolean adaptiveReads;
+
+	/** The sequence number of the last fetched record, or a sentinel value */
+	private String lastSequenceNum;
+
+	/** Whether the next shard iterator starts at the latest record, instead of the checkpointed point in time */
+	private boolean startAtLatest;
+
+	private int maxNumberOfRecordsPerFetch;
+
+	ShardConsumer(
+			KinesisDataFetcher<T> fetcher,
+			int shardStateIndex,
+			KinesisStreamShard shard,
+			String lastSequenceNum,
+			boolean startAtLatest,
+			KinesisDeserializationSchema<T> deserializer,
+			KinesisProxyInterface kinesis,
+			Properties configProps) {
+
+		this.fetcher = fetcher;
+		this.shardStateIndex = shardStateIndex;
+		this.shard = shard;
+		this.lastSequenceNum = lastSequenceNum;
+		this.startAtLatest = startAtLatest;
+		this.deserializer = deserializer;
+		this.kinesis = kinesis;
+
+		this.maxNumberOfRecordsPerFetch = Integer.parseInt(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_MAX,
+				Integer.toString(KinesisConfigConstants.DEFAULT_SHARD_GETRECORDS_MAX)));
+		this.fetchIntervalMillis = Long.parseLong(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_INTERVAL_MILLIS,
+				Long.toString(KinesisConfigConstants.DEFAULT_SHARD_GETRECORDS_INTERVAL_MILLIS)));
+		this.adaptiveReads = Boolean.parseBoolean(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_ADAPTIVE_READS,
+				Boolean.toString(KinesisConfigConstants.DEFAULT_SHARD_ADAPTIVE_READS)));
+
+		checkArgument(maxNumberOfRecordsPerFetch > 0 &&
+				maxNumberOfRecordsPerFetch <= KinesisConfigConstants.MAX_SHARD_GETRECORDS,
+				"The maximum number of records per GetRecords call must be between 1 and "
+						+ KinesisConfigConstants.MAX_SHARD_GETRECORDS);
+	}
+
+	@Override
+	public void run() {
+		try {
+			String shardIterator = getShardIterator();
+
+			while (fetcher.isRunning()) {
+				if (shardIterator == null) {
+					// the shard was closed by resharding, and all its records were read
+					fetcher.updateState(shardStateIndex, SentinelSequenceNumber.SENTINEL_SHARD_ENDING_SEQUENCE_NUM.name());
+					LOG.info("Finished reading {}.", shard);
+					break;
+				}
+
+				final long fetchStartTime = System.currentTimeMillis();
+
+				GetRecordsResult result;
+				try {
+					result = kinesis.getRecords(shardIterator, maxNumberOfRecordsPerFetch);
+				} catch (ExpiredIteratorException e) {
+					LOG.debug("Shard iterator of {} expired, getting a new one.", shard);
+					shardIterator = getShardIterator();
+					continue;
+				}
+
+				List<Record> records = result.getRecords();
+				if (!records.isEmpty()) {
+					// the sizes are taken before deserialization consumes the data buffers
+					if (adaptiveReads) {
+						adaptMaxNumberOfRecordsPerFetch(records);
+					}
+					emitRecords(records);
+				}
+
+				shardIterator = result.getNextShardIterator();
+
+				long sleepTime = fetchIntervalMillis - (System.currentTimeMillis() - fetchStartTime);
+				if (sleepTime > 0 && shardIterator != null) {
+					Thread.sleep(sleepTime);
+				}
+			}
+		} catch (InterruptedException e) {
+			// the fetcher shuts down
+		} catch (Throwable t) {
+			if (fetcher.isRunning()) {
+				fetcher.stopWithError(t);
+			}
+		}
+	}
+
+	private String getShardIterator() throws InterruptedException {
+		if (SentinelSequenceNumber.isArrivalTimestampSequenceNum(lastSequenceNum)) {
+			if (startAtLatest) {
+				// only a new subscription starts at the latest record; a renewed iterator must
+				// not skip the records that arrived since the subscription
+				startAtLatest = false;
+				return kinesis.getShardIterator(shard, ShardIteratorType.LATEST.toString(), null);
+			}
+			// the records that arrived before the point in time are skipped when they are emitted
+			return kinesis.getShardIterator(shard, ShardIteratorType.TRIM_HORIZON.toString(), null);
+		} else if (SentinelSequenceNumber.SENTINEL_EARLIEST_SEQUENCE_NUM.name().equals(lastSequenceNum)) {
+			return kinesis.getShardIterator(shard, ShardIteratorType.TRIM_HORIZON.toString(), null);
+		} else {
+			return kinesis.getShardIterator(shard, ShardIteratorType.AFTER_SEQUENCE_NUMBER.toString(), lastSequenceNum);
+		}
+	}
+
+	private void emitRecords(List<Record> records) throws Exception {
+		final List<T> values = new ArrayList<>(records.size());
+		long[] timestamps = new long[records.size()];
+
+		// until the first record is read, a shard may be positioned at a point in time
+		final long minArrivalTimestamp = SentinelSequenceNumber.isArrivalTimestampSequenceNum(lastSequenceNum) ?
+				SentinelSequenceNumber.getArrivalTimestamp(lastSequenceNum) : Long.MIN_VALUE;
+
+		for (Record record : records) {
+			long timestamp = record.getApproximateArrivalTimestamp() != null ?
+					record.getApproximateArrivalTimestamp().getTime() : Long.MIN_VALUE;
+
+			if (record.getApproximateArrivalTimestamp() != null && timestamp < minArrivalTimestamp) {
+				continue;
+			}
+
+			for (UserRecord userRecord : UserRecord.deaggregate(Collections.singletonList(record))) {
+				ByteBuffer data = userRecord.getData();
+				byte[] bytes = new byte[data.remaining()];
+				data.get(bytes);
+
+				T value = deserializer.deserialize(bytes, userRecord.getPartitionKey(), userRecord.getSequenceNumber(),
+						timestamp, shard.getStreamName(), shard.getShardId());
+
+				if (value != null) {
+					if (values.size() == timestamps.length) {
+						long[] grown = new long[timestamps.length * 2];
+						System.arraycopy(timestamps, 0, grown, 0, timestamps.length);
+						timestamps = grown;
+					}
+					timestamps[values.size()] = timestamp;
+					values.add(value);
+				}
+			}
+		}
+
+		lastSequenceNum = records.get(records.size() - 1).getSequenceNumber();
+		fetcher.emitRecords(values, timestamps, shardStateIndex, lastSequenceNum);
+	}
+
+	private void adaptMaxNumberOfRecordsPerFetch(List<Record> records) {
+		long totalBytes = 0;
+		for (Record record : records) {
+			totalBytes += record.getData().remaining();
+		}
+		long averageRecordSize = Math.max(1, totalBytes / records.size());
+
+		double fetchesPerSecond = 1000.0 / Math.max(1, fetchIntervalMillis);
+		long recordsPerFetch = (long) (KinesisConfigConstants.MAX_SHARD_BYTES_PER_SECOND / averageRecordSize / fetchesPerSecond);
+
+		maxNumberOfRecordsPerFetch = (int) Math.max(1, Math.min(recordsPerFetch, KinesisConfigConstants.MAX_SHARD_GETRECORDS));
+	}
+}
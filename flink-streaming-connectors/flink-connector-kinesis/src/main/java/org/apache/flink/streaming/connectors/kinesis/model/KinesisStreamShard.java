@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.model;
+
+import java.io.Serializable;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A serializable representation of a shard of a Kinesis stream. It is used as the key of the
+ * checkpointed sequence numbers, so it only holds the fields that never change for a shard.
+ */
+public class KinesisStreamShard implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String streamName;
+
+	private final String shardId;
+
+	private final String parentShardId;
+
+	private final String adjacentParentShardId;
+
+	private final int cachedHash;
+
+	public KinesisStreamShard(String streamName, String shardId, String parentShardId, String adjacentParentShardId) {
+		this.streamName = checkNotNull(streamName);
+		this.shardId = checkNotNull(shardId);
+		this.parentShardId = parentShardId;
+		this.adjacentParentShardId = adjacentParentShardId;
+		this.cachedHash = 31 * streamName.hashCode() + shardId.hashCode();
+	}
+
+	public String getStreamName() {
+		return streamName;
+	}
+
+	public String getShardId() {
+		return shardId;
+	}
+
+	/**
+	 * Gets the id of the shard this shard was split from, or one of the shards it was merged from.
+	 * Null for shards that were created with the stream.
+	 */
+	public String getParentShardId() {
+		return parentShardId;
+	}
+
+	/**
+	 * Gets the id of the other shard this shard was merged from, or null.
+	 */
+	public String getAdjacentParentShardId() {
+		return adjacentParentShardId;
+	}
+
+	/**
+	 * Checks whether the shard is the result of resharding an existing shard.
+	 */
+	public boolean isChildShard() {
+		return parentShardId != null || adjacentParentShardId != null;
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != KinesisStreamShard.class) {
+			return false;
+		}
+		KinesisStreamShard that = (KinesisStreamShard) obj;
+		return streamName.equals(that.streamName) && shardId.equals(that.shardId);
+	}
+
+	@Override
+	public int hashCode() {
+		return cachedHash;
+	}
+
+	@Override
+	public String toString() {
+		return "KinesisStreamShard{stream='" + streamName + "', shardId='" + shardId + "'"
+				+ (parentShardId != null ? ", parentShardId='" + parentShardId + "'" : "")
+				+ (adjacentParentShardId != null ? ", adjacentParentShardId='" + adjacentParentShardId + "'" : "")
+				+ "}";
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.model;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Special values of the checkpointed sequence number of a shard, for positions that are not
+ * the sequence number of a record.
+ */
+public enum SentinelSequenceNumber {
+
+	/**
+	 * The shard is read starting with the first record that arrived at or after a point in time,
+	 * which is appended to the name of this value, see {@link #toArrivalTimestampSequenceNum(long)}.
+	 * Shards that start with the latest record are checkpointed in this form until their first
+	 * record is read, so that a recovery does not skip the records that arrived in the meantime.
+	 */
+	SENTINEL_ARRIVAL_TIMESTAMP_SEQUENCE_NUM,
+
+	/** The shard is read starting with its oldest record that is still retained. */
+	SENTINEL_EARLIEST_SEQUENCE_NUM,
+
+	/** The shard was closed by resharding and all its records were read. */
+	SENTINEL_SHARD_ENDING_SEQUENCE_NUM;
+
+	private static final String ARRIVAL_TIMESTAMP_PREFIX = SENTINEL_ARRIVAL_TIMESTAMP_SEQUENCE_NUM.name() + ":";
+
+	/**
+	 * Checks whether the given checkpointed sequence number is one of the sentinel values.
+	 */
+	public static boolean isSentinel(String sequenceNumber) {
+		for (SentinelSequenceNumber sentinel : values()) {
+			if (sentinel.name().equals(sequenceNumber)) {
+				return true;
+			}
+		}
+		return isArrivalTimestampSequenceNum(sequenceNumber);
+	}
+
+	/**
+	 * Creates the checkpointed sequence number of a shard that is read starting with the first
+	 * record that arrived at or after the given time.
+	 *
+	 * @param arrivalTimestamp The time in milliseconds since the epoch
+	 */
+	public static String toArrivalTimestampSequenceNum(long arrivalTimestamp) {
+		return ARRIVAL_TIMESTAMP_PREFIX + arrivalTimestamp;
+	}
+
+	/**
+	 * Checks whether the given checkpointed sequence number is a point in time, as created by
+	 * {@link #toArrivalTimestampSequenceNum(long)}.
+	 */
+	public static boolean isArrivalTimestampSequenceNum(String sequenceNumber) {
+		return sequenceNumber != null && sequenceNumber.startsWith(ARRIVAL_TIMESTAMP_PREFIX);
+	}
+
+	/**
+	 * Gets the point in time of a checkpointed sequence number that was created by
+	 * {@link #toArrivalTimestampSequenceNum(long)}.
+	 */
+	public static long getArrivalTimestamp(String sequenceNumber) {
+		checkArgument(isArrivalTimestampSequenceNum(sequenceNumber), "Not a point in time: " + sequenceNumber);
+		return Long.parseLong(sequenceNumber.substring(ARRIVAL_TIMESTAMP_PREFIX.length()));
+	}
+}
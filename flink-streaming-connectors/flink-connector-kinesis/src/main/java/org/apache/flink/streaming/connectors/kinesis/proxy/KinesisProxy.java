@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.proxy;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.internal.StaticCredentialsProvider;
+import com.amazonaws.regions.Region;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.kinesis.AmazonKinesisClient;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.GetRecordsRequest;
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.GetShardIteratorRequest;
+import com.amazonaws.services.kinesis.model.LimitExceededException;
+import com.amazonaws.services.kinesis.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+import org.apache.flink.streaming.connectors.kinesis.config.KinesisConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link KinesisProxyInterface} that calls the Kinesis service through the AWS SDK. Calls that
+ * are throttled by Kinesis, or fail with an error of the service, are retried with exponential
+ * backoff and jitter, so that the parallel consumers do not retry in lockstep.
+ */
+public class KinesisProxy implements KinesisProxyInterface {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KinesisProxy.class);
+
+	private final AmazonKinesisClient kinesisClient;
+
+	private final int maxRetries;
+
+	private final long backoffBaseMillis;
+
+	private final long backoffMaxMillis;
+
+	private final Random random = new Random();
+
+	public KinesisProxy(Properties configProps) {
+		checkNotNull(configProps);
+
+		this.kinesisClient = createKinesisClient(configProps);
+
+		this.maxRetries = Integer.parseInt(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_CALL_RETRIES,
+				Integer.toString(KinesisConfigConstants.DEFAULT_SHARD_CALL_RETRIES)));
+		this.backoffBaseMillis = Long.parseLong(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_CALL_BACKOFF_BASE_MILLIS,
+				Long.toString(KinesisConfigConstants.DEFAULT_SHARD_CALL_BACKOFF_BASE_MILLIS)));
+		this.backoffMaxMillis = Long.parseLong(configProps.getProperty(
+				KinesisConfigConstants.CONFIG_SHARD_CALL_BACKOFF_MAX_MILLIS,
+				Long.toString(KinesisConfigConstants.DEFAULT_SHARD_CALL_BACKOFF_MAX_MILLIS)));
+	}
+
+	/**
+	 * Creates the client for the configured region or endpoint and credentials.
+	 */
+	static AmazonKinesisClient createKinesisClient(Properties configProps) {
+		AWSCredentialsProvider credentials;
+		String accessKey = configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_ACCESSKEYID);
+		if (accessKey != null) {
+			String secretKey = configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_CREDENTIALS_PROVIDER_BASIC_SECRETKEY);
+			credentials = new StaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey));
+		} else {
+			credentials = new DefaultAWSCredentialsProviderChain();
+		}
+
+		// the proxy does its own retries with backoff
+		ClientConfiguration clientConfig = new ClientConfiguration().withMaxErrorRetry(0);
+
+		AmazonKinesisClient client = new AmazonKinesisClient(credentials, clientConfig);
+
+		String region = configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_REGION);
+		if (region != null) {
+			client.setRegion(Region.getRegion(Regions.fromName(region)));
+		}
+
+		String endpoint = configProps.getProperty(KinesisConfigConstants.CONFIG_AWS_ENDPOINT);
+		if (endpoint != null) {
+			client.setEndpoint(endpoint);
+		}
+
+		return client;
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public List<KinesisStreamShard> getShardList(String streamName, String exclusiveStartShardId)
+			throws InterruptedException {
+
+		List<KinesisStreamShard> shards = new ArrayList<>();
+		String startShardId = exclusiveStartShardId;
+		boolean hasMoreShards = true;
+
+		while (hasMoreShards) {
+			StreamDescription description = describeStream(streamName, startShardId);
+
+			for (Shard shard : description.getShards()) {
+				shards.add(new KinesisStreamShard(
+						streamName, shard.getShardId(), shard.getParentShardId(), shard.getAdjacentParentShardId()));
+				startShardId = shard.getShardId();
+			}
+			hasMoreShards = description.getHasMoreShards() && !description.getShards().isEmpty();
+		}
+
+		return shards;
+	}
+
+	private StreamDescription describeStream(String streamName, String exclusiveStartShardId)
+			throws InterruptedException {
+
+		DescribeStreamRequest request = new DescribeStreamRequest()
+				.withStreamName(streamName)
+				.withExclusiveStartShardId(exclusiveStartShardId);
+
+		for (int attempt = 0; ; attempt++) {
+			try {
+				return kinesisClient.describeStream(request).getStreamDescription();
+			} catch (LimitExceededException e) {
+				backoffOrRethrow(e, attempt, "DescribeStream");
+			} catch (AmazonServiceException e) {
+				backoffOrRethrowIfNotServiceError(e, attempt, "DescribeStream");
+			}
+		}
+	}
+
+	@Override
+	public String getShardIterator(KinesisStreamShard shard, String shardIteratorType, String startingSeqNum)
+			throws InterruptedException {
+
+		GetShardIteratorRequest request = new GetShardIteratorRequest()
+				.withStreamName(shard.getStreamName())
+				.withShardId(shard.getShardId())
+				.withShardIteratorType(shardIteratorType)
+				.withStartingSequenceNumber(startingSeqNum);
+
+		for (int attempt = 0; ; attempt++) {
+			try {
+				return kinesisClient.getShardIterator(request).getShardIterator();
+			} catch (ProvisionedThroughputExceededException e) {
+				backoffOrRethrow(e, attempt, "GetShardIterator");
+			} catch (AmazonServiceException e) {
+				backoffOrRethrowIfNotServiceError(e, attempt, "GetShardIterator");
+			}
+		}
+	}
+
+	@Override
+	public GetRecordsResult getRecords(String shardIterator, int maxRecordsToGet) throws InterruptedException {
+		GetRecordsRequest request = new GetRecordsRequest()
+				.withShardIterator(shardIterator)
+				.withLimit(maxRecordsToGet);
+
+		for (int attempt = 0; ; attempt++) {
+			try {
+				return kinesisClient.getRecords(request);
+			} catch (ProvisionedThroughputExceededException e) {
+				backoffOrRethrow(e, attempt, "GetRecords");
+			} catch (AmazonServiceException e) {
+				backoffOrRethrowIfNotServiceError(e, attempt, "GetRecords");
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void backoffOrRethrowIfNotServiceError(AmazonServiceException e, int attempt, String call)
+			throws InterruptedException {
+		// errors of the client (for example an unknown stream) are not retried
+		if (e.getErrorType() != AmazonServiceException.ErrorType.Service) {
+			throw e;
+		}
+		backoffOrRethrow(e, attempt, call);
+	}
+
+	private void backoffOrRethrow(AmazonServiceException e, int attempt, String call) throws InterruptedException {
+		if (attempt >= maxRetries) {
+			throw e;
+		}
+
+		long maxDelay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt, 20));
+		long delay;
+		synchronized (random) {
+			delay = (long) (random.nextDouble() * maxDelay);
+		}
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("{} call failed with {} (attempt {}), retrying in {} ms.", call, e.getErrorCode(), attempt + 1, delay);
+		}
+		Thread.sleep(delay);
+	}
+}
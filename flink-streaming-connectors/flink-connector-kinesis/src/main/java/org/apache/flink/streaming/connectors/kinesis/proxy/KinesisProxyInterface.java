@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.proxy;
+
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+
+import java.util.List;
+
+/**
+ * The calls to the Kinesis service that the consumer makes. Implementations retry throttled calls,
+ * and they must be thread-safe, because the shards are read by several threads.
+ */
+public interface KinesisProxyInterface {
+
+	/**
+	 * Lists the shards of a stream, including closed shards that are still retained.
+	 *
+	 * @param streamName The name of the stream
+	 * @param exclusiveStartShardId Only shards after the shard with this id are listed; null to list all shards
+	 * @return The shards, in the order of their creation
+	 * @throws InterruptedException Thrown if the thread is interrupted while backing off a throttled call
+	 */
+	List<KinesisStreamShard> getShardList(String streamName, String exclusiveStartShardId) throws InterruptedException;
+
+	/**
+	 * Gets an iterator for reading a shard.
+	 *
+	 * @param shard The shard to read
+	 * @param shardIteratorType The name of a {@code ShardIteratorType}
+	 * @param startingSeqNum The sequence number for the AT/AFTER_SEQUENCE_NUMBER types, otherwise null
+	 * @return The shard iterator
+	 * @throws InterruptedException Thrown if the thread is interrupted while backing off a throttled call
+	 */
+	String getShardIterator(KinesisStreamShard shard, String shardIteratorType, String startingSeqNum)
+			throws InterruptedException;
+
+	/**
+	 * Reads the next batch of records of a shard.
+	 *
+	 * @param shardIterator The iterator, as returned by the previous call or by {@link #getShardIterator}
+	 * @param maxRecordsToGet The maximum number of records to return
+	 * @return The records and the iterator for the next call, which is null once a closed shard is read completely
+	 * @throws InterruptedException Thrown if the thread is interrupted while backing off a throttled call
+	 */
+	GetRecordsResult getRecords(String shardIterator, int maxRecordsToGet) throws InterruptedException;
+}
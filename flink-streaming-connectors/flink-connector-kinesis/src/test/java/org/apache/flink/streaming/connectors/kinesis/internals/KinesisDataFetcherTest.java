@@ -0,0 +1,471 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kinesis.internals;
+
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.Record;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.connectors.kinesis.KinesisDeserializationSchema;
+import org.apache.flink.streaming.connectors.kinesis.config.InitialPosition;
+import org.apache.flink.streaming.connectors.kinesis.config.KinesisConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.model.KinesisStreamShard;
+import org.apache.flink.streaming.connectors.kinesis.model.SentinelSequenceNumber;
+import org.apache.flink.streaming.connectors.kinesis.proxy.KinesisProxyInterface;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link KinesisDataFetcher}, against a fake Kinesis service.
+ */
+public class KinesisDataFetcherTest {
+
+	private static final String STREAM = "test-stream";
+
+	@Test
+	public void testEveryShardIsAssignedToExactlyOneSubtask() {
+		final int parallelism = 3;
+		int[] numShardsPerSubtask = new int[parallelism];
+
+		for (int i = 0; i < 30; i++) {
+			KinesisStreamShard shard = new KinesisStreamShard(STREAM, shardId(i), null, null);
+
+			int numAssignments = 0;
+			for (int subtask = 0; subtask < parallelism; subtask++) {
+				if (KinesisDataFetcher.isAssignedToThisSubtask(shard, parallelism, subtask)) {
+					numAssignments++;
+					numShardsPerSubtask[subtask]++;
+				}
+			}
+			assertEquals(1, numAssignments);
+		}
+
+		for (int numShards : numShardsPerSubtask) {
+			assertTrue(numShards > 0);
+		}
+	}
+
+	@Test
+	public void testReadShardsAndFollowResharding() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		kinesis.addShard(new KinesisStreamShard(STREAM, shardId(0), null, null), 10, true);
+
+		CollectingSourceContext context = new CollectingSourceContext();
+		KinesisDataFetcher<String> fetcher = createFetcher(context, kinesis);
+		Thread fetcherThread = runInThread(fetcher);
+
+		context.awaitRecords(10);
+
+		// shard 0 is split into shards 1 and 2 while the fetcher runs
+		kinesis.addShard(new KinesisStreamShard(STREAM, shardId(1), shardId(0), null), 5, false);
+		kinesis.addShard(new KinesisStreamShard(STREAM, shardId(2), shardId(0), null), 7, false);
+
+		context.awaitRecords(22);
+
+		HashMap<KinesisStreamShard, String> state;
+		synchronized (context.getCheckpointLock()) {
+			state = fetcher.snapshotState();
+			assertEquals(22, context.records.size());
+		}
+
+		fetcher.shutdownFetcher();
+		fetcherThread.join();
+
+		assertEquals(3, state.size());
+		assertEquals(SentinelSequenceNumber.SENTINEL_SHARD_ENDING_SEQUENCE_NUM.name(),
+				state.get(new KinesisStreamShard(STREAM, shardId(0), null, null)));
+		assertEquals(sequenceNumber(4), state.get(new KinesisStreamShard(STREAM, shardId(1), null, null)));
+		assertEquals(sequenceNumber(6), state.get(new KinesisStreamShard(STREAM, shardId(2), null, null)));
+
+		// the records of a shard are emitted in order
+		assertInOrder(context.records, shardId(0), 10);
+		assertInOrder(context.records, shardId(1), 5);
+		assertInOrder(context.records, shardId(2), 7);
+	}
+
+	@Test
+	public void testRestoreResumesAfterCheckpointedSequenceNumbers() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		KinesisStreamShard shard0 = new KinesisStreamShard(STREAM, shardId(0), null, null);
+		KinesisStreamShard shard1 = new KinesisStreamShard(STREAM, shardId(1), null, null);
+		kinesis.addShard(shard0, 10, false);
+		kinesis.addShard(shard1, 10, false);
+
+		Map<KinesisStreamShard, String> restoredState = new HashMap<>();
+		restoredState.put(shard0, sequenceNumber(3));
+		restoredState.put(shard1, SentinelSequenceNumber.SENTINEL_EARLIEST_SEQUENCE_NUM.name());
+
+		CollectingSourceContext context = new CollectingSourceContext();
+		KinesisDataFetcher<String> fetcher = createFetcher(context, kinesis);
+		fetcher.restoreState(restoredState);
+		Thread fetcherThread = runInThread(fetcher);
+
+		context.awaitRecords(16);
+		fetcher.shutdownFetcher();
+		fetcherThread.join();
+
+		List<String> shard0Records = recordsOf(context.records, shardId(0));
+		assertEquals(6, shard0Records.size());
+		assertEquals(shardId(0) + ":" + sequenceNumber(4), shard0Records.get(0));
+		assertEquals(10, recordsOf(context.records, shardId(1)).size());
+	}
+
+	@Test
+	public void testRestoreOfLatestPositionBeforeFirstRecord() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		KinesisStreamShard shard0 = new KinesisStreamShard(STREAM, shardId(0), null, null);
+		kinesis.addShard(shard0, 10, false);
+
+		// the checkpoint is taken before the first record of the shard arrives
+		CollectingSourceContext context = new CollectingSourceContext();
+		KinesisDataFetcher<String> fetcher = createFetcher(context, kinesis, InitialPosition.LATEST);
+		Thread fetcherThread = runInThread(fetcher);
+
+		HashMap<KinesisStreamShard, String> state = awaitSubscribedShards(fetcher, context, 1);
+
+		fetcher.shutdownFetcher();
+		fetcherThread.join();
+
+		assertTrue(context.records.isEmpty());
+		assertTrue(SentinelSequenceNumber.isArrivalTimestampSequenceNum(state.get(shard0)));
+
+		// records that arrive between the checkpoint and the recovery are read after the restore
+		kinesis.appendRecords(shardId(0), 5, System.currentTimeMillis());
+
+		CollectingSourceContext restoredContext = new CollectingSourceContext();
+		KinesisDataFetcher<String> restoredFetcher = createFetcher(restoredContext, kinesis, InitialPosition.LATEST);
+		restoredFetcher.restoreState(state);
+		Thread restoredFetcherThread = runInThread(restoredFetcher);
+
+		restoredContext.awaitRecords(5);
+		restoredFetcher.shutdownFetcher();
+		restoredFetcherThread.join();
+
+		List<String> shard0Records = recordsOf(restoredContext.records, shardId(0));
+		assertEquals(5, shard0Records.size());
+		assertEquals(shardId(0) + ":" + sequenceNumber(10), shard0Records.get(0));
+	}
+
+	@Test
+	public void testRestoreOfEmptyStateStartsAtInitialPosition() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		KinesisStreamShard shard0 = new KinesisStreamShard(STREAM, shardId(0), null, null);
+		kinesis.addShard(shard0, 10, false);
+
+		// the restored checkpoint was taken before the first shard discovery
+		CollectingSourceContext context = new CollectingSourceContext();
+		KinesisDataFetcher<String> fetcher = createFetcher(context, kinesis, InitialPosition.LATEST);
+		fetcher.restoreState(new HashMap<KinesisStreamShard, String>());
+		Thread fetcherThread = runInThread(fetcher);
+
+		HashMap<KinesisStreamShard, String> state = awaitSubscribedShards(fetcher, context, 1);
+
+		fetcher.shutdownFetcher();
+		fetcherThread.join();
+
+		assertTrue(SentinelSequenceNumber.isArrivalTimestampSequenceNum(state.get(shard0)));
+		assertTrue(context.records.isEmpty());
+	}
+
+	@Test
+	public void testRestoreReadsNewShardsCompletely() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		KinesisStreamShard shard0 = new KinesisStreamShard(STREAM, shardId(0), null, null);
+		KinesisStreamShard shard1 = new KinesisStreamShard(STREAM, shardId(1), null, null);
+		kinesis.addShard(shard0, 10, false);
+		kinesis.addShard(shard1, 10, false);
+
+		// shard 1 was created after the checkpoint, so it is read from its oldest record
+		Map<KinesisStreamShard, String> restoredState = new HashMap<>();
+		restoredState.put(shard0, sequenceNumber(9));
+
+		CollectingSourceContext context = new CollectingSourceContext();
+		KinesisDataFetcher<String> fetcher = createFetcher(context, kinesis, InitialPosition.LATEST);
+		fetcher.restoreState(restoredState);
+		Thread fetcherThread = runInThread(fetcher);
+
+		context.awaitRecords(10);
+		fetcher.shutdownFetcher();
+		fetcherThread.join();
+
+		assertInOrder(context.records, shardId(1), 10);
+		assertTrue(recordsOf(context.records, shardId(0)).isEmpty());
+	}
+
+	@Test
+	public void testShardConsumerErrorFailsFetcher() throws Exception {
+		FakeKinesis kinesis = new FakeKinesis();
+		kinesis.addShard(new KinesisStreamShard(STREAM, shardId(0), null, null), 10, false);
+		kinesis.failGetRecords = true;
+
+		KinesisDataFetcher<String> fetcher = createFetcher(new CollectingSourceContext(), kinesis);
+		try {
+			fetcher.runFetcher();
+		} catch (RuntimeException e) {
+			assertEquals("test failure", e.getMessage());
+			return;
+		}
+		throw new AssertionError("The fetcher did not fail.");
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static KinesisDataFetcher<String> createFetcher(SourceContext<String> context, KinesisProxyInterface kinesis) {
+		return createFetcher(context, kinesis, InitialPosition.TRIM_HORIZON);
+	}
+
+	private static KinesisDataFetcher<String> createFetcher(
+			SourceContext<String> context, KinesisProxyInterface kinesis, InitialPosition initialPosition) {
+
+		RuntimeContext runtimeContext = mock(RuntimeContext.class);
+		when(runtimeContext.getTaskName()).thenReturn("test task");
+		when(runtimeContext.getIndexOfThisSubtask()).thenReturn(0);
+		when(runtimeContext.getNumberOfParallelSubtasks()).thenReturn(1);
+		when(runtimeContext.getUserCodeClassLoader()).thenReturn(KinesisDataFetcherTest.class.getClassLoader());
+
+		Properties config = new Properties();
+		config.setProperty(KinesisConfigConstants.CONFIG_AWS_REGION, "us-east-1");
+		config.setProperty(KinesisConfigConstants.CONFIG_STREAM_INIT_POSITION_TYPE, initialPosition.name());
+		config.setProperty(KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_MAX, "3");
+		config.setProperty(KinesisConfigConstants.CONFIG_SHARD_GETRECORDS_INTERVAL_MILLIS, "1");
+		config.setProperty(KinesisConfigConstants.CONFIG_SHARD_DISCOVERY_INTERVAL_MILLIS, "10");
+
+		return new KinesisDataFetcher<>(
+				Collections.singletonList(STREAM), context, runtimeContext, config, new ShardAndDataSchema(), kinesis);
+	}
+
+	private static HashMap<KinesisStreamShard, String> awaitSubscribedShards(
+			KinesisDataFetcher<?> fetcher, SourceContext<?> context, int numShards) throws InterruptedException {
+
+		while (true) {
+			synchronized (context.getCheckpointLock()) {
+				HashMap<KinesisStreamShard, String> state = fetcher.snapshotState();
+				if (state.size() >= numShards) {
+					return state;
+				}
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	private static Thread runInThread(final KinesisDataFetcher<?> fetcher) {
+		Thread thread = new Thread("fetcher") {
+			@Override
+			public void run() {
+				try {
+					fetcher.runFetcher();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		thread.start();
+		return thread;
+	}
+
+	private static String shardId(int i) {
+		return String.format("shardId-%012d", i);
+	}
+
+	private static String sequenceNumber(int i) {
+		return String.format("%020d", i);
+	}
+
+	private static List<String> recordsOf(List<String> records, String shardId) {
+		List<String> result = new ArrayList<>();
+		for (String record : records) {
+			if (record.startsWith(shardId + ":")) {
+				result.add(record);
+			}
+		}
+		return result;
+	}
+
+	private static void assertInOrder(List<String> records, String shardId, int numRecords) {
+		List<String> shardRecords = recordsOf(records, shardId);
+		assertEquals(numRecords, shardRecords.size());
+		for (int i = 0; i < numRecords; i++) {
+			assertEquals(shardId + ":" + sequenceNumber(i), shardRecords.get(i));
+		}
+	}
+
+	/**
+	 * Produces "shardId:data" strings, where the data of the fake records is their sequence number.
+	 */
+	private static class ShardAndDataSchema implements KinesisDeserializationSchema<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String deserialize(byte[] recordValue, String partitionKey, String seqNum,
+				long approxArrivalTimestamp, String stream, String shardId) throws IOException {
+			return shardId + ":" + new String(recordValue, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public TypeInformation<String> getProducedType() {
+			return BasicTypeInfo.STRING_TYPE_INFO;
+		}
+	}
+
+	private static class CollectingSourceContext implements SourceContext<String> {
+
+		private final Object lock = new Object();
+
+		private final List<String> records = new ArrayList<>();
+
+		@Override
+		public void collect(String element) {
+			collectWithTimestamp(element, Long.MIN_VALUE);
+		}
+
+		@Override
+		public void collectWithTimestamp(String element, long timestamp) {
+			assertTrue(Thread.holdsLock(lock));
+			records.add(element);
+			lock.notifyAll();
+		}
+
+		@Override
+		public void emitWatermark(Watermark mark) {}
+
+		@Override
+		public Object getCheckpointLock() {
+			return lock;
+		}
+
+		@Override
+		public void close() {}
+
+		void awaitRecords(int numRecords) throws InterruptedException {
+			synchronized (lock) {
+				while (records.size() < numRecords) {
+					lock.wait(10000);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A fake Kinesis service. Shard iterators are "shardId:position" strings.
+	 */
+	private static class FakeKinesis implements KinesisProxyInterface {
+
+		private final List<KinesisStreamShard> shards = new ArrayList<>();
+
+		private final Map<String, List<Record>> records = new HashMap<>();
+
+		private final Map<String, Boolean> closed = new HashMap<>();
+
+		volatile boolean failGetRecords;
+
+		synchronized void addShard(KinesisStreamShard shard, int numRecords, boolean isClosed) {
+			shards.add(shard);
+			records.put(shard.getShardId(), new ArrayList<Record>());
+			closed.put(shard.getShardId(), isClosed);
+			appendRecords(shard.getShardId(), numRecords, 1000L);
+		}
+
+		synchronized void appendRecords(String shardId, int numRecords, long arrivalTimestamp) {
+			List<Record> shardRecords = records.get(shardId);
+			for (int i = 0; i < numRecords; i++) {
+				String sequenceNumber = sequenceNumber(shardRecords.size());
+				shardRecords.add(new Record()
+						.withData(ByteBuffer.wrap(sequenceNumber.getBytes(StandardCharsets.UTF_8)))
+						.withPartitionKey("key")
+						.withSequenceNumber(sequenceNumber)
+						.withApproximateArrivalTimestamp(new Date(arrivalTimestamp + i)));
+			}
+		}
+
+		@Override
+		public synchronized List<KinesisStreamShard> getShardList(String streamName, String exclusiveStartShardId) {
+			List<KinesisStreamShard> result = new ArrayList<>();
+			boolean afterStart = exclusiveStartShardId == null;
+			for (KinesisStreamShard shard : shards) {
+				if (afterStart) {
+					result.add(shard);
+				}
+				afterStart |= shard.getShardId().equals(exclusiveStartShardId);
+			}
+			return result;
+		}
+
+		@Override
+		public synchronized String getShardIterator(KinesisStreamShard shard, String shardIteratorType, String startingSeqNum) {
+			List<Record> shardRecords = records.get(shard.getShardId());
+			int position;
+			switch (shardIteratorType) {
+				case "TRIM_HORIZON":
+					position = 0;
+					break;
+				case "LATEST":
+					position = shardRecords.size();
+					break;
+				case "AFTER_SEQUENCE_NUMBER":
+					position = Integer.parseInt(startingSeqNum) + 1;
+					break;
+				default:
+					throw new IllegalArgumentException(shardIteratorType);
+			}
+			return shard.getShardId() + ":" + position;
+		}
+
+		@Override
+		public synchronized GetRecordsResult getRecords(String shardIterator, int maxRecordsToGet) {
+			if (failGetRecords) {
+				throw new RuntimeException("test failure");
+			}
+
+			String shardId = shardIterator.substring(0, shardIterator.indexOf(':'));
+			int position = Integer.parseInt(shardIterator.substring(shardIterator.indexOf(':') + 1));
+			List<Record> shardRecords = records.get(shardId);
+
+			int end = Math.min(shardRecords.size(), position + maxRecordsToGet);
+			List<Record> result = new ArrayList<>();
+			for (Record record : shardRecords.subList(position, end)) {
+				// every call returns new buffers, like the service
+				result.add(new Record()
+						.withData(record.getData().duplicate())
+						.withPartitionKey(record.getPartitionKey())
+						.withSequenceNumber(record.getSequenceNumber())
+						.withApproximateArrivalTimestamp(record.getApproximateArrivalTimestamp()));
+			}
+
+			String nextIterator = end == shardRecords.size() && closed.get(shardId) ? null : shardId + ":" + end;
+			return new GetRecordsResult().withRecords(result).withNextShardIterator(nextIterator);
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.SerializedCheckpointData;
 import org.apache.flink.streaming.api.functions.source.MessageAcknowledgingSourceBase;
 import org.apache.flink.streaming.api.functions.source.MultipleIdsMessageAcknowledgingSourceBase;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
@@ -60,6 +61,10 @@ import org.slf4j.LoggerFactory;
  *    (correlation id is not set).
  * 3) No strong delivery guarantees (without checkpointing) with RabbitMQ auto-commit mode.
  *
+ * Delivery tags increase monotonically within a channel. Instead of keeping every delivery tag
+ * of a checkpoint, the source therefore only remembers the highest one and acknowledges all
+ * messages up to it with a single multiple-acknowledgement once the checkpoint is complete.
+ *
  * Users may overwrite the setupConnectionFactory() method to pass their setup their own
  * ConnectionFactory in case the constructor parameters are not sufficient.
  *
@@ -86,6 +91,15 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 
 	protected transient boolean autoAck;
 
+	/** The maximum number of unacknowledged messages the broker sends, or 0 for no limit */
+	private int prefetchCount;
+
+	/** The delivery tag of the last message received */
+	private transient long lastDeliveryTag;
+
+	/** The delivery tag of the last message received before the last checkpoint */
+	private transient long lastSnapshottedDeliveryTag;
+
 	private transient volatile boolean running;
 
 	/**
@@ -169,6 +183,20 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 		this.schema = deserializationSchema;
 	}
 
+	/**
+	 * Sets the maximum number of unacknowledged messages the broker sends to this source
+	 * (the basic.qos prefetch count). This bounds the number of messages buffered in the consumer.
+	 * The limit is only applied when checkpointing is enabled, because messages are acknowledged
+	 * only after a checkpoint completes. It therefore has to be larger than the number of messages
+	 * received during one checkpoint interval, otherwise the source stalls until the next checkpoint.
+	 *
+	 * @param prefetchCount The maximum number of unacknowledged messages, or 0 for no limit.
+	 */
+	public void setPrefetchCount(int prefetchCount) {
+		Preconditions.checkArgument(prefetchCount >= 0, "The prefetch count must not be negative.");
+		this.prefetchCount = prefetchCount;
+	}
+
 	/**
 	 * Initializes the connection to RMQ with a default connection factory. The user may override
 	 * this method to setup and configure their own ConnectionFactory.
@@ -204,6 +232,9 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 				autoAck = false;
 				// enables transaction mode
 				channel.txSelect();
+				if (prefetchCount > 0) {
+					channel.basicQos(prefetchCount);
+				}
 			} else {
 				autoAck = true;
 			}
@@ -220,6 +251,11 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 	@Override
 	public void open(Configuration config) throws Exception {
 		super.open(config);
+		// delivery tags are only valid within a channel. Tags of a previous channel are never
+		// checkpointed or acknowledged on the new one: RabbitMQ redelivers the messages that
+		// were not acknowledged on a closed channel anyway.
+		lastDeliveryTag = 0;
+		lastSnapshottedDeliveryTag = 0;
 		initializeConnection();
 		running = true;
 	}
@@ -250,7 +286,8 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 				}
 
 				if (!autoAck) {
-					final long deliveryTag = delivery.getEnvelope().getDeliveryTag();
+					// duplicates are acknowledged as well, together with the other messages
+					lastDeliveryTag = delivery.getEnvelope().getDeliveryTag();
 					if (usesCorrelationId) {
 						final String correlationId = delivery.getProperties().getCorrelationId();
 						Preconditions.checkNotNull(correlationId, "RabbitMQ source was instantiated " +
@@ -261,7 +298,6 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 							continue;
 						}
 					}
-					sessionIds.add(deliveryTag);
 				}
 
 				ctx.collect(result);
@@ -274,12 +310,28 @@ public class RMQSource<OUT> extends MultipleIdsMessageAcknowledgingSourceBase<OU
 		running = false;
 	}
 
+	@Override
+	public SerializedCheckpointData[] snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		// the highest delivery tag stands for all messages received since the last checkpoint
+		if (lastDeliveryTag > lastSnapshottedDeliveryTag) {
+			sessionIds.add(lastDeliveryTag);
+			lastSnapshottedDeliveryTag = lastDeliveryTag;
+		}
+		return super.snapshotState(checkpointId, checkpointTimestamp);
+	}
+
 	@Override
 	protected void acknowledgeSessionIDs(List<Long> sessionIds) {
+		if (sessionIds.isEmpty()) {
+			return;
+		}
+		long maxDeliveryTag = 0;
+		for (long id : sessionIds) {
+			maxDeliveryTag = Math.max(maxDeliveryTag, id);
+		}
 		try {
-			for (long id : sessionIds) {
-				channel.basicAck(id, false);
-			}
+			// acknowledges all messages up to and including the given delivery tag
+			channel.basicAck(maxDeliveryTag, true);
 			channel.txCommit();
 		} catch (IOException e) {
 			throw new RuntimeException("Messages could not be acknowledged during checkpoint creation.", e);
@@ -118,7 +118,7 @@ public class RMQSourceTest {
 		long previousSnapshotId;
 		long lastSnapshotId = 0;
 
-		long totalNumberOfAcks = 0;
+		int numNonEmptySnapshots = 0;
 
 		for (int i=0; i < numSnapshots; i++) {
 			long snapshotId = random.nextLong();
@@ -146,13 +146,88 @@ public class RMQSourceTest {
 			synchronized (DummySourceContext.lock) {
 				source.notifyCheckpointComplete(snapshotId);
 			}
-			totalNumberOfAcks += numIds;
 
+			// all messages of the snapshot are acknowledged at once with their highest delivery tag
+			if (numIds > 0) {
+				Mockito.verify(source.channel).basicAck(lastSnapshotId, true);
+				numNonEmptySnapshots++;
+			}
+		}
+
+		Mockito.verify(source.channel, Mockito.never()).basicAck(Mockito.anyLong(), Mockito.eq(false));
+		Mockito.verify(source.channel, Mockito.times(numNonEmptySnapshots)).basicAck(Mockito.anyLong(), Mockito.eq(true));
+		Mockito.verify(source.channel, Mockito.times(numNonEmptySnapshots)).txCommit();
+
+	}
+
+	/**
+	 * Checks that delivery tags of the channel used before a restore are never acknowledged on the
+	 * new channel, whose delivery tags start again at 1.
+	 */
+	@Test
+	public void testRestoreDoesNotAcknowledgeTagsOfPreviousChannel() throws Exception {
+		source.autoAck = false;
+		sourceThread.start();
+
+		while (messageId < 10) {
+			// wait until messages have been processed
+			Thread.sleep(5);
 		}
 
-		Mockito.verify(source.channel, Mockito.times((int) totalNumberOfAcks)).basicAck(Mockito.anyLong(), Mockito.eq(false));
-		Mockito.verify(source.channel, Mockito.times(numSnapshots)).txCommit();
+		SerializedCheckpointData[] data;
+		long lastTagBeforeRestore;
+		synchronized (DummySourceContext.lock) {
+			data = source.snapshotState(1L, System.currentTimeMillis());
+			lastTagBeforeRestore = messageId;
+		}
+		source.cancel();
+		sourceThread.join();
+
+		final RMQTestSource restoredSource = new RMQTestSource();
+		restoredSource.restoreState(data);
+		restoredSource.open(config);
+		restoredSource.autoAck = false;
+		messageId = 0;
+
+		Thread restoredSourceThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					restoredSource.run(new DummySourceContext());
+				} catch (Exception e) {
+					exception = e;
+				}
+			}
+		});
+		restoredSourceThread.start();
 
+		try {
+			while (messageId < lastTagBeforeRestore + 10) {
+				// wait until messages have been processed
+				Thread.sleep(5);
+			}
+
+			// the restored checkpoint has no delivery tags on the new channel
+			synchronized (DummySourceContext.lock) {
+				restoredSource.notifyCheckpointComplete(1L);
+			}
+			Mockito.verify(restoredSource.channel, Mockito.never()).basicAck(Mockito.anyLong(), Mockito.anyBoolean());
+
+			long lastTag;
+			synchronized (DummySourceContext.lock) {
+				restoredSource.snapshotState(2L, System.currentTimeMillis());
+				lastTag = messageId;
+				restoredSource.notifyCheckpointComplete(2L);
+
+				// the messages of the restored checkpoint were not emitted again
+				assertEquals(lastTag - lastTagBeforeRestore, DummySourceContext.numElementsCollected);
+			}
+			Mockito.verify(restoredSource.channel).basicAck(lastTag, true);
+			Mockito.verify(restoredSource.channel).basicAck(Mockito.anyLong(), Mockito.anyBoolean());
+		} finally {
+			restoredSource.cancel();
+			restoredSourceThread.join();
+		}
 	}
 
 	/**
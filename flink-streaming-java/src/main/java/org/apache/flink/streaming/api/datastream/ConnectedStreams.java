@@ -24,9 +24,11 @@ import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.co.BroadcastCoFlatMapFunction;
 import org.apache.flink.streaming.api.functions.co.CoFlatMapFunction;
 import org.apache.flink.streaming.api.functions.co.CoMapFunction;
 import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.api.operators.co.CoBroadcastStateFlatMap;
 import org.apache.flink.streaming.api.operators.co.CoStreamFlatMap;
 import org.apache.flink.streaming.api.operators.co.CoStreamMap;
 import org.apache.flink.streaming.api.transformations.TwoInputTransformation;
@@ -230,6 +232,43 @@ public class ConnectedStreams<IN1, IN2> {
 		return transform("Co-Flat Map", outTypeInfo, new CoStreamFlatMap<>(inputStream1.clean(coFlatMapper)));
 	}
 
+	/**
+	 * Applies a CoFlatMap transformation with broadcast state on a {@link ConnectedStreams}.
+	 * The second input is broadcast to all parallel instances of the operator, where
+	 * {@link BroadcastCoFlatMapFunction#flatMap2} may update a map state that is replicated on
+	 * every instance. {@link BroadcastCoFlatMapFunction#flatMap1} is called for each element of
+	 * the first input and gets a read-only view on the local replica of that state.
+	 *
+	 * <p>The broadcast state is part of the operator's checkpoints, so the rules or configuration
+	 * kept in it survive failures without the function having to checkpoint them itself.
+	 *
+	 * @param coFlatMapper
+	 *            The BroadcastCoFlatMapFunction used to jointly transform the two input
+	 *            DataStreams
+	 * @param stateKeyType
+	 *            The type of the keys in the broadcast state
+	 * @param stateValueType
+	 *            The type of the values in the broadcast state
+	 * @return The transformed {@link DataStream}
+	 */
+	@PublicEvolving
+	public <K, V, R> SingleOutputStreamOperator<R> flatMapWithBroadcastState(
+			BroadcastCoFlatMapFunction<IN1, IN2, K, V, R> coFlatMapper,
+			TypeInformation<K> stateKeyType,
+			TypeInformation<V> stateValueType) {
+
+		TypeInformation<R> outTypeInfo = TypeExtractor.createTypeInfo(BroadcastCoFlatMapFunction.class,
+				coFlatMapper.getClass(), 4, getType1(), getType2());
+
+		CoBroadcastStateFlatMap<IN1, IN2, K, V, R> operator = new CoBroadcastStateFlatMap<>(
+				inputStream1.clean(coFlatMapper),
+				stateKeyType.createSerializer(environment.getConfig()),
+				stateValueType.createSerializer(environment.getConfig()));
+
+		return new ConnectedStreams<>(environment, inputStream1, inputStream2.broadcast())
+				.transform("Co-Flat Map (Broadcast State)", outTypeInfo, operator);
+	}
+
 	@PublicEvolving
 	public <R> SingleOutputStreamOperator<R> transform(String functionName,
 			TypeInformation<R> outTypeInfo,
@@ -46,14 +46,19 @@ import org.apache.flink.client.program.ContextEnvironment;
 import org.apache.flink.client.program.OptimizerPlanEnvironment;
 import org.apache.flink.client.program.PreviewPlanEnvironment;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.streaming.api.CheckpointingMode;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.DataStreamSource;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.streaming.api.functions.source.ContinuousFileMonitoringFunction;
+import org.apache.flink.streaming.api.functions.source.ContinuousFileReaderOperator;
 import org.apache.flink.streaming.api.functions.source.FileMonitoringFunction;
 import org.apache.flink.streaming.api.functions.source.FileMonitoringFunction.WatchType;
 import org.apache.flink.streaming.api.functions.source.FileReadFunction;
+import org.apache.flink.streaming.api.functions.source.FileProcessingMode;
 import org.apache.flink.streaming.api.functions.source.FileSourceFunction;
 import org.apache.flink.streaming.api.functions.source.FromElementsFunction;
 import org.apache.flink.streaming.api.functions.source.FromIteratorFunction;
@@ -935,6 +940,82 @@ public abstract class StreamExecutionEnvironment {
 		}
 	}
 
+	/**
+	 * Reads the contents of the given path with the given input format, either once or continuously, depending on
+	 * the given {@link FileProcessingMode}. In the continuous mode, the path is scanned for new or modified files
+	 * every {@code interval} milliseconds.
+	 *
+	 * <p>
+	 * The path is monitored by a single, non-parallel task, which creates the {@link FileInputSplit}s of the new
+	 * files with the input format and forwards them to parallel reader tasks. Both the monitoring task and the
+	 * readers checkpoint their progress, so that after a failure, neither files nor splits are read again
+	 * completely.
+	 *
+	 * @param inputFormat
+	 * 		The input format used to create the data stream
+	 * @param filePath
+	 * 		The path of the file or directory, as a URI (e.g., "file:///some/local/file" or "hdfs://host:port/file/path")
+	 * @param watchType
+	 * 		Whether the path is read once or monitored continuously
+	 * @param interval
+	 * 		The interval between two scans of the path in milliseconds, in the continuous mode
+	 * @param <OUT>
+	 * 		The type of the returned data stream
+	 * @return The data stream that represents the data read from the given path
+	 */
+	@PublicEvolving
+	public <OUT> SingleOutputStreamOperator<OUT> readFile(FileInputFormat<OUT> inputFormat, String filePath,
+			FileProcessingMode watchType, long interval) {
+		Preconditions.checkNotNull(inputFormat, "InputFormat must not be null.");
+
+		TypeInformation<OUT> typeInformation;
+		try {
+			typeInformation = TypeExtractor.getInputFormatTypes(inputFormat);
+		} catch (Exception e) {
+			throw new InvalidProgramException("The type returned by the input format could not be " +
+					"automatically determined. Please specify the TypeInformation of the produced type " +
+					"explicitly by using the 'readFile(FileInputFormat, String, FileProcessingMode, long, " +
+					"TypeInformation)' method instead.");
+		}
+		return readFile(inputFormat, filePath, watchType, interval, typeInformation);
+	}
+
+	/**
+	 * Reads the contents of the given path with the given input format, either once or continuously, as described
+	 * in {@link #readFile(FileInputFormat, String, FileProcessingMode, long)}. The data stream is typed to the
+	 * given TypeInformation.
+	 *
+	 * @param inputFormat
+	 * 		The input format used to create the data stream
+	 * @param filePath
+	 * 		The path of the file or directory, as a URI (e.g., "file:///some/local/file" or "hdfs://host:port/file/path")
+	 * @param watchType
+	 * 		Whether the path is read once or monitored continuously
+	 * @param interval
+	 * 		The interval between two scans of the path in milliseconds, in the continuous mode
+	 * @param typeInformation
+	 * 		The type of the records produced by the input format
+	 * @param <OUT>
+	 * 		The type of the returned data stream
+	 * @return The data stream that represents the data read from the given path
+	 */
+	@PublicEvolving
+	public <OUT> SingleOutputStreamOperator<OUT> readFile(FileInputFormat<OUT> inputFormat, String filePath,
+			FileProcessingMode watchType, long interval, TypeInformation<OUT> typeInformation) {
+		Preconditions.checkNotNull(inputFormat, "InputFormat must not be null.");
+		Preconditions.checkNotNull(filePath, "The file path must not be null.");
+		Preconditions.checkNotNull(typeInformation, "The type information must not be null.");
+
+		inputFormat.setFilePath(new Path(filePath));
+
+		ContinuousFileMonitoringFunction<OUT> monitoringFunction = new ContinuousFileMonitoringFunction<>(
+				inputFormat, filePath, watchType, Math.max(getParallelism(), 1), interval);
+		ContinuousFileReaderOperator<OUT> reader = new ContinuousFileReaderOperator<>(inputFormat);
+
+		return addSource(monitoringFunction, "File Monitoring Source", TypeExtractor.getForClass(FileInputSplit.class))
+				.transform("File Split Reader", typeInformation, reader);
+	}
+
 	/**
 	 * Creates a data stream that contains the contents of file created while system watches the given path. The file
 	 * will be read with the system's default character set.
@@ -951,7 +1032,10 @@ public abstract class StreamExecutionEnvironment {
 	 * 		contents
 	 * 		of files.
 	 * @return The DataStream containing the given directory.
+	 * @deprecated Use {@link #readFile(FileInputFormat, String, FileProcessingMode, long)}, which reads the files
+	 * 		in parallel splits and checkpoints its progress.
 	 */
+	@Deprecated
 	public DataStream<String> readFileStream(String filePath, long intervalMillis,
 											WatchType watchType) {
 		DataStream<Tuple3<String, Long, Long>> source = addSource(new FileMonitoringFunction(
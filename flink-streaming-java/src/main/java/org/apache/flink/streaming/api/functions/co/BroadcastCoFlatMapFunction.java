@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.co;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.functions.AbstractRichFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * A CoFlatMap function with access to a checkpointed map state that is replicated to all
+ * parallel instances. The second input is broadcast and is the only side allowed to modify
+ * the state, typically with rules or configuration. The first input sees a read-only view of
+ * the state, which is held on the heap of each instance and can be read at memory speed.
+ *
+ * <p>The state is checkpointed by the operator, so the function does not need to implement
+ * {@link org.apache.flink.streaming.api.checkpoint.Checkpointed} to keep the rules across
+ * failures.
+ *
+ * @param <IN1> Type of the first (regular) input.
+ * @param <IN2> Type of the second (broadcast) input.
+ * @param <K> Type of the keys in the broadcast state.
+ * @param <V> Type of the values in the broadcast state.
+ * @param <OUT> Output type.
+ */
+@PublicEvolving
+public abstract class BroadcastCoFlatMapFunction<IN1, IN2, K, V, OUT> extends AbstractRichFunction {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * This method is called for each element of the first (regular) input.
+	 *
+	 * @param value The stream element
+	 * @param state Read-only view on the broadcast state
+	 * @param out The collector to emit resulting elements to
+	 * @throws Exception The function may throw exceptions which cause the streaming program
+	 *                   to fail and go into recovery.
+	 */
+	public abstract void flatMap1(IN1 value, ReadOnlyBroadcastState<K, V> state, Collector<OUT> out) throws Exception;
+
+	/**
+	 * This method is called for each element of the second (broadcast) input.
+	 *
+	 * @param value The stream element
+	 * @param state The broadcast state, which may be modified
+	 * @param out The collector to emit resulting elements to
+	 * @throws Exception The function may throw exceptions which cause the streaming program
+	 *                   to fail and go into recovery.
+	 */
+	public abstract void flatMap2(IN2 value, BroadcastState<K, V> state, Collector<OUT> out) throws Exception;
+}
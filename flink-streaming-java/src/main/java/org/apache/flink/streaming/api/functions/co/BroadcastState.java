@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.co;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+/**
+ * Modifiable broadcast state of a {@link BroadcastCoFlatMapFunction}. This is only handed
+ * to the function for elements of the broadcast input. Because every parallel instance
+ * receives every broadcast element, all replicas stay identical as long as the updates are
+ * deterministic.
+ *
+ * @param <K> The type of the keys in the state.
+ * @param <V> The type of the values in the state.
+ */
+@PublicEvolving
+public interface BroadcastState<K, V> extends ReadOnlyBroadcastState<K, V> {
+
+	/**
+	 * Associates the given value with the given key, replacing any previous value.
+	 */
+	void put(K key, V value);
+
+	/**
+	 * Removes the mapping for the given key, if present.
+	 */
+	void remove(K key);
+
+	/**
+	 * Removes all entries from the state.
+	 */
+	void clear();
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.co;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.util.Map;
+
+/**
+ * Read-only view on the broadcast state of a {@link BroadcastCoFlatMapFunction}. This is
+ * handed to the function for elements of the non-broadcast input. Every parallel instance
+ * holds a full replica of the state, so all lookups are local.
+ *
+ * @param <K> The type of the keys in the state.
+ * @param <V> The type of the values in the state.
+ */
+@PublicEvolving
+public interface ReadOnlyBroadcastState<K, V> {
+
+	/**
+	 * Returns the value that is mapped to the given key, or {@code null} if there is none.
+	 */
+	V get(K key);
+
+	/**
+	 * Returns whether the state contains a mapping for the given key.
+	 */
+	boolean contains(K key);
+
+	/**
+	 * Returns an unmodifiable view of all entries in the state.
+	 */
+	Iterable<Map.Entry<K, V>> entries();
+
+	/**
+	 * Returns the number of entries in the state.
+	 */
+	int size();
+}
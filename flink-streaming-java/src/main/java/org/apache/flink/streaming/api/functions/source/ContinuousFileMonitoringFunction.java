@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The monitoring part of a continuous file source. It runs with a parallelism of one, scans the given
+ * path for files that were added or modified since the last scan, creates the {@link FileInputSplit}s of
+ * those files with the given {@link FileInputFormat}, and forwards the splits to the parallel
+ * {@link ContinuousFileReaderOperator} instances that read them.
+ *
+ * <p>
+ * A file is new, if its modification time is later than that of all files forwarded so far, or if it has
+ * the same modification time as the latest forwarded files, but was not forwarded itself. That modification
+ * time and the paths of the forwarded files with that time are the checkpointed state of the function, so
+ * that after a failure, only files that were not forwarded before are forwarded again. Splits that were
+ * forwarded, but not completely read, are part of the checkpointed state of the readers.
+ *
+ * @param <OUT> The type of the records produced by the input format.
+ */
+@Internal
+public class ContinuousFileMonitoringFunction<OUT>
+		extends RichSourceFunction<FileInputSplit> implements Checkpointed<ContinuousFileMonitoringFunction.MonitoringState> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContinuousFileMonitoringFunction.class);
+
+	/** The minimum interval between two scans of the monitored path. */
+	public static final long MIN_MONITORING_INTERVAL = 100L;
+
+	private final FileInputFormat<OUT> format;
+
+	private final String path;
+
+	private final FileProcessingMode watchType;
+
+	private final int readerParallelism;
+
+	private final long interval;
+
+	/** The latest modification time of all files whose splits were forwarded. */
+	private volatile long globalModificationTime = Long.MIN_VALUE;
+
+	/** The paths of the forwarded files whose modification time is {@link #globalModificationTime}. */
+	private HashSet<String> filesAtGlobalModificationTime = new HashSet<>();
+
+	private volatile boolean isRunning = true;
+
+	private transient byte[] serializedFormat;
+
+	public ContinuousFileMonitoringFunction(
+			FileInputFormat<OUT> format, String path, FileProcessingMode watchType,
+			int readerParallelism, long interval) {
+
+		Preconditions.checkNotNull(format, "The input format must not be null.");
+		Preconditions.checkNotNull(path, "The path to monitor must not be null.");
+		Preconditions.checkNotNull(watchType, "The file processing mode must not be null.");
+		Preconditions.checkArgument(readerParallelism > 0, "The parallelism of the readers must be positive.");
+		Preconditions.checkArgument(watchType == FileProcessingMode.PROCESS_ONCE || interval >= MIN_MONITORING_INTERVAL,
+				"The monitoring interval must be at least " + MIN_MONITORING_INTERVAL + " ms.");
+
+		this.format = format;
+		this.path = path;
+		this.watchType = watchType;
+		this.readerParallelism = readerParallelism;
+		this.interval = interval;
+	}
+
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		format.configure(parameters);
+
+		// the configured format is the template for the formats that split the new files
+		serializedFormat = InstantiationUtil.serializeObject(format);
+	}
+
+	@Override
+	public void run(SourceContext<FileInputSplit> ctx) throws Exception {
+		FileSystem fileSystem = FileSystem.get(new URI(path));
+
+		if (watchType == FileProcessingMode.PROCESS_ONCE) {
+			monitorDirAndForwardSplits(fileSystem, ctx);
+		} else {
+			while (isRunning) {
+				monitorDirAndForwardSplits(fileSystem, ctx);
+				Thread.sleep(interval);
+			}
+		}
+	}
+
+	private void monitorDirAndForwardSplits(FileSystem fileSystem, SourceContext<FileInputSplit> ctx) throws IOException {
+		final Map<Path, Long> newFiles = new HashMap<>();
+		listNewFiles(fileSystem, new Path(path), newFiles);
+		if (newFiles.isEmpty()) {
+			return;
+		}
+
+		// forward the splits in the order of the modification times of their files
+		final List<Path> sortedFiles = new ArrayList<>(newFiles.keySet());
+		Collections.sort(sortedFiles, new Comparator<Path>() {
+			@Override
+			public int compare(Path o1, Path o2) {
+				int cmp = Long.compare(newFiles.get(o1), newFiles.get(o2));
+				return cmp != 0 ? cmp : o1.toString().compareTo(o2.toString());
+			}
+		});
+
+		// the splits are computed only for the new files, so that the cost of a scan does not
+		// grow with the number of files that were forwarded before
+		final List<FileInputSplit> splits = new ArrayList<>();
+		for (Path file : sortedFiles) {
+			Collections.addAll(splits, createInputSplits(file));
+		}
+
+		synchronized (ctx.getCheckpointLock()) {
+			for (FileInputSplit split : splits) {
+				ctx.collect(split);
+			}
+
+			// the files are sorted by their modification time
+			for (Path file : sortedFiles) {
+				long modificationTime = newFiles.get(file);
+				if (modificationTime > globalModificationTime) {
+					globalModificationTime = modificationTime;
+					filesAtGlobalModificationTime.clear();
+				}
+				if (modificationTime == globalModificationTime) {
+					filesAtGlobalModificationTime.add(file.toString());
+				}
+			}
+		}
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Forwarded {} splits of {} new or modified files in {}.", splits.size(), newFiles.size(), path);
+		}
+	}
+
+	/**
+	 * Creates the splits of a single file with a copy of the format whose path is that file, so
+	 * that the format lists and splits only that file.
+	 */
+	private FileInputSplit[] createInputSplits(Path file) throws IOException {
+		final FileInputFormat<OUT> fileFormat;
+		try {
+			fileFormat = InstantiationUtil.deserializeObject(serializedFormat, format.getClass().getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Could not copy the input format.", e);
+		}
+		fileFormat.setFilePath(file);
+		return fileFormat.createInputSplits(readerParallelism);
+	}
+
+	private void listNewFiles(FileSystem fileSystem, Path path, Map<Path, Long> newFiles) throws IOException {
+		FileStatus[] statuses = fileSystem.listStatus(path);
+		if (statuses == null) {
+			LOG.warn("Path does not exist: {}", path);
+			return;
+		}
+
+		// list only the files and directories that FileInputFormat#createInputSplits reads as well
+		for (FileStatus status : statuses) {
+			if (!format.isAcceptedFile(status)) {
+				continue;
+			}
+
+			if (status.isDir()) {
+				if (format.getNestedFileEnumeration()) {
+					listNewFiles(fileSystem, status.getPath(), newFiles);
+				}
+			} else if (isNewFile(status)) {
+				newFiles.put(status.getPath(), status.getModificationTime());
+			}
+		}
+	}
+
+	private boolean isNewFile(FileStatus status) {
+		long modificationTime = status.getModificationTime();
+		return modificationTime > globalModificationTime ||
+				(modificationTime == globalModificationTime &&
+						!filesAtGlobalModificationTime.contains(status.getPath().toString()));
+	}
+
+	@Override
+	public void cancel() {
+		isRunning = false;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Checkpointing
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public MonitoringState snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		return new MonitoringState(globalModificationTime, new HashSet<>(filesAtGlobalModificationTime));
+	}
+
+	@Override
+	public void restoreState(MonitoringState state) throws Exception {
+		this.globalModificationTime = state.modificationTime;
+		this.filesAtGlobalModificationTime = new HashSet<>(state.filesAtModificationTime);
+	}
+
+	/**
+	 * The checkpointed state of the function.
+	 */
+	static final class MonitoringState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The latest modification time of all forwarded files. */
+		final long modificationTime;
+
+		/** The paths of the forwarded files with that modification time. */
+		final HashSet<String> filesAtModificationTime;
+
+		MonitoringState(long modificationTime, HashSet<String> filesAtModificationTime) {
+			this.modificationTime = modificationTime;
+			this.filesAtModificationTime = filesAtModificationTime;
+		}
+	}
+}
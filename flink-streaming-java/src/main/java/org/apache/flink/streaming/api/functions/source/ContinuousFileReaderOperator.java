@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.io.CheckpointableInputFormat;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.StateHandle;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.OutputTypeConfigurable;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The reading part of a continuous file source. It receives the {@link FileInputSplit}s forwarded by a
+ * {@link ContinuousFileMonitoringFunction} and reads them one after the other with the given
+ * {@link FileInputFormat}.
+ *
+ * <p>
+ * The splits are read by a separate thread, so that checkpoints do not have to wait until a split is
+ * completely read. The records are emitted under the checkpoint lock. The checkpointed state consists of
+ * the splits that are not completely read yet and the position within the split that is currently read.
+ * If the input format is a {@link CheckpointableInputFormat}, that split is reopened at the checkpointed
+ * position after a failure. Otherwise, it is read again from the beginning, and the records that were
+ * already emitted are skipped.
+ *
+ * @param <OUT> The type of the records produced by the input format.
+ */
+@Internal
+public class ContinuousFileReaderOperator<OUT> extends AbstractStreamOperator<OUT>
+		implements OneInputStreamOperator<FileInputSplit, OUT>, OutputTypeConfigurable<OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContinuousFileReaderOperator.class);
+
+	private final FileInputFormat<OUT> format;
+
+	private TypeSerializer<OUT> serializer;
+
+	private transient Object checkpointLock;
+
+	private transient SplitReader reader;
+
+	private transient ReaderState restoredState;
+
+	private transient boolean maxWatermarkReceived;
+
+	public ContinuousFileReaderOperator(FileInputFormat<OUT> format) {
+		this.format = Preconditions.checkNotNull(format, "The input format must not be null.");
+	}
+
+	@Override
+	public void setOutputType(TypeInformation<OUT> outTypeInfo, ExecutionConfig executionConfig) {
+		this.serializer = outTypeInfo.createSerializer(executionConfig);
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+
+		Preconditions.checkState(serializer != null, "The type serializer has not been set.");
+
+		this.checkpointLock = getContainingTask().getCheckpointLock();
+		this.format.configure(new Configuration());
+
+		this.reader = new SplitReader(restoredState);
+		this.restoredState = null;
+		this.reader.start();
+	}
+
+	@Override
+	public void processElement(StreamRecord<FileInputSplit> element) throws Exception {
+		reader.checkError();
+		reader.addSplit(element.getValue());
+	}
+
+	@Override
+	public void processWatermark(Watermark mark) throws Exception {
+		// the records have no timestamps; only the final watermark is forwarded, once all splits are read
+		if (mark.getTimestamp() == Long.MAX_VALUE) {
+			maxWatermarkReceived = true;
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		super.close();
+
+		// wait until all pending splits are read
+		reader.finish();
+		reader.checkError();
+
+		if (maxWatermarkReceived) {
+			output.emitWatermark(new Watermark(Long.MAX_VALUE));
+		}
+	}
+
+	@Override
+	public void dispose() {
+		super.dispose();
+
+		if (reader != null) {
+			try {
+				reader.cancel();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Checkpointing
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+		StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+		final byte[] serializedState;
+		synchronized (checkpointLock) {
+			serializedState = InstantiationUtil.serializeObject(reader.getReaderState());
+		}
+
+		AbstractStateBackend.CheckpointStateOutputView out =
+			getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+		out.writeInt(serializedState.length);
+		out.write(serializedState);
+
+		taskState.setOperatorState(out.closeAndGetHandle());
+		return taskState;
+	}
+
+	@Override
+	public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+		super.restoreState(taskState, recoveryTimestamp);
+
+		@SuppressWarnings("unchecked")
+		StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+		DataInputView in = inputState.getState(getUserCodeClassloader());
+
+		byte[] serializedState = new byte[in.readInt()];
+		in.readFully(serializedState);
+		this.restoredState = InstantiationUtil.deserializeObject(serializedState, getUserCodeClassloader());
+	}
+
+	/**
+	 * The splits that are not completely read, and the position within the first of them.
+	 */
+	private static final class ReaderState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<FileInputSplit> pendingSplits;
+
+		/** The position within the first pending split, or null to read it from the beginning. */
+		private final Serializable position;
+
+		ReaderState(List<FileInputSplit> pendingSplits, Serializable position) {
+			this.pendingSplits = pendingSplits;
+			this.position = position;
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * The thread that reads the splits. All fields that are part of the checkpointed state are guarded by
+	 * the checkpoint lock.
+	 */
+	private class SplitReader extends Thread {
+
+		private final ArrayDeque<FileInputSplit> pendingSplits = new ArrayDeque<>();
+
+		/** The position within the first pending split, while that split is not open. */
+		private Serializable position;
+
+		/** Whether the first pending split is open. */
+		private boolean splitOpen;
+
+		/** The number of records read from the open split, for input formats that are not checkpointable. */
+		private long numRecordsRead;
+
+		private boolean noMoreSplits;
+
+		private boolean finished;
+
+		private volatile boolean isRunning = true;
+
+		private volatile Throwable error;
+
+		SplitReader(ReaderState restoredState) {
+			super("SplitReader for " + getContainingTask().getName());
+			setDaemon(true);
+
+			if (restoredState != null) {
+				this.pendingSplits.addAll(restoredState.pendingSplits);
+				this.position = restoredState.position;
+			}
+		}
+
+		void addSplit(FileInputSplit split) {
+			synchronized (checkpointLock) {
+				pendingSplits.add(split);
+				checkpointLock.notifyAll();
+			}
+		}
+
+		ReaderState getReaderState() throws Exception {
+			Serializable currentPosition = position;
+			if (splitOpen) {
+				currentPosition = format instanceof CheckpointableInputFormat ?
+						((CheckpointableInputFormat<?, ?>) format).getCurrentState() :
+						Long.valueOf(numRecordsRead);
+			}
+			return new ReaderState(new ArrayList<>(pendingSplits), currentPosition);
+		}
+
+		@Override
+		public void run() {
+			final StreamRecord<OUT> reuse = new StreamRecord<>(null);
+
+			try {
+				while (isRunning) {
+					final FileInputSplit split;
+					final Serializable splitPosition;
+
+					synchronized (checkpointLock) {
+						while (isRunning && pendingSplits.isEmpty() && !noMoreSplits) {
+							checkpointLock.wait();
+						}
+						if (!isRunning || pendingSplits.isEmpty()) {
+							break;
+						}
+						split = pendingSplits.peek();
+						splitPosition = position;
+					}
+
+					// opening the split may take a while, so it happens outside the lock
+					final long numRecordsToSkip = openSplit(split, splitPosition);
+
+					synchronized (checkpointLock) {
+						splitOpen = true;
+						numRecordsRead = numRecordsToSkip;
+					}
+
+					while (isRunning) {
+						synchronized (checkpointLock) {
+							if (format.reachedEnd()) {
+								pendingSplits.poll();
+								position = null;
+								splitOpen = false;
+								break;
+							}
+
+							OUT record = format.nextRecord(serializer.createInstance());
+							if (record != null) {
+								output.collect(reuse.replace(record));
+								numRecordsRead++;
+							}
+						}
+					}
+
+					format.close();
+				}
+			} catch (Throwable t) {
+				if (isRunning) {
+					LOG.error("Error while reading file splits.", t);
+					error = t;
+				}
+			} finally {
+				try {
+					format.close();
+				} catch (Throwable t) {
+					LOG.warn("Could not close the input format.", t);
+				}
+
+				synchronized (checkpointLock) {
+					finished = true;
+					checkpointLock.notifyAll();
+				}
+			}
+		}
+
+		/**
+		 * Opens the given split at the given position.
+		 *
+		 * @return the number of records that were skipped to reach the position
+		 */
+		@SuppressWarnings("unchecked")
+		private long openSplit(FileInputSplit split, Serializable splitPosition) throws Exception {
+			if (splitPosition == null) {
+				format.open(split);
+				return 0;
+			} else if (format instanceof CheckpointableInputFormat) {
+				((CheckpointableInputFormat<FileInputSplit, Serializable>) format).reopen(split, splitPosition);
+				return 0;
+			} else {
+				format.open(split);
+				final long numRecordsToSkip = (Long) splitPosition;
+				// like numRecordsRead, only the records that are not null are counted
+				long numRecordsSkipped = 0;
+				while (numRecordsSkipped < numRecordsToSkip && !format.reachedEnd()) {
+					if (format.nextRecord(serializer.createInstance()) != null) {
+						numRecordsSkipped++;
+					}
+				}
+				return numRecordsToSkip;
+			}
+		}
+
+		/**
+		 * Waits until all pending splits are read.
+		 */
+		void finish() throws InterruptedException {
+			synchronized (checkpointLock) {
+				noMoreSplits = true;
+				checkpointLock.notifyAll();
+				while (!finished) {
+					checkpointLock.wait();
+				}
+			}
+		}
+
+		void cancel() throws InterruptedException {
+			isRunning = false;
+			synchronized (checkpointLock) {
+				checkpointLock.notifyAll();
+			}
+			interrupt();
+			join();
+		}
+
+		void checkError() throws Exception {
+			if (error != null) {
+				throw new Exception("Error while reading file splits.", error);
+			}
+		}
+	}
+}
@@ -127,8 +127,13 @@ public abstract class MessageAcknowledgingSourceBase<Type, UId>
 	@Override
 	public void open(Configuration parameters) throws Exception {
 		idsForCurrentCheckpoint = new ArrayList<>(64);
-		pendingCheckpoints = new ArrayDeque<>(numCheckpointsToKeep);
-		idsProcessedButNotAcknowledged = new HashSet<>();
+		// the pending checkpoints and processed ids may have been restored already
+		if (pendingCheckpoints == null) {
+			pendingCheckpoints = new ArrayDeque<>(numCheckpointsToKeep);
+		}
+		if (idsProcessedButNotAcknowledged == null) {
+			idsProcessedButNotAcknowledged = new HashSet<>();
+		}
 	}
 
 	@Override
@@ -178,6 +183,7 @@ public abstract class MessageAcknowledgingSourceBase<Type, UId>
 	@Override
 	public void restoreState(SerializedCheckpointData[] state) throws Exception {
 		pendingCheckpoints = SerializedCheckpointData.toDeque(state, idSerializer);
+		idsProcessedButNotAcknowledged = new HashSet<>();
 		// build a set which contains all processed ids. It may be used to check if we have
 		// already processed an incoming message.
 		for (Tuple2<Long, List<UId>> checkpoint : pendingCheckpoints) {
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.co;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.StateHandle;
+import org.apache.flink.runtime.util.DataOutputSerializer;
+import org.apache.flink.streaming.api.functions.co.BroadcastCoFlatMapFunction;
+import org.apache.flink.streaming.api.functions.co.BroadcastState;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Operator for a {@link BroadcastCoFlatMapFunction}. The broadcast state is kept as a plain
+ * {@link HashMap} on the heap of every parallel instance. Elements of the second input update
+ * it, elements of the first input only read it.
+ *
+ * <p>Since all replicas are identical, the snapshot of each instance is self-contained and
+ * is written with the key and value serializers, independent of the subtask index. If the
+ * state was not modified since the last checkpoint, the previously serialized bytes are
+ * reused instead of serializing the map again.
+ */
+@Internal
+public class CoBroadcastStateFlatMap<IN1, IN2, K, V, OUT>
+		extends AbstractUdfStreamOperator<OUT, BroadcastCoFlatMapFunction<IN1, IN2, K, V, OUT>>
+		implements TwoInputStreamOperator<IN1, IN2, OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeSerializer<K> keySerializer;
+
+	private final TypeSerializer<V> valueSerializer;
+
+	private transient TimestampedCollector<OUT> collector;
+
+	private transient HeapBroadcastState<K, V> broadcastState;
+
+	/** The serialized map of the last snapshot, reused as long as the state is not modified */
+	private transient byte[] serializedState;
+
+	// We keep track of watermarks from both inputs, the combined input is the minimum
+	// Once the minimum advances we emit a new watermark for downstream operators
+	private long combinedWatermark = Long.MIN_VALUE;
+	private long input1Watermark = Long.MIN_VALUE;
+	private long input2Watermark = Long.MIN_VALUE;
+
+	public CoBroadcastStateFlatMap(
+			BroadcastCoFlatMapFunction<IN1, IN2, K, V, OUT> flatMapper,
+			TypeSerializer<K> keySerializer,
+			TypeSerializer<V> valueSerializer) {
+		super(flatMapper);
+		this.keySerializer = requireNonNull(keySerializer);
+		this.valueSerializer = requireNonNull(valueSerializer);
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+		collector = new TimestampedCollector<>(output);
+
+		// this could already be initialized from restoreState()
+		if (broadcastState == null) {
+			broadcastState = new HeapBroadcastState<>(new HashMap<K, V>());
+		}
+	}
+
+	@Override
+	public void processElement1(StreamRecord<IN1> element) throws Exception {
+		collector.setTimestamp(element);
+		userFunction.flatMap1(element.getValue(), broadcastState, collector);
+	}
+
+	@Override
+	public void processElement2(StreamRecord<IN2> element) throws Exception {
+		collector.setTimestamp(element);
+		userFunction.flatMap2(element.getValue(), broadcastState, collector);
+	}
+
+	@Override
+	public void processWatermark1(Watermark mark) throws Exception {
+		input1Watermark = mark.getTimestamp();
+		long newMin = Math.min(input1Watermark, input2Watermark);
+		if (newMin > combinedWatermark) {
+			combinedWatermark = newMin;
+			output.emitWatermark(new Watermark(combinedWatermark));
+		}
+	}
+
+	@Override
+	public void processWatermark2(Watermark mark) throws Exception {
+		input2Watermark = mark.getTimestamp();
+		long newMin = Math.min(input1Watermark, input2Watermark);
+		if (newMin > combinedWatermark) {
+			combinedWatermark = newMin;
+			output.emitWatermark(new Watermark(combinedWatermark));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  checkpointing and recovery
+	// ------------------------------------------------------------------------
+
+	@Override
+	public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+		StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+		AbstractStateBackend.CheckpointStateOutputView out =
+			getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+
+		if (serializedState == null || broadcastState.modified) {
+			Map<K, V> map = broadcastState.map;
+			DataOutputSerializer serializer = new DataOutputSerializer(64);
+			serializer.writeInt(map.size());
+			for (Map.Entry<K, V> entry : map.entrySet()) {
+				keySerializer.serialize(entry.getKey(), serializer);
+				valueSerializer.serialize(entry.getValue(), serializer);
+			}
+			serializedState = serializer.getCopyOfBuffer();
+			broadcastState.modified = false;
+		}
+		out.write(serializedState);
+
+		taskState.setOperatorState(out.closeAndGetHandle());
+
+		return taskState;
+	}
+
+	@Override
+	public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+		super.restoreState(taskState, recoveryTimestamp);
+
+		@SuppressWarnings("unchecked")
+		StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+		DataInputView in = inputState.getState(getUserCodeClassloader());
+
+		broadcastState = new HeapBroadcastState<>(restoreMap(in));
+	}
+
+	private Map<K, V> restoreMap(DataInputView in) throws IOException {
+		int numEntries = in.readInt();
+		Map<K, V> map = new HashMap<>(Math.max(2 * numEntries, 16));
+		for (int i = 0; i < numEntries; i++) {
+			K key = keySerializer.deserialize(in);
+			V value = valueSerializer.deserialize(in);
+			map.put(key, value);
+		}
+		return map;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Utilities
+	// ------------------------------------------------------------------------
+
+	protected TimestampedCollector<OUT> getCollector() {
+		return collector;
+	}
+
+	/**
+	 * Heap backed {@link BroadcastState}. The first input only gets to see it through the
+	 * read-only interface.
+	 */
+	private static final class HeapBroadcastState<K, V> implements BroadcastState<K, V> {
+
+		private final Map<K, V> map;
+
+		private final Iterable<Map.Entry<K, V>> entries;
+
+		/** Whether the map was modified since the last snapshot */
+		private boolean modified = true;
+
+		HeapBroadcastState(Map<K, V> map) {
+			this.map = map;
+			this.entries = Collections.unmodifiableMap(map).entrySet();
+		}
+
+		@Override
+		public V get(K key) {
+			return map.get(key);
+		}
+
+		@Override
+		public boolean contains(K key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		public Iterable<Map.Entry<K, V>> entries() {
+			return entries;
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public void put(K key, V value) {
+			map.put(key, value);
+			modified = true;
+		}
+
+		@Override
+		public void remove(K key) {
+			map.remove(key);
+			modified = true;
+		}
+
+		@Override
+		public void clear() {
+			map.clear();
+			modified = true;
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.apache.flink.api.common.functions.FoldFunction;
 import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
@@ -37,8 +38,11 @@ import org.apache.flink.streaming.api.datastream.KeyedStream;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.datastream.SplitStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.co.BroadcastCoFlatMapFunction;
+import org.apache.flink.streaming.api.functions.co.BroadcastState;
 import org.apache.flink.streaming.api.functions.co.CoFlatMapFunction;
 import org.apache.flink.streaming.api.functions.co.CoMapFunction;
+import org.apache.flink.streaming.api.functions.co.ReadOnlyBroadcastState;
 import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.functions.windowing.AllWindowFunction;
 import org.apache.flink.streaming.api.graph.StreamEdge;
@@ -648,6 +652,38 @@ public class DataStreamTest extends StreamingMultipleProgramsTestBase {
 		}
 	}
 	
+	/**
+	 * Tests that the second input of a CoFlatMap with broadcast state is broadcast and that
+	 * the output type is extracted from the function.
+	 */
+	@Test
+	public void testBroadcastStateFlatMap() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		DataStream<Long> src1 = env.generateSequence(0, 0);
+		DataStream<String> src2 = env.fromElements("rule");
+
+		BroadcastCoFlatMapFunction<Long, String, String, Long, String> function =
+				new BroadcastCoFlatMapFunction<Long, String, String, Long, String>() {
+					@Override
+					public void flatMap1(Long value, ReadOnlyBroadcastState<String, Long> state, Collector<String> out) {}
+
+					@Override
+					public void flatMap2(String value, BroadcastState<String, Long> state, Collector<String> out) {}
+				};
+
+		DataStream<String> result = src1.connect(src2).flatMapWithBroadcastState(
+				function, BasicTypeInfo.STRING_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO);
+		result.addSink(new NoOpSink<String>());
+
+		assertEquals(BasicTypeInfo.STRING_TYPE_INFO, result.getType());
+		assertEquals(function, getFunctionForDataStream(result));
+
+		StreamGraph streamGraph = env.getStreamGraph();
+		assertTrue(streamGraph.getStreamEdges(src1.getId(), result.getId()).get(0).getPartitioner() instanceof ForwardPartitioner);
+		assertTrue(streamGraph.getStreamEdges(src2.getId(), result.getId()).get(0).getPartitioner() instanceof BroadcastPartitioner);
+	}
+
 	@Test
 	public void sinkKeyTest() {
 		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
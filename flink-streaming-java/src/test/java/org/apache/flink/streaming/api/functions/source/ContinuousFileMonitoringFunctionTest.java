@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.java.io.TextInputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.functions.ListSourceContext;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ContinuousFileMonitoringFunction}.
+ */
+public class ContinuousFileMonitoringFunctionTest {
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testForwardSplitsOrderedByModificationTime() throws Exception {
+		File dir = tempFolder.newFolder();
+		File second = createFile(dir, "second", 2000, 20000L);
+		File first = createFile(dir, "first", 2000, 10000L);
+		createFile(dir, "_in-progress", 2000, 30000L);
+		createFile(dir, ".hidden", 2000, 30000L);
+
+		List<FileInputSplit> splits = runOnce(dir, null);
+
+		assertTrue(splits.size() >= 2);
+		Set<String> filesSeen = new HashSet<>();
+		long lastStart = -1;
+		String lastFile = null;
+		for (FileInputSplit split : splits) {
+			String file = split.getPath().getName();
+			if (!file.equals(lastFile)) {
+				// all splits of a file are forwarded together
+				assertTrue(filesSeen.add(file));
+				lastStart = -1;
+			}
+			assertTrue(split.getStart() > lastStart);
+			lastStart = split.getStart();
+			lastFile = file;
+		}
+		assertEquals(2, filesSeen.size());
+		assertEquals(first.getName(), splits.get(0).getPath().getName());
+		assertEquals(second.getName(), splits.get(splits.size() - 1).getPath().getName());
+	}
+
+	@Test
+	public void testRestoreForwardsOnlyNewFiles() throws Exception {
+		File dir = tempFolder.newFolder();
+		createFile(dir, "old", 1000, 10000L);
+
+		ContinuousFileMonitoringFunction<String> function = createFunction(dir);
+		function.open(new Configuration());
+		function.run(new ListSourceContext<>(new ArrayList<FileInputSplit>()));
+		ContinuousFileMonitoringFunction.MonitoringState state = function.snapshotState(1L, 1L);
+		assertEquals(10000L, state.modificationTime);
+
+		File newFile = createFile(dir, "new", 1000, 20000L);
+
+		List<FileInputSplit> splits = runOnce(dir, state);
+		assertTrue(splits.size() > 0);
+		for (FileInputSplit split : splits) {
+			assertEquals(newFile.getName(), split.getPath().getName());
+		}
+	}
+
+	@Test
+	public void testListOnlyFilesReadByFormat() throws Exception {
+		File dir = tempFolder.newFolder();
+		createFile(dir, "accepted", 1000, 10000L);
+		createFile(dir, "rejected.skip", 1000, 20000L);
+		File nestedDir = new File(dir, "nested");
+		assertTrue(nestedDir.mkdir());
+		createFile(nestedDir, "nested", 1000, 30000L);
+
+		// without nested enumeration, neither the rejected nor the nested file is forwarded
+		ContinuousFileMonitoringFunction<String> function = createSkippingFunction(dir);
+		function.open(new Configuration());
+		List<FileInputSplit> splits = new ArrayList<>();
+		function.run(new ListSourceContext<>(splits));
+
+		assertTrue(splits.size() > 0);
+		for (FileInputSplit split : splits) {
+			assertEquals("accepted", split.getPath().getName());
+		}
+		assertEquals(10000L, function.snapshotState(1L, 1L).modificationTime);
+
+		// with nested enumeration, the nested file is forwarded as well
+		Configuration parameters = new Configuration();
+		parameters.setBoolean(FileInputFormat.ENUMERATE_NESTED_FILES_FLAG, true);
+		function = createSkippingFunction(dir);
+		function.open(parameters);
+		splits.clear();
+		function.run(new ListSourceContext<>(splits));
+
+		Set<String> filesSeen = new HashSet<>();
+		for (FileInputSplit split : splits) {
+			filesSeen.add(split.getPath().getName());
+		}
+		assertEquals(new HashSet<>(Arrays.asList("accepted", "nested")), filesSeen);
+		assertEquals(30000L, function.snapshotState(1L, 1L).modificationTime);
+	}
+
+	@Test
+	public void testForwardFilesWithSameModificationTime() throws Exception {
+		File dir = tempFolder.newFolder();
+		createFile(dir, "first", 1000, 10000L);
+
+		ContinuousFileMonitoringFunction<String> function = createFunction(dir);
+		function.open(new Configuration());
+		function.run(new ListSourceContext<>(new ArrayList<FileInputSplit>()));
+		ContinuousFileMonitoringFunction.MonitoringState state = function.snapshotState(1L, 1L);
+
+		// a file with the same modification time as the last forwarded file is still new
+		File second = createFile(dir, "second", 1000, 10000L);
+
+		function = createFunction(dir);
+		function.restoreState(state);
+		function.open(new Configuration());
+		List<FileInputSplit> splits = new ArrayList<>();
+		function.run(new ListSourceContext<>(splits));
+
+		assertTrue(splits.size() > 0);
+		for (FileInputSplit split : splits) {
+			assertEquals(second.getName(), split.getPath().getName());
+		}
+
+		// afterwards, neither file is forwarded again
+		state = function.snapshotState(2L, 2L);
+		assertEquals(10000L, state.modificationTime);
+		assertEquals(2, state.filesAtModificationTime.size());
+		assertTrue(runOnce(dir, state).isEmpty());
+	}
+
+	@Test
+	public void testSplitOnlyNewFiles() throws Exception {
+		File dir = tempFolder.newFolder();
+		createFile(dir, "old", 1000, 10000L);
+
+		ContinuousFileMonitoringFunction<String> function = createFunction(dir);
+		function.open(new Configuration());
+		function.run(new ListSourceContext<>(new ArrayList<FileInputSplit>()));
+		ContinuousFileMonitoringFunction.MonitoringState state = function.snapshotState(1L, 1L);
+
+		File newFile = createFile(dir, "new", 1000, 20000L);
+
+		SplitPathsRecordingFormat.SPLIT_PATHS.clear();
+		function = new ContinuousFileMonitoringFunction<>(
+				new SplitPathsRecordingFormat(new Path(dir.toURI())), dir.toURI().toString(),
+				FileProcessingMode.PROCESS_ONCE, 4, -1);
+		function.restoreState(state);
+		function.open(new Configuration());
+
+		List<FileInputSplit> splits = new ArrayList<>();
+		function.run(new ListSourceContext<>(splits));
+
+		// the format only splits the new file, and does not list the monitored directory again
+		assertEquals(1, SplitPathsRecordingFormat.SPLIT_PATHS.size());
+		assertEquals(newFile.getName(), SplitPathsRecordingFormat.SPLIT_PATHS.get(0).getName());
+		assertTrue(splits.size() > 0);
+		for (FileInputSplit split : splits) {
+			assertEquals(newFile.getName(), split.getPath().getName());
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static List<FileInputSplit> runOnce(
+			File dir, ContinuousFileMonitoringFunction.MonitoringState restoredState) throws Exception {
+		ContinuousFileMonitoringFunction<String> function = createFunction(dir);
+		if (restoredState != null) {
+			function.restoreState(restoredState);
+		}
+		function.open(new Configuration());
+
+		List<FileInputSplit> splits = new ArrayList<>();
+		function.run(new ListSourceContext<>(splits));
+		return splits;
+	}
+
+	private static ContinuousFileMonitoringFunction<String> createFunction(File dir) {
+		TextInputFormat format = new TextInputFormat(new Path(dir.toURI()));
+		return new ContinuousFileMonitoringFunction<>(
+				format, dir.toURI().toString(), FileProcessingMode.PROCESS_ONCE, 4, -1);
+	}
+
+	/**
+	 * Creates a function whose input format does not read files ending with ".skip".
+	 */
+	private static ContinuousFileMonitoringFunction<String> createSkippingFunction(File dir) {
+		TextInputFormat format = new TextInputFormat(new Path(dir.toURI())) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean acceptFile(FileStatus fileStatus) {
+				return super.acceptFile(fileStatus) && !fileStatus.getPath().getName().endsWith(".skip");
+			}
+		};
+		return new ContinuousFileMonitoringFunction<>(
+				format, dir.toURI().toString(), FileProcessingMode.PROCESS_ONCE, 4, -1);
+	}
+
+	/**
+	 * Format that records the paths it creates splits for.
+	 */
+	private static class SplitPathsRecordingFormat extends TextInputFormat {
+		private static final long serialVersionUID = 1L;
+
+		static final List<Path> SPLIT_PATHS = Collections.synchronizedList(new ArrayList<Path>());
+
+		SplitPathsRecordingFormat(Path filePath) {
+			super(filePath);
+		}
+
+		@Override
+		public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+			SPLIT_PATHS.add(getFilePath());
+			return super.createInputSplits(minNumSplits);
+		}
+	}
+
+	private static File createFile(File dir, String name, int numLines, long modificationTime) throws IOException {
+		File file = new File(dir, name);
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			for (int i = 0; i < numLines; i++) {
+				out.write(("line " + i + '\n').getBytes("UTF-8"));
+			}
+		}
+		assertTrue(file.setLastModified(modificationTime));
+		return file;
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.io.TextInputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ContinuousFileReaderOperator}.
+ */
+public class ContinuousFileReaderOperatorTest {
+
+	private static final int NUM_LINES = 10000;
+
+	private static final int NUM_SPLITS = 3;
+
+	private static File testFile;
+
+	private static List<String> expectedLines;
+
+	@BeforeClass
+	public static void createTestFile() throws Exception {
+		testFile = File.createTempFile("continuous-file-reader", ".txt");
+		expectedLines = new ArrayList<>(NUM_LINES);
+
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(testFile), "UTF-8")) {
+			for (int i = 0; i < NUM_LINES; i++) {
+				String line = "line " + i;
+				expectedLines.add(line);
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+	}
+
+	@AfterClass
+	public static void deleteTestFile() {
+		if (testFile != null) {
+			testFile.delete();
+		}
+	}
+
+	@Test
+	public void testReadAllSplits() throws Exception {
+		TextInputFormat format = createFormat();
+		OneInputStreamOperatorTestHarness<FileInputSplit, String> harness = createHarness(createOperator(format));
+
+		harness.open();
+		for (FileInputSplit split : format.createInputSplits(NUM_SPLITS)) {
+			harness.processElement(new StreamRecord<>(split));
+		}
+		harness.processWatermark(new Watermark(Long.MAX_VALUE));
+		harness.close();
+
+		List<String> lines = new ArrayList<>();
+		boolean maxWatermarkEmitted = false;
+		for (Object element : harness.getOutput()) {
+			if (element instanceof Watermark) {
+				maxWatermarkEmitted = ((Watermark) element).getTimestamp() == Long.MAX_VALUE;
+			} else {
+				@SuppressWarnings("unchecked")
+				StreamRecord<String> record = (StreamRecord<String>) element;
+				lines.add(record.getValue());
+			}
+		}
+
+		assertEquals(expectedLines, lines);
+		assertTrue(maxWatermarkEmitted);
+	}
+
+	@Test
+	public void testRestoreCheckpointedPosition() throws Exception {
+		testRestore(createFormat(), expectedLines);
+	}
+
+	@Test
+	public void testRestoreWithNonCheckpointableFormat() throws Exception {
+		// the reader has to skip the records that were emitted before the snapshot
+		TextInputFormat textFormat = createFormat();
+		testRestore(new NonCheckpointableFormat(textFormat), expectedLines);
+	}
+
+	@Test
+	public void testRestoreWithNonCheckpointableFormatReturningNull() throws Exception {
+		// the null records are neither emitted nor counted as skipped
+		List<String> expectedNonNullLines = new ArrayList<>();
+		for (String line : expectedLines) {
+			if (!NullReturningFormat.isDropped(line)) {
+				expectedNonNullLines.add(line);
+			}
+		}
+
+		TextInputFormat textFormat = createFormat();
+		testRestore(new NullReturningFormat(textFormat), expectedNonNullLines);
+	}
+
+	private void testRestore(FileInputFormat<String> format, List<String> expected) throws Exception {
+		ContinuousFileReaderOperator<String> operator = createOperator(format);
+		OneInputStreamOperatorTestHarness<FileInputSplit, String> harness = createHarness(operator);
+
+		harness.open();
+		for (FileInputSplit split : format.createInputSplits(NUM_SPLITS)) {
+			harness.processElement(new StreamRecord<>(split));
+		}
+
+		// wait until the reader is somewhere in the middle of the input
+		while (harness.getOutput().size() < expected.size() / 2) {
+			Thread.sleep(1);
+		}
+
+		StreamTaskState snapshot;
+		List<String> linesBeforeSnapshot = new ArrayList<>();
+		synchronized (operator.getContainingTask().getCheckpointLock()) {
+			snapshot = harness.snapshot(1L, 1L);
+			linesBeforeSnapshot.addAll(getLines(harness));
+		}
+		operator.dispose();
+
+		OneInputStreamOperatorTestHarness<FileInputSplit, String> restoredHarness = createHarness(createOperator(format));
+		restoredHarness.setup();
+		restoredHarness.restore(snapshot, 2L);
+		restoredHarness.open();
+		restoredHarness.close();
+
+		List<String> lines = new ArrayList<>(linesBeforeSnapshot);
+		lines.addAll(getLines(restoredHarness));
+		assertEquals(expected, lines);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static TextInputFormat createFormat() {
+		TextInputFormat format = new TextInputFormat(new Path(testFile.toURI()));
+		// small buffers make the reader refill them several times per split
+		format.setBufferSize(512);
+		return format;
+	}
+
+	private static ContinuousFileReaderOperator<String> createOperator(FileInputFormat<String> format) {
+		ContinuousFileReaderOperator<String> operator = new ContinuousFileReaderOperator<>(format);
+		operator.setOutputType(BasicTypeInfo.STRING_TYPE_INFO, new ExecutionConfig());
+		return operator;
+	}
+
+	private static OneInputStreamOperatorTestHarness<FileInputSplit, String> createHarness(
+			ContinuousFileReaderOperator<String> operator) {
+		return new OneInputStreamOperatorTestHarness<>(operator);
+	}
+
+	private static List<String> getLines(OneInputStreamOperatorTestHarness<FileInputSplit, String> harness) {
+		List<String> lines = new ArrayList<>();
+		for (Object element : harness.getOutput()) {
+			if (element instanceof StreamRecord) {
+				@SuppressWarnings("unchecked")
+				StreamRecord<String> record = (StreamRecord<String>) element;
+				lines.add(record.getValue());
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Delegates to a {@link TextInputFormat}, but does not expose its checkpointed position.
+	 */
+	private static class NonCheckpointableFormat extends FileInputFormat<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final TextInputFormat delegate;
+
+		NonCheckpointableFormat(TextInputFormat delegate) {
+			super(delegate.getFilePath());
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void configure(Configuration parameters) {
+			delegate.configure(parameters);
+		}
+
+		@Override
+		public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+			return delegate.createInputSplits(minNumSplits);
+		}
+
+		@Override
+		public void open(FileInputSplit split) throws IOException {
+			delegate.open(split);
+		}
+
+		@Override
+		public boolean reachedEnd() throws IOException {
+			return delegate.reachedEnd();
+		}
+
+		@Override
+		public String nextRecord(String reuse) throws IOException {
+			return delegate.nextRecord(reuse);
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+	}
+
+	/**
+	 * Returns null instead of every third line, like a format that drops invalid records.
+	 */
+	private static final class NullReturningFormat extends NonCheckpointableFormat {
+
+		private static final long serialVersionUID = 1L;
+
+		NullReturningFormat(TextInputFormat delegate) {
+			super(delegate);
+		}
+
+		static boolean isDropped(String line) {
+			return Integer.parseInt(line.substring("line ".length())) % 3 == 0;
+		}
+
+		@Override
+		public String nextRecord(String reuse) throws IOException {
+			String record = super.nextRecord(reuse);
+			return record != null && isDropped(record) ? null : record;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.co;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.streaming.api.functions.co.BroadcastCoFlatMapFunction;
+import org.apache.flink.streaming.api.functions.co.BroadcastState;
+import org.apache.flink.streaming.api.functions.co.ReadOnlyBroadcastState;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tests for {@link CoBroadcastStateFlatMap}. These test that:
+ *
+ * <ul>
+ *     <li>Updates from the second input are visible to the first input</li>
+ *     <li>Watermarks are correctly forwarded</li>
+ *     <li>The broadcast state survives a snapshot and restore</li>
+ * </ul>
+ */
+public class CoBroadcastStateFlatMapTest {
+
+	/**
+	 * Applies a multiplier rule per word, rules are updated by the second input.
+	 */
+	private static class RuleFlatMap extends BroadcastCoFlatMapFunction<String, Tuple2<String, Integer>, String, Integer, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void flatMap1(String value, ReadOnlyBroadcastState<String, Integer> state, Collector<String> out) {
+			Integer factor = state.get(value);
+			if (factor != null) {
+				out.collect(value + ":" + factor);
+			}
+		}
+
+		@Override
+		public void flatMap2(Tuple2<String, Integer> value, BroadcastState<String, Integer> state, Collector<String> out) {
+			if (value.f1 == null || value.f1 == 0) {
+				state.remove(value.f0);
+			} else {
+				state.put(value.f0, value.f1);
+			}
+		}
+	}
+
+	private static CoBroadcastStateFlatMap<String, Tuple2<String, Integer>, String, Integer, String> createOperator() {
+		ExecutionConfig config = new ExecutionConfig();
+		return new CoBroadcastStateFlatMap<>(
+				new RuleFlatMap(),
+				BasicTypeInfo.STRING_TYPE_INFO.createSerializer(config),
+				BasicTypeInfo.INT_TYPE_INFO.createSerializer(config));
+	}
+
+	@Test
+	public void testBroadcastStateUpdates() throws Exception {
+		TwoInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, String> testHarness =
+				new TwoInputStreamOperatorTestHarness<>(createOperator());
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		testHarness.processElement1(new StreamRecord<>("a", 1));
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 2), 2));
+		testHarness.processElement1(new StreamRecord<>("a", 3));
+		testHarness.processElement1(new StreamRecord<>("b", 4));
+		testHarness.processWatermark1(new Watermark(4));
+		testHarness.processWatermark2(new Watermark(5));
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 0), 6));
+		testHarness.processElement1(new StreamRecord<>("a", 7));
+
+		expectedOutput.add(new StreamRecord<>("a:2", 3));
+		expectedOutput.add(new Watermark(4));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.close();
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		TwoInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, String> testHarness =
+				new TwoInputStreamOperatorTestHarness<>(createOperator());
+
+		testHarness.open();
+
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 2), 1));
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("b", 3), 2));
+
+		// the second snapshot reuses the bytes of the first one
+		testHarness.snapshot(0, 0);
+		StreamTaskState snapshot = testHarness.snapshot(1, 0);
+
+		testHarness.close();
+
+		testHarness = new TwoInputStreamOperatorTestHarness<>(createOperator());
+		testHarness.restore(snapshot, 10);
+		testHarness.open();
+
+		testHarness.processElement1(new StreamRecord<>("a", 3));
+		testHarness.processElement1(new StreamRecord<>("b", 4));
+		testHarness.processElement1(new StreamRecord<>("c", 5));
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+		expectedOutput.add(new StreamRecord<>("a:2", 3));
+		expectedOutput.add(new StreamRecord<>("b:3", 4));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.close();
+	}
+}